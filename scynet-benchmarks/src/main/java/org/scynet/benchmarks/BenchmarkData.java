@@ -0,0 +1,74 @@
+package org.scynet.benchmarks;
+
+import org.scynet.core.CrossFeedingEngine;
+import org.scynet.core.ExchangeGraph;
+
+import java.io.File;
+
+/**
+ * Locates the community models and flux files of the benchmarks. The directory is taken from the system property
+ * scynet.data and defaults to data/toy.
+ */
+public class BenchmarkData {
+
+    /**
+     * Model and flux file pairs of the toy data, separated by "|"
+     */
+    public static final String KOCH_FBA = "koch_com_model.xml|koch_com_model_fba.csv";
+    public static final String KOCH_FVA = "koch_com_model.xml|koch_com_model_fva.csv";
+    public static final String KOCH_9SP_FBA = "koch_com_model_9sp.xml|koch_com_model_fba_9sp.csv";
+    public static final String KOCH_9SP_FVA = "koch_com_model_9sp.xml|koch_com_model_fva_9sp.csv";
+    public static final String RENAMED_FBA = "koch_com_model_renamed_medium_comp.xml|koch_com_model_renamed_medium_comp_fba.csv";
+    public static final String RENAMED_FVA = "koch_com_model_renamed_medium_comp.xml|koch_com_model_renamed_medium_comp_fva.csv";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @return the file in the data directory
+     */
+    public static File file(String name) {
+        File file = new File(System.getProperty("scynet.data", "data/toy"), name);
+        if (!file.isFile()) {
+            throw new IllegalStateException("Benchmark data " + file.getAbsolutePath() + " not found, set -Dscynet.data.");
+        }
+        return file;
+    }
+
+    /**
+     * @return the model file of a "model|flux" pair
+     */
+    public static File modelFile(String pair) {
+        return file(pair.substring(0, pair.indexOf('|')));
+    }
+
+    /**
+     * @return the flux file of a "model|flux" pair
+     */
+    public static File fluxFile(String pair) {
+        return file(pair.substring(pair.indexOf('|') + 1));
+    }
+
+    /**
+     * Copies a graph with the cross-fed attribute of its metabolites set from a classification, as the Cytoscape app
+     * reads it back from the node table.
+     */
+    public static ExchangeGraph withCrossFed(ExchangeGraph graph, CrossFeedingEngine engine) {
+        ExchangeGraph.Builder builder = new ExchangeGraph.Builder();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            builder.addNode(graph.getNodeName(node), graph.isMember(node) ? ExchangeGraph.MEMBER : ExchangeGraph.METABOLITE, graph.getNodeId(node));
+            if (!graph.isMember(node)) {
+                builder.setCrossFed(node, engine.isCrossFed(node));
+            }
+        }
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            builder.addEdge(graph.getEdgeSource(edge), graph.getEdgeTarget(edge), graph.getEdgeName(edge),
+                    boxed(graph.getFlux(edge)), boxed(graph.getMinFlux(edge)), boxed(graph.getMaxFlux(edge)), graph.getEdgeId(edge));
+        }
+        return builder.build();
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
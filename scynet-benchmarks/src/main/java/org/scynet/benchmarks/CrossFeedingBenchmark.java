@@ -0,0 +1,50 @@
+package org.scynet.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scynet.core.CommunitySimplifier;
+import org.scynet.core.CrossFeedingEngine;
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.FluxFile;
+import org.scynet.core.SbmlReader;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-feeding classification of the exchange metabolites of a contextualized network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrossFeedingBenchmark {
+
+    @Param({BenchmarkData.KOCH_FBA, BenchmarkData.KOCH_FVA, BenchmarkData.KOCH_9SP_FBA, BenchmarkData.KOCH_9SP_FVA,
+            BenchmarkData.RENAMED_FBA, BenchmarkData.RENAMED_FVA})
+    public String data;
+
+    private ExchangeGraph graph;
+
+    @Setup
+    public void setUp() throws IOException {
+        graph = CommunitySimplifier.simplify(SbmlReader.read(BenchmarkData.modelFile(data)),
+                FluxFile.read(BenchmarkData.fluxFile(data))).getGraph();
+    }
+
+    @Benchmark
+    public CrossFeedingEngine classify() {
+        return CrossFeedingEngine.compute(graph);
+    }
+}
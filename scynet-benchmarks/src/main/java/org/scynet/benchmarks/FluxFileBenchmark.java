@@ -0,0 +1,47 @@
+package org.scynet.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scynet.core.FluxFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of every FBA and FVA flux file of the toy data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FluxFileBenchmark {
+
+    @Param({"koch_com_model_fba.csv", "koch_com_model_fva.csv", "koch_com_model_fba_9sp.csv", "koch_com_model_fva_9sp.csv",
+            "agora_gut_com_model_1sp_fba.csv", "agora_gut_com_model_1sp_fva.csv", "agora_gut_com_model_3sp_fba.csv",
+            "agora_gut_com_model_3sp_fva.csv", "henson_com_model_4sp_fba.csv", "henson_com_model_4sp_fva.csv"})
+    public String fluxFile;
+
+    private File file;
+
+    @Setup
+    public void setUp() {
+        file = BenchmarkData.file(fluxFile);
+    }
+
+    @Benchmark
+    public FluxFile parse() throws IOException {
+        return FluxFile.read(file);
+    }
+}
@@ -0,0 +1,72 @@
+package org.scynet.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scynet.core.CommunitySimplifier;
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.FilterEngine;
+import org.scynet.core.FluxFile;
+import org.scynet.core.LayoutResult;
+import org.scynet.core.LayoutSnapshot;
+import org.scynet.core.RingLayout;
+import org.scynet.core.SbmlReader;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ScyNet layout of the whole simplified network: taking the snapshot of the visible nodes, computing the rings
+ * from scratch and updating the previous layout after the zero flux edges were hidden.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutBenchmark {
+
+    @Param({BenchmarkData.KOCH_FBA, BenchmarkData.KOCH_FVA, BenchmarkData.KOCH_9SP_FBA, BenchmarkData.KOCH_9SP_FVA,
+            BenchmarkData.RENAMED_FBA, BenchmarkData.RENAMED_FVA})
+    public String data;
+
+    private ExchangeGraph graph;
+    private LayoutSnapshot snapshot;
+    private LayoutResult layout;
+    private LayoutSnapshot withoutZeroFlux;
+
+    @Setup
+    public void setUp() throws IOException {
+        graph = CommunitySimplifier.simplify(SbmlReader.read(BenchmarkData.modelFile(data)),
+                FluxFile.read(BenchmarkData.fluxFile(data))).getGraph();
+        snapshot = LayoutSnapshot.of(graph, null);
+        layout = RingLayout.compute(snapshot);
+        FilterEngine filter = new FilterEngine(graph);
+        filter.setDirectionClasses(FilterEngine.ALL_DIRECTIONS & ~(1 << FilterEngine.ZERO_FLUX));
+        withoutZeroFlux = LayoutSnapshot.of(graph, filter.getEdgeMask());
+    }
+
+    @Benchmark
+    public LayoutSnapshot snapshot() {
+        return LayoutSnapshot.of(graph, null);
+    }
+
+    @Benchmark
+    public LayoutResult compute() {
+        return RingLayout.compute(snapshot);
+    }
+
+    @Benchmark
+    public LayoutResult update() {
+        return RingLayout.update(layout, withoutZeroFlux);
+    }
+}
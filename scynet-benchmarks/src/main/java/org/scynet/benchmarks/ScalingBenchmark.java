@@ -0,0 +1,88 @@
+package org.scynet.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scynet.core.CommunitySimplifier;
+import org.scynet.core.CrossFeedingEngine;
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.FilterEngine;
+import org.scynet.core.FluxFile;
+import org.scynet.core.LayoutResult;
+import org.scynet.core.LayoutSnapshot;
+import org.scynet.core.MetabolicModel;
+import org.scynet.core.RingLayout;
+import org.scynet.core.SbmlReader;
+import org.scynet.core.SimplifiedCommunity;
+import org.scynet.core.SyntheticCommunityGenerator;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every ScyNet phase over synthetic communities of growing size, generated from koch_com_model.xml and its FVA flux,
+ * to show where a phase stops scaling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalingBenchmark {
+
+    private static final int WITHOUT_ZERO_FLUX = FilterEngine.ALL_DIRECTIONS & ~(1 << FilterEngine.ZERO_FLUX);
+
+    @Param({"10", "50", "100", "200"})
+    public int members;
+
+    private MetabolicModel model;
+    private FluxFile fluxFile;
+    private ExchangeGraph graph;
+    private LayoutSnapshot snapshot;
+    private FilterEngine filter;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticCommunityGenerator.SyntheticCommunity community = new SyntheticCommunityGenerator(
+                SbmlReader.read(BenchmarkData.file("koch_com_model.xml")), null,
+                FluxFile.read(BenchmarkData.file("koch_com_model_fva.csv"))).generate(members);
+        model = community.getModel();
+        fluxFile = community.getFva();
+        graph = CommunitySimplifier.simplify(model, fluxFile).getGraph();
+        snapshot = LayoutSnapshot.of(graph, null);
+        filter = new FilterEngine(BenchmarkData.withCrossFed(graph, CrossFeedingEngine.compute(graph)));
+    }
+
+    @Benchmark
+    public SimplifiedCommunity simplify() {
+        return CommunitySimplifier.simplify(model, fluxFile);
+    }
+
+    @Benchmark
+    public CrossFeedingEngine classifyCrossFeeding() {
+        return CrossFeedingEngine.compute(graph);
+    }
+
+    @Benchmark
+    public LayoutResult computeLayout() {
+        return RingLayout.compute(snapshot);
+    }
+
+    @Benchmark
+    public BitSet toggleZeroFlux() {
+        filter.setDirectionClasses(WITHOUT_ZERO_FLUX);
+        filter.getEdgeMask();
+        filter.setDirectionClasses(FilterEngine.ALL_DIRECTIONS);
+        return filter.getEdgeMask();
+    }
+}
@@ -0,0 +1,24 @@
+package org.scynet.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all ScyNet benchmarks with the GC profiler, which reports the allocation rate of every benchmark next to its
+ * time. An optional argument restricts the run to benchmarks matching a regular expression.
+ */
+public class ScynetBenchmarks {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ScynetBenchmarks.class.getPackage().getName() + ".*";
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Dscynet.data=" + System.getProperty("scynet.data", "data/toy"))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,70 @@
+package org.scynet.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.scynet.core.CommunitySimplifier;
+import org.scynet.core.FluxFile;
+import org.scynet.core.MetabolicModel;
+import org.scynet.core.SbmlReader;
+import org.scynet.core.SimplifiedCommunity;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The steps of the network simplification: reading the SBML model, classifying its species into organisms (node
+ * classification) and building the simplified network with flux (edge generation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimplificationBenchmark {
+
+    @Param({BenchmarkData.KOCH_FBA, BenchmarkData.KOCH_FVA, BenchmarkData.KOCH_9SP_FBA, BenchmarkData.KOCH_9SP_FVA,
+            BenchmarkData.RENAMED_FBA, BenchmarkData.RENAMED_FVA})
+    public String data;
+
+    private File modelFile;
+    private MetabolicModel model;
+    private FluxFile fluxFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        modelFile = BenchmarkData.modelFile(data);
+        model = SbmlReader.read(modelFile);
+        fluxFile = FluxFile.read(BenchmarkData.fluxFile(data));
+    }
+
+    @Benchmark
+    public MetabolicModel readModel() throws IOException {
+        return SbmlReader.read(modelFile);
+    }
+
+    @Benchmark
+    public void classifyNodes(Blackhole blackhole) {
+        String shared = model.getSharedCompartment();
+        for (int species = 0; species < model.getSpeciesCount(); species++) {
+            blackhole.consume(CommunitySimplifier.getPutativeOrganism(model.getSpeciesSbmlId(species),
+                    model.getSpeciesCompartment(species), shared));
+        }
+    }
+
+    @Benchmark
+    public SimplifiedCommunity generateEdges() {
+        return CommunitySimplifier.simplify(model, fluxFile);
+    }
+}
@@ -0,0 +1,75 @@
+package org.scynet.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scynet.core.CommunitySimplifier;
+import org.scynet.core.CrossFeedingEngine;
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.FilterEngine;
+import org.scynet.core.FluxFile;
+import org.scynet.core.SbmlReader;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The toggles of the ScyNet panel on the FilterEngine: every benchmark switches a toggle on and off again and reads
+ * the resulting edge mask, as the VisibilityModel does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToggleBenchmark {
+
+    private static final int WITHOUT_ZERO_FLUX = FilterEngine.ALL_DIRECTIONS & ~(1 << FilterEngine.ZERO_FLUX);
+
+    @Param({BenchmarkData.KOCH_FBA, BenchmarkData.KOCH_FVA, BenchmarkData.KOCH_9SP_FBA, BenchmarkData.KOCH_9SP_FVA,
+            BenchmarkData.RENAMED_FBA, BenchmarkData.RENAMED_FVA})
+    public String data;
+
+    private FilterEngine filter;
+
+    @Setup
+    public void setUp() throws IOException {
+        ExchangeGraph graph = CommunitySimplifier.simplify(SbmlReader.read(BenchmarkData.modelFile(data)),
+                FluxFile.read(BenchmarkData.fluxFile(data))).getGraph();
+        filter = new FilterEngine(BenchmarkData.withCrossFed(graph, CrossFeedingEngine.compute(graph)));
+    }
+
+    @Benchmark
+    public BitSet toggleZeroFlux() {
+        filter.setDirectionClasses(WITHOUT_ZERO_FLUX);
+        filter.getEdgeMask();
+        filter.setDirectionClasses(FilterEngine.ALL_DIRECTIONS);
+        return filter.getEdgeMask();
+    }
+
+    @Benchmark
+    public BitSet toggleCrossFedOnly() {
+        filter.setCrossFedOnly(true);
+        filter.getNodeMask();
+        filter.setCrossFedOnly(false);
+        return filter.getNodeMask();
+    }
+
+    @Benchmark
+    public BitSet toggleFluxThreshold() {
+        filter.setFluxThreshold(filter.getMaxAbsoluteFlux() / 2);
+        filter.getEdgeMask();
+        filter.setFluxThreshold(0.0d);
+        return filter.getEdgeMask();
+    }
+}
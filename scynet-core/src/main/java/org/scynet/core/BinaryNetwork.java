@@ -0,0 +1,360 @@
+package org.scynet.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A simplified network with its fluxes and node coordinates in the compact binary ScyNet format (.scynet), which
+ * reloads a saved network without simplifying its SBML model again.
+ * <p>
+ * The file starts with the magic number "SCYN" and a format version, followed by a string table, the nodes and the
+ * edges. Every distinct string is stored once and referenced by its index, and counts and indices are variable-length
+ * integers, so a node takes a few bytes plus its coordinates and an edge a few bytes plus its fluxes. Reading is a
+ * single sequential pass straight into an ExchangeGraph, whose node and edge ids are the ordinals in the file.
+ */
+public class BinaryNetwork {
+
+    public static final String EXTENSION = ".scynet";
+
+    private static final int MAGIC = 0x5343594E;
+    private static final int VERSION = 1;
+
+    private static final int NODE_MEMBER = 1;
+    private static final int NODE_CROSS_FED = 2;
+    private static final int NODE_POSITION = 4;
+    private static final int EDGE_FLUX = 1;
+    private static final int EDGE_FLUX_RANGE = 2;
+
+    /**
+     * The smallest number of bytes a string (its length), node (flags and two string indices) and edge (two node
+     * indices, two string indices and flags) take in the file
+     */
+    private static final int MIN_STRING_BYTES = 1;
+    private static final int MIN_NODE_BYTES = 3;
+    private static final int MIN_EDGE_BYTES = 5;
+
+    private final String name;
+    private final ExchangeGraph graph;
+    private final String[] nodeNames;
+    private final String[] edgeSharedNames;
+    private final double[] x;
+    private final double[] y;
+
+    /**
+     * @param name the name of the network
+     * @param graph the network; its node names are the shared names of the nodes
+     * @param nodeNames the names of the nodes by ordinal (the "name" column)
+     * @param edgeSharedNames the shared names of the edges by ordinal, the names of their reactions
+     * @param x the x coordinates by node ordinal, NaN for nodes without coordinates
+     * @param y the y coordinates by node ordinal
+     */
+    public BinaryNetwork(String name, ExchangeGraph graph, String[] nodeNames, String[] edgeSharedNames, double[] x, double[] y) {
+        this.name = name;
+        this.graph = graph;
+        this.nodeNames = nodeNames;
+        this.edgeSharedNames = edgeSharedNames;
+        this.x = x;
+        this.y = y;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ExchangeGraph getGraph() {
+        return graph;
+    }
+
+    public String getNodeName(int node) {
+        return nodeNames[node];
+    }
+
+    public String getEdgeSharedName(int edge) {
+        return edgeSharedNames[edge];
+    }
+
+    /**
+     * @return the x coordinate of a node, NaN if it has none
+     */
+    public double getX(int node) {
+        return x[node];
+    }
+
+    public double getY(int node) {
+        return y[node];
+    }
+
+    /**
+     * @return whether any edge has a flux range, i.e. the network was contextualized with FVA data
+     */
+    public boolean hasFluxRanges() {
+        return graph.hasFluxRanges();
+    }
+
+    public void write(File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            write(out);
+        }
+    }
+
+    /**
+     * Writes the network. The stream is flushed, not closed.
+     */
+    public void write(OutputStream stream) throws IOException {
+        HashMap<String, Integer> indices = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            intern(nodeNames[node], indices, strings);
+            intern(graph.getNodeName(node), indices, strings);
+        }
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            intern(graph.getEdgeName(edge), indices, strings);
+            intern(edgeSharedNames[edge], indices, strings);
+        }
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        writeString(out, name);
+        writeVarInt(out, strings.size());
+        for (String string : strings) {
+            writeString(out, string);
+        }
+
+        writeVarInt(out, graph.getNodeCount());
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            boolean position = !Double.isNaN(x[node]) && !Double.isNaN(y[node]);
+            out.writeByte((graph.isMember(node) ? NODE_MEMBER : 0) | (graph.isCrossFed(node) ? NODE_CROSS_FED : 0) | (position ? NODE_POSITION : 0));
+            writeVarInt(out, index(nodeNames[node], indices));
+            writeVarInt(out, index(graph.getNodeName(node), indices));
+            if (position) {
+                out.writeDouble(x[node]);
+                out.writeDouble(y[node]);
+            }
+        }
+
+        writeVarInt(out, graph.getEdgeCount());
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            boolean flux = !Double.isNaN(graph.getFlux(edge));
+            boolean range = graph.hasFluxRange(edge);
+            writeVarInt(out, graph.getEdgeSource(edge));
+            writeVarInt(out, graph.getEdgeTarget(edge));
+            writeVarInt(out, index(graph.getEdgeName(edge), indices));
+            writeVarInt(out, index(edgeSharedNames[edge], indices));
+            out.writeByte((flux ? EDGE_FLUX : 0) | (range ? EDGE_FLUX_RANGE : 0));
+            if (flux) {
+                out.writeDouble(graph.getFlux(edge));
+            }
+            if (range) {
+                out.writeDouble(graph.getMinFlux(edge));
+                out.writeDouble(graph.getMaxFlux(edge));
+            }
+        }
+        out.flush();
+    }
+
+    public static BinaryNetwork read(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return read(in, file.length());
+        }
+    }
+
+    /**
+     * Reads a network written by write. Every count in the stream is checked against the bytes left before anything
+     * is allocated for it, and every index against the table it refers to, so a damaged or foreign file fails with an
+     * IOException rather than running out of memory or reading out of bounds.
+     *
+     * @param length the number of bytes of the network in the stream
+     * @throws IOException if the stream could not be read or is not a valid ScyNet network of a known version
+     */
+    public static BinaryNetwork read(InputStream stream, long length) throws IOException {
+        CountingInputStream counter = new CountingInputStream(stream, length);
+        DataInputStream in = new DataInputStream(counter);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a ScyNet network file.");
+        }
+        int version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported ScyNet network file version " + version + ".");
+        }
+        String name = readString(in, counter);
+        String[] strings = new String[readCount(in, counter, MIN_STRING_BYTES, "strings")];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(in, counter);
+        }
+
+        ExchangeGraph.Builder builder = new ExchangeGraph.Builder();
+        int nodeCount = readCount(in, counter, MIN_NODE_BYTES, "nodes");
+        String[] nodeNames = new String[nodeCount];
+        double[] x = new double[nodeCount];
+        double[] y = new double[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            int flags = in.readByte();
+            nodeNames[node] = string(strings, readVarInt(in));
+            builder.addNode(string(strings, readVarInt(in)), (flags & NODE_MEMBER) != 0 ? ExchangeGraph.MEMBER : ExchangeGraph.METABOLITE, node);
+            if ((flags & NODE_CROSS_FED) != 0) {
+                builder.setCrossFed(node, true);
+            }
+            boolean position = (flags & NODE_POSITION) != 0;
+            x[node] = position ? in.readDouble() : Double.NaN;
+            y[node] = position ? in.readDouble() : Double.NaN;
+        }
+
+        int edgeCount = readCount(in, counter, MIN_EDGE_BYTES, "edges");
+        String[] edgeSharedNames = new String[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int source = readNode(in, nodeCount);
+            int target = readNode(in, nodeCount);
+            String edgeName = string(strings, readVarInt(in));
+            edgeSharedNames[edge] = string(strings, readVarInt(in));
+            int flags = in.readByte();
+            Double flux = (flags & EDGE_FLUX) != 0 ? in.readDouble() : null;
+            Double minFlux = (flags & EDGE_FLUX_RANGE) != 0 ? in.readDouble() : null;
+            Double maxFlux = (flags & EDGE_FLUX_RANGE) != 0 ? in.readDouble() : null;
+            builder.addEdge(source, target, edgeName, flux, minFlux, maxFlux, edge);
+        }
+        return new BinaryNetwork(name, builder.build(), nodeNames, edgeSharedNames, x, y);
+    }
+
+    private static void intern(String string, HashMap<String, Integer> indices, List<String> strings) {
+        if (string != null && !indices.containsKey(string)) {
+            indices.put(string, strings.size());
+            strings.add(string);
+        }
+    }
+
+    /**
+     * @return the index of a string in the string table shifted by one, 0 for null
+     */
+    private static int index(String string, HashMap<String, Integer> indices) {
+        return string == null ? 0 : indices.get(string) + 1;
+    }
+
+    private static String string(String[] strings, int index) throws IOException {
+        if (index > strings.length) {
+            throw new IOException("Invalid string index " + index + " in the ScyNet network file.");
+        }
+        return index == 0 ? null : strings[index - 1];
+    }
+
+    /**
+     * Writes a string of any length as UTF-8, unlike DataOutputStream.writeUTF, which is limited to 64 KB.
+     */
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = (string == null ? "" : string).getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in, CountingInputStream counter) throws IOException {
+        byte[] bytes = new byte[readCount(in, counter, 1, "string bytes")];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a non-negative int in 7-bit groups, least significant first, with the high bit marking that more follow.
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads a count of items and checks that the rest of the stream can hold that many items of the given minimum size.
+     */
+    private static int readCount(DataInputStream in, CountingInputStream counter, int minBytes, String items) throws IOException {
+        int count = readVarInt(in);
+        if ((long) count * minBytes > counter.getRemaining()) {
+            throw new IOException("The ScyNet network file is truncated or invalid: " + count + " " + items
+                    + " do not fit in the remaining " + counter.getRemaining() + " bytes.");
+        }
+        return count;
+    }
+
+    private static int readNode(DataInputStream in, int nodeCount) throws IOException {
+        int node = readVarInt(in);
+        if (node >= nodeCount) {
+            throw new IOException("Invalid node index " + node + " in the ScyNet network file with " + nodeCount + " nodes.");
+        }
+        return node;
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IOException("Invalid count or index in the ScyNet network file.");
+    }
+
+    /**
+     * Counts the bytes read from a stream of known length, to check the counts in the file against the bytes left.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        CountingInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        long getRemaining() {
+            return remaining;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package org.scynet.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Projects the bipartite member - metabolite graph of a ScyNet network onto a weighted member - member graph.
+ * <p>
+ * The secretion of metabolite k by member p is written as S[k][p], the uptake by member c as U[k][c]. The
+ * flux member p provides to member c is the secreted flux shared proportionally between all consumers, limited by
+ * the total uptake:
+ * <pre>
+ *     W[p][c] = sum over k of S[k][p] * U[k][c] / max(sum of S[k], sum of U[k])
+ * </pre>
+ * which is the sparse product W = S<sup>T</sup> D U with D the diagonal normalisation. Summed over all consumers,
+ * every metabolite contributes min(total secretion, total uptake), i.e. exactly the cross-fed flux. The product is
+ * computed row by row (Gustavson) over compressed sparse rows, so the cost is linear in the number of member pairs
+ * sharing a metabolite.
+ */
+public class CommunityOverview {
+
+    /**
+     * Member node ordinals of the ExchangeGraph, one per row/column of the projection
+     */
+    private final int[] members;
+    /**
+     * Producing member of each overview edge, as index into members
+     */
+    private final int[] producers;
+    /**
+     * Consuming member of each overview edge, as index into members
+     */
+    private final int[] consumers;
+    /**
+     * Cross-fed flux of each overview edge
+     */
+    private final double[] weights;
+    /**
+     * Metabolite node ordinals contributing to each overview edge
+     */
+    private final int[][] metabolites;
+    /**
+     * Flux contributed by each metabolite of an overview edge, parallel to metabolites
+     */
+    private final double[][] metaboliteFluxes;
+
+    private CommunityOverview(int[] members, int[] producers, int[] consumers, double[] weights, int[][] metabolites, double[][] metaboliteFluxes) {
+        this.members = members;
+        this.producers = producers;
+        this.consumers = consumers;
+        this.weights = weights;
+        this.metabolites = metabolites;
+        this.metaboliteFluxes = metaboliteFluxes;
+    }
+
+    /**
+     * Computes the member projection of a ScyNet network, using flux ranges if any edge has one.
+     */
+    public static CommunityOverview project(ExchangeGraph graph) {
+        return project(graph, graph.hasFluxRanges());
+    }
+
+    /**
+     * Computes the member projection of a ScyNet network. Edges without flux values do not contribute.
+     *
+     * @param graph the compact copy of a ScyNet network
+     * @param ranges whether to use the flux ranges (FVA) or the single flux values (FBA) of the edges
+     * @return the weighted member - member graph
+     */
+    public static CommunityOverview project(ExchangeGraph graph, boolean ranges) {
+        int nodeCount = graph.getNodeCount();
+        int edgeCount = graph.getEdgeCount();
+
+        // Compact member and metabolite indices
+        int[] memberIndex = new int[nodeCount];
+        int[] metaboliteIndex = new int[nodeCount];
+        int numMembers = 0;
+        int numMetabolites = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (graph.isMember(node)) {
+                memberIndex[node] = numMembers++;
+                metaboliteIndex[node] = -1;
+            } else {
+                metaboliteIndex[node] = numMetabolites++;
+                memberIndex[node] = -1;
+            }
+        }
+        int[] members = new int[numMembers];
+        for (int node = 0; node < nodeCount; node++) {
+            if (memberIndex[node] >= 0) {
+                members[memberIndex[node]] = node;
+            }
+        }
+
+        // Secretion (member rows) and uptake (metabolite rows) entries, and the totals per metabolite
+        double[] totalSecretion = new double[numMetabolites];
+        double[] totalUptake = new double[numMetabolites];
+        int[] secretionCounts = new int[numMembers + 1];
+        int[] uptakeCounts = new int[numMetabolites + 1];
+        double[] amounts = new double[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int member = graph.getMemberOfEdge(edge);
+            double flux = graph.getSignedFlux(edge, ranges);
+            if (member < 0 || Double.isNaN(flux) || flux == 0.0d) {
+                continue;
+            }
+            double secreted = flux * graph.getMemberDirection(edge);
+            int metabolite = metaboliteIndex[graph.getMetaboliteOfEdge(edge)];
+            amounts[edge] = secreted;
+            if (secreted > 0) {
+                totalSecretion[metabolite] += secreted;
+                secretionCounts[memberIndex[member] + 1]++;
+            } else {
+                totalUptake[metabolite] -= secreted;
+                uptakeCounts[metabolite + 1]++;
+            }
+        }
+        for (int i = 0; i < numMembers; i++) {
+            secretionCounts[i + 1] += secretionCounts[i];
+        }
+        for (int i = 0; i < numMetabolites; i++) {
+            uptakeCounts[i + 1] += uptakeCounts[i];
+        }
+
+        // A = S^T D in CSR (row: producing member, column: metabolite), B = U in CSR (row: metabolite, column: consumer)
+        int[] aColumns = new int[secretionCounts[numMembers]];
+        double[] aValues = new double[secretionCounts[numMembers]];
+        int[] bColumns = new int[uptakeCounts[numMetabolites]];
+        double[] bValues = new double[uptakeCounts[numMetabolites]];
+        int[] aFill = Arrays.copyOf(secretionCounts, numMembers);
+        int[] bFill = Arrays.copyOf(uptakeCounts, numMetabolites);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            double secreted = amounts[edge];
+            if (secreted == 0.0d) {
+                continue;
+            }
+            int member = memberIndex[graph.getMemberOfEdge(edge)];
+            int metabolite = metaboliteIndex[graph.getMetaboliteOfEdge(edge)];
+            if (secreted > 0) {
+                int position = aFill[member]++;
+                aColumns[position] = metabolite;
+                aValues[position] = secreted / Math.max(totalSecretion[metabolite], totalUptake[metabolite]);
+            } else {
+                int position = bFill[metabolite]++;
+                bColumns[position] = member;
+                bValues[position] = -secreted;
+            }
+        }
+        int[] metaboliteNodes = new int[numMetabolites];
+        for (int node = 0; node < nodeCount; node++) {
+            if (metaboliteIndex[node] >= 0) {
+                metaboliteNodes[metaboliteIndex[node]] = node;
+            }
+        }
+
+        // Gustavson's row-wise product with a dense accumulator per producing member
+        double[] accumulator = new double[numMembers];
+        int[] touched = new int[numMembers];
+        boolean[] isTouched = new boolean[numMembers];
+        List<List<Integer>> contributors = new ArrayList<>(numMembers);
+        List<List<Double>> contributions = new ArrayList<>(numMembers);
+        for (int i = 0; i < numMembers; i++) {
+            contributors.add(null);
+            contributions.add(null);
+        }
+
+        List<Integer> resultProducers = new ArrayList<>();
+        List<Integer> resultConsumers = new ArrayList<>();
+        List<Double> resultWeights = new ArrayList<>();
+        List<int[]> resultMetabolites = new ArrayList<>();
+        List<double[]> resultFluxes = new ArrayList<>();
+
+        for (int producer = 0; producer < numMembers; producer++) {
+            int numTouched = 0;
+            for (int a = secretionCounts[producer]; a < secretionCounts[producer + 1]; a++) {
+                int metabolite = aColumns[a];
+                for (int b = uptakeCounts[metabolite]; b < uptakeCounts[metabolite + 1]; b++) {
+                    int consumer = bColumns[b];
+                    if (consumer == producer) {
+                        continue;
+                    }
+                    double contribution = aValues[a] * bValues[b];
+                    if (!isTouched[consumer]) {
+                        isTouched[consumer] = true;
+                        touched[numTouched++] = consumer;
+                        contributors.set(consumer, new ArrayList<>());
+                        contributions.set(consumer, new ArrayList<>());
+                    }
+                    accumulator[consumer] += contribution;
+                    contributors.get(consumer).add(metaboliteNodes[metabolite]);
+                    contributions.get(consumer).add(contribution);
+                }
+            }
+            Arrays.sort(touched, 0, numTouched);
+            for (int t = 0; t < numTouched; t++) {
+                int consumer = touched[t];
+                resultProducers.add(producer);
+                resultConsumers.add(consumer);
+                resultWeights.add(accumulator[consumer]);
+                resultMetabolites.add(toIntArray(contributors.get(consumer)));
+                resultFluxes.add(toDoubleArray(contributions.get(consumer)));
+                accumulator[consumer] = 0.0d;
+                isTouched[consumer] = false;
+                contributors.set(consumer, null);
+                contributions.set(consumer, null);
+            }
+        }
+
+        int numEdges = resultWeights.size();
+        int[] producers = new int[numEdges];
+        int[] consumers = new int[numEdges];
+        double[] weights = new double[numEdges];
+        for (int i = 0; i < numEdges; i++) {
+            producers[i] = resultProducers.get(i);
+            consumers[i] = resultConsumers.get(i);
+            weights[i] = resultWeights.get(i);
+        }
+        return new CommunityOverview(members, producers, consumers, weights,
+                resultMetabolites.toArray(new int[0][]), resultFluxes.toArray(new double[0][]));
+    }
+
+    private static int[] toIntArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    private static double[] toDoubleArray(List<Double> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * @return the number of community members
+     */
+    public int getMemberCount() {
+        return members.length;
+    }
+
+    /**
+     * @param index a member index between 0 and getMemberCount()
+     * @return the node ordinal of the member in the ExchangeGraph
+     */
+    public int getMemberNode(int index) {
+        return members[index];
+    }
+
+    /**
+     * @return the number of directed member pairs with cross-fed flux
+     */
+    public int getEdgeCount() {
+        return weights.length;
+    }
+
+    /**
+     * @return the member index of the producing member
+     */
+    public int getProducer(int edge) {
+        return producers[edge];
+    }
+
+    /**
+     * @return the member index of the consuming member
+     */
+    public int getConsumer(int edge) {
+        return consumers[edge];
+    }
+
+    /**
+     * @return the total cross-fed flux from the producer to the consumer
+     */
+    public double getWeight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * @return the node ordinals of the metabolites exchanged between the producer and the consumer
+     */
+    public int[] getMetabolites(int edge) {
+        return metabolites[edge];
+    }
+
+    /**
+     * @return the cross-fed flux of each metabolite returned by getMetabolites(edge)
+     */
+    public double[] getMetaboliteFluxes(int edge) {
+        return metaboliteFluxes[edge];
+    }
+}
@@ -0,0 +1,255 @@
+package org.scynet.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The ScyNet simplification of a community metabolic model. Every internal compartment is replaced by the organism
+ * it belongs to, the species of the shared compartment become exchange metabolite nodes and every reaction with a
+ * species in the shared compartment becomes edges between the organisms and exchange metabolites of its reactants
+ * and products.
+ * <p>
+ * Organisms are derived from the ids: a species M_cpd00027_ecoli_c0 in compartment ecoli_c0 belongs to the organism
+ * ecoli. Species whose id does not start with their compartment's organism are ignored.
+ */
+public class CommunitySimplifier {
+
+    /**
+     * Putative organism of species that belong neither to an organism nor to the shared compartment
+     */
+    public static final String IGNORE = "IGNORE";
+
+    private CommunitySimplifier() {
+    }
+
+    /**
+     * Simplifies a model without flux data.
+     */
+    public static SimplifiedCommunity simplify(MetabolicModel model) {
+        return simplify(model, null);
+    }
+
+    /**
+     * Simplifies a model and sets the flux of the edges from a flux file, the way the ScyNet contextualization does.
+     *
+     * @param model the community metabolic model
+     * @param fluxFile single flux values or flux ranges by reaction id, null for no flux data
+     * @return the simplified network and its translation back to the model
+     */
+    public static SimplifiedCommunity simplify(MetabolicModel model, FluxFile fluxFile) {
+        String shared = model.getSharedCompartment();
+        int speciesCount = model.getSpeciesCount();
+        ScynetEvents.SimplificationPhase event = ScynetEvents.beginSimplificationPhase();
+
+        // Replace the compartments by organisms, keeping the shortest organism name per compartment
+        Set<String> compartments = new HashSet<>();
+        for (int species = 0; species < speciesCount; species++) {
+            compartments.add(model.getSpeciesCompartment(species));
+        }
+        Map<String, String> compartmentOrganisms = new HashMap<>();
+        BitSet ignored = new BitSet(speciesCount);
+        for (int species = 0; species < speciesCount; species++) {
+            String compartment = model.getSpeciesCompartment(species);
+            String organism = getPutativeOrganism(model.getSpeciesSbmlId(species), compartment, shared);
+            if (Objects.equals(organism, IGNORE)) {
+                ignored.set(species);
+                compartments.remove(compartment);
+                continue;
+            }
+            String previous = compartmentOrganisms.get(compartment);
+            if (previous == null || organism.length() < previous.length()) {
+                compartmentOrganisms.put(compartment, organism);
+            }
+        }
+        Set<String> organisms = new TreeSet<>(compartmentOrganisms.values());
+        commit(event, "organisms", model, 0, 0);
+        event = ScynetEvents.beginSimplificationPhase();
+
+        // One metabolite node per shared name in the shared compartment, then one member node per organism
+        ExchangeGraph.Builder builder = new ExchangeGraph.Builder();
+        List<String> sharedNames = new ArrayList<>();
+        HashMap<String, Integer> metaboliteNodes = new HashMap<>();
+        int[] speciesNodes = new int[speciesCount];
+        Arrays.fill(speciesNodes, -1);
+        for (int species = 0; species < speciesCount; species++) {
+            if (ignored.get(species) || !Objects.equals(model.getSpeciesCompartment(species), shared)) {
+                continue;
+            }
+            String sharedName = model.getSpeciesSharedName(species);
+            String name = sharedName == null ? "ERROR" : sharedName;
+            Integer node = metaboliteNodes.get(name);
+            if (node == null) {
+                node = builder.addNode(name, ExchangeGraph.METABOLITE, builder.getNodeCount());
+                metaboliteNodes.put(name, node);
+                sharedNames.add(sharedName);
+            }
+            speciesNodes[species] = node;
+        }
+        HashMap<String, Integer> memberNodes = new HashMap<>();
+        for (String organism : organisms) {
+            memberNodes.put(organism, builder.addNode(organism, ExchangeGraph.MEMBER, builder.getNodeCount()));
+            sharedNames.add(organism);
+        }
+        commit(event, "nodes", model, builder.getNodeCount(), 0);
+        event = ScynetEvents.beginSimplificationPhase();
+
+        // Edges between the nodes of the reactants and products of every exchange reaction. A later reaction between
+        // the same nodes takes over the edge.
+        HashMap<Long, Integer> edgeOrdinals = new HashMap<>();
+        List<int[]> edges = new ArrayList<>();
+        int nodeCount = builder.getNodeCount();
+        for (int reaction = 0; reaction < model.getReactionCount(); reaction++) {
+            if (!isExchangeReaction(model, reaction, compartments)) {
+                continue;
+            }
+            Set<Integer> sourcesVisited = new HashSet<>();
+            Set<Integer> targetsVisited = new HashSet<>();
+            for (int reactant : model.getReactants(reaction)) {
+                if (ignored.get(reactant)) {
+                    continue;
+                }
+                String sourceOrganism = compartmentOrganisms.get(model.getSpeciesCompartment(reactant));
+                int source = Objects.equals(sourceOrganism, shared) ? speciesNodes[reactant] : memberNodes.get(sourceOrganism);
+                if (sourcesVisited.contains(source)) {
+                    continue;
+                }
+                for (int product : model.getProducts(reaction)) {
+                    if (ignored.get(product)) {
+                        continue;
+                    }
+                    String targetOrganism = compartmentOrganisms.get(model.getSpeciesCompartment(product));
+                    int target = Objects.equals(targetOrganism, shared) ? speciesNodes[product] : memberNodes.get(targetOrganism);
+                    if (Objects.equals(sourceOrganism, targetOrganism) || targetsVisited.contains(target)) {
+                        continue;
+                    }
+                    long key = (long) source * nodeCount + target;
+                    Integer edge = edgeOrdinals.get(key);
+                    if (edge == null) {
+                        edgeOrdinals.put(key, edges.size());
+                        edges.add(new int[]{source, target, reaction, reactant, product});
+                    } else {
+                        edges.set(edge, new int[]{source, target, reaction, reactant, product});
+                    }
+                    targetsVisited.add(target);
+                }
+                sourcesVisited.add(source);
+            }
+        }
+
+        commit(event, "edges", model, nodeCount, edges.size());
+        event = ScynetEvents.beginSimplificationPhase();
+
+        int[] edgeReactions = new int[edges.size()];
+        int[] edgeSourceSpecies = new int[edges.size()];
+        int[] edgeTargetSpecies = new int[edges.size()];
+        for (int edge = 0; edge < edges.size(); edge++) {
+            int[] values = edges.get(edge);
+            edgeReactions[edge] = values[2];
+            edgeSourceSpecies[edge] = values[3];
+            edgeTargetSpecies[edge] = values[4];
+            String fluxKey = getFluxKey(model.getReactionSbmlId(values[2]));
+            Double flux = null;
+            Double minFlux = null;
+            Double maxFlux = null;
+            if (fluxFile != null && fluxFile.isFva()) {
+                minFlux = fluxFile.getFlux(fluxKey, true);
+                maxFlux = fluxFile.getFlux(fluxKey, false);
+                if (minFlux != null && maxFlux != null) {
+                    flux = Math.max(Math.abs(minFlux), Math.abs(maxFlux));
+                }
+            } else if (fluxFile != null) {
+                flux = fluxFile.getFlux(fluxKey, false);
+            }
+            builder.addEdge(values[0], values[1], fluxKey, flux, minFlux, maxFlux, edge);
+        }
+        commit(event, "flux", model, nodeCount, edges.size());
+
+        return new SimplifiedCommunity(model, builder.build(), organisms, compartmentOrganisms, ignored, speciesNodes,
+                sharedNames.toArray(new String[0]), edgeReactions, edgeSourceSpecies, edgeTargetSpecies);
+    }
+
+    /**
+     * Ends a simplification phase and commits its event, if a recording enabled it.
+     */
+    private static void commit(ScynetEvents.SimplificationPhase event, String phase, MetabolicModel model, int nodes, int edges) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase;
+            event.species = model.getSpeciesCount();
+            event.reactions = model.getReactionCount();
+            event.nodes = nodes;
+            event.edges = edges;
+            event.commit();
+        }
+    }
+
+    /**
+     * Derives the organism of a species from its id and compartment: the organism is the longest prefix of the
+     * compartment (split at underscores) that follows the metabolite id in the species id.
+     *
+     * @param sbmlId the species id, e.g. M_cpd00027_ecoli_c0
+     * @param compartment the compartment id, e.g. ecoli_c0
+     * @param sharedCompartment the id of the shared exchange compartment
+     * @return the organism, the shared compartment for its species, or IGNORE if the id does not match the compartment
+     */
+    public static String getPutativeOrganism(String sbmlId, String compartment, String sharedCompartment) {
+        if (Objects.equals(compartment, sharedCompartment)) {
+            return sharedCompartment;
+        }
+        String[] idParts = sbmlId.split("_");
+        String[] compParts = compartment.split("_");
+        if (!Objects.equals(idParts[1], compParts[0])) {
+            return IGNORE;
+        }
+        String organism = idParts[1];
+        for (int i = 2; i < idParts.length; i++) {
+            // compartment names must not be the same as organism names and must not by empty -> i-2
+            if ((i - 2) < compParts.length && Objects.equals(idParts[i], compParts[i - 1])) {
+                organism = organism + "_" + idParts[i];
+            } else {
+                break;
+            }
+        }
+        return organism;
+    }
+
+    /**
+     * @return the key of a reaction in flux files, its id without the "R_" prefix
+     */
+    public static String getFluxKey(String reactionSbmlId) {
+        return reactionSbmlId == null ? "" : reactionSbmlId.replaceFirst("^R_", "");
+    }
+
+    /**
+     * A reaction is an exchange reaction if any of its species is in the shared compartment.
+     */
+    private static boolean isExchangeReaction(MetabolicModel model, int reaction, Set<String> compartments) {
+        String shared = model.getSharedCompartment();
+        if (!compartments.contains(shared)) {
+            return false;
+        }
+        return anyInCompartment(model, model.getReactants(reaction), shared)
+                || anyInCompartment(model, model.getProducts(reaction), shared)
+                || anyInCompartment(model, model.getOtherSpecies(reaction), shared);
+    }
+
+    private static boolean anyInCompartment(MetabolicModel model, int[] species, String compartment) {
+        for (int s : species) {
+            if (Objects.equals(model.getSpeciesCompartment(s), compartment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
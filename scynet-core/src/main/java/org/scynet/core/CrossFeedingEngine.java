@@ -0,0 +1,223 @@
+package org.scynet.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Classifies the exchange metabolites of a ScyNet network by cross-feeding in one pass over the edges of each
+ * metabolite, i.e. in time linear in the number of edges.
+ * <p>
+ * The flux of an edge is taken from the point of view of its member: a positive value is secretion (the member
+ * produces the metabolite), a negative value uptake (the member consumes it). For flux ranges (FVA) a member can
+ * produce the metabolite if the upper bound of its secretion is positive and must produce it if the lower bound is
+ * positive, and likewise for consumption. A metabolite is
+ * <ul>
+ *     <li>cross-fed if a member can produce it and a different member can consume it,</li>
+ *     <li>"always" cross-fed if a member must produce it and a different member must consume it,</li>
+ *     <li>"possibly" cross-fed if it is cross-fed but not always,</li>
+ *     <li>"never" cross-fed otherwise.</li>
+ * </ul>
+ * For single flux values (FBA) "can" and "must" coincide, so cross-fed metabolites are always cross-fed. The
+ * cross-fed flux of a metabolite is min(total secretion, total uptake).
+ */
+public class CrossFeedingEngine {
+
+    public static final String ALWAYS = "always";
+    public static final String POSSIBLY = "possibly";
+    public static final String NEVER = "never";
+
+    private final int[] producers;
+    private final int[] consumers;
+    private final double[] crossFedFlux;
+    /**
+     * ALWAYS, POSSIBLY or NEVER per node, null for members
+     */
+    private final String[] classes;
+
+    private CrossFeedingEngine(int nodeCount) {
+        this.producers = new int[nodeCount];
+        this.consumers = new int[nodeCount];
+        this.crossFedFlux = new double[nodeCount];
+        this.classes = new String[nodeCount];
+    }
+
+    /**
+     * Classifies the metabolites by the fluxes stored in the graph, as flux ranges if any edge has one.
+     */
+    public static CrossFeedingEngine compute(ExchangeGraph graph) {
+        return compute(graph, graph.hasFluxRanges());
+    }
+
+    /**
+     * Classifies the metabolites by the fluxes stored in the graph.
+     *
+     * @param ranges whether to use the flux ranges (FVA) or the single flux values (FBA) of the edges
+     */
+    public static CrossFeedingEngine compute(ExchangeGraph graph, boolean ranges) {
+        int edgeCount = graph.getEdgeCount();
+        double[] flux = new double[edgeCount];
+        double[] minFlux = new double[edgeCount];
+        double[] maxFlux = new double[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            flux[edge] = graph.getSignedFlux(edge, ranges);
+            minFlux[edge] = graph.getMinFlux(edge);
+            maxFlux[edge] = graph.getMaxFlux(edge);
+        }
+        return compute(graph, flux, ranges ? minFlux : null, ranges ? maxFlux : null);
+    }
+
+    /**
+     * Classifies the metabolites by the given fluxes, e.g. of one of several conditions.
+     *
+     * @param graph the structure of the network
+     * @param flux the signed flux of every edge in edge direction, NaN if not set
+     * @param minFlux the minimal flux of every edge, NaN or null if there are no flux ranges
+     * @param maxFlux the maximal flux of every edge, NaN or null if there are no flux ranges
+     * @return the classification of all metabolites
+     */
+    public static CrossFeedingEngine compute(ExchangeGraph graph, double[] flux, double[] minFlux, double[] maxFlux) {
+        return compute(graph, flux, minFlux, maxFlux, null);
+    }
+
+    /**
+     * Classifies only some metabolites by the given fluxes, e.g. those next to edges whose flux changed. The other
+     * metabolites are left unclassified, as if they were members.
+     *
+     * @param metabolites the node ordinals of the metabolites to classify, null for all
+     */
+    public static CrossFeedingEngine compute(ExchangeGraph graph, double[] flux, double[] minFlux, double[] maxFlux, BitSet metabolites) {
+        int nodeCount = graph.getNodeCount();
+        CrossFeedingEngine result = new CrossFeedingEngine(nodeCount);
+        // Stamps of the last metabolite a member was counted for, to count every member once per metabolite
+        int[] canProduceStamp = new int[nodeCount];
+        int[] canConsumeStamp = new int[nodeCount];
+        int[] mustProduceStamp = new int[nodeCount];
+        int[] mustConsumeStamp = new int[nodeCount];
+        Arrays.fill(canProduceStamp, -1);
+        Arrays.fill(canConsumeStamp, -1);
+        Arrays.fill(mustProduceStamp, -1);
+        Arrays.fill(mustConsumeStamp, -1);
+
+        for (int node = 0; node < nodeCount; node++) {
+            if (graph.isMember(node) || (metabolites != null && !metabolites.get(node))) {
+                continue;
+            }
+            Side canProduce = new Side();
+            Side canConsume = new Side();
+            Side mustProduce = new Side();
+            Side mustConsume = new Side();
+            double secretion = 0.0d;
+            double uptake = 0.0d;
+            for (int index = 0; index < graph.getDegree(node); index++) {
+                int edge = graph.getAdjacentEdge(node, index);
+                int member = graph.getMemberOfEdge(edge);
+                if (member < 0) {
+                    continue;
+                }
+                int direction = graph.getMemberDirection(edge);
+                double lower;
+                double upper;
+                if (minFlux != null && maxFlux != null && !Double.isNaN(minFlux[edge]) && !Double.isNaN(maxFlux[edge])) {
+                    lower = direction > 0 ? minFlux[edge] : -maxFlux[edge];
+                    upper = direction > 0 ? maxFlux[edge] : -minFlux[edge];
+                } else if (!Double.isNaN(flux[edge])) {
+                    lower = flux[edge] * direction;
+                    upper = lower;
+                } else {
+                    continue;
+                }
+                if (upper > 0) {
+                    canProduce.add(member, canProduceStamp, node);
+                }
+                if (lower < 0) {
+                    canConsume.add(member, canConsumeStamp, node);
+                }
+                if (lower > 0) {
+                    mustProduce.add(member, mustProduceStamp, node);
+                }
+                if (upper < 0) {
+                    mustConsume.add(member, mustConsumeStamp, node);
+                }
+                double secreted = Double.isNaN(flux[edge]) ? 0.0d : flux[edge] * direction;
+                if (secreted > 0) {
+                    secretion += secreted;
+                } else {
+                    uptake -= secreted;
+                }
+            }
+            result.producers[node] = canProduce.count;
+            result.consumers[node] = canConsume.count;
+            result.crossFedFlux[node] = Math.min(secretion, uptake);
+            if (mustProduce.pairsWith(mustConsume)) {
+                result.classes[node] = ALWAYS;
+            } else if (canProduce.pairsWith(canConsume)) {
+                result.classes[node] = POSSIBLY;
+            } else {
+                result.classes[node] = NEVER;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return whether the metabolite is (always or possibly) cross-fed, false for members
+     */
+    public boolean isCrossFed(int node) {
+        return classes[node] != null && classes[node] != NEVER;
+    }
+
+    /**
+     * @return the number of members that (can) produce the metabolite
+     */
+    public int getProducers(int node) {
+        return producers[node];
+    }
+
+    /**
+     * @return the number of members that (can) consume the metabolite
+     */
+    public int getConsumers(int node) {
+        return consumers[node];
+    }
+
+    /**
+     * @return min(total secretion, total uptake) of the metabolite
+     */
+    public double getCrossFedFlux(int node) {
+        return crossFedFlux[node];
+    }
+
+    /**
+     * @return ALWAYS, POSSIBLY or NEVER for metabolites, null for members
+     */
+    public String getClassification(int node) {
+        return classes[node];
+    }
+
+    /**
+     * The distinct members on one side (producing or consuming) of a metabolite. The first member is kept, so that
+     * two sides with one member each can be checked for being the same member.
+     */
+    private static class Side {
+        private int count = 0;
+        private int first = -1;
+
+        void add(int member, int[] stamps, int metabolite) {
+            if (stamps[member] == metabolite) {
+                return;
+            }
+            stamps[member] = metabolite;
+            if (count == 0) {
+                first = member;
+            }
+            count++;
+        }
+
+        /**
+         * @return whether a member of this side and a different member of the other side exist
+         */
+        boolean pairsWith(Side other) {
+            return count > 0 && other.count > 0 && (count > 1 || other.count > 1 || first != other.first);
+        }
+    }
+}
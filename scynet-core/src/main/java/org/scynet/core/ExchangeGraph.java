@@ -0,0 +1,403 @@
+package org.scynet.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * A compact, array based copy of a ScyNet network. It holds the community member and exchange metabolite nodes and
+ * the edges between them, together with their flux values. Nodes and edges are addressed by ordinals, so algorithms
+ * that run over the whole network do not need any CyNetwork or CyTable lookups.
+ */
+public class ExchangeGraph {
+
+    /**
+     * Node type of community member nodes
+     */
+    public static final byte MEMBER = 0;
+    /**
+     * Node type of exchange metabolite nodes
+     */
+    public static final byte METABOLITE = 1;
+
+    private final int nodeCount;
+    private final String[] nodeNames;
+    private final byte[] nodeTypes;
+    /**
+     * External identifiers of the nodes (the SUIDs when read from a CyNetwork)
+     */
+    private final long[] nodeIds;
+    /**
+     * Nodes with the cross-fed attribute set to true
+     */
+    private final BitSet crossFedNodes;
+    private final boolean hasCrossFed;
+
+    private final int edgeCount;
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final String[] edgeNames;
+    /**
+     * Flux values of the edges, NaN if no value is set
+     */
+    private final double[] flux;
+    private final double[] minFlux;
+    private final double[] maxFlux;
+    /**
+     * External identifiers of the edges (the SUIDs when read from a CyNetwork)
+     */
+    private final long[] edgeIds;
+
+    /**
+     * Adjacency in compressed sparse row format, built on first use
+     */
+    private int[] adjacencyOffsets;
+    private int[] adjacentEdges;
+    /**
+     * Translation from external node identifiers to node ordinals, built on first use
+     */
+    private HashMap<Long, Integer> nodeIdToOrdinal;
+
+    private ExchangeGraph(Builder builder) {
+        this.nodeCount = builder.nodeCount;
+        this.nodeNames = Arrays.copyOf(builder.nodeNames, nodeCount);
+        this.nodeTypes = Arrays.copyOf(builder.nodeTypes, nodeCount);
+        this.nodeIds = Arrays.copyOf(builder.nodeIds, nodeCount);
+        this.crossFedNodes = (BitSet) builder.crossFedNodes.clone();
+        this.hasCrossFed = builder.hasCrossFed;
+        this.edgeCount = builder.edgeCount;
+        this.edgeSources = Arrays.copyOf(builder.edgeSources, edgeCount);
+        this.edgeTargets = Arrays.copyOf(builder.edgeTargets, edgeCount);
+        this.edgeNames = Arrays.copyOf(builder.edgeNames, edgeCount);
+        this.flux = Arrays.copyOf(builder.flux, edgeCount);
+        this.minFlux = Arrays.copyOf(builder.minFlux, edgeCount);
+        this.maxFlux = Arrays.copyOf(builder.maxFlux, edgeCount);
+        this.edgeIds = Arrays.copyOf(builder.edgeIds, edgeCount);
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public String getNodeName(int node) {
+        return nodeNames[node];
+    }
+
+    public long getNodeId(int node) {
+        return nodeIds[node];
+    }
+
+    public boolean isMember(int node) {
+        return nodeTypes[node] == MEMBER;
+    }
+
+    /**
+     * @return whether the cross-fed attribute of the node is set to true
+     */
+    public boolean isCrossFed(int node) {
+        return crossFedNodes.get(node);
+    }
+
+    /**
+     * @return whether the cross-fed attribute was set for any node, i.e. the network was contextualized
+     */
+    public boolean hasCrossFed() {
+        return hasCrossFed;
+    }
+
+    /**
+     * @return the number of community member nodes
+     */
+    public int getMemberCount() {
+        int count = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (nodeTypes[node] == MEMBER) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param id an external node identifier (SUID)
+     * @return the ordinal of the node, or -1 if the graph has no node with this identifier
+     */
+    public synchronized int getNodeOrdinal(long id) {
+        if (nodeIdToOrdinal == null) {
+            nodeIdToOrdinal = new HashMap<>(nodeCount * 2);
+            for (int node = 0; node < nodeCount; node++) {
+                nodeIdToOrdinal.put(nodeIds[node], node);
+            }
+        }
+        Integer ordinal = nodeIdToOrdinal.get(id);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public int getEdgeSource(int edge) {
+        return edgeSources[edge];
+    }
+
+    public int getEdgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    public String getEdgeName(int edge) {
+        return edgeNames[edge];
+    }
+
+    public long getEdgeId(int edge) {
+        return edgeIds[edge];
+    }
+
+    /**
+     * @return the flux of the edge, NaN if no flux is set
+     */
+    public double getFlux(int edge) {
+        return flux[edge];
+    }
+
+    /**
+     * @return the minimal flux of the edge (FVA), NaN if no flux range is set
+     */
+    public double getMinFlux(int edge) {
+        return minFlux[edge];
+    }
+
+    /**
+     * @return the maximal flux of the edge (FVA), NaN if no flux range is set
+     */
+    public double getMaxFlux(int edge) {
+        return maxFlux[edge];
+    }
+
+    /**
+     * @return whether the edge carries a flux range (FVA) instead of a single flux value
+     */
+    public boolean hasFluxRange(int edge) {
+        return !Double.isNaN(minFlux[edge]) && !Double.isNaN(maxFlux[edge]);
+    }
+
+    /**
+     * @return whether any edge carries a flux range, i.e. the graph holds FVA fluxes if its range columns are current
+     */
+    public boolean hasFluxRanges() {
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (hasFluxRange(edge)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the signed flux of an edge in edge direction. The "flux" column of FVA contextualized networks only
+     * holds the absolute value of the larger bound, so for flux ranges the bound with the larger absolute value is
+     * returned instead. For single flux values the flux is returned even if the edge still has an outdated range.
+     *
+     * @param ranges whether the fluxes are flux ranges (FVA) rather than single flux values (FBA)
+     * @return the signed flux of the edge, NaN if no flux is set
+     */
+    public double getSignedFlux(int edge, boolean ranges) {
+        return getSignedFlux(flux[edge], minFlux[edge], maxFlux[edge], ranges);
+    }
+
+    /**
+     * Returns the signed flux of an edge with the given fluxes, like getSignedFlux(edge, ranges) for an edge of a
+     * graph, for fluxes kept outside of one.
+     *
+     * @param flux the flux, NaN if not set
+     * @param minFlux the minimal flux, NaN if not set
+     * @param maxFlux the maximal flux, NaN if not set
+     * @return the signed flux, NaN if no flux is set
+     */
+    public static double getSignedFlux(double flux, double minFlux, double maxFlux, boolean ranges) {
+        if (ranges && !Double.isNaN(minFlux) && !Double.isNaN(maxFlux)) {
+            return Math.abs(maxFlux) >= Math.abs(minFlux) ? maxFlux : minFlux;
+        }
+        return flux;
+    }
+
+    /**
+     * @return the community member at one end of the edge, or -1 if the edge does not connect exactly one member
+     */
+    public int getMemberOfEdge(int edge) {
+        boolean sourceIsMember = nodeTypes[edgeSources[edge]] == MEMBER;
+        boolean targetIsMember = nodeTypes[edgeTargets[edge]] == MEMBER;
+        if (sourceIsMember == targetIsMember) {
+            return -1;
+        }
+        return sourceIsMember ? edgeSources[edge] : edgeTargets[edge];
+    }
+
+    /**
+     * @return the exchange metabolite at one end of the edge, or -1 if the edge does not connect exactly one member
+     */
+    public int getMetaboliteOfEdge(int edge) {
+        int member = getMemberOfEdge(edge);
+        if (member < 0) {
+            return -1;
+        }
+        return member == edgeSources[edge] ? edgeTargets[edge] : edgeSources[edge];
+    }
+
+    /**
+     * @return 1 if a positive flux on the edge means secretion by the member (member to metabolite), -1 if it means
+     * uptake (metabolite to member) and 0 if the edge does not connect exactly one member
+     */
+    public int getMemberDirection(int edge) {
+        int member = getMemberOfEdge(edge);
+        if (member < 0) {
+            return 0;
+        }
+        return member == edgeSources[edge] ? 1 : -1;
+    }
+
+    /**
+     * @return the number of edges adjacent to the node
+     */
+    public int getDegree(int node) {
+        buildAdjacency();
+        return adjacencyOffsets[node + 1] - adjacencyOffsets[node];
+    }
+
+    /**
+     * @param node a node ordinal
+     * @param index the index of the adjacent edge, between 0 and getDegree(node)
+     * @return the ordinal of the adjacent edge
+     */
+    public int getAdjacentEdge(int node, int index) {
+        buildAdjacency();
+        return adjacentEdges[adjacencyOffsets[node] + index];
+    }
+
+    /**
+     * @return the node at the other end of the edge
+     */
+    public int getOpposite(int edge, int node) {
+        return edgeSources[edge] == node ? edgeTargets[edge] : edgeSources[edge];
+    }
+
+    private synchronized void buildAdjacency() {
+        if (adjacencyOffsets != null) {
+            return;
+        }
+        int[] offsets = new int[nodeCount + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            offsets[edgeSources[edge] + 1]++;
+            if (edgeTargets[edge] != edgeSources[edge]) {
+                offsets[edgeTargets[edge] + 1]++;
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+        int[] fill = Arrays.copyOf(offsets, nodeCount);
+        int[] adjacent = new int[offsets[nodeCount]];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            adjacent[fill[edgeSources[edge]]++] = edge;
+            if (edgeTargets[edge] != edgeSources[edge]) {
+                adjacent[fill[edgeTargets[edge]]++] = edge;
+            }
+        }
+        this.adjacentEdges = adjacent;
+        this.adjacencyOffsets = offsets;
+    }
+
+    /**
+     * Collects nodes and edges into growing arrays and creates the immutable ExchangeGraph.
+     */
+    public static class Builder {
+        private int nodeCount = 0;
+        private String[] nodeNames = new String[16];
+        private byte[] nodeTypes = new byte[16];
+        private long[] nodeIds = new long[16];
+        private final BitSet crossFedNodes = new BitSet();
+        private boolean hasCrossFed = false;
+
+        private int edgeCount = 0;
+        private int[] edgeSources = new int[16];
+        private int[] edgeTargets = new int[16];
+        private String[] edgeNames = new String[16];
+        private double[] flux = new double[16];
+        private double[] minFlux = new double[16];
+        private double[] maxFlux = new double[16];
+        private long[] edgeIds = new long[16];
+
+        /**
+         * Adds a node.
+         * @param name the shared name of the node
+         * @param type MEMBER or METABOLITE
+         * @param id an external identifier, e.g. the SUID
+         * @return the ordinal of the new node
+         */
+        public int addNode(String name, byte type, long id) {
+            if (nodeCount == nodeNames.length) {
+                int capacity = nodeCount * 2;
+                nodeNames = Arrays.copyOf(nodeNames, capacity);
+                nodeTypes = Arrays.copyOf(nodeTypes, capacity);
+                nodeIds = Arrays.copyOf(nodeIds, capacity);
+            }
+            nodeNames[nodeCount] = name;
+            nodeTypes[nodeCount] = type;
+            nodeIds[nodeCount] = id;
+            return nodeCount++;
+        }
+
+        /**
+         * Sets the cross-fed attribute of a previously added node.
+         * @param node the ordinal of the node
+         * @param crossFed whether the metabolite is cross-fed
+         */
+        public void setCrossFed(int node, boolean crossFed) {
+            crossFedNodes.set(node, crossFed);
+            hasCrossFed = true;
+        }
+
+        /**
+         * Adds an edge between two previously added nodes.
+         * @param source the ordinal of the source node
+         * @param target the ordinal of the target node
+         * @param name the name of the edge (the flux key)
+         * @param fluxValue the flux, may be null
+         * @param minFluxValue the minimal flux, may be null
+         * @param maxFluxValue the maximal flux, may be null
+         * @param id an external identifier, e.g. the SUID
+         * @return the ordinal of the new edge
+         */
+        public int addEdge(int source, int target, String name, Double fluxValue, Double minFluxValue, Double maxFluxValue, long id) {
+            if (source < 0 || source >= nodeCount || target < 0 || target >= nodeCount) {
+                throw new IllegalArgumentException("Edge " + name + " connects unknown nodes.");
+            }
+            if (edgeCount == edgeSources.length) {
+                int capacity = edgeCount * 2;
+                edgeSources = Arrays.copyOf(edgeSources, capacity);
+                edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+                edgeNames = Arrays.copyOf(edgeNames, capacity);
+                flux = Arrays.copyOf(flux, capacity);
+                minFlux = Arrays.copyOf(minFlux, capacity);
+                maxFlux = Arrays.copyOf(maxFlux, capacity);
+                edgeIds = Arrays.copyOf(edgeIds, capacity);
+            }
+            edgeSources[edgeCount] = source;
+            edgeTargets[edgeCount] = target;
+            edgeNames[edgeCount] = name;
+            flux[edgeCount] = fluxValue == null ? Double.NaN : fluxValue;
+            minFlux[edgeCount] = minFluxValue == null ? Double.NaN : minFluxValue;
+            maxFlux[edgeCount] = maxFluxValue == null ? Double.NaN : maxFluxValue;
+            edgeIds[edgeCount] = id;
+            return edgeCount++;
+        }
+
+        public int getNodeCount() {
+            return nodeCount;
+        }
+
+        public ExchangeGraph build() {
+            return new ExchangeGraph(this);
+        }
+    }
+}
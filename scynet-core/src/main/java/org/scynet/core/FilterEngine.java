@@ -0,0 +1,322 @@
+package org.scynet.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+/**
+ * Filters the nodes and edges of an ExchangeGraph by a conjunction of predicates: a minimal absolute flux, the flux
+ * direction class of the edges, the community members (organisms) to show, a regular expression on the metabolite
+ * names and the cross-fed attribute.
+ * <p>
+ * All predicates are evaluated as loops over the columns of the graph into one bitset per predicate. Changing a
+ * predicate only re-evaluates its own bitset, the result is the AND of all of them. The edges are sorted by absolute
+ * flux once, so moving the flux threshold only flips the edges between the old and the new threshold, which keeps
+ * re-filtering on every slider movement far below a frame even for large networks.
+ */
+public class FilterEngine {
+
+    /**
+     * Direction class of an edge carrying flux from the member to the metabolite (secretion)
+     */
+    public static final byte EFFLUX = 0;
+    /**
+     * Direction class of an edge carrying flux from the metabolite to the member (uptake)
+     */
+    public static final byte INFLUX = 1;
+    /**
+     * Direction class of an edge with a flux range (FVA) that allows both directions
+     */
+    public static final byte BIDIRECTIONAL = 2;
+    /**
+     * Direction class of an edge with a flux (or flux range) of exactly 0
+     */
+    public static final byte ZERO_FLUX = 3;
+    /**
+     * Direction class of an edge without flux data
+     */
+    public static final byte NO_FLUX = 4;
+    /**
+     * Bit mask accepting all direction classes
+     */
+    public static final int ALL_DIRECTIONS = (1 << 5) - 1;
+
+    private final ExchangeGraph graph;
+    private final boolean ranges;
+    private final int[] edgeMembers;
+    private final int[] edgeMetabolites;
+    private final byte[] directionClasses;
+    /**
+     * Absolute flux of the edges, NaN if the edge has no flux
+     */
+    private final double[] absoluteFlux;
+    /**
+     * Edges with flux, sorted by increasing absolute flux
+     */
+    private final int[] edgesByFlux;
+
+    private final BitSet thresholdEdges;
+    private final BitSet directionEdges;
+    private final BitSet organismEdges;
+    private final BitSet metaboliteEdges;
+    private final BitSet organismNodes;
+    private final BitSet metaboliteNodes;
+
+    private double fluxThreshold = 0.0d;
+    /**
+     * Number of edges in edgesByFlux below the threshold
+     */
+    private int edgesBelowThreshold = 0;
+    private int directions = ALL_DIRECTIONS;
+    private Pattern metabolitePattern = null;
+    private boolean crossFedOnly = false;
+
+    /**
+     * Creates a filter over the fluxes stored in the graph, as flux ranges if any edge has one.
+     */
+    public FilterEngine(ExchangeGraph graph) {
+        this(graph, graph.hasFluxRanges());
+    }
+
+    /**
+     * @param ranges whether to use the flux ranges (FVA) or the single flux values (FBA) of the edges
+     */
+    public FilterEngine(ExchangeGraph graph, boolean ranges) {
+        this.graph = graph;
+        this.ranges = ranges;
+        int edgeCount = graph.getEdgeCount();
+        this.edgeMembers = new int[edgeCount];
+        this.edgeMetabolites = new int[edgeCount];
+        this.directionClasses = new byte[edgeCount];
+        this.absoluteFlux = new double[edgeCount];
+        int withFlux = 0;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            edgeMembers[edge] = graph.getMemberOfEdge(edge);
+            edgeMetabolites[edge] = graph.getMetaboliteOfEdge(edge);
+            absoluteFlux[edge] = Math.abs(graph.getSignedFlux(edge, ranges));
+            directionClasses[edge] = directionClass(graph, edge, ranges);
+            if (!Double.isNaN(absoluteFlux[edge])) {
+                withFlux++;
+            }
+        }
+        this.edgesByFlux = sortByFlux(absoluteFlux, withFlux);
+
+        this.thresholdEdges = allSet(edgeCount);
+        this.directionEdges = allSet(edgeCount);
+        this.organismEdges = allSet(edgeCount);
+        this.metaboliteEdges = allSet(edgeCount);
+        this.organismNodes = allSet(graph.getNodeCount());
+        this.metaboliteNodes = allSet(graph.getNodeCount());
+    }
+
+    /**
+     * Get-function for the direction class of an edge: EFFLUX, INFLUX, BIDIRECTIONAL, ZERO_FLUX or NO_FLUX. The
+     * direction is given from the point of view of the member the edge belongs to.
+     *
+     * @param ranges whether to use the flux ranges (FVA) or the single flux values (FBA) of the edges
+     */
+    public static byte directionClass(ExchangeGraph graph, int edge, boolean ranges) {
+        if (ranges && graph.hasFluxRange(edge) && graph.getMinFlux(edge) < 0 && graph.getMaxFlux(edge) > 0) {
+            return BIDIRECTIONAL;
+        }
+        double flux = graph.getSignedFlux(edge, ranges);
+        if (Double.isNaN(flux)) {
+            return NO_FLUX;
+        } else if (flux == 0.0d) {
+            return ZERO_FLUX;
+        }
+        int memberDirection = graph.getMemberDirection(edge);
+        return flux * (memberDirection == 0 ? 1 : memberDirection) > 0 ? EFFLUX : INFLUX;
+    }
+
+    public ExchangeGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return whether the filter uses the flux ranges (FVA) or the single flux values (FBA) of the edges
+     */
+    public boolean usesFluxRanges() {
+        return ranges;
+    }
+
+    public byte getDirectionClass(int edge) {
+        return directionClasses[edge];
+    }
+
+    /**
+     * @return the largest absolute flux of all edges, 0 if no edge has flux
+     */
+    public double getMaxAbsoluteFlux() {
+        return edgesByFlux.length == 0 ? 0.0d : absoluteFlux[edgesByFlux[edgesByFlux.length - 1]];
+    }
+
+    /**
+     * @return the smallest absolute flux above 0 of all edges, 0 if no edge has a flux other than 0
+     */
+    public double getMinPositiveAbsoluteFlux() {
+        for (int edge : edgesByFlux) {
+            if (absoluteFlux[edge] > 0) {
+                return absoluteFlux[edge];
+            }
+        }
+        return 0.0d;
+    }
+
+    public double getFluxThreshold() {
+        return fluxThreshold;
+    }
+
+    /**
+     * Hides edges with an absolute flux below the threshold. Edges without flux data are not affected.
+     */
+    public void setFluxThreshold(double threshold) {
+        int below = lowerBound(threshold);
+        if (below > edgesBelowThreshold) {
+            for (int i = edgesBelowThreshold; i < below; i++) {
+                thresholdEdges.clear(edgesByFlux[i]);
+            }
+        } else {
+            for (int i = below; i < edgesBelowThreshold; i++) {
+                thresholdEdges.set(edgesByFlux[i]);
+            }
+        }
+        edgesBelowThreshold = below;
+        fluxThreshold = threshold;
+    }
+
+    /**
+     * Shows only edges of the given direction classes.
+     * @param directionMask a bit mask with the bit (1 &lt;&lt; class) set for every accepted direction class
+     */
+    public void setDirectionClasses(int directionMask) {
+        if (directionMask == directions) {
+            return;
+        }
+        directions = directionMask;
+        directionEdges.clear();
+        for (int edge = 0; edge < directionClasses.length; edge++) {
+            if ((directionMask & (1 << directionClasses[edge])) != 0) {
+                directionEdges.set(edge);
+            }
+        }
+    }
+
+    /**
+     * Shows only the given community members and their edges.
+     * @param memberNames the shared names of the members to show, null or empty to show all members
+     */
+    public void setOrganisms(Collection<String> memberNames) {
+        organismNodes.clear();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (!graph.isMember(node) || memberNames == null || memberNames.isEmpty() || memberNames.contains(graph.getNodeName(node))) {
+                organismNodes.set(node);
+            }
+        }
+        selectEdges(organismEdges, edgeMembers, organismNodes);
+    }
+
+    /**
+     * Shows only metabolites whose name is matched by the pattern (anywhere in the name).
+     * @param pattern the pattern, null to show all metabolites
+     */
+    public void setMetabolitePattern(Pattern pattern) {
+        metabolitePattern = pattern;
+        updateMetaboliteNodes();
+    }
+
+    /**
+     * Shows only metabolites with the cross-fed attribute set to true.
+     */
+    public void setCrossFedOnly(boolean crossFedOnly) {
+        if (this.crossFedOnly != crossFedOnly) {
+            this.crossFedOnly = crossFedOnly;
+            updateMetaboliteNodes();
+        }
+    }
+
+    /**
+     * Get-function for the edges passing all predicates, indexed by edge ordinal.
+     */
+    public BitSet getEdgeMask() {
+        BitSet mask = (BitSet) thresholdEdges.clone();
+        mask.and(directionEdges);
+        mask.and(organismEdges);
+        mask.and(metaboliteEdges);
+        return mask;
+    }
+
+    /**
+     * Get-function for the nodes passing all predicates, indexed by node ordinal. Metabolites passing the
+     * predicates but left without any passing edge are hidden by the VisibilityModel.
+     */
+    public BitSet getNodeMask() {
+        BitSet mask = (BitSet) organismNodes.clone();
+        mask.and(metaboliteNodes);
+        return mask;
+    }
+
+    private void updateMetaboliteNodes() {
+        metaboliteNodes.clear();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (graph.isMember(node)
+                    || ((!crossFedOnly || graph.isCrossFed(node))
+                    && (metabolitePattern == null || (graph.getNodeName(node) != null && metabolitePattern.matcher(graph.getNodeName(node)).find())))) {
+                metaboliteNodes.set(node);
+            }
+        }
+        selectEdges(metaboliteEdges, edgeMetabolites, metaboliteNodes);
+    }
+
+    /**
+     * Sets the edges whose node in the given column passes the node predicate. Edges without such a node pass.
+     */
+    private static void selectEdges(BitSet edges, int[] edgeNodes, BitSet passingNodes) {
+        edges.clear();
+        for (int edge = 0; edge < edgeNodes.length; edge++) {
+            if (edgeNodes[edge] < 0 || passingNodes.get(edgeNodes[edge])) {
+                edges.set(edge);
+            }
+        }
+    }
+
+    /**
+     * @return the number of edges in edgesByFlux with an absolute flux below the threshold
+     */
+    private int lowerBound(double threshold) {
+        int low = 0;
+        int high = edgesByFlux.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (absoluteFlux[edgesByFlux[middle]] < threshold) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int[] sortByFlux(double[] absoluteFlux, int withFlux) {
+        Integer[] order = new Integer[withFlux];
+        int count = 0;
+        for (int edge = 0; edge < absoluteFlux.length; edge++) {
+            if (!Double.isNaN(absoluteFlux[edge])) {
+                order[count++] = edge;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(absoluteFlux[a], absoluteFlux[b]));
+        int[] sorted = new int[withFlux];
+        for (int i = 0; i < withFlux; i++) {
+            sorted[i] = order[i];
+        }
+        return sorted;
+    }
+
+    private static BitSet allSet(int size) {
+        BitSet bits = new BitSet(size);
+        bits.set(0, size);
+        return bits;
+    }
+}
@@ -0,0 +1,131 @@
+package org.scynet.core;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The fluxes and cross-feeding flags of a ScyNet network under several conditions (one flux file each). All
+ * conditions are computed in one pass over the edges per condition, in parallel over the conditions, so that they can
+ * be written to per-condition columns at once.
+ */
+public class FluxConditions {
+
+    private final ExchangeGraph graph;
+    private final List<FluxFile> fluxFiles;
+    /**
+     * Flux of every edge per condition, indexed [condition][edge], NaN if no flux is set. For flux ranges this is
+     * the absolute value of the larger bound, as in the "flux" column of contextualized networks.
+     */
+    private final double[][] flux;
+    /**
+     * Flux ranges per condition, null for conditions with single flux values
+     */
+    private final double[][] minFlux;
+    private final double[][] maxFlux;
+    /**
+     * Cross-fed metabolites per condition, indexed by node ordinal
+     */
+    private final BitSet[] crossFed;
+
+    private FluxConditions(ExchangeGraph graph, List<FluxFile> fluxFiles) {
+        this.graph = graph;
+        this.fluxFiles = fluxFiles;
+        this.flux = new double[fluxFiles.size()][];
+        this.minFlux = new double[fluxFiles.size()][];
+        this.maxFlux = new double[fluxFiles.size()][];
+        this.crossFed = new BitSet[fluxFiles.size()];
+    }
+
+    /**
+     * Computes the edge fluxes and cross-fed metabolites of all conditions.
+     *
+     * @param graph the ScyNet network, the edge names are the reaction ids of the flux files
+     * @param fluxFiles one flux file per condition
+     * @return the fluxes and cross-feeding flags per condition
+     */
+    public static FluxConditions compute(ExchangeGraph graph, List<FluxFile> fluxFiles) {
+        FluxConditions conditions = new FluxConditions(graph, fluxFiles);
+        IntStream.range(0, fluxFiles.size()).parallel().forEach(conditions::computeCondition);
+        return conditions;
+    }
+
+    public int getConditionCount() {
+        return fluxFiles.size();
+    }
+
+    public String getCondition(int condition) {
+        return fluxFiles.get(condition).getCondition();
+    }
+
+    public boolean isFva(int condition) {
+        return fluxFiles.get(condition).isFva();
+    }
+
+    /**
+     * @return the flux of the edge under the condition, NaN if no flux is set
+     */
+    public double getFlux(int condition, int edge) {
+        return flux[condition][edge];
+    }
+
+    /**
+     * @return the minimal flux of the edge under a flux range condition, NaN if no flux is set
+     */
+    public double getMinFlux(int condition, int edge) {
+        return minFlux[condition][edge];
+    }
+
+    /**
+     * @return the maximal flux of the edge under a flux range condition, NaN if no flux is set
+     */
+    public double getMaxFlux(int condition, int edge) {
+        return maxFlux[condition][edge];
+    }
+
+    public boolean isCrossFed(int condition, int node) {
+        return crossFed[condition].get(node);
+    }
+
+    private void computeCondition(int condition) {
+        FluxFile fluxFile = fluxFiles.get(condition);
+        int edgeCount = graph.getEdgeCount();
+        double[] conditionFlux = new double[edgeCount];
+        if (fluxFile.isFva()) {
+            double[] conditionMin = new double[edgeCount];
+            double[] conditionMax = new double[edgeCount];
+            double[] signedFlux = new double[edgeCount];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                Double min = fluxFile.getFlux(graph.getEdgeName(edge), true);
+                Double max = fluxFile.getFlux(graph.getEdgeName(edge), false);
+                conditionMin[edge] = min == null ? Double.NaN : min;
+                conditionMax[edge] = max == null ? Double.NaN : max;
+                signedFlux[edge] = Math.abs(conditionMin[edge]) > Math.abs(conditionMax[edge]) ? conditionMin[edge] : conditionMax[edge];
+                conditionFlux[edge] = Math.abs(signedFlux[edge]);
+            }
+            minFlux[condition] = conditionMin;
+            maxFlux[condition] = conditionMax;
+            crossFed[condition] = crossFed(CrossFeedingEngine.compute(graph, signedFlux, conditionMin, conditionMax));
+        } else {
+            for (int edge = 0; edge < edgeCount; edge++) {
+                Double value = fluxFile.getFlux(graph.getEdgeName(edge), false);
+                conditionFlux[edge] = value == null ? Double.NaN : value;
+            }
+            crossFed[condition] = crossFed(CrossFeedingEngine.compute(graph, conditionFlux, null, null));
+        }
+        flux[condition] = conditionFlux;
+    }
+
+    /**
+     * @return the metabolites classified as cross-fed
+     */
+    private BitSet crossFed(CrossFeedingEngine crossFeeding) {
+        BitSet result = new BitSet(graph.getNodeCount());
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (crossFeeding.isCrossFed(node)) {
+                result.set(node);
+            }
+        }
+        return result;
+    }
+}
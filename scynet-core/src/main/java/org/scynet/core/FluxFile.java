@@ -0,0 +1,132 @@
+package org.scynet.core;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * The content of a tab separated flux file: either single flux values (columns reaction_id and flux, e.g. from FBA)
+ * or flux ranges (columns reaction_id, min_flux and max_flux, e.g. from FVA). Flux ranges are stored with the keys
+ * reaction_id + "_min" and reaction_id + "_max".
+ */
+public class FluxFile {
+
+    private final String condition;
+    private final boolean fva;
+    private final HashMap<String, Double> fluxMap;
+
+    private FluxFile(String condition, boolean fva, HashMap<String, Double> fluxMap) {
+        this.condition = condition;
+        this.fva = fva;
+        this.fluxMap = fluxMap;
+    }
+
+    /**
+     * Reads a flux file. Lines before the header line (starting with reaction_id) are skipped.
+     *
+     * @param file a tab separated flux file
+     * @return the flux values of the file, named after the file without extension
+     * @throws IOException if the file could not be read
+     * @throws IllegalArgumentException if the header has an unknown format or a flux value is not a number
+     */
+    public static FluxFile read(File file) throws IOException {
+        ScynetEvents.FluxLoad event = ScynetEvents.beginFluxLoad();
+        HashMap<String, Double> fluxMap = new HashMap<>();
+        boolean headerFound = false;
+        boolean fva = false;
+        int rows = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                rows++;
+                String[] values = line.split("\t", 0);
+                if (Objects.equals(values[0], "reaction_id")) {
+                    if (headerFound) {
+                        continue;
+                    }
+                    headerFound = true;
+                    if (values.length > 1 && Objects.equals(values[1], "flux")) {
+                        fva = false;
+                    } else if (values.length > 2 && Objects.equals(values[1], "min_flux") && Objects.equals(values[2], "max_flux")) {
+                        fva = true;
+                    } else {
+                        throw new IllegalArgumentException("File " + file.getName() + " could not be parsed due to incompatible formatting.");
+                    }
+                } else if (headerFound && !fva) {
+                    fluxMap.put(values[0], Double.parseDouble(values[1]));
+                } else if (headerFound) {
+                    fluxMap.put(values[0] + "_min", Double.parseDouble(values[1]));
+                    fluxMap.put(values[0] + "_max", Double.parseDouble(values[2]));
+                }
+            }
+        }
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = file.getName();
+                event.bytes = file.length();
+                event.rows = rows;
+                event.fva = fva;
+                event.commit();
+            }
+        }
+        return new FluxFile(conditionName(file), fva, fluxMap);
+    }
+
+    /**
+     * Creates a flux file from flux values in the format of getFluxMap, e.g. for generated communities.
+     */
+    static FluxFile of(String condition, boolean fva, HashMap<String, Double> fluxMap) {
+        return new FluxFile(condition, fva, fluxMap);
+    }
+
+    /**
+     * @return the file name without its extension
+     */
+    public static String conditionName(File file) {
+        String name = file.getName();
+        int extension = name.lastIndexOf('.');
+        return extension > 0 ? name.substring(0, extension) : name;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    /**
+     * @return whether the file holds flux ranges instead of single flux values
+     */
+    public boolean isFva() {
+        return fva;
+    }
+
+    /**
+     * Get-function for the flux values by reaction id, or by reaction id + "_min" / "_max" for flux ranges.
+     */
+    public HashMap<String, Double> getFluxMap() {
+        return fluxMap;
+    }
+
+    /**
+     * Returns the flux of a reaction the way ScyNet contextualizes edges: reactions missing in the file have a flux
+     * of 0.
+     *
+     * @param reaction the reaction id (the edge name)
+     * @param minimum for flux ranges, whether to return the minimal or the maximal flux
+     * @return the flux, or null for flux ranges of edges without a name
+     */
+    public Double getFlux(String reaction, boolean minimum) {
+        if (!fva) {
+            Double flux = fluxMap.get(reaction);
+            return flux == null ? 0.0d : flux;
+        }
+        if (Objects.equals(reaction, "")) {
+            return null;
+        }
+        Double flux = fluxMap.get(reaction + (minimum ? "_min" : "_max"));
+        return flux == null ? 0.0d : flux;
+    }
+}
@@ -0,0 +1,150 @@
+package org.scynet.core;
+
+/**
+ * The precomputed frames of a flux time series played back on a ScyNet network. The fluxes are kept as a frames x
+ * edges matrix, from which the style class (an index into the colour palette), the edge width and the visibility of
+ * every edge in every frame are derived once. Rendering a frame then only compares these arrays with the frame shown
+ * before and pushes the edges that differ.
+ */
+public class FluxPlayback {
+
+    /**
+     * Style class of an edge with negative flux, drawn with the influx colour and an arrow at the source
+     */
+    public static final byte INFLUX = 0;
+    /**
+     * Style class of an edge with positive flux, drawn with the efflux colour and an arrow at the target
+     */
+    public static final byte EFFLUX = 1;
+    /**
+     * Style class of an edge with a flux of 0, the edge is hidden
+     */
+    public static final byte ZERO_FLUX = 2;
+    /**
+     * Style class of an edge without a value in the time series, drawn with the default colour
+     */
+    public static final byte NO_FLUX = 3;
+
+    public static final double MIN_EDGE_WIDTH = 1.0d;
+    public static final double MAX_EDGE_WIDTH = 50.0d;
+    /**
+     * Edge widths are rounded to this step, so that small flux changes do not cause view updates
+     */
+    public static final double EDGE_WIDTH_STEP = 0.5d;
+    /**
+     * Largest number of frame and edge pairs, the largest array length the JVM allows
+     */
+    public static final int MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    private final int frameCount;
+    private final int edgeCount;
+    /**
+     * Flux per frame and edge, row major: flux[frame * edgeCount + edge]
+     */
+    private final double[] flux;
+    private final byte[] styles;
+    private final float[] widths;
+    private final double maxAbsoluteFlux;
+
+    /**
+     * Maps the time series onto the edges of the graph by edge name and precomputes all frames.
+     *
+     * @throws IllegalArgumentException if the series has too many frames for the edges of the graph to keep them all
+     */
+    public FluxPlayback(ExchangeGraph graph, FluxTimeSeries series) {
+        this.frameCount = series.getFrameCount();
+        this.edgeCount = graph.getEdgeCount();
+        if ((long) frameCount * edgeCount > MAX_CELLS) {
+            throw new IllegalArgumentException("The flux time series has too many time points (" + frameCount + ") for "
+                    + edgeCount + " edges, at most " + MAX_CELLS / Math.max(edgeCount, 1) + " can be played back.");
+        }
+        this.flux = new double[frameCount * edgeCount];
+        this.styles = new byte[flux.length];
+        this.widths = new float[flux.length];
+
+        double max = 0.0d;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            double[] edgeSeries = series.getSeries(graph.getEdgeName(edge));
+            for (int frame = 0; frame < frameCount; frame++) {
+                double value = edgeSeries == null ? Double.NaN : edgeSeries[frame];
+                flux[frame * edgeCount + edge] = value;
+                if (!Double.isNaN(value)) {
+                    max = Math.max(max, Math.abs(value));
+                }
+            }
+        }
+        this.maxAbsoluteFlux = max;
+
+        double scalingFactor = max > 0 ? (MAX_EDGE_WIDTH - MIN_EDGE_WIDTH) / max : 0.0d;
+        for (int i = 0; i < flux.length; i++) {
+            double value = flux[i];
+            if (Double.isNaN(value)) {
+                styles[i] = NO_FLUX;
+                widths[i] = (float) MIN_EDGE_WIDTH;
+            } else if (value == 0.0d) {
+                styles[i] = ZERO_FLUX;
+                widths[i] = (float) MIN_EDGE_WIDTH;
+            } else {
+                styles[i] = value > 0 ? EFFLUX : INFLUX;
+                double width = Math.min(MAX_EDGE_WIDTH, Math.abs(value) * scalingFactor + MIN_EDGE_WIDTH);
+                widths[i] = (float) (Math.round(width / EDGE_WIDTH_STEP) * EDGE_WIDTH_STEP);
+            }
+        }
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public double getMaxAbsoluteFlux() {
+        return maxAbsoluteFlux;
+    }
+
+    public double getFlux(int frame, int edge) {
+        return flux[frame * edgeCount + edge];
+    }
+
+    /**
+     * @return the style class of the edge in the frame: INFLUX, EFFLUX, ZERO_FLUX or NO_FLUX
+     */
+    public byte getStyle(int frame, int edge) {
+        return styles[frame * edgeCount + edge];
+    }
+
+    public double getWidth(int frame, int edge) {
+        return widths[frame * edgeCount + edge];
+    }
+
+    public boolean isVisible(int frame, int edge) {
+        return styles[frame * edgeCount + edge] != ZERO_FLUX;
+    }
+
+    /**
+     * Collects the edges whose style or width differ between two frames.
+     * @param from the frame currently shown, or -1 if no frame was shown yet (all edges differ)
+     * @param to the frame to show
+     * @param changed receives the changed edge ordinals, must hold getEdgeCount() elements
+     * @return the number of changed edges
+     */
+    public int getChangedEdges(int from, int to, int[] changed) {
+        int count = 0;
+        if (from < 0) {
+            for (int edge = 0; edge < edgeCount; edge++) {
+                changed[count++] = edge;
+            }
+            return count;
+        }
+        int fromOffset = from * edgeCount;
+        int toOffset = to * edgeCount;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (styles[fromOffset + edge] != styles[toOffset + edge] || widths[fromOffset + edge] != widths[toOffset + edge]) {
+                changed[count++] = edge;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,81 @@
+package org.scynet.core;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * Flux time series of the exchange reactions, e.g. from dynamic FBA or time-course simulations, read from a tab
+ * separated file. The header line starts with reaction_id followed by one column per time point, every other line
+ * holds the reaction id followed by its flux at each time point.
+ */
+public class FluxTimeSeries {
+
+    private final String[] timePoints;
+    private final HashMap<String, double[]> series;
+
+    private FluxTimeSeries(String[] timePoints, HashMap<String, double[]> series) {
+        this.timePoints = timePoints;
+        this.series = series;
+    }
+
+    /**
+     * Reads a flux time series file. Lines before the header line are skipped, empty or missing values are read as
+     * NaN.
+     *
+     * @throws IOException if the file could not be read
+     * @throws IllegalArgumentException if the file has no header line or a value is not a number
+     */
+    public static FluxTimeSeries read(File file) throws IOException {
+        String[] timePoints = null;
+        HashMap<String, double[]> series = new HashMap<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] values = line.split("\t", -1);
+                if (timePoints == null) {
+                    if (Objects.equals(values[0], "reaction_id") && values.length > 1) {
+                        timePoints = Arrays.copyOfRange(values, 1, values.length);
+                    }
+                    continue;
+                }
+                double[] flux = new double[timePoints.length];
+                for (int frame = 0; frame < flux.length; frame++) {
+                    String value = frame + 1 < values.length ? values[frame + 1].trim() : "";
+                    flux[frame] = value.isEmpty() ? Double.NaN : Double.parseDouble(value);
+                }
+                series.put(values[0], flux);
+            }
+        }
+        if (timePoints == null) {
+            throw new IllegalArgumentException("File " + file.getName() + " could not be parsed due to incompatible formatting.");
+        }
+        return new FluxTimeSeries(timePoints, series);
+    }
+
+    public int getFrameCount() {
+        return timePoints.length;
+    }
+
+    /**
+     * @return the label of the time point, as given in the header line
+     */
+    public String getTimePoint(int frame) {
+        return timePoints[frame];
+    }
+
+    public int getReactionCount() {
+        return series.size();
+    }
+
+    /**
+     * @return the flux of the reaction at every time point, null if the file has no series for the reaction
+     */
+    public double[] getSeries(String reaction) {
+        return series.get(reaction);
+    }
+}
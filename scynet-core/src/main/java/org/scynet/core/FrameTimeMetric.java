@@ -0,0 +1,109 @@
+package org.scynet.core;
+
+import java.util.Arrays;
+
+/**
+ * Collects the durations of the most recent frames and reports whether they stay within a frame budget.
+ */
+public class FrameTimeMetric {
+
+    private final long budgetNanos;
+    /**
+     * Ring buffer of the most recent frame durations
+     */
+    private final long[] durations;
+    private int next = 0;
+    private int size = 0;
+    private long frameCount = 0;
+    private long framesOverBudget = 0;
+
+    /**
+     * @param budgetNanos the time available per frame, in nanoseconds
+     * @param window the number of recent frames the statistics are computed over
+     */
+    public FrameTimeMetric(long budgetNanos, int window) {
+        this.budgetNanos = budgetNanos;
+        this.durations = new long[window];
+    }
+
+    /**
+     * Records the duration of a frame.
+     */
+    public void record(long nanos) {
+        durations[next] = nanos;
+        next = (next + 1) % durations.length;
+        size = Math.min(size + 1, durations.length);
+        frameCount++;
+        if (nanos > budgetNanos) {
+            framesOverBudget++;
+        }
+    }
+
+    public void reset() {
+        next = 0;
+        size = 0;
+        frameCount = 0;
+        framesOverBudget = 0;
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * @return the number of frames recorded since the last reset
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return the number of frames since the last reset that took longer than the budget
+     */
+    public long getFramesOverBudget() {
+        return framesOverBudget;
+    }
+
+    /**
+     * @return the mean duration of the recent frames in nanoseconds, 0 if no frame was recorded
+     */
+    public long getMeanNanos() {
+        if (size == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += durations[i];
+        }
+        return sum / size;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the given percentile of the recent frame durations in nanoseconds, 0 if no frame was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(durations, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0d * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    /**
+     * @return whether the 95th percentile of the recent frames is within the budget
+     */
+    public boolean isWithinBudget() {
+        return getPercentileNanos(95) <= budgetNanos;
+    }
+
+    /**
+     * @return a one line summary of the recent frame times in milliseconds
+     */
+    public String summary() {
+        return String.format("mean %.1f ms, p95 %.1f ms, %d of %d frames over the %.1f ms budget",
+                getMeanNanos() / 1e6, getPercentileNanos(95) / 1e6, framesOverBudget, frameCount, budgetNanos / 1e6);
+    }
+}
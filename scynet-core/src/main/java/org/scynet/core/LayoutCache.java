@@ -0,0 +1,78 @@
+package org.scynet.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Layouts computed for a network, keyed by the fingerprint of the visible nodes and edges they were computed for.
+ * Only the most recently used layouts are kept.
+ */
+public class LayoutCache {
+
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private final LinkedHashMap<Long, LayoutCache.Entry> entries;
+
+    public LayoutCache(int capacity) {
+        // LayoutCache.Entry is qualified, inside the LinkedHashMap subclass Entry would be the inherited Map.Entry
+        this.entries = new LinkedHashMap<Long, LayoutCache.Entry>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, LayoutCache.Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the layout for the given visible set, or null if there is none
+     */
+    public synchronized Entry get(long fingerprint) {
+        return entries.get(fingerprint);
+    }
+
+    public synchronized void put(long fingerprint, Entry entry) {
+        entries.put(fingerprint, entry);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * A cached layout together with the metabolites it hid because they had no visible edge left.
+     */
+    public static class Entry {
+        private final LayoutResult layout;
+        private final long[] hiddenNodes;
+        private final boolean incremental;
+
+        /**
+         * @param incremental whether the layout was updated from a previous one by RingLayout.update, rather than
+         *                    computed from scratch
+         */
+        public Entry(LayoutResult layout, long[] hiddenNodes, boolean incremental) {
+            this.layout = layout;
+            this.hiddenNodes = hiddenNodes;
+            this.incremental = incremental;
+        }
+
+        public LayoutResult getLayout() {
+            return layout;
+        }
+
+        public long[] getHiddenNodes() {
+            return hiddenNodes;
+        }
+
+        /**
+         * @return whether the layout was updated incrementally, a full layout must not reuse it
+         */
+        public boolean isIncremental() {
+            return incremental;
+        }
+    }
+}
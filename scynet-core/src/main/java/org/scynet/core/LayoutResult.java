@@ -0,0 +1,246 @@
+package org.scynet.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * The coordinates computed by the RingLayout for a LayoutSnapshot. All arrays are indexed by snapshot ordinal unless
+ * stated otherwise.
+ */
+public class LayoutResult {
+
+    private final LayoutSnapshot snapshot;
+    /**
+     * Member indices (in snapshot member order) in ring order
+     */
+    private final int[] memberOrder;
+    /**
+     * Snapshot ordinal of each member index
+     */
+    private final int[] members;
+    /**
+     * Ring position of each member, indexed by snapshot ordinal
+     */
+    private final int[] ringPositions;
+    private final RingLayout.Radii radii;
+    private final double[] x;
+    private final double[] y;
+    /**
+     * Nodes whose position differs from the layout this one was updated from, null if all nodes were placed anew
+     */
+    private final BitSet moved;
+
+    LayoutResult(LayoutSnapshot snapshot, int[] memberOrder, int[] members, int[] ringPositions,
+                 RingLayout.Radii radii, double[] x, double[] y, BitSet moved) {
+        this.snapshot = snapshot;
+        this.memberOrder = memberOrder;
+        this.members = members;
+        this.ringPositions = ringPositions;
+        this.radii = radii;
+        this.x = x;
+        this.y = y;
+        this.moved = moved;
+    }
+
+    public LayoutSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getMemberCount() {
+        return members.length;
+    }
+
+    /**
+     * @return the snapshot ordinal of the member at the given ring position
+     */
+    public int getMemberAtPosition(int position) {
+        return members[memberOrder[position]];
+    }
+
+    /**
+     * @return the ring position of the member with the given snapshot ordinal
+     */
+    public int getRingPosition(int member) {
+        return ringPositions[member];
+    }
+
+    int[] getRingPositions() {
+        return ringPositions;
+    }
+
+    public RingLayout.Radii getRadii() {
+        return radii;
+    }
+
+    public double getX(int node) {
+        return x[node];
+    }
+
+    public double getY(int node) {
+        return y[node];
+    }
+
+    /**
+     * @return whether the node has to be moved in the view, always true for a layout computed from scratch
+     */
+    public boolean isMoved(int node) {
+        return moved == null || moved.get(node);
+    }
+
+    /**
+     * @return the number of nodes to move in the view
+     */
+    public int getMovedCount() {
+        return moved == null ? snapshot.size() : moved.cardinality();
+    }
+
+    /**
+     * Writes the layout together with its snapshot, so that it can be restored without taking the snapshot or
+     * computing the layout again. Which nodes were moved is not written, a restored layout counts as placed anew.
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(snapshot.size());
+        for (int node = 0; node < snapshot.size(); node++) {
+            out.writeLong(snapshot.getId(node));
+            out.writeByte(snapshot.getRingClass(node));
+            out.writeInt(snapshot.getFirstNeighbor(node));
+            out.writeInt(snapshot.getSecondNeighbor(node));
+            out.writeInt(ringPositions[node]);
+            out.writeDouble(x[node]);
+            out.writeDouble(y[node]);
+        }
+        out.writeInt(members.length);
+        for (int member = 0; member < members.length; member++) {
+            out.writeInt(members[member]);
+            out.writeInt(memberOrder[member]);
+        }
+        out.writeDouble(radii.multi);
+        out.writeDouble(radii.doubles);
+        out.writeDouble(radii.members);
+        out.writeDouble(radii.single);
+    }
+
+    /**
+     * Reads only the node identifiers of a layout written by write, e.g. to map them to the nodes of a reloaded
+     * session before the layout itself is decoded.
+     *
+     * @throws IOException if the stream could not be read or does not hold a valid layout
+     */
+    public static long[] readIds(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Invalid number of nodes in the ScyNet layout.");
+        }
+        // The size is only trusted as far as the stream holds that many nodes
+        long[] ids = new long[Math.min(size, 1024)];
+        // Ring class, both neighbors, ring position and coordinates of a node
+        byte[] rest = new byte[1 + 3 * Integer.BYTES + 2 * Double.BYTES];
+        for (int node = 0; node < size; node++) {
+            if (node == ids.length) {
+                ids = Arrays.copyOf(ids, (int) Math.min(size, 2L * ids.length));
+            }
+            ids[node] = in.readLong();
+            in.readFully(rest);
+        }
+        return ids;
+    }
+
+    /**
+     * Reads a layout written by write. Besides the counts and indices, it checks that the members are exactly the
+     * member nodes, that the member order is a permutation and that the ring positions match it, as RingLayout.update
+     * relies on that.
+     *
+     * @param ids maps the written node identifiers to the current ones, e.g. the SUIDs of a reloaded session, and
+     *            returns -1 for nodes that no longer exist
+     * @return the layout, or null if one of its nodes no longer exists
+     * @throws IOException if the stream could not be read or does not hold a valid layout
+     */
+    public static LayoutResult read(DataInputStream in, LongUnaryOperator ids) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Invalid number of nodes in the ScyNet layout.");
+        }
+        LayoutSnapshot.Builder builder = new LayoutSnapshot.Builder();
+        // The size is only trusted as far as the stream holds that many nodes, the arrays grow while reading them
+        int capacity = Math.min(size, 1024);
+        byte[] ringClasses = new byte[capacity];
+        int[] ringPositions = new int[capacity];
+        double[] x = new double[capacity];
+        double[] y = new double[capacity];
+        int memberNodes = 0;
+        boolean complete = true;
+        for (int node = 0; node < size; node++) {
+            if (node == capacity) {
+                capacity = (int) Math.min(size, 2L * capacity);
+                ringClasses = Arrays.copyOf(ringClasses, capacity);
+                ringPositions = Arrays.copyOf(ringPositions, capacity);
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+            }
+            long id = ids.applyAsLong(in.readLong());
+            complete &= id >= 0;
+            byte ringClass = in.readByte();
+            int firstNeighbor = in.readInt();
+            int secondNeighbor = in.readInt();
+            if (ringClass < LayoutSnapshot.MEMBER || ringClass > LayoutSnapshot.MULTI
+                    || !isMemberOrNone(firstNeighbor, node, ringClasses) || !isMemberOrNone(secondNeighbor, node, ringClasses)) {
+                throw new IOException("Invalid node " + node + " in the ScyNet layout.");
+            }
+            ringClasses[node] = ringClass;
+            if (ringClass == LayoutSnapshot.MEMBER) {
+                builder.addMember(id);
+                memberNodes++;
+            } else {
+                builder.addMetabolite(id, ringClass, firstNeighbor, secondNeighbor);
+            }
+            ringPositions[node] = in.readInt();
+            x[node] = in.readDouble();
+            y[node] = in.readDouble();
+        }
+        int numMembers = in.readInt();
+        if (numMembers != memberNodes) {
+            throw new IOException("Invalid number of members in the ScyNet layout.");
+        }
+        for (int node = 0; node < size; node++) {
+            if (ringPositions[node] < 0 || ringPositions[node] >= Math.max(numMembers, 1)) {
+                throw new IOException("Invalid ring position of node " + node + " in the ScyNet layout.");
+            }
+        }
+        int[] members = new int[numMembers];
+        int[] memberOrder = new int[numMembers];
+        BitSet readMembers = new BitSet(size);
+        BitSet readPositions = new BitSet(numMembers);
+        for (int member = 0; member < numMembers; member++) {
+            members[member] = in.readInt();
+            memberOrder[member] = in.readInt();
+            if (members[member] < 0 || members[member] >= size || ringClasses[members[member]] != LayoutSnapshot.MEMBER
+                    || readMembers.get(members[member]) || memberOrder[member] < 0 || memberOrder[member] >= numMembers
+                    || readPositions.get(memberOrder[member])) {
+                throw new IOException("Invalid member " + member + " in the ScyNet layout.");
+            }
+            readMembers.set(members[member]);
+            readPositions.set(memberOrder[member]);
+        }
+        for (int position = 0; position < numMembers; position++) {
+            if (ringPositions[members[memberOrder[position]]] != position) {
+                throw new IOException("The member order does not match the ring positions in the ScyNet layout.");
+            }
+        }
+        RingLayout.Radii radii = new RingLayout.Radii(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+        if (!complete) {
+            return null;
+        }
+        return new LayoutResult(builder.build(), memberOrder, members, ringPositions, radii, x, y, null);
+    }
+
+    /**
+     * @return whether the neighbor of a metabolite is -1 or one of the member nodes read before it
+     */
+    private static boolean isMemberOrNone(int neighbor, int node, byte[] ringClasses) {
+        return neighbor == -1 || (neighbor >= 0 && neighbor < node && ringClasses[neighbor] == LayoutSnapshot.MEMBER);
+    }
+}
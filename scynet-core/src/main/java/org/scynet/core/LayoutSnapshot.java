@@ -0,0 +1,183 @@
+package org.scynet.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * An immutable snapshot of the visible part of a ScyNet network, as needed by the ScyNet layout. Every visible node is
+ * either a community member or a metabolite in one of the rings, which are chosen by the number of visible edges:
+ * single, double or multi connection. Metabolites keep the member ordinals of their visible neighbours.
+ */
+public class LayoutSnapshot {
+
+    public static final byte MEMBER = 0;
+    public static final byte SINGLE = 1;
+    public static final byte DOUBLE = 2;
+    public static final byte MULTI = 3;
+
+    private final int size;
+    /**
+     * External identifiers of the nodes (the SUIDs when taken from a network view)
+     */
+    private final long[] ids;
+    private final byte[] ringClasses;
+    /**
+     * Ordinal of the first visible member neighbour of a metabolite, -1 if there is none
+     */
+    private final int[] firstNeighbors;
+    /**
+     * Ordinal of the second visible member neighbour of a double connection metabolite, -1 if there is none
+     */
+    private final int[] secondNeighbors;
+    /**
+     * Lookup of the ordinals by identifier, built on first use
+     */
+    private HashMap<Long, Integer> ordinals;
+
+    private LayoutSnapshot(Builder builder) {
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.ringClasses = Arrays.copyOf(builder.ringClasses, size);
+        this.firstNeighbors = Arrays.copyOf(builder.firstNeighbors, size);
+        this.secondNeighbors = Arrays.copyOf(builder.secondNeighbors, size);
+    }
+
+    /**
+     * @return the ring class of a metabolite with the given number of visible edges
+     */
+    public static byte ringClassOfDegree(int visibleDegree) {
+        if (visibleDegree <= 1) {
+            return SINGLE;
+        } else if (visibleDegree == 2) {
+            return DOUBLE;
+        }
+        return MULTI;
+    }
+
+    /**
+     * Collects the nodes of an ExchangeGraph with at least one visible edge into a snapshot, the way the ScyNet layout
+     * does for a network view. All members are part of the snapshot, metabolites without any visible edge are not.
+     *
+     * @param graph the simplified network, whose node identifiers become the snapshot identifiers
+     * @param visibleEdges the visible edges by edge ordinal, null for all edges
+     */
+    public static LayoutSnapshot of(ExchangeGraph graph, BitSet visibleEdges) {
+        Builder builder = new Builder();
+        int[] memberOrdinals = new int[graph.getNodeCount()];
+        Arrays.fill(memberOrdinals, -1);
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (graph.isMember(node)) {
+                memberOrdinals[node] = builder.addMember(graph.getNodeId(node));
+            }
+        }
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (graph.isMember(node)) {
+                continue;
+            }
+            int numVisibleEdges = 0;
+            int[] neighbors = {-1, -1};
+            int numNeighbors = 0;
+            for (int i = 0; i < graph.getDegree(node); i++) {
+                int edge = graph.getAdjacentEdge(node, i);
+                if (visibleEdges != null && !visibleEdges.get(edge)) {
+                    continue;
+                }
+                numVisibleEdges++;
+                int neighbor = memberOrdinals[graph.getOpposite(edge, node)];
+                if (neighbor >= 0 && numNeighbors < 2) {
+                    neighbors[numNeighbors++] = neighbor;
+                }
+            }
+            if (numVisibleEdges > 0) {
+                builder.addMetabolite(graph.getNodeId(node), ringClassOfDegree(numVisibleEdges), neighbors[0], neighbors[1]);
+            }
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getId(int node) {
+        return ids[node];
+    }
+
+    /**
+     * @return the ordinal of the node with the given identifier, -1 if it is not part of the snapshot
+     */
+    public synchronized int getOrdinal(long id) {
+        if (ordinals == null) {
+            ordinals = new HashMap<>(size * 2);
+            for (int node = 0; node < size; node++) {
+                ordinals.put(ids[node], node);
+            }
+        }
+        Integer ordinal = ordinals.get(id);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public byte getRingClass(int node) {
+        return ringClasses[node];
+    }
+
+    public int getFirstNeighbor(int node) {
+        return firstNeighbors[node];
+    }
+
+    public int getSecondNeighbor(int node) {
+        return secondNeighbors[node];
+    }
+
+    /**
+     * Collects the visible nodes. Members have to be added before the metabolites referring to them.
+     */
+    public static class Builder {
+        private int size = 0;
+        private long[] ids = new long[16];
+        private byte[] ringClasses = new byte[16];
+        private int[] firstNeighbors = new int[16];
+        private int[] secondNeighbors = new int[16];
+
+        /**
+         * @return the ordinal of the new member
+         */
+        public int addMember(long id) {
+            return add(id, MEMBER, -1, -1);
+        }
+
+        /**
+         * @param id external identifier of the metabolite
+         * @param ringClass SINGLE, DOUBLE or MULTI
+         * @param firstNeighbor ordinal of the first visible member neighbour or -1
+         * @param secondNeighbor ordinal of the second visible member neighbour or -1
+         * @return the ordinal of the new metabolite
+         */
+        public int addMetabolite(long id, byte ringClass, int firstNeighbor, int secondNeighbor) {
+            if (ringClass == MEMBER) {
+                throw new IllegalArgumentException("Metabolites must be placed in the single, double or multi ring.");
+            }
+            return add(id, ringClass, firstNeighbor, secondNeighbor);
+        }
+
+        private int add(long id, byte ringClass, int firstNeighbor, int secondNeighbor) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                ringClasses = Arrays.copyOf(ringClasses, capacity);
+                firstNeighbors = Arrays.copyOf(firstNeighbors, capacity);
+                secondNeighbors = Arrays.copyOf(secondNeighbors, capacity);
+            }
+            ids[size] = id;
+            ringClasses[size] = ringClass;
+            firstNeighbors[size] = firstNeighbor;
+            secondNeighbors[size] = secondNeighbor;
+            return size++;
+        }
+
+        public LayoutSnapshot build() {
+            return new LayoutSnapshot(this);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.scynet.core;
+
+/**
+ * Orders the community members on the member ring of the ScyNet layout. Members sharing many double connection
+ * metabolites should be ring neighbours, because these metabolites are placed between adjacent members. This is a
+ * maximum weight Hamiltonian cycle (TSP) problem; it is solved heuristically by a greedy nearest neighbour tour
+ * which is then improved by 2-opt moves.
+ */
+public class MemberOrdering {
+
+    /**
+     * Upper bound of full 2-opt passes, each pass is quadratic in the number of members
+     */
+    private static final int MAX_PASSES = 50;
+
+    private MemberOrdering() {
+    }
+
+    /**
+     * Computes the ring order of the members.
+     *
+     * @param numMembers the number of members
+     * @param weights packed symmetric matrix with the number of shared metabolites of members i and j at
+     *                index i * numMembers + j
+     * @return the member indices in ring order
+     */
+    public static int[] order(int numMembers, int[] weights) {
+        int[] tour = new int[numMembers];
+        if (numMembers == 0) {
+            return tour;
+        }
+        greedyTour(numMembers, weights, tour);
+        if (numMembers > 3) {
+            improveByTwoOpt(numMembers, weights, tour);
+        }
+        return tour;
+    }
+
+    /**
+     * @return the sum of the weights between ring neighbours of the given order
+     */
+    public static long tourWeight(int numMembers, int[] weights, int[] tour) {
+        if (numMembers < 2) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < numMembers; i++) {
+            sum += weights[tour[i] * numMembers + tour[(i + 1) % numMembers]];
+        }
+        return sum;
+    }
+
+    /**
+     * Starts with the strongest connected pair and repeatedly appends the unplaced member most strongly connected
+     * to the last placed one. Ties are broken by the lower member index to keep the layout deterministic.
+     */
+    private static void greedyTour(int numMembers, int[] weights, int[] tour) {
+        int first = 0;
+        int second = -1;
+        int max = 0;
+        for (int i = 0; i < numMembers; i++) {
+            for (int j = i + 1; j < numMembers; j++) {
+                if (weights[i * numMembers + j] > max) {
+                    max = weights[i * numMembers + j];
+                    first = i;
+                    second = j;
+                }
+            }
+        }
+        boolean[] placed = new boolean[numMembers];
+        tour[0] = first;
+        placed[first] = true;
+        int numPlaced = 1;
+        if (second >= 0) {
+            tour[1] = second;
+            placed[second] = true;
+            numPlaced = 2;
+        }
+        while (numPlaced < numMembers) {
+            int last = tour[numPlaced - 1];
+            int best = -1;
+            int bestWeight = -1;
+            for (int candidate = 0; candidate < numMembers; candidate++) {
+                if (!placed[candidate] && weights[last * numMembers + candidate] > bestWeight) {
+                    bestWeight = weights[last * numMembers + candidate];
+                    best = candidate;
+                }
+            }
+            tour[numPlaced++] = best;
+            placed[best] = true;
+        }
+    }
+
+    /**
+     * Applies improving 2-opt moves until none is left. Reversing the tour segment between positions i + 1 and j
+     * replaces the ring neighbours (a, b) and (c, d) by (a, c) and (b, d).
+     */
+    private static void improveByTwoOpt(int numMembers, int[] weights, int[] tour) {
+        boolean improved = true;
+        for (int pass = 0; pass < MAX_PASSES && improved; pass++) {
+            improved = false;
+            for (int i = 0; i < numMembers - 1; i++) {
+                int a = tour[i];
+                int b = tour[i + 1];
+                // j = numMembers - 1 closes the ring, it must not share a member with (a, b)
+                int lastJ = i == 0 ? numMembers - 2 : numMembers - 1;
+                for (int j = i + 2; j <= lastJ; j++) {
+                    int c = tour[j];
+                    int d = tour[(j + 1) % numMembers];
+                    int gain = weights[a * numMembers + c] + weights[b * numMembers + d]
+                            - weights[a * numMembers + b] - weights[c * numMembers + d];
+                    if (gain > 0) {
+                        reverse(tour, i + 1, j);
+                        b = tour[i + 1];
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void reverse(int[] tour, int from, int to) {
+        while (from < to) {
+            int tmp = tour[from];
+            tour[from] = tour[to];
+            tour[to] = tmp;
+            from++;
+            to--;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.scynet.core;
+
+import java.util.Arrays;
+
+/**
+ * A compact, array based copy of a community metabolic model, as far as ScyNet needs it for the simplification: the
+ * species with their compartments, the reactions with their reactants and products, and the id of the shared
+ * exchange compartment. Species and reactions are addressed by ordinals.
+ */
+public class MetabolicModel {
+
+    private static final int[] NO_SPECIES = new int[0];
+
+    private final String sharedCompartment;
+
+    private final int speciesCount;
+    /**
+     * External identifiers of the species (the SUIDs when read from a CyNetwork)
+     */
+    private final long[] speciesIds;
+    private final String[] speciesSbmlIds;
+    private final String[] speciesSharedNames;
+    private final String[] speciesCompartments;
+
+    private final int reactionCount;
+    /**
+     * External identifiers of the reactions (the SUIDs when read from a CyNetwork)
+     */
+    private final long[] reactionIds;
+    private final String[] reactionSbmlIds;
+    private final String[] reactionSharedNames;
+    private final int[][] reactants;
+    private final int[][] products;
+    /**
+     * Species linked to a reaction other than as reactant or product, e.g. modifiers
+     */
+    private final int[][] otherSpecies;
+
+    private MetabolicModel(Builder builder) {
+        this.sharedCompartment = builder.sharedCompartment;
+        this.speciesCount = builder.speciesCount;
+        this.speciesIds = Arrays.copyOf(builder.speciesIds, speciesCount);
+        this.speciesSbmlIds = Arrays.copyOf(builder.speciesSbmlIds, speciesCount);
+        this.speciesSharedNames = Arrays.copyOf(builder.speciesSharedNames, speciesCount);
+        this.speciesCompartments = Arrays.copyOf(builder.speciesCompartments, speciesCount);
+        this.reactionCount = builder.reactionCount;
+        this.reactionIds = Arrays.copyOf(builder.reactionIds, reactionCount);
+        this.reactionSbmlIds = Arrays.copyOf(builder.reactionSbmlIds, reactionCount);
+        this.reactionSharedNames = Arrays.copyOf(builder.reactionSharedNames, reactionCount);
+        this.reactants = Arrays.copyOf(builder.reactants, reactionCount);
+        this.products = Arrays.copyOf(builder.products, reactionCount);
+        this.otherSpecies = Arrays.copyOf(builder.otherSpecies, reactionCount);
+    }
+
+    /**
+     * @return the id of the compartment shared by all members, "" if none was found
+     */
+    public String getSharedCompartment() {
+        return sharedCompartment;
+    }
+
+    public int getSpeciesCount() {
+        return speciesCount;
+    }
+
+    public long getSpeciesId(int species) {
+        return speciesIds[species];
+    }
+
+    public String getSpeciesSbmlId(int species) {
+        return speciesSbmlIds[species];
+    }
+
+    public String getSpeciesSharedName(int species) {
+        return speciesSharedNames[species];
+    }
+
+    public String getSpeciesCompartment(int species) {
+        return speciesCompartments[species];
+    }
+
+    /**
+     * @return whether the species is in the shared exchange compartment
+     */
+    public boolean isExchangeSpecies(int species) {
+        return sharedCompartment.equals(speciesCompartments[species]);
+    }
+
+    public int getReactionCount() {
+        return reactionCount;
+    }
+
+    public long getReactionId(int reaction) {
+        return reactionIds[reaction];
+    }
+
+    public String getReactionSbmlId(int reaction) {
+        return reactionSbmlIds[reaction];
+    }
+
+    public String getReactionSharedName(int reaction) {
+        return reactionSharedNames[reaction];
+    }
+
+    /**
+     * @return the ordinals of the reactants of the reaction, not to be modified
+     */
+    public int[] getReactants(int reaction) {
+        return reactants[reaction];
+    }
+
+    /**
+     * @return the ordinals of the products of the reaction, not to be modified
+     */
+    public int[] getProducts(int reaction) {
+        return products[reaction];
+    }
+
+    /**
+     * @return the ordinals of the other species linked to the reaction, not to be modified
+     */
+    public int[] getOtherSpecies(int reaction) {
+        return otherSpecies[reaction];
+    }
+
+    /**
+     * Collects species and reactions into growing arrays and creates the immutable MetabolicModel.
+     */
+    public static class Builder {
+        private String sharedCompartment = "";
+
+        private int speciesCount = 0;
+        private long[] speciesIds = new long[16];
+        private String[] speciesSbmlIds = new String[16];
+        private String[] speciesSharedNames = new String[16];
+        private String[] speciesCompartments = new String[16];
+
+        private int reactionCount = 0;
+        private long[] reactionIds = new long[16];
+        private String[] reactionSbmlIds = new String[16];
+        private String[] reactionSharedNames = new String[16];
+        private int[][] reactants = new int[16][];
+        private int[][] products = new int[16][];
+        private int[][] otherSpecies = new int[16][];
+
+        /**
+         * Sets the id of the compartment shared by all members.
+         */
+        public Builder setSharedCompartment(String sharedCompartment) {
+            this.sharedCompartment = sharedCompartment == null ? "" : sharedCompartment;
+            return this;
+        }
+
+        /**
+         * Adds a species.
+         * @param id an external identifier, e.g. the SUID
+         * @param sbmlId the SBML id, e.g. M_cpd00027_e0 or M_cpd00027_ecoli_c0
+         * @param sharedName the name shared by the species of all compartments
+         * @param compartment the SBML id of its compartment
+         * @return the ordinal of the new species
+         */
+        public int addSpecies(long id, String sbmlId, String sharedName, String compartment) {
+            if (speciesCount == speciesIds.length) {
+                int capacity = speciesCount * 2;
+                speciesIds = Arrays.copyOf(speciesIds, capacity);
+                speciesSbmlIds = Arrays.copyOf(speciesSbmlIds, capacity);
+                speciesSharedNames = Arrays.copyOf(speciesSharedNames, capacity);
+                speciesCompartments = Arrays.copyOf(speciesCompartments, capacity);
+            }
+            speciesIds[speciesCount] = id;
+            speciesSbmlIds[speciesCount] = sbmlId;
+            speciesSharedNames[speciesCount] = sharedName;
+            speciesCompartments[speciesCount] = compartment;
+            return speciesCount++;
+        }
+
+        /**
+         * Adds a reaction between previously added species.
+         * @param id an external identifier, e.g. the SUID
+         * @param sbmlId the SBML id, e.g. R_EX_cpd00027_e0
+         * @param sharedName the name of the reaction
+         * @param reactantSpecies ordinals of the reactants
+         * @param productSpecies ordinals of the products
+         * @param others ordinals of other linked species, may be null
+         * @return the ordinal of the new reaction
+         */
+        public int addReaction(long id, String sbmlId, String sharedName, int[] reactantSpecies, int[] productSpecies, int[] others) {
+            checkSpecies(sbmlId, reactantSpecies);
+            checkSpecies(sbmlId, productSpecies);
+            checkSpecies(sbmlId, others);
+            if (reactionCount == reactionIds.length) {
+                int capacity = reactionCount * 2;
+                reactionIds = Arrays.copyOf(reactionIds, capacity);
+                reactionSbmlIds = Arrays.copyOf(reactionSbmlIds, capacity);
+                reactionSharedNames = Arrays.copyOf(reactionSharedNames, capacity);
+                reactants = Arrays.copyOf(reactants, capacity);
+                products = Arrays.copyOf(products, capacity);
+                otherSpecies = Arrays.copyOf(otherSpecies, capacity);
+            }
+            reactionIds[reactionCount] = id;
+            reactionSbmlIds[reactionCount] = sbmlId;
+            reactionSharedNames[reactionCount] = sharedName;
+            reactants[reactionCount] = reactantSpecies == null ? NO_SPECIES : reactantSpecies;
+            products[reactionCount] = productSpecies == null ? NO_SPECIES : productSpecies;
+            otherSpecies[reactionCount] = others == null ? NO_SPECIES : others;
+            return reactionCount++;
+        }
+
+        private void checkSpecies(String reaction, int[] species) {
+            if (species == null) {
+                return;
+            }
+            for (int s : species) {
+                if (s < 0 || s >= speciesCount) {
+                    throw new IllegalArgumentException("Reaction " + reaction + " refers to an unknown species.");
+                }
+            }
+        }
+
+        public int getSpeciesCount() {
+            return speciesCount;
+        }
+
+        public int getReactionCount() {
+            return reactionCount;
+        }
+
+        public MetabolicModel build() {
+            return new MetabolicModel(this);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package org.scynet.core;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a simplified network together with its cross-feeding classification and layout coordinates, for use outside
+ * of Cytoscape. Nodes get the columns of the Cytoscape app ("type", the cross-feeding columns) and the x and y
+ * coordinates of the ScyNet layout; nodes outside of the layout snapshot (hidden metabolites) have no coordinates.
+ * <p>
+ * All formats are written straight to the writer while iterating over the graph, without building a document first.
+ */
+public class NetworkExport {
+
+    private final String name;
+    private final ExchangeGraph graph;
+    private final CrossFeedingEngine crossFeeding;
+    /**
+     * The coordinates by node ordinal, NaN for nodes without coordinates; null if there are none
+     */
+    private final double[] x;
+    private final double[] y;
+
+    /**
+     * @param name the name of the network
+     * @param graph the simplified network
+     * @param crossFeeding the cross-feeding classification of the graph, null if there is no flux data
+     * @param layout the layout of the graph, whose snapshot ids are the node ids of the graph, or null
+     */
+    public NetworkExport(String name, ExchangeGraph graph, CrossFeedingEngine crossFeeding, LayoutResult layout) {
+        this.name = name;
+        this.graph = graph;
+        this.crossFeeding = crossFeeding;
+        if (layout == null) {
+            this.x = null;
+            this.y = null;
+            return;
+        }
+        this.x = new double[graph.getNodeCount()];
+        this.y = new double[graph.getNodeCount()];
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            int ordinal = layout.getSnapshot().getOrdinal(graph.getNodeId(node));
+            x[node] = ordinal >= 0 ? layout.getX(ordinal) : Double.NaN;
+            y[node] = ordinal >= 0 ? layout.getY(ordinal) : Double.NaN;
+        }
+    }
+
+    /**
+     * @param x the x coordinates by node ordinal, NaN for nodes without coordinates, or null
+     * @param y the y coordinates by node ordinal
+     */
+    public NetworkExport(String name, ExchangeGraph graph, CrossFeedingEngine crossFeeding, double[] x, double[] y) {
+        this.name = name;
+        this.graph = graph;
+        this.crossFeeding = crossFeeding;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Writes the network as GraphML, with the node and edge attributes declared as keys.
+     */
+    public void writeGraphMl(Writer writer) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n");
+        writeKey(writer, "name", "node", "name", "string");
+        writeKey(writer, "type", "node", "type", "string");
+        writeKey(writer, "x", "node", "x", "double");
+        writeKey(writer, "y", "node", "y", "double");
+        writeKey(writer, "crossFed", "node", "cross-fed", "boolean");
+        writeKey(writer, "producers", "node", "producers", "int");
+        writeKey(writer, "consumers", "node", "consumers", "int");
+        writeKey(writer, "crossFedFlux", "node", "cross-fed flux", "double");
+        writeKey(writer, "class", "node", "cross-feeding class", "string");
+        writeKey(writer, "edgeName", "edge", "name", "string");
+        writeKey(writer, "flux", "edge", "flux", "double");
+        writeKey(writer, "minFlux", "edge", "min flux", "double");
+        writeKey(writer, "maxFlux", "edge", "max flux", "double");
+        writer.write("  <graph id=\"" + escapeXml(name) + "\" edgedefault=\"directed\">\n");
+
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            writer.write("    <node id=\"n" + node + "\">\n");
+            writeData(writer, "name", escapeXml(graph.getNodeName(node)));
+            writeData(writer, "type", graph.isMember(node) ? "community member" : "exchange metabolite");
+            if (hasPosition(node)) {
+                writeData(writer, "x", format(x[node]));
+                writeData(writer, "y", format(y[node]));
+            }
+            if (crossFeeding != null && !graph.isMember(node)) {
+                writeData(writer, "crossFed", Boolean.toString(crossFeeding.isCrossFed(node)));
+                writeData(writer, "producers", Integer.toString(crossFeeding.getProducers(node)));
+                writeData(writer, "consumers", Integer.toString(crossFeeding.getConsumers(node)));
+                writeData(writer, "crossFedFlux", format(crossFeeding.getCrossFedFlux(node)));
+                writeData(writer, "class", crossFeeding.getClassification(node));
+            }
+            writer.write("    </node>\n");
+        }
+
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            writer.write("    <edge id=\"e" + edge + "\" source=\"n" + graph.getEdgeSource(edge) + "\" target=\"n" + graph.getEdgeTarget(edge) + "\">\n");
+            writeData(writer, "edgeName", escapeXml(graph.getEdgeName(edge)));
+            if (!Double.isNaN(graph.getFlux(edge))) {
+                writeData(writer, "flux", format(graph.getFlux(edge)));
+            }
+            if (graph.hasFluxRange(edge)) {
+                writeData(writer, "minFlux", format(graph.getMinFlux(edge)));
+                writeData(writer, "maxFlux", format(graph.getMaxFlux(edge)));
+            }
+            writer.write("    </edge>\n");
+        }
+        writer.write("  </graph>\n");
+        writer.write("</graphml>\n");
+    }
+
+    /**
+     * Writes the network as one JSON object with the arrays "nodes", "edges" and "crossFeeding". The cross-feeding
+     * table has one row per metabolite and is empty without flux data.
+     */
+    public void writeJson(Writer writer) throws IOException {
+        writer.write("{\n  \"name\": " + quote(name) + ",\n  \"nodes\": [");
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            writer.write(node == 0 ? "\n" : ",\n");
+            writer.write("    {\"id\": " + node + ", \"name\": " + quote(graph.getNodeName(node))
+                    + ", \"type\": " + quote(graph.isMember(node) ? "community member" : "exchange metabolite"));
+            if (hasPosition(node)) {
+                writer.write(", \"x\": " + formatJson(x[node]) + ", \"y\": " + formatJson(y[node]));
+            }
+            writer.write("}");
+        }
+        writer.write("\n  ],\n  \"edges\": [");
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            writer.write(edge == 0 ? "\n" : ",\n");
+            writer.write("    {\"id\": " + edge + ", \"source\": " + graph.getEdgeSource(edge) + ", \"target\": " + graph.getEdgeTarget(edge)
+                    + ", \"name\": " + quote(graph.getEdgeName(edge)) + ", \"flux\": " + formatJson(graph.getFlux(edge))
+                    + ", \"minFlux\": " + formatJson(graph.getMinFlux(edge)) + ", \"maxFlux\": " + formatJson(graph.getMaxFlux(edge)) + "}");
+        }
+        writer.write("\n  ],\n  \"crossFeeding\": [");
+        boolean first = true;
+        for (int node = 0; crossFeeding != null && node < graph.getNodeCount(); node++) {
+            if (graph.isMember(node)) {
+                continue;
+            }
+            writer.write(first ? "\n" : ",\n");
+            first = false;
+            writer.write("    {\"node\": " + node + ", \"name\": " + quote(graph.getNodeName(node))
+                    + ", \"crossFed\": " + crossFeeding.isCrossFed(node) + ", \"producers\": " + crossFeeding.getProducers(node)
+                    + ", \"consumers\": " + crossFeeding.getConsumers(node) + ", \"crossFedFlux\": " + formatJson(crossFeeding.getCrossFedFlux(node))
+                    + ", \"class\": " + quote(crossFeeding.getClassification(node)) + "}");
+        }
+        writer.write("\n  ]\n}\n");
+    }
+
+    /**
+     * Writes the network as CX2, the format of NDEx and of Cytoscape 3.10, with the attributes of writeGraphMl. The
+     * aspects are written as they are iterated: the metadata only needs the node and edge counts, and attributes
+     * without a value (NaN fluxes, metabolites without cross-feeding data) are left out.
+     */
+    public void writeCx2(Writer writer) throws IOException {
+        writer.write("[{\"CXVersion\":\"2.0\",\"hasFragments\":false},\n");
+        writer.write("{\"metaData\":[{\"name\":\"attributeDeclarations\",\"elementCount\":1},{\"name\":\"networkAttributes\",\"elementCount\":1},"
+                + "{\"name\":\"nodes\",\"elementCount\":" + graph.getNodeCount() + "},{\"name\":\"edges\",\"elementCount\":" + graph.getEdgeCount() + "}]},\n");
+        writer.write("{\"attributeDeclarations\":[{\"networkAttributes\":{\"name\":{\"d\":\"string\"}},"
+                + "\"nodes\":{\"name\":{\"d\":\"string\"},\"type\":{\"d\":\"string\"},\"cross-fed\":{\"d\":\"boolean\"},"
+                + "\"producers\":{\"d\":\"integer\"},\"consumers\":{\"d\":\"integer\"},\"cross-fed flux\":{\"d\":\"double\"},"
+                + "\"cross-feeding class\":{\"d\":\"string\"}},"
+                + "\"edges\":{\"name\":{\"d\":\"string\"},\"flux\":{\"d\":\"double\"},\"min flux\":{\"d\":\"double\"},\"max flux\":{\"d\":\"double\"}}}]},\n");
+        writer.write("{\"networkAttributes\":[{\"name\":" + quote(name) + "}]},\n");
+
+        writer.write("{\"nodes\":[");
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            writer.write(node == 0 ? "\n" : ",\n");
+            writer.write("{\"id\":" + node);
+            if (hasPosition(node)) {
+                writer.write(",\"x\":" + formatJson(x[node]) + ",\"y\":" + formatJson(y[node]));
+            }
+            writer.write(",\"v\":{\"name\":" + quote(graph.getNodeName(node))
+                    + ",\"type\":" + quote(graph.isMember(node) ? "community member" : "exchange metabolite"));
+            if (crossFeeding != null && !graph.isMember(node)) {
+                writer.write(",\"cross-fed\":" + crossFeeding.isCrossFed(node) + ",\"producers\":" + crossFeeding.getProducers(node)
+                        + ",\"consumers\":" + crossFeeding.getConsumers(node));
+                writeCx2Double(writer, "cross-fed flux", crossFeeding.getCrossFedFlux(node));
+                writer.write(",\"cross-feeding class\":" + quote(crossFeeding.getClassification(node)));
+            }
+            writer.write("}}");
+        }
+        writer.write("]},\n{\"edges\":[");
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            writer.write(edge == 0 ? "\n" : ",\n");
+            writer.write("{\"id\":" + edge + ",\"s\":" + graph.getEdgeSource(edge) + ",\"t\":" + graph.getEdgeTarget(edge)
+                    + ",\"v\":{\"name\":" + quote(graph.getEdgeName(edge)));
+            writeCx2Double(writer, "flux", graph.getFlux(edge));
+            if (graph.hasFluxRange(edge)) {
+                writeCx2Double(writer, "min flux", graph.getMinFlux(edge));
+                writeCx2Double(writer, "max flux", graph.getMaxFlux(edge));
+            }
+            writer.write("}}");
+        }
+        writer.write("]},\n{\"status\":[{\"error\":\"\",\"success\":true}]}]\n");
+    }
+
+    private static void writeCx2Double(Writer writer, String attribute, double value) throws IOException {
+        if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+            writer.write("," + quote(attribute) + ":" + format(value));
+        }
+    }
+
+    /**
+     * @return whether a graph node has coordinates
+     */
+    private boolean hasPosition(int node) {
+        return x != null && !Double.isNaN(x[node]) && !Double.isNaN(y[node]);
+    }
+
+    private static void writeKey(Writer writer, String id, String domain, String attributeName, String type) throws IOException {
+        writer.write("  <key id=\"" + id + "\" for=\"" + domain + "\" attr.name=\"" + escapeXml(attributeName) + "\" attr.type=\"" + type + "\"/>\n");
+    }
+
+    private static void writeData(Writer writer, String key, String value) throws IOException {
+        writer.write("      <data key=\"" + key + "\">" + value + "</data>\n");
+    }
+
+    private static String format(double value) {
+        return Double.toString(value);
+    }
+
+    /**
+     * @return the number, or null for NaN, which JSON cannot represent
+     */
+    private static String formatJson(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? "null" : format(value);
+    }
+
+    static String escapeXml(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
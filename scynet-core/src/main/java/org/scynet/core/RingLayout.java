@@ -0,0 +1,572 @@
+package org.scynet.core;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Computes the coordinates of the ScyNet layout from a LayoutSnapshot, without touching any network view.
+ * <p>
+ * Nodes are placed into concentric circles: multi connection metabolites in the centre, then the double connection
+ * ring, the community members and the single connection metabolites outside. Double connection metabolites whose
+ * two members are ring neighbours are placed between these members, single connection metabolites next to their
+ * member. Once the members are placed, the three metabolite rings are independent of each other and are computed in
+ * parallel for large networks.
+ * <p>
+ * The metabolites are placed in segments: the multi ring, the double ring, one segment per pair of adjacent members
+ * and one fan of single connection metabolites per member. An incremental update only recomputes the segments whose
+ * nodes changed. Fans of members with many single connection metabolites overlap their neighbouring fans, the
+ * overlapping nodes are moved to rows outside the single ring.
+ */
+public class RingLayout {
+
+    public static final int SIZE_MEMBER_NODE = 150;
+    public static final int SIZE_METABOLITE_NODE = 32;
+    /**
+     * Below this number of nodes the rings are computed sequentially, forking would cost more than it saves
+     */
+    private static final int PARALLEL_THRESHOLD = 10000;
+    /**
+     * An incremental update keeps the radius of a metabolite ring until it is this much too small, so that a few
+     * more nodes in a ring do not move the whole ring
+     */
+    private static final double RADIUS_TOLERANCE = 1.1d;
+    /**
+     * Minimal distance between the centres of two single connection metabolites, the node size plus its border
+     */
+    private static final double SINGLE_CLEARANCE = 1.5d * SIZE_METABOLITE_NODE;
+    /**
+     * Number of rows outside the single ring an overlapping node may be moved to
+     */
+    private static final int MAX_OVERLAP_ROWS = 32;
+
+    private RingLayout() {
+    }
+
+    /**
+     * Computes the positions of all nodes of the snapshot.
+     *
+     * @param snapshot the visible nodes and their ring classes
+     * @return the positions, indexed by snapshot ordinal
+     */
+    public static LayoutResult compute(LayoutSnapshot snapshot) {
+        ScynetEvents.LayoutPass event = ScynetEvents.beginLayoutPass();
+        LayoutResult result = computeAll(snapshot);
+        commit(event, result, false);
+        return result;
+    }
+
+    private static LayoutResult computeAll(LayoutSnapshot snapshot) {
+        int size = snapshot.size();
+        int[] members = getMembers(snapshot);
+        int numMembers = members.length;
+        int[] memberIndices = new int[size];
+        for (int i = 0; i < numMembers; i++) {
+            memberIndices[members[i]] = i;
+        }
+
+        // Count the double connection metabolites shared by each member pair and order the members accordingly
+        int[] memberPairCount = new int[numMembers * numMembers];
+        for (int node = 0; node < size; node++) {
+            if (isBetweenTwoMembers(snapshot, node)) {
+                int first = memberIndices[snapshot.getFirstNeighbor(node)];
+                int second = memberIndices[snapshot.getSecondNeighbor(node)];
+                if (first != second) {
+                    memberPairCount[first * numMembers + second]++;
+                    memberPairCount[second * numMembers + first]++;
+                }
+            }
+        }
+        int[] memberOrder = MemberOrdering.order(numMembers, memberPairCount);
+        // Ring position of every member, indexed by snapshot ordinal
+        int[] ringPositions = new int[size];
+        for (int position = 0; position < numMembers; position++) {
+            ringPositions[members[memberOrder[position]]] = position;
+        }
+
+        Radii radii = requiredRadii(snapshot, numMembers);
+        double[] x = new double[size];
+        double[] y = new double[size];
+
+        for (int position = 0; position < numMembers; position++) {
+            int node = members[memberOrder[position]];
+            double radians = Math.PI * 2 * position / numMembers;
+            x[node] = getXCoordinateFromPolar(radii.members, radians);
+            y[node] = getYCoordinateFromPolar(radii.members, radians);
+        }
+
+        Runnable multiRing = () -> placeMultiRing(snapshot, radii, null, x, y);
+        Runnable doubleRing = () -> placeDoubleRing(snapshot, radii, numMembers, ringPositions, null, x, y);
+        Runnable singleRing = () -> placeSingleRing(snapshot, radii, numMembers, ringPositions, null, x, y);
+        if (size < PARALLEL_THRESHOLD) {
+            multiRing.run();
+            doubleRing.run();
+            singleRing.run();
+        } else {
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            ForkJoinTask<?> multiTask = pool.submit(multiRing);
+            ForkJoinTask<?> doubleTask = pool.submit(doubleRing);
+            singleRing.run();
+            multiTask.join();
+            doubleTask.join();
+        }
+
+        return new LayoutResult(snapshot, memberOrder, members, ringPositions, radii, x, y, null);
+    }
+
+    /**
+     * Checks whether a layout still fits a new snapshot of the same network, i.e. the same nodes are visible and every
+     * metabolite kept its ring class and member neighbours. Positions then do not change, so the layout can be skipped.
+     *
+     * @param previous the layout the view currently shows
+     * @param snapshot the visible nodes after the change
+     * @return whether update would move no node
+     */
+    public static boolean isUnchanged(LayoutResult previous, LayoutSnapshot snapshot) {
+        LayoutSnapshot old = previous.getSnapshot();
+        if (old.size() != snapshot.size()) {
+            return false;
+        }
+        for (int node = 0; node < snapshot.size(); node++) {
+            int oldOrdinal = old.getOrdinal(snapshot.getId(node));
+            if (oldOrdinal < 0 || !sameNeighborhood(snapshot, node, old, oldOrdinal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Updates a previous layout to a new snapshot of the same network. The member ring and the radii are kept, only
+     * the segments containing metabolites which appeared, disappeared or changed their ring class or neighbours are
+     * recomputed; all other nodes keep their previous position. If the visible members changed or the member ring
+     * would have to grow, the layout is computed from scratch.
+     *
+     * @param previous the layout the view currently shows
+     * @param snapshot the visible nodes after the change
+     * @return the new positions together with the nodes that moved
+     */
+    public static LayoutResult update(LayoutResult previous, LayoutSnapshot snapshot) {
+        ScynetEvents.LayoutPass event = ScynetEvents.beginLayoutPass();
+        LayoutResult result = updateSegments(previous, snapshot);
+        commit(event, result, true);
+        return result;
+    }
+
+    private static void commit(ScynetEvents.LayoutPass event, LayoutResult result, boolean incremental) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.nodes = result.getSnapshot().size();
+            event.members = result.getMemberCount();
+            event.moved = result.getMovedCount();
+            event.incremental = incremental;
+            event.commit();
+        }
+    }
+
+    private static LayoutResult updateSegments(LayoutResult previous, LayoutSnapshot snapshot) {
+        LayoutSnapshot old = previous.getSnapshot();
+        int size = snapshot.size();
+        int[] members = getMembers(snapshot);
+        int numMembers = members.length;
+        if (numMembers != previous.getMemberCount()) {
+            return computeAll(snapshot);
+        }
+
+        // Previous ordinal of every node, the member ring has to be unchanged
+        int[] oldOrdinals = new int[size];
+        for (int node = 0; node < size; node++) {
+            oldOrdinals[node] = old.getOrdinal(snapshot.getId(node));
+        }
+        int[] ringPositions = new int[size];
+        int[] memberOrder = new int[numMembers];
+        for (int i = 0; i < numMembers; i++) {
+            int oldOrdinal = oldOrdinals[members[i]];
+            if (oldOrdinal < 0 || old.getRingClass(oldOrdinal) != LayoutSnapshot.MEMBER) {
+                return computeAll(snapshot);
+            }
+            int position = previous.getRingPosition(oldOrdinal);
+            ringPositions[members[i]] = position;
+            memberOrder[position] = i;
+        }
+
+        Radii required = requiredRadii(snapshot, numMembers);
+        Radii previousRadii = previous.getRadii();
+        if (required.members > previousRadii.members) {
+            return computeAll(snapshot);
+        }
+        Radii radii = new Radii(keepRadius(required.multi, previousRadii.multi), keepRadius(required.doubles, previousRadii.doubles),
+                previousRadii.members, keepRadius(required.single, previousRadii.single));
+        if (radii.doubles < radii.multi + 3 * SIZE_METABOLITE_NODE || radii.members < radii.doubles + 2 * SIZE_MEMBER_NODE) {
+            return computeAll(snapshot);
+        }
+
+        // Mark the segments of every changed node, before and after the change
+        Segments dirty = new Segments(numMembers);
+        BitSet kept = new BitSet(old.size());
+        for (int node = 0; node < size; node++) {
+            int oldOrdinal = oldOrdinals[node];
+            if (oldOrdinal >= 0) {
+                kept.set(oldOrdinal);
+            }
+            if (snapshot.getRingClass(node) == LayoutSnapshot.MEMBER) {
+                continue;
+            }
+            if (oldOrdinal < 0) {
+                dirty.mark(snapshot, ringPositions, numMembers, node);
+            } else if (!sameNeighborhood(snapshot, node, old, oldOrdinal)) {
+                dirty.mark(snapshot, ringPositions, numMembers, node);
+                dirty.mark(old, previous.getRingPositions(), numMembers, oldOrdinal);
+            }
+        }
+        for (int oldOrdinal = kept.nextClearBit(0); oldOrdinal < old.size(); oldOrdinal = kept.nextClearBit(oldOrdinal + 1)) {
+            dirty.mark(old, previous.getRingPositions(), numMembers, oldOrdinal);
+        }
+        if (radii.multi != previousRadii.multi) {
+            dirty.multiRing = true;
+        }
+        if (radii.doubles != previousRadii.doubles) {
+            dirty.doubleRing = true;
+            dirty.pairs.set(0, numMembers);
+        }
+        if (radii.single != previousRadii.single) {
+            dirty.fans.set(0, numMembers);
+        }
+
+        // Keep the previous positions, then recompute the dirty segments
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int node = 0; node < size; node++) {
+            if (oldOrdinals[node] >= 0) {
+                x[node] = previous.getX(oldOrdinals[node]);
+                y[node] = previous.getY(oldOrdinals[node]);
+            }
+        }
+        placeMultiRing(snapshot, radii, dirty, x, y);
+        placeDoubleRing(snapshot, radii, numMembers, ringPositions, dirty, x, y);
+        placeSingleRing(snapshot, radii, numMembers, ringPositions, dirty, x, y);
+
+        BitSet moved = new BitSet(size);
+        for (int node = 0; node < size; node++) {
+            int oldOrdinal = oldOrdinals[node];
+            if (oldOrdinal < 0 || x[node] != previous.getX(oldOrdinal) || y[node] != previous.getY(oldOrdinal)) {
+                moved.set(node);
+            }
+        }
+        return new LayoutResult(snapshot, memberOrder, members, ringPositions, radii, x, y, moved);
+    }
+
+    private static double keepRadius(double required, double previous) {
+        return required > previous * RADIUS_TOLERANCE ? required : previous;
+    }
+
+    /**
+     * @return whether the node is a double connection metabolite connected to two visible members
+     */
+    static boolean isBetweenTwoMembers(LayoutSnapshot snapshot, int node) {
+        return snapshot.getRingClass(node) == LayoutSnapshot.DOUBLE
+                && snapshot.getFirstNeighbor(node) >= 0 && snapshot.getSecondNeighbor(node) >= 0;
+    }
+
+    /**
+     * @return the snapshot ordinals of the members, in snapshot order
+     */
+    private static int[] getMembers(LayoutSnapshot snapshot) {
+        int numMembers = 0;
+        for (int node = 0; node < snapshot.size(); node++) {
+            if (snapshot.getRingClass(node) == LayoutSnapshot.MEMBER) {
+                numMembers++;
+            }
+        }
+        int[] members = new int[numMembers];
+        int i = 0;
+        for (int node = 0; node < snapshot.size(); node++) {
+            if (snapshot.getRingClass(node) == LayoutSnapshot.MEMBER) {
+                members[i++] = node;
+            }
+        }
+        return members;
+    }
+
+    private static Radii requiredRadii(LayoutSnapshot snapshot, int numMembers) {
+        int numSingle = 0;
+        int numDouble = 0;
+        int numMulti = 0;
+        for (int node = 0; node < snapshot.size(); node++) {
+            byte ringClass = snapshot.getRingClass(node);
+            if (ringClass == LayoutSnapshot.SINGLE) {
+                numSingle++;
+            } else if (ringClass == LayoutSnapshot.DOUBLE) {
+                numDouble++;
+            } else if (ringClass == LayoutSnapshot.MULTI) {
+                numMulti++;
+            }
+        }
+        return new Radii(numMembers, numSingle, numDouble, numMulti);
+    }
+
+    /**
+     * @return whether a metabolite has the same ring class and member neighbours in both snapshots
+     */
+    private static boolean sameNeighborhood(LayoutSnapshot snapshot, int node, LayoutSnapshot old, int oldOrdinal) {
+        return snapshot.getRingClass(node) == old.getRingClass(oldOrdinal)
+                && sameNode(snapshot, snapshot.getFirstNeighbor(node), old, old.getFirstNeighbor(oldOrdinal))
+                && sameNode(snapshot, snapshot.getSecondNeighbor(node), old, old.getSecondNeighbor(oldOrdinal));
+    }
+
+    private static boolean sameNode(LayoutSnapshot snapshot, int node, LayoutSnapshot old, int oldOrdinal) {
+        if (node < 0 || oldOrdinal < 0) {
+            return node < 0 && oldOrdinal < 0;
+        }
+        return snapshot.getId(node) == old.getId(oldOrdinal);
+    }
+
+    /**
+     * @return the ring position of the first member of the adjacent member pair a double connection metabolite is
+     * placed between, -1 if it is placed on the double ring
+     */
+    private static int getPairSegment(LayoutSnapshot snapshot, int[] ringPositions, int numMembers, int node) {
+        if (!isBetweenTwoMembers(snapshot, node)) {
+            return -1;
+        }
+        int position1 = ringPositions[snapshot.getFirstNeighbor(node)];
+        int position2 = ringPositions[snapshot.getSecondNeighbor(node)];
+        int lower = Math.min(position1, position2);
+        int upper = Math.max(position1, position2);
+        if (upper - lower == 1) {
+            return lower;
+        } else if (lower == 0 && upper == numMembers - 1 && numMembers > 2) {
+            // The pair closing the ring
+            return numMembers - 1;
+        }
+        return -1;
+    }
+
+    private static void placeMultiRing(LayoutSnapshot snapshot, Radii radii, Segments dirty, double[] x, double[] y) {
+        if (dirty != null && !dirty.multiRing) {
+            return;
+        }
+        int numMulti = 0;
+        for (int node = 0; node < snapshot.size(); node++) {
+            if (snapshot.getRingClass(node) == LayoutSnapshot.MULTI) {
+                numMulti++;
+            }
+        }
+        int multiNodeIndex = 0;
+        for (int node = 0; node < snapshot.size(); node++) {
+            if (snapshot.getRingClass(node) != LayoutSnapshot.MULTI) {
+                continue;
+            }
+            double radians = Math.PI * 2 * multiNodeIndex / numMulti;
+            x[node] = getXCoordinateFromPolar(radii.multi, radians);
+            y[node] = getYCoordinateFromPolar(radii.multi, radians);
+            multiNodeIndex++;
+        }
+    }
+
+    private static void placeDoubleRing(LayoutSnapshot snapshot, Radii radii, int numMembers, int[] ringPositions,
+                                        Segments dirty, double[] x, double[] y) {
+        // Segment of every double connection metabolite: -1 for the double ring, else the adjacent member pair
+        int[] segments = new int[snapshot.size()];
+        int numRing = 0;
+        for (int node = 0; node < snapshot.size(); node++) {
+            if (snapshot.getRingClass(node) == LayoutSnapshot.DOUBLE) {
+                segments[node] = getPairSegment(snapshot, ringPositions, numMembers, node);
+                if (segments[node] < 0) {
+                    numRing++;
+                }
+            }
+        }
+
+        int ringNodeIndex = 0;
+        int[] numberPlacedDouble = new int[numMembers];
+        for (int node = 0; node < snapshot.size(); node++) {
+            if (snapshot.getRingClass(node) != LayoutSnapshot.DOUBLE) {
+                continue;
+            }
+            int segment = segments[node];
+            if (segment < 0) {
+                // Place the node in the double node circle
+                if (dirty == null || dirty.doubleRing) {
+                    double radians = Math.PI * 2 * ringNodeIndex / numRing;
+                    x[node] = getXCoordinateFromPolar(radii.doubles, radians);
+                    y[node] = getYCoordinateFromPolar(radii.doubles, radians);
+                }
+                ringNodeIndex++;
+            } else {
+                // Place the node between the member neighbors, further out for every node of the same pair
+                if (dirty == null || dirty.pairs.get(segment)) {
+                    double radians = Math.PI * 2 * (2 * segment + 1) / (2 * numMembers);
+                    double radiusOffset = 4 * SIZE_METABOLITE_NODE + SIZE_METABOLITE_NODE * 1.5 * numberPlacedDouble[segment];
+                    x[node] = getXCoordinateFromPolar(radii.doubles + radiusOffset, radians);
+                    y[node] = getYCoordinateFromPolar(radii.doubles + radiusOffset, radians);
+                }
+                numberPlacedDouble[segment]++;
+            }
+        }
+    }
+
+    private static void placeSingleRing(LayoutSnapshot snapshot, Radii radii, int numMembers, int[] ringPositions,
+                                        Segments dirty, double[] x, double[] y) {
+        // Single connection metabolites fan out alternately left and right of their member
+        int[] numberPlacedSingle = new int[Math.max(numMembers, 1)];
+        double[] angles = new double[snapshot.size()];
+        double minRadiansOffset = 2 * SIZE_METABOLITE_NODE / radii.single;
+        for (int node = 0; node < snapshot.size(); node++) {
+            if (snapshot.getRingClass(node) != LayoutSnapshot.SINGLE) {
+                continue;
+            }
+            int neighbor = snapshot.getFirstNeighbor(node);
+            int memberPosition = neighbor >= 0 ? ringPositions[neighbor] : 0;
+            int placed = neighbor >= 0 ? numberPlacedSingle[memberPosition]++ : 0;
+            if (dirty != null && !dirty.fans.get(memberPosition)) {
+                continue;
+            }
+            double radians = Math.PI * 2 * memberPosition / numMembers;
+            double radiansOffset = Math.ceil(placed / 2.0d);
+            if (placed % 2 == 0) {
+                radiansOffset = -1 * radiansOffset;
+            }
+            angles[node] = radians + minRadiansOffset * radiansOffset;
+            x[node] = getXCoordinateFromPolar(radii.single, angles[node]);
+            y[node] = getYCoordinateFromPolar(radii.single, angles[node]);
+        }
+        resolveSingleOverlaps(snapshot, radii, ringPositions, dirty, angles, x, y);
+    }
+
+    /**
+     * Moves single connection metabolites overlapping an already placed one to rows further out, trying the
+     * original angle and half a node to either side in each row. Nodes are handled in snapshot order, so the nodes
+     * closest to their member stay on the ring and the result is deterministic. The nodes of clean fans keep their
+     * position and only act as obstacles. The spatial hash grid keeps the work per node constant.
+     */
+    private static void resolveSingleOverlaps(LayoutSnapshot snapshot, Radii radii, int[] ringPositions, Segments dirty,
+                                              double[] angles, double[] x, double[] y) {
+        SpatialHashGrid grid = new SpatialHashGrid(SINGLE_CLEARANCE, snapshot.size());
+        if (dirty != null) {
+            for (int node = 0; node < snapshot.size(); node++) {
+                if (snapshot.getRingClass(node) == LayoutSnapshot.SINGLE && !isInDirtyFan(snapshot, ringPositions, dirty, node)) {
+                    grid.add(x[node], y[node]);
+                }
+            }
+        }
+        for (int node = 0; node < snapshot.size(); node++) {
+            if (snapshot.getRingClass(node) != LayoutSnapshot.SINGLE || !isInDirtyFan(snapshot, ringPositions, dirty, node)) {
+                continue;
+            }
+            double newX = x[node];
+            double newY = y[node];
+            for (int row = 1; row <= MAX_OVERLAP_ROWS && !grid.isFree(newX, newY); row++) {
+                double radius = radii.single + row * SINGLE_CLEARANCE;
+                double halfStep = SINGLE_CLEARANCE / (2 * radius);
+                for (int candidate = 0; candidate < 3; candidate++) {
+                    double radians = angles[node] + (candidate == 0 ? 0 : candidate == 1 ? -halfStep : halfStep);
+                    newX = getXCoordinateFromPolar(radius, radians);
+                    newY = getYCoordinateFromPolar(radius, radians);
+                    if (grid.isFree(newX, newY)) {
+                        break;
+                    }
+                }
+            }
+            x[node] = newX;
+            y[node] = newY;
+            grid.add(newX, newY);
+        }
+    }
+
+    private static boolean isInDirtyFan(LayoutSnapshot snapshot, int[] ringPositions, Segments dirty, int node) {
+        if (dirty == null) {
+            return true;
+        }
+        int neighbor = snapshot.getFirstNeighbor(node);
+        return dirty.fans.get(neighbor >= 0 ? ringPositions[neighbor] : 0);
+    }
+
+    public static double getXCoordinateFromPolar(double radius, double radians) {
+        return (double) Math.round(radius * Math.cos(radians));
+    }
+
+    public static double getYCoordinateFromPolar(double radius, double radians) {
+        return (double) Math.round(radius * Math.sin(radians));
+    }
+
+    /**
+     * The segments an incremental update has to recompute. Pairs are keyed by the ring position of their first
+     * member, fans by the ring position of their member.
+     */
+    private static class Segments {
+        boolean multiRing = false;
+        boolean doubleRing = false;
+        final BitSet pairs;
+        final BitSet fans;
+
+        Segments(int numMembers) {
+            this.pairs = new BitSet(numMembers);
+            this.fans = new BitSet(numMembers);
+        }
+
+        /**
+         * Marks the segment of a metabolite, using the member ring positions of the snapshot it belongs to.
+         */
+        void mark(LayoutSnapshot snapshot, int[] ringPositions, int numMembers, int node) {
+            switch (snapshot.getRingClass(node)) {
+                case LayoutSnapshot.MULTI:
+                    multiRing = true;
+                    break;
+                case LayoutSnapshot.DOUBLE:
+                    int segment = getPairSegment(snapshot, ringPositions, numMembers, node);
+                    if (segment < 0) {
+                        doubleRing = true;
+                    } else {
+                        pairs.set(segment);
+                    }
+                    break;
+                case LayoutSnapshot.SINGLE:
+                    int neighbor = snapshot.getFirstNeighbor(node);
+                    fans.set(neighbor >= 0 ? ringPositions[neighbor] : 0);
+                    break;
+                default:
+            }
+        }
+    }
+
+    /**
+     * The radii of the four circles, derived from the number of nodes in each of them.
+     */
+    public static class Radii {
+        public final double multi;
+        public final double doubles;
+        public final double members;
+        public final double single;
+
+        public Radii(int numMembers, int numSingle, int numDouble, int numMulti) {
+            double radiusMulti = Math.ceil(numMulti / Math.PI) * SIZE_METABOLITE_NODE + 2 * SIZE_METABOLITE_NODE;
+            double radiusDouble = Math.ceil(numDouble / Math.PI) + 4 * SIZE_METABOLITE_NODE;
+            if (radiusDouble < radiusMulti + 3 * SIZE_METABOLITE_NODE) {
+                radiusDouble = radiusMulti + 3 * SIZE_METABOLITE_NODE;
+            }
+            double radiusMembers = Math.ceil(numMembers / Math.PI) * SIZE_MEMBER_NODE + 2 * SIZE_MEMBER_NODE;
+            if (radiusMembers < radiusDouble + 2 * SIZE_MEMBER_NODE) {
+                radiusMembers = radiusDouble + 2 * SIZE_MEMBER_NODE;
+            }
+            double radiusSingle = Math.ceil(numSingle / Math.PI) * SIZE_METABOLITE_NODE + 4 * SIZE_METABOLITE_NODE;
+            if (radiusSingle < radiusMembers + 4 * SIZE_METABOLITE_NODE) {
+                radiusSingle = radiusMembers + 4 * SIZE_METABOLITE_NODE;
+            }
+            this.multi = radiusMulti;
+            this.doubles = radiusDouble;
+            this.members = radiusMembers;
+            this.single = radiusSingle;
+        }
+
+        Radii(double multi, double doubles, double members, double single) {
+            this.multi = multi;
+            this.doubles = doubles;
+            this.members = members;
+            this.single = single;
+        }
+    }
+}
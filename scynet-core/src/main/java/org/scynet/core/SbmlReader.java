@@ -0,0 +1,275 @@
+package org.scynet.core;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads a community metabolic model from an SBML file into a MetabolicModel, with a StAX parser and without any SBML
+ * library. Only the elements ScyNet needs are read: species, reactions with their species references and the
+ * parameter or compartment naming the shared exchange compartment. Species and reaction names are taken as shared
+ * names, as cy3sbml does.
+ * <p>
+ * The shared compartment is the name of the parameter shared_compartment_id if there is one, otherwise a compartment
+ * with the id medium.
+ */
+public class SbmlReader {
+
+    private SbmlReader() {
+    }
+
+    /**
+     * Reads an SBML file.
+     *
+     * @param file an SBML level 3 file of a community model
+     * @return the species and reactions of the model, identified by their order in the file
+     * @throws IOException if the file could not be read or is not valid XML
+     */
+    public static MetabolicModel read(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads an SBML document from a stream.
+     *
+     * @throws IOException if the stream could not be read or is not valid XML
+     */
+    public static MetabolicModel read(InputStream in) throws IOException {
+        return parse(in, null);
+    }
+
+    /**
+     * Reads only the exchange layer of an SBML file: the species of the shared compartment and the reactions with any
+     * of them, including their other species. All other species are only remembered by their compartment while the
+     * file is streamed, and all other reactions are skipped, so memory scales with the exchange layer rather than the
+     * genome-scale models of the members. The file is streamed twice, first to find the shared compartment.
+     * <p>
+     * CommunitySimplifier gives the same network as for the full model, except that members without any exchange
+     * reaction are left out.
+     *
+     * @param file an SBML level 3 file of a community model
+     * @return the exchange layer, with an empty shared compartment if none was found
+     * @throws IOException if the file could not be read or is not valid XML
+     */
+    public static MetabolicModel readExchangeLayer(File file) throws IOException {
+        String sharedCompartment;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            sharedCompartment = readSharedCompartment(in);
+        }
+        if (sharedCompartment.isEmpty()) {
+            return new MetabolicModel.Builder().build();
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return parse(in, sharedCompartment);
+        }
+    }
+
+    /**
+     * @return the name of the parameter shared_compartment_id, else medium if there is such a compartment, else ""
+     */
+    private static String readSharedCompartment(InputStream in) throws IOException {
+        boolean hasMedium = false;
+        XMLStreamReader reader = null;
+        try {
+            reader = createFactory().createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String name = reader.getLocalName();
+                if (name.equals("compartment")) {
+                    hasMedium |= Objects.equals(reader.getAttributeValue(null, "id"), "medium");
+                } else if (name.equals("parameter") && Objects.equals(reader.getAttributeValue(null, "id"), "shared_compartment_id")) {
+                    return reader.getAttributeValue(null, "name");
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("The SBML file could not be parsed: " + e.getMessage(), e);
+        } finally {
+            close(reader);
+        }
+        return hasMedium ? "medium" : "";
+    }
+
+    /**
+     * @param exchangeCompartment the shared compartment to read the exchange layer of, null to read the whole model
+     */
+    private static MetabolicModel parse(InputStream in, String exchangeCompartment) throws IOException {
+        MetabolicModel.Builder builder = new MetabolicModel.Builder();
+        HashMap<String, Integer> speciesOrdinals = new HashMap<>();
+        // Compartments of the species outside of the exchange layer, with one String instance per compartment, and the
+        // ordinals of the ones added for an exchange reaction
+        HashMap<String, String> otherSpeciesCompartments = new HashMap<>();
+        HashMap<String, Integer> otherSpeciesOrdinals = new HashMap<>();
+        HashMap<String, String> compartments = new HashMap<>();
+        String sharedParameter = null;
+        boolean hasMedium = false;
+
+        // State of the reaction currently read
+        String reactionId = null;
+        String reactionName = null;
+        List<String> reactants = new ArrayList<>();
+        List<String> products = new ArrayList<>();
+        List<String> others = new ArrayList<>();
+        List<String> currentList = null;
+
+        XMLStreamReader reader = null;
+        try {
+            reader = createFactory().createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "compartment":
+                            hasMedium |= Objects.equals(reader.getAttributeValue(null, "id"), "medium");
+                            break;
+                        case "species":
+                            String speciesId = reader.getAttributeValue(null, "id");
+                            String compartment = reader.getAttributeValue(null, "compartment");
+                            if (exchangeCompartment == null || Objects.equals(compartment, exchangeCompartment)) {
+                                String speciesName = reader.getAttributeValue(null, "name");
+                                speciesOrdinals.put(speciesId, builder.addSpecies(builder.getSpeciesCount(), speciesId,
+                                        speciesName == null ? speciesId : speciesName, compartment));
+                            } else {
+                                String known = compartments.get(compartment);
+                                if (known == null) {
+                                    compartments.put(compartment, compartment);
+                                    known = compartment;
+                                }
+                                otherSpeciesCompartments.put(speciesId, known);
+                            }
+                            break;
+                        case "parameter":
+                            if (Objects.equals(reader.getAttributeValue(null, "id"), "shared_compartment_id")) {
+                                sharedParameter = reader.getAttributeValue(null, "name");
+                            }
+                            break;
+                        case "reaction":
+                            reactionId = reader.getAttributeValue(null, "id");
+                            reactionName = reader.getAttributeValue(null, "name");
+                            reactants.clear();
+                            products.clear();
+                            others.clear();
+                            break;
+                        case "listOfReactants":
+                            currentList = reactants;
+                            break;
+                        case "listOfProducts":
+                            currentList = products;
+                            break;
+                        case "listOfModifiers":
+                            currentList = others;
+                            break;
+                        case "speciesReference":
+                        case "modifierSpeciesReference":
+                            if (reactionId != null && currentList != null) {
+                                currentList.add(reader.getAttributeValue(null, "species"));
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (name.equals("reaction") && reactionId != null) {
+                        if (exchangeCompartment == null || anyKnown(speciesOrdinals, reactants, products, others)) {
+                            builder.addReaction(builder.getReactionCount(), reactionId, reactionName == null ? reactionId : reactionName,
+                                    toOrdinals(builder, speciesOrdinals, otherSpeciesOrdinals, otherSpeciesCompartments, reactants),
+                                    toOrdinals(builder, speciesOrdinals, otherSpeciesOrdinals, otherSpeciesCompartments, products),
+                                    toOrdinals(builder, speciesOrdinals, otherSpeciesOrdinals, otherSpeciesCompartments, others));
+                        }
+                        reactionId = null;
+                    } else if (name.startsWith("listOf")) {
+                        currentList = null;
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("The SBML file could not be parsed: " + e.getMessage(), e);
+        } finally {
+            close(reader);
+        }
+        if (exchangeCompartment != null) {
+            builder.setSharedCompartment(exchangeCompartment);
+        } else if (sharedParameter != null) {
+            builder.setSharedCompartment(sharedParameter);
+        } else if (hasMedium) {
+            builder.setSharedCompartment("medium");
+        }
+        return builder.build();
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException ignored) {
+                // the stream is closed by the caller
+            }
+        }
+    }
+
+    @SafeVarargs
+    private static boolean anyKnown(HashMap<String, Integer> speciesOrdinals, List<String>... speciesLists) {
+        for (List<String> species : speciesLists) {
+            for (String id : species) {
+                if (speciesOrdinals.containsKey(id)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Translates species ids to ordinals. Species outside of the exchange layer are added on first use, unknown
+     * species are skipped.
+     */
+    private static int[] toOrdinals(MetabolicModel.Builder builder, HashMap<String, Integer> speciesOrdinals, HashMap<String, Integer> otherSpeciesOrdinals,
+                                    HashMap<String, String> otherSpeciesCompartments, List<String> species) {
+        List<Integer> ordinals = new ArrayList<>(species.size());
+        for (String id : species) {
+            Integer ordinal = speciesOrdinals.get(id);
+            if (ordinal == null) {
+                ordinal = otherSpeciesOrdinals.get(id);
+            }
+            if (ordinal == null) {
+                String compartment = otherSpeciesCompartments.remove(id);
+                if (compartment == null) {
+                    continue;
+                }
+                ordinal = builder.addSpecies(builder.getSpeciesCount(), id, id, compartment);
+                otherSpeciesOrdinals.put(id, ordinal);
+            }
+            ordinals.add(ordinal);
+        }
+        return toArray(ordinals);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+}
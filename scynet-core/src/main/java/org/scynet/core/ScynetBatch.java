@@ -0,0 +1,308 @@
+package org.scynet.core;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line batch mode: simplifies every SBML community model of a directory, contextualizes it with each of its
+ * flux files and writes the networks, cross-feeding tables and ScyNet layout coordinates as GraphML and/or JSON.
+ * Models are processed concurrently on a bounded pool of worker threads, and timing.tsv reports the time of every
+ * phase per model and flux file.
+ * <p>
+ * A flux file belongs to the model whose file name tokens (split at underscores) all appear, in order, in the flux
+ * file name, preferring the model with the most tokens: koch_com_model_fba_9sp.csv belongs to koch_com_model_9sp.xml
+ * rather than to koch_com_model.xml.
+ * <p>
+ * Usage: ScynetBatch input-directory output-directory [--threads n] [--format graphml|json|both]
+ */
+public class ScynetBatch {
+
+    private static final String USAGE = "Usage: ScynetBatch input-directory output-directory [--threads n] [--format graphml|json|both]";
+
+    private final File outputDirectory;
+    private final boolean graphMl;
+    private final boolean json;
+
+    public ScynetBatch(File outputDirectory, boolean graphMl, boolean json) {
+        this.outputDirectory = outputDirectory;
+        this.graphMl = graphMl;
+        this.json = json;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        String format = "both";
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--format") && i + 1 < args.length) {
+                format = args[++i];
+            } else {
+                System.err.println(USAGE);
+                System.exit(1);
+            }
+        }
+        File inputDirectory = new File(args[0]);
+        File outputDirectory = new File(args[1]);
+        if (!inputDirectory.isDirectory()) {
+            System.err.println(inputDirectory + " is not a directory.");
+            System.exit(1);
+        }
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("Could not create " + outputDirectory);
+        }
+
+        ScynetBatch batch = new ScynetBatch(outputDirectory, !format.equals("json"), !format.equals("graphml"));
+        List<Timing> timings = batch.run(pairFiles(inputDirectory), threads);
+        writeReport(timings, new File(outputDirectory, "timing.tsv"));
+
+        int failed = 0;
+        for (Timing timing : timings) {
+            System.out.println(timing.toRow());
+            if (timing.error != null) {
+                failed++;
+            }
+        }
+        System.out.printf(Locale.ROOT, "Processed %d networks with %d threads, %d failed.%n", timings.size(), threads, failed);
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    /**
+     * Processes the models on a pool of worker threads. At most twice as many models as threads wait for a worker at
+     * any time; beyond that, the submitting thread processes models itself.
+     *
+     * @param models the flux files of every model, see pairFiles
+     * @param threads the number of worker threads
+     * @return the timings of every network, in model order
+     */
+    public List<Timing> run(Map<File, List<File>> models, int threads) throws InterruptedException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(2 * threads), new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<List<Timing>>> futures = new ArrayList<>();
+        for (Map.Entry<File, List<File>> model : models.entrySet()) {
+            futures.add(executor.submit(() -> process(model.getKey(), model.getValue())));
+        }
+        executor.shutdown();
+
+        List<Timing> timings = new ArrayList<>();
+        for (Future<List<Timing>> future : futures) {
+            try {
+                timings.addAll(future.get());
+            } catch (ExecutionException e) {
+                // process catches all exceptions of a model, so this is a bug
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return timings;
+    }
+
+    /**
+     * Reads the exchange layer of a model once and writes one network per flux file, or a single network without flux
+     * data if there are no flux files. Errors are reported in the timing of the network and do not stop the batch.
+     */
+    List<Timing> process(File modelFile, List<File> fluxFiles) {
+        List<Timing> timings = new ArrayList<>();
+        String modelName = FluxFile.conditionName(modelFile);
+        long start = System.nanoTime();
+        MetabolicModel model;
+        try {
+            model = SbmlReader.readExchangeLayer(modelFile);
+            if (model.getSharedCompartment().isEmpty()) {
+                throw new IllegalArgumentException("No shared exchange compartment was found.");
+            }
+        } catch (IOException | RuntimeException e) {
+            Timing timing = new Timing(modelName, "");
+            timing.error = e.getMessage() == null ? e.toString() : e.getMessage();
+            timings.add(timing);
+            return timings;
+        }
+        long readNanos = System.nanoTime() - start;
+
+        List<File> conditions = fluxFiles.isEmpty() ? Arrays.asList((File) null) : fluxFiles;
+        for (File fluxFile : conditions) {
+            Timing timing = new Timing(modelName, fluxFile == null ? "" : FluxFile.conditionName(fluxFile));
+            timing.readNanos = readNanos;
+            try {
+                process(model, fluxFile, timing);
+            } catch (IOException | RuntimeException e) {
+                timing.error = e.getMessage() == null ? e.toString() : e.getMessage();
+            }
+            timings.add(timing);
+        }
+        return timings;
+    }
+
+    private void process(MetabolicModel model, File fluxFile, Timing timing) throws IOException {
+        long start = System.nanoTime();
+        FluxFile flux = fluxFile == null ? null : FluxFile.read(fluxFile);
+        long fluxTime = System.nanoTime();
+
+        ExchangeGraph graph = CommunitySimplifier.simplify(model, flux).getGraph();
+        long simplifyTime = System.nanoTime();
+
+        CrossFeedingEngine crossFeeding = flux == null ? null : CrossFeedingEngine.compute(graph);
+        long crossFeedingTime = System.nanoTime();
+
+        // Zero flux edges are hidden as in the Cytoscape app, and with them the metabolites left without any edge
+        FilterEngine filter = new FilterEngine(graph);
+        filter.setDirectionClasses(FilterEngine.ALL_DIRECTIONS & ~(1 << FilterEngine.ZERO_FLUX));
+        LayoutResult layout = RingLayout.compute(LayoutSnapshot.of(graph, filter.getEdgeMask()));
+        long layoutTime = System.nanoTime();
+
+        String name = timing.condition.isEmpty() ? timing.model : timing.model + "." + timing.condition;
+        NetworkExport export = new NetworkExport(name, graph, crossFeeding, layout);
+        if (graphMl) {
+            try (Writer writer = openWriter(new File(outputDirectory, name + ".graphml"))) {
+                export.writeGraphMl(writer);
+            }
+        }
+        if (json) {
+            try (Writer writer = openWriter(new File(outputDirectory, name + ".json"))) {
+                export.writeJson(writer);
+            }
+        }
+        long writeTime = System.nanoTime();
+
+        timing.nodes = graph.getNodeCount();
+        timing.edges = graph.getEdgeCount();
+        timing.fluxNanos = fluxTime - start;
+        timing.simplifyNanos = simplifyTime - fluxTime;
+        timing.crossFeedingNanos = crossFeedingTime - simplifyTime;
+        timing.layoutNanos = layoutTime - crossFeedingTime;
+        timing.writeNanos = writeTime - layoutTime;
+    }
+
+    private static Writer openWriter(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Pairs the SBML files (.xml, .sbml) of a directory with their flux files (.csv, .tsv, .txt).
+     *
+     * @return the flux files of every model, sorted by file name
+     */
+    public static Map<File, List<File>> pairFiles(File directory) {
+        File[] files = directory.listFiles();
+        Map<File, List<File>> models = new LinkedHashMap<>();
+        if (files == null) {
+            return models;
+        }
+        Arrays.sort(files);
+        List<File> fluxFiles = new ArrayList<>();
+        for (File file : files) {
+            String name = file.getName().toLowerCase(Locale.ROOT);
+            if (!file.isFile()) {
+                continue;
+            } else if (name.endsWith(".xml") || name.endsWith(".sbml")) {
+                models.put(file, new ArrayList<File>());
+            } else if (name.endsWith(".csv") || name.endsWith(".tsv") || name.endsWith(".txt")) {
+                fluxFiles.add(file);
+            }
+        }
+        for (File fluxFile : fluxFiles) {
+            String[] fluxTokens = FluxFile.conditionName(fluxFile).split("_");
+            File best = null;
+            int bestTokens = 0;
+            for (File model : models.keySet()) {
+                String[] modelTokens = FluxFile.conditionName(model).split("_");
+                if (modelTokens.length > bestTokens && isSubsequence(modelTokens, fluxTokens)) {
+                    best = model;
+                    bestTokens = modelTokens.length;
+                }
+            }
+            if (best != null) {
+                models.get(best).add(fluxFile);
+            }
+        }
+        return models;
+    }
+
+    private static boolean isSubsequence(String[] tokens, String[] sequence) {
+        int next = 0;
+        for (String token : sequence) {
+            if (next < tokens.length && token.equals(tokens[next])) {
+                next++;
+            }
+        }
+        return next == tokens.length;
+    }
+
+    private static void writeReport(List<Timing> timings, File file) throws IOException {
+        try (Writer writer = openWriter(file)) {
+            writer.write(Timing.HEADER + "\n");
+            for (Timing timing : timings) {
+                writer.write(timing.toRow() + "\n");
+            }
+        }
+    }
+
+    /**
+     * The size and phase times of one network. The read time of a model is shared by all of its flux files.
+     */
+    public static class Timing {
+
+        static final String HEADER = "model\tcondition\tnodes\tedges\tread ms\tflux ms\tsimplify ms\tcross-feeding ms\tlayout ms\twrite ms\ttotal ms\terror";
+
+        private final String model;
+        private final String condition;
+        private int nodes;
+        private int edges;
+        private long readNanos;
+        private long fluxNanos;
+        private long simplifyNanos;
+        private long crossFeedingNanos;
+        private long layoutNanos;
+        private long writeNanos;
+        private String error;
+
+        Timing(String model, String condition) {
+            this.model = model;
+            this.condition = condition;
+        }
+
+        public String getModel() {
+            return model;
+        }
+
+        public String getCondition() {
+            return condition;
+        }
+
+        /**
+         * @return the error message if the network could not be processed, null otherwise
+         */
+        public String getError() {
+            return error;
+        }
+
+        public long getTotalNanos() {
+            return readNanos + fluxNanos + simplifyNanos + crossFeedingNanos + layoutNanos + writeNanos;
+        }
+
+        String toRow() {
+            return String.format(Locale.ROOT, "%s\t%s\t%d\t%d\t%.1f\t%.1f\t%.1f\t%.1f\t%.1f\t%.1f\t%.1f\t%s", model, condition, nodes, edges,
+                    readNanos / 1e6, fluxNanos / 1e6, simplifyNanos / 1e6, crossFeedingNanos / 1e6, layoutNanos / 1e6, writeNanos / 1e6,
+                    getTotalNanos() / 1e6, error == null ? "" : error.replace('\t', ' ').replace('\n', ' '));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.scynet.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder events of ScyNet, all in the category "ScyNet" and named org.scynet.*. They are disabled
+ * unless a recording enables them, e.g. with -XX:StartFlightRecording:settings=profile or by enabling org.scynet.* in
+ * JDK Mission Control.
+ * <p>
+ * Events are created, begun and committed around the measured code. While they are disabled, begin and commit do
+ * nothing and the event objects do not escape, so the JIT removes them. Fields are only computed after shouldCommit
+ * returned true, so counting that is not needed otherwise costs nothing either. No stack traces are recorded.
+ * <p>
+ * The events are only created through the begin functions, which return null if jdk.jfr cannot be loaded, e.g. in an
+ * OSGi framework that does not export it to the Cytoscape app. The event classes are then never loaded and callers
+ * skip the event.
+ */
+public final class ScynetEvents {
+
+    /**
+     * Whether the Flight Recorder API can be loaded, if not no events are created
+     */
+    public static final boolean AVAILABLE = isAvailable();
+
+    private ScynetEvents() {
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, ScynetEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates and begins a SimplificationPhase event.
+     * @return the event, or null if the Flight Recorder API is not available
+     */
+    public static SimplificationPhase beginSimplificationPhase() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        SimplificationPhase event = new SimplificationPhase();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Creates and begins a FluxLoad event.
+     * @return the event, or null if the Flight Recorder API is not available
+     */
+    public static FluxLoad beginFluxLoad() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        FluxLoad event = new FluxLoad();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Creates and begins a LayoutPass event.
+     * @return the event, or null if the Flight Recorder API is not available
+     */
+    public static LayoutPass beginLayoutPass() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        LayoutPass event = new LayoutPass();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Creates and begins a Toggle event.
+     * @return the event, or null if the Flight Recorder API is not available
+     */
+    public static Toggle beginToggle() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        Toggle event = new Toggle();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Creates and begins a ContextualizationDiff event.
+     * @return the event, or null if the Flight Recorder API is not available
+     */
+    public static ContextualizationDiff beginContextualizationDiff() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        ContextualizationDiff event = new ContextualizationDiff();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * One phase of CommunitySimplifier.simplify: "organisms", "nodes", "edges" or "flux".
+     */
+    @Name("org.scynet.SimplificationPhase")
+    @Label("Simplification Phase")
+    @Category("ScyNet")
+    @Description("A phase of the simplification of a community model to its exchange network")
+    @StackTrace(false)
+    public static class SimplificationPhase extends Event {
+        @Label("Phase")
+        public String phase;
+        @Label("Species")
+        public int species;
+        @Label("Reactions")
+        public int reactions;
+        @Label("Nodes")
+        public int nodes;
+        @Label("Edges")
+        public int edges;
+    }
+
+    /**
+     * Reading a flux file.
+     */
+    @Name("org.scynet.FluxLoad")
+    @Label("Flux File Load")
+    @Category("ScyNet")
+    @Description("Reading an FBA or FVA flux file")
+    @StackTrace(false)
+    public static class FluxLoad extends Event {
+        @Label("File")
+        public String file;
+        @Label("Size")
+        @DataAmount(DataAmount.BYTES)
+        public long bytes;
+        @Label("Rows")
+        public int rows;
+        @Label("FVA")
+        public boolean fva;
+    }
+
+    /**
+     * A full or incremental computation of the ring layout.
+     */
+    @Name("org.scynet.LayoutPass")
+    @Label("Layout Pass")
+    @Category("ScyNet")
+    @Description("A computation of the ScyNet ring layout")
+    @StackTrace(false)
+    public static class LayoutPass extends Event {
+        @Label("Nodes")
+        public int nodes;
+        @Label("Members")
+        public int members;
+        @Label("Moved Nodes")
+        public int moved;
+        @Label("Incremental")
+        @Description("Whether an incremental update was requested; it may still have recomputed the whole layout")
+        public boolean incremental;
+    }
+
+    /**
+     * A visibility or style toggle on a network view, a filter change or the undo or redo of one.
+     */
+    @Name("org.scynet.Toggle")
+    @Label("Toggle")
+    @Category("ScyNet")
+    @Description("A toggle of the visibility or style of nodes and edges")
+    @StackTrace(false)
+    public static class Toggle extends Event {
+        @Label("Operation")
+        public String operation;
+        @Label("Elements Touched")
+        @Description("The number of nodes and edges whose visibility or style changed")
+        public int elements;
+    }
+
+    /**
+     * Applying the fluxes of a flux file to an existing network. Only the changed edges and the metabolites next to
+     * them are written.
+     */
+    @Name("org.scynet.ContextualizationDiff")
+    @Label("Contextualization Diff")
+    @Category("ScyNet")
+    @Description("Updating the edges and metabolites of a network to the fluxes of a condition")
+    @StackTrace(false)
+    public static class ContextualizationDiff extends Event {
+        @Label("Network")
+        public String network;
+        @Label("FVA")
+        public boolean fva;
+        @Label("Edges")
+        public int edges;
+        @Label("Changed Edges")
+        public int changedEdges;
+        @Label("Changed Metabolites")
+        public int changedMetabolites;
+    }
+}
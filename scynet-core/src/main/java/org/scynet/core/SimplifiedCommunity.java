@@ -0,0 +1,114 @@
+package org.scynet.core;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The result of the ScyNet simplification of a MetabolicModel: the ExchangeGraph of community members and exchange
+ * metabolites, together with the translations back to the species and reactions of the model. Node and edge
+ * identifiers of the graph are their ordinals.
+ */
+public class SimplifiedCommunity {
+
+    private final MetabolicModel model;
+    private final ExchangeGraph graph;
+    private final Set<String> organisms;
+    private final Map<String, String> compartmentOrganisms;
+    private final BitSet ignoredSpecies;
+    /**
+     * Graph node of every exchange species, -1 for all other species
+     */
+    private final int[] speciesNodes;
+    /**
+     * Shared name of the species of every metabolite node, the organism name for member nodes
+     */
+    private final String[] nodeSharedNames;
+    private final int[] edgeReactions;
+    private final int[] edgeSourceSpecies;
+    private final int[] edgeTargetSpecies;
+
+    SimplifiedCommunity(MetabolicModel model, ExchangeGraph graph, Set<String> organisms, Map<String, String> compartmentOrganisms,
+                        BitSet ignoredSpecies, int[] speciesNodes, String[] nodeSharedNames,
+                        int[] edgeReactions, int[] edgeSourceSpecies, int[] edgeTargetSpecies) {
+        this.model = model;
+        this.graph = graph;
+        this.organisms = organisms;
+        this.compartmentOrganisms = compartmentOrganisms;
+        this.ignoredSpecies = ignoredSpecies;
+        this.speciesNodes = speciesNodes;
+        this.nodeSharedNames = nodeSharedNames;
+        this.edgeReactions = edgeReactions;
+        this.edgeSourceSpecies = edgeSourceSpecies;
+        this.edgeTargetSpecies = edgeTargetSpecies;
+    }
+
+    public MetabolicModel getModel() {
+        return model;
+    }
+
+    /**
+     * Get-function for the simplified network. Metabolite nodes come first, named after their species, followed by
+     * one member node per organism. Edge names are the reaction ids without the "R_" prefix, i.e. the flux keys.
+     */
+    public ExchangeGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Get-function for the organisms, i.e. the names of the member nodes. This includes the shared compartment if it
+     * contains species.
+     */
+    public Set<String> getOrganisms() {
+        return organisms;
+    }
+
+    /**
+     * @return the organism of a compartment, null for compartments of ignored species only
+     */
+    public String getOrganismOfCompartment(String compartment) {
+        return compartmentOrganisms.get(compartment);
+    }
+
+    /**
+     * @return whether the species belongs neither to an organism nor to the shared compartment
+     */
+    public boolean isIgnoredSpecies(int species) {
+        return ignoredSpecies.get(species);
+    }
+
+    /**
+     * @return the metabolite node of an exchange species, -1 for all other species
+     */
+    public int getSpeciesNode(int species) {
+        return speciesNodes[species];
+    }
+
+    /**
+     * @return the shared name of the species of a metabolite node, or the organism of a member node
+     */
+    public String getNodeSharedName(int node) {
+        return nodeSharedNames[node];
+    }
+
+    /**
+     * @return the reaction an edge was created for
+     */
+    public int getEdgeReaction(int edge) {
+        return edgeReactions[edge];
+    }
+
+    /**
+     * @return the reactant of the reaction the edge starts at
+     */
+    public int getEdgeSourceSpecies(int edge) {
+        return edgeSourceSpecies[edge];
+    }
+
+    /**
+     * @return the product of the reaction the edge ends at
+     */
+    public int getEdgeTargetSpecies(int edge) {
+        return edgeTargetSpecies[edge];
+    }
+}
@@ -0,0 +1,139 @@
+package org.scynet.core;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid over round node bounds, hashed by cell so that only occupied cells use memory. The cell size equals
+ * the node diameter, so a node can only overlap nodes in its own and the eight surrounding cells, and adding or
+ * testing a node takes constant time for a bounded number of nodes per cell.
+ */
+public class SpatialHashGrid {
+
+    private final double diameter;
+    /**
+     * Open addressing table of the occupied cells and the first node in each of them
+     */
+    private long[] cellKeys;
+    private int[] cellHeads;
+    private boolean[] cellUsed;
+    private int numCells = 0;
+    /**
+     * The node centres, chained per cell
+     */
+    private double[] nodeX;
+    private double[] nodeY;
+    private int[] nextNode;
+    private int numNodes = 0;
+
+    /**
+     * @param diameter the diameter of the nodes, including the wanted clearance between them
+     * @param expectedNodes the number of nodes the grid is sized for, it grows beyond that
+     */
+    public SpatialHashGrid(double diameter, int expectedNodes) {
+        this.diameter = diameter;
+        int capacity = Integer.highestOneBit(Math.max(16, expectedNodes * 2) - 1) << 1;
+        this.cellKeys = new long[capacity];
+        this.cellHeads = new int[capacity];
+        this.cellUsed = new boolean[capacity];
+        this.nodeX = new double[Math.max(16, expectedNodes)];
+        this.nodeY = new double[nodeX.length];
+        this.nextNode = new int[nodeX.length];
+    }
+
+    /**
+     * Adds the node centred at the given position.
+     */
+    public void add(double x, double y) {
+        if (numNodes == nodeX.length) {
+            nodeX = Arrays.copyOf(nodeX, numNodes * 2);
+            nodeY = Arrays.copyOf(nodeY, numNodes * 2);
+            nextNode = Arrays.copyOf(nextNode, numNodes * 2);
+        }
+        if (2 * (numCells + 1) > cellKeys.length) {
+            rehash();
+        }
+        int slot = findSlot(cellKey(cell(x), cell(y)));
+        if (!cellUsed[slot]) {
+            cellUsed[slot] = true;
+            cellKeys[slot] = cellKey(cell(x), cell(y));
+            cellHeads[slot] = -1;
+            numCells++;
+        }
+        nodeX[numNodes] = x;
+        nodeY[numNodes] = y;
+        nextNode[numNodes] = cellHeads[slot];
+        cellHeads[slot] = numNodes;
+        numNodes++;
+    }
+
+    /**
+     * @return whether a node centred at the given position overlaps none of the added nodes
+     */
+    public boolean isFree(double x, double y) {
+        long cellX = cell(x);
+        long cellY = cell(y);
+        for (long offsetX = -1; offsetX <= 1; offsetX++) {
+            for (long offsetY = -1; offsetY <= 1; offsetY++) {
+                int slot = findSlot(cellKey(cellX + offsetX, cellY + offsetY));
+                if (!cellUsed[slot]) {
+                    continue;
+                }
+                for (int node = cellHeads[slot]; node >= 0; node = nextNode[node]) {
+                    double dx = nodeX[node] - x;
+                    double dy = nodeY[node] - y;
+                    if (dx * dx + dy * dy < diameter * diameter) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return numNodes;
+    }
+
+    private long cell(double coordinate) {
+        return (long) Math.floor(coordinate / diameter);
+    }
+
+    private static long cellKey(long cellX, long cellY) {
+        return (cellX << 32) ^ (cellY & 0xffffffffL);
+    }
+
+    private int findSlot(long key) {
+        int mask = cellKeys.length - 1;
+        int slot = (int) mix(key) & mask;
+        while (cellUsed[slot] && cellKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = cellKeys;
+        int[] oldHeads = cellHeads;
+        boolean[] oldUsed = cellUsed;
+        cellKeys = new long[oldKeys.length * 2];
+        cellHeads = new int[oldKeys.length * 2];
+        cellUsed = new boolean[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = findSlot(oldKeys[i]);
+                cellUsed[slot] = true;
+                cellKeys[slot] = oldKeys[i];
+                cellHeads[slot] = oldHeads[i];
+            }
+        }
+    }
+
+    /**
+     * The splitmix64 finalizer, spreads neighbouring cells over the table
+     */
+    private static long mix(long key) {
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+}
@@ -0,0 +1,454 @@
+package org.scynet.core;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates community models of any size from a template community, e.g. data/toy/koch_com_model.xml, for scale
+ * testing. The members of the template are replicated round robin until the requested number of members is reached:
+ * a replica of the member dv is called dv1, dv2, ... and every id containing the organism as an underscore separated
+ * token (species, compartments, reactions) is renamed accordingly. Species and reactions without an organism, such as
+ * the species of the shared compartment, are kept once.
+ * <p>
+ * Replicas are mutated so that they do not just duplicate the exchanges of their template: each exchange reaction is
+ * dropped with the drop rate, its flux is reversed with the flip rate, and all its flux values are scaled by a random
+ * factor within 1 +/- flux noise. The generated FBA and FVA flux files match the generated reactions. Generation is
+ * deterministic for a given seed.
+ */
+public class SyntheticCommunityGenerator {
+
+    private final MetabolicModel template;
+    private final FluxFile fbaTemplate;
+    private final FluxFile fvaTemplate;
+    private final List<String> organisms;
+    private final Pattern[] organismPatterns;
+    /**
+     * Template organism of every species and reaction, -1 for the ones kept once
+     */
+    private final int[] speciesOwners;
+    private final int[] reactionOwners;
+    private final BitSet exchangeReactions;
+
+    private long seed = 1L;
+    private double dropRate = 0.1d;
+    private double flipRate = 0.1d;
+    private double fluxNoise = 0.2d;
+
+    /**
+     * @param template the community model to replicate
+     * @param fbaTemplate single flux values of the template, null to generate no FBA flux
+     * @param fvaTemplate flux ranges of the template, null to generate no FVA flux
+     */
+    public SyntheticCommunityGenerator(MetabolicModel template, FluxFile fbaTemplate, FluxFile fvaTemplate) {
+        this.template = template;
+        this.fbaTemplate = fbaTemplate;
+        this.fvaTemplate = fvaTemplate;
+
+        SimplifiedCommunity community = CommunitySimplifier.simplify(template);
+        this.organisms = new ArrayList<>(community.getOrganisms());
+        organisms.remove(template.getSharedCompartment());
+        if (organisms.isEmpty()) {
+            throw new IllegalArgumentException("The template has no community members.");
+        }
+        this.organismPatterns = new Pattern[organisms.size()];
+        for (int i = 0; i < organismPatterns.length; i++) {
+            organismPatterns[i] = Pattern.compile("(^|_)" + Pattern.quote(organisms.get(i)) + "(?=_|$)");
+        }
+
+        this.speciesOwners = new int[template.getSpeciesCount()];
+        for (int species = 0; species < speciesOwners.length; species++) {
+            if (template.isExchangeSpecies(species)) {
+                speciesOwners[species] = -1;
+                continue;
+            }
+            int owner = organisms.indexOf(community.getOrganismOfCompartment(template.getSpeciesCompartment(species)));
+            speciesOwners[species] = owner >= 0 ? owner : findOrganism(template.getSpeciesSbmlId(species));
+        }
+
+        this.reactionOwners = new int[template.getReactionCount()];
+        this.exchangeReactions = new BitSet(template.getReactionCount());
+        for (int reaction = 0; reaction < reactionOwners.length; reaction++) {
+            // A reaction belongs to the organism in its id, else to the only organism of its species
+            int idOwner = findOrganism(template.getReactionSbmlId(reaction));
+            int owner = idOwner;
+            boolean mixed = false;
+            for (int[] species : new int[][]{template.getReactants(reaction), template.getProducts(reaction), template.getOtherSpecies(reaction)}) {
+                for (int s : species) {
+                    if (speciesOwners[s] >= 0 && owner >= 0 && speciesOwners[s] != owner) {
+                        mixed = true;
+                    } else if (speciesOwners[s] >= 0) {
+                        owner = speciesOwners[s];
+                    }
+                    if (template.isExchangeSpecies(s)) {
+                        exchangeReactions.set(reaction);
+                    }
+                }
+            }
+            reactionOwners[reaction] = idOwner < 0 && mixed ? -1 : owner;
+        }
+    }
+
+    /**
+     * Get-function for the members of the template, which are replicated in this order.
+     */
+    public List<String> getTemplateOrganisms() {
+        return organisms;
+    }
+
+    public SyntheticCommunityGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Sets the probability of dropping an exchange reaction of a replica.
+     */
+    public SyntheticCommunityGenerator setDropRate(double dropRate) {
+        this.dropRate = dropRate;
+        return this;
+    }
+
+    /**
+     * Sets the probability of reversing the flux of an exchange reaction of a replica.
+     */
+    public SyntheticCommunityGenerator setFlipRate(double flipRate) {
+        this.flipRate = flipRate;
+        return this;
+    }
+
+    /**
+     * Sets the maximal relative change of the flux values of a replica.
+     */
+    public SyntheticCommunityGenerator setFluxNoise(double fluxNoise) {
+        this.fluxNoise = fluxNoise;
+        return this;
+    }
+
+    /**
+     * Generates a community. The first members are the template members themselves, unchanged; fewer members than
+     * in the template keep only the first template members.
+     *
+     * @param members the number of community members
+     * @return the model and the flux files of the community
+     */
+    public SyntheticCommunity generate(int members) {
+        if (members < 1) {
+            throw new IllegalArgumentException("A community needs at least one member.");
+        }
+        Random random = new Random(seed);
+        MetabolicModel.Builder builder = new MetabolicModel.Builder().setSharedCompartment(template.getSharedCompartment());
+        HashMap<String, Double> fba = fbaTemplate == null ? null : new HashMap<String, Double>();
+        HashMap<String, Double> fva = fvaTemplate == null ? null : new HashMap<String, Double>();
+
+        // Species without an organism are kept once, then every member gets copies of its template's species
+        int[] sharedSpecies = new int[speciesOwners.length];
+        for (int species = 0; species < speciesOwners.length; species++) {
+            sharedSpecies[species] = speciesOwners[species] < 0 ? addSpecies(builder, species, null, null) : -1;
+        }
+        Set<String> names = new HashSet<>(organisms);
+        List<String> memberNames = new ArrayList<>();
+        int[][] memberSpecies = new int[members][];
+        int[] originalSpecies = sharedSpecies.clone();
+        for (int member = 0; member < members; member++) {
+            int owner = member % organisms.size();
+            String name = organisms.get(owner);
+            if (member >= organisms.size()) {
+                int suffix = member / organisms.size();
+                while (!names.add(organisms.get(owner) + suffix)) {
+                    suffix++;
+                }
+                name = organisms.get(owner) + suffix;
+            }
+            memberNames.add(name);
+            memberSpecies[member] = new int[speciesOwners.length];
+            Arrays.fill(memberSpecies[member], -1);
+            for (int species = 0; species < speciesOwners.length; species++) {
+                if (speciesOwners[species] == owner) {
+                    memberSpecies[member][species] = addSpecies(builder, species, organismPatterns[owner], name);
+                    if (member < organisms.size()) {
+                        originalSpecies[species] = memberSpecies[member][species];
+                    }
+                }
+            }
+        }
+
+        // Reactions without an organism are kept once and refer to the template members only
+        for (int reaction = 0; reaction < reactionOwners.length; reaction++) {
+            if (reactionOwners[reaction] < 0) {
+                addReaction(builder, reaction, null, null, originalSpecies, sharedSpecies, fba, fva, 1.0d);
+            }
+        }
+        for (int member = 0; member < members; member++) {
+            int owner = member % organisms.size();
+            boolean replica = member >= organisms.size();
+            for (int reaction = 0; reaction < reactionOwners.length; reaction++) {
+                if (reactionOwners[reaction] != owner) {
+                    continue;
+                }
+                // Always draw the same random numbers, so that a rate does not change the other mutations
+                double drop = random.nextDouble();
+                double flip = random.nextDouble();
+                double noise = random.nextDouble();
+                double factor = 1.0d;
+                if (replica) {
+                    if (exchangeReactions.get(reaction) && drop < dropRate) {
+                        continue;
+                    }
+                    factor = (1.0d + fluxNoise * (2 * noise - 1)) * (exchangeReactions.get(reaction) && flip < flipRate ? -1 : 1);
+                }
+                addReaction(builder, reaction, organismPatterns[owner], memberNames.get(member), memberSpecies[member], sharedSpecies, fba, fva, factor);
+            }
+        }
+
+        MetabolicModel model = builder.build();
+        String condition = "synthetic_" + members + "sp";
+        return new SyntheticCommunity(model, memberNames,
+                fba == null ? null : FluxFile.of(condition + "_fba", false, fba),
+                fva == null ? null : FluxFile.of(condition + "_fva", true, fva));
+    }
+
+    private int findOrganism(String id) {
+        for (int i = 0; i < organismPatterns.length; i++) {
+            if (id != null && organismPatterns[i].matcher(id).find()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int addSpecies(MetabolicModel.Builder builder, int species, Pattern organism, String name) {
+        return builder.addSpecies(builder.getSpeciesCount(), rename(template.getSpeciesSbmlId(species), organism, name),
+                rename(template.getSpeciesSharedName(species), organism, name), rename(template.getSpeciesCompartment(species), organism, name));
+    }
+
+    /**
+     * Adds a copy of a template reaction and its flux values, scaled by factor. A negative factor reverses the flux
+     * range.
+     */
+    private void addReaction(MetabolicModel.Builder builder, int reaction, Pattern organism, String name, int[] memberSpecies,
+                             int[] sharedSpecies, HashMap<String, Double> fba, HashMap<String, Double> fva, double factor) {
+        String sbmlId = rename(template.getReactionSbmlId(reaction), organism, name);
+        builder.addReaction(builder.getReactionCount(), sbmlId, rename(template.getReactionSharedName(reaction), organism, name),
+                copySpecies(template.getReactants(reaction), memberSpecies, sharedSpecies),
+                copySpecies(template.getProducts(reaction), memberSpecies, sharedSpecies),
+                copySpecies(template.getOtherSpecies(reaction), memberSpecies, sharedSpecies));
+
+        String templateKey = CommunitySimplifier.getFluxKey(template.getReactionSbmlId(reaction));
+        String key = CommunitySimplifier.getFluxKey(sbmlId);
+        if (fba != null) {
+            Double flux = fbaTemplate.getFluxMap().get(templateKey);
+            if (flux != null) {
+                fba.put(key, flux * factor);
+            }
+        }
+        if (fva != null) {
+            Double minFlux = fvaTemplate.getFluxMap().get(templateKey + "_min");
+            Double maxFlux = fvaTemplate.getFluxMap().get(templateKey + "_max");
+            if (minFlux != null && maxFlux != null) {
+                fva.put(key + "_min", factor < 0 ? maxFlux * factor : minFlux * factor);
+                fva.put(key + "_max", factor < 0 ? minFlux * factor : maxFlux * factor);
+            }
+        }
+    }
+
+    private static int[] copySpecies(int[] species, int[] memberSpecies, int[] sharedSpecies) {
+        int[] copy = new int[species.length];
+        int size = 0;
+        for (int s : species) {
+            int target = memberSpecies[s] >= 0 ? memberSpecies[s] : sharedSpecies[s];
+            if (target >= 0) {
+                copy[size++] = target;
+            }
+        }
+        return size == copy.length ? copy : Arrays.copyOf(copy, size);
+    }
+
+    private static String rename(String id, Pattern organism, String name) {
+        if (id == null || organism == null) {
+            return id;
+        }
+        return organism.matcher(id).replaceAll("$1" + Matcher.quoteReplacement(name));
+    }
+
+    /**
+     * Writes the community of the given size generated from an SBML template and its flux files. The flux files are
+     * taken from next to the template, named like data/toy: koch_com_model_fba.csv and koch_com_model_fva.csv.
+     * <p>
+     * Usage: SyntheticCommunityGenerator template.xml members output-directory [seed]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: SyntheticCommunityGenerator template.xml members output-directory [seed]");
+            System.exit(1);
+        }
+        File templateFile = new File(args[0]);
+        int members = Integer.parseInt(args[1]);
+        File directory = new File(args[2]);
+        String base = FluxFile.conditionName(templateFile);
+        File fbaFile = new File(templateFile.getParentFile(), base + "_fba.csv");
+        File fvaFile = new File(templateFile.getParentFile(), base + "_fva.csv");
+
+        SyntheticCommunityGenerator generator = new SyntheticCommunityGenerator(SbmlReader.read(templateFile),
+                fbaFile.isFile() ? FluxFile.read(fbaFile) : null, fvaFile.isFile() ? FluxFile.read(fvaFile) : null);
+        if (args.length > 3) {
+            generator.setSeed(Long.parseLong(args[3]));
+        }
+        SyntheticCommunity community = generator.generate(members);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        community.writeSbml(new File(directory, base + "_" + members + "sp.xml"));
+        if (community.getFba() != null) {
+            community.writeFluxFile(community.getFba(), new File(directory, base + "_fba_" + members + "sp.csv"));
+        }
+        if (community.getFva() != null) {
+            community.writeFluxFile(community.getFva(), new File(directory, base + "_fva_" + members + "sp.csv"));
+        }
+    }
+
+    /**
+     * A generated community: its model, member names and flux files.
+     */
+    public static class SyntheticCommunity {
+
+        private final MetabolicModel model;
+        private final List<String> organisms;
+        private final FluxFile fba;
+        private final FluxFile fva;
+
+        SyntheticCommunity(MetabolicModel model, List<String> organisms, FluxFile fba, FluxFile fva) {
+            this.model = model;
+            this.organisms = organisms;
+            this.fba = fba;
+            this.fva = fva;
+        }
+
+        public MetabolicModel getModel() {
+            return model;
+        }
+
+        /**
+         * Get-function for the names of the members in generation order.
+         */
+        public List<String> getOrganisms() {
+            return organisms;
+        }
+
+        /**
+         * @return the single flux values, null if the generator had no FBA template
+         */
+        public FluxFile getFba() {
+            return fba;
+        }
+
+        /**
+         * @return the flux ranges, null if the generator had no FVA template
+         */
+        public FluxFile getFva() {
+            return fva;
+        }
+
+        /**
+         * Writes the model as SBML level 3 core, readable by SbmlReader and cy3sbml. The shared compartment is named
+         * by the parameter shared_compartment_id. Stoichiometries are not part of the model and written as 1.
+         */
+        public void writeSbml(File file) throws IOException {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+                String id = "synthetic_community_" + organisms.size() + "sp";
+                writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+                writer.write("<sbml xmlns=\"http://www.sbml.org/sbml/level3/version1/core\" level=\"3\" version=\"1\">\n");
+                writer.write("  <model id=\"" + id + "\" name=\"" + id + "\">\n");
+
+                Set<String> compartments = new LinkedHashSet<>();
+                for (int species = 0; species < model.getSpeciesCount(); species++) {
+                    compartments.add(model.getSpeciesCompartment(species));
+                }
+                writer.write("    <listOfCompartments>\n");
+                for (String compartment : compartments) {
+                    writer.write("      <compartment id=\"" + escape(compartment) + "\" constant=\"true\"/>\n");
+                }
+                writer.write("    </listOfCompartments>\n");
+
+                writer.write("    <listOfSpecies>\n");
+                for (int species = 0; species < model.getSpeciesCount(); species++) {
+                    writer.write("      <species id=\"" + escape(model.getSpeciesSbmlId(species)) + "\" name=\"" + escape(model.getSpeciesSharedName(species))
+                            + "\" compartment=\"" + escape(model.getSpeciesCompartment(species))
+                            + "\" hasOnlySubstanceUnits=\"false\" boundaryCondition=\"false\" constant=\"false\"/>\n");
+                }
+                writer.write("    </listOfSpecies>\n");
+
+                writer.write("    <listOfParameters>\n");
+                writer.write("      <parameter id=\"shared_compartment_id\" name=\"" + escape(model.getSharedCompartment()) + "\" constant=\"true\"/>\n");
+                writer.write("    </listOfParameters>\n");
+
+                writer.write("    <listOfReactions>\n");
+                for (int reaction = 0; reaction < model.getReactionCount(); reaction++) {
+                    writer.write("      <reaction id=\"" + escape(model.getReactionSbmlId(reaction)) + "\" name=\"" + escape(model.getReactionSharedName(reaction))
+                            + "\" reversible=\"true\" fast=\"false\">\n");
+                    writeReferences(writer, "listOfReactants", "speciesReference", model.getReactants(reaction));
+                    writeReferences(writer, "listOfProducts", "speciesReference", model.getProducts(reaction));
+                    writeReferences(writer, "listOfModifiers", "modifierSpeciesReference", model.getOtherSpecies(reaction));
+                    writer.write("      </reaction>\n");
+                }
+                writer.write("    </listOfReactions>\n");
+                writer.write("  </model>\n");
+                writer.write("</sbml>\n");
+            }
+        }
+
+        /**
+         * Writes a flux file of this community in the tab separated format read by FluxFile, in reaction order.
+         */
+        public void writeFluxFile(FluxFile fluxFile, File file) throws IOException {
+            HashMap<String, Double> fluxMap = fluxFile.getFluxMap();
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+                writer.write(fluxFile.isFva() ? "reaction_id\tmin_flux\tmax_flux\n" : "reaction_id\tflux\n");
+                for (int reaction = 0; reaction < model.getReactionCount(); reaction++) {
+                    String key = CommunitySimplifier.getFluxKey(model.getReactionSbmlId(reaction));
+                    if (fluxFile.isFva() && fluxMap.containsKey(key + "_min")) {
+                        writer.write(String.format(Locale.ROOT, "%s\t%f\t%f\n", key, fluxMap.get(key + "_min"), fluxMap.get(key + "_max")));
+                    } else if (!fluxFile.isFva() && fluxMap.containsKey(key)) {
+                        writer.write(String.format(Locale.ROOT, "%s\t%f\n", key, fluxMap.get(key)));
+                    }
+                }
+            }
+        }
+
+        private void writeReferences(Writer writer, String list, String element, int[] species) throws IOException {
+            if (species.length == 0) {
+                return;
+            }
+            writer.write("        <" + list + ">\n");
+            for (int s : species) {
+                writer.write("          <" + element + " species=\"" + escape(model.getSpeciesSbmlId(s)) + "\""
+                        + (Objects.equals(element, "speciesReference") ? " stoichiometry=\"1\" constant=\"true\"" : "") + "/>\n");
+            }
+            writer.write("        </" + list + ">\n");
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.scynet.core;
+
+/**
+ * A 64-bit fingerprint of the visible nodes and edges of a view. It is the XOR of the mixed identifiers of all visible
+ * elements, so it does not depend on the iteration order and is updated in constant time when a single element is
+ * shown or hidden: toggling an element twice restores the previous fingerprint.
+ */
+public class VisibleSetFingerprint {
+
+    /**
+     * Separates edges from nodes with the same identifier
+     */
+    private static final long EDGE_SALT = 0x9e3779b97f4a7c15L;
+
+    private long value = 0L;
+
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * Adds a node that became visible, or removes one that became hidden.
+     */
+    public void toggleNode(long id) {
+        value ^= ofNode(id);
+    }
+
+    /**
+     * Adds an edge that became visible, or removes one that became hidden.
+     */
+    public void toggleEdge(long id) {
+        value ^= ofEdge(id);
+    }
+
+    public static long ofNode(long id) {
+        return mix(id);
+    }
+
+    public static long ofEdge(long id) {
+        return mix(id ^ EDGE_SALT);
+    }
+
+    /**
+     * The splitmix64 finalizer, a bijection spreading consecutive identifiers over all 64 bits
+     */
+    private static long mix(long id) {
+        id = (id ^ (id >>> 30)) * 0xbf58476d1ce4e5b9L;
+        id = (id ^ (id >>> 27)) * 0x94d049bb133111ebL;
+        return id ^ (id >>> 31);
+    }
+}
@@ -0,0 +1,117 @@
+package org.scynet.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BinaryNetworkTest {
+
+    @Test
+    public void roundTripKeepsSingleFluxValues() throws IOException {
+        assertRoundTrip(network(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FBA));
+    }
+
+    @Test
+    public void roundTripKeepsFluxRanges() throws IOException {
+        BinaryNetwork network = network(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FVA);
+        assertTrue(network.hasFluxRanges());
+        assertRoundTrip(network);
+    }
+
+    @Test
+    public void roundTripWithoutFlux() throws IOException {
+        assertRoundTrip(network(ToyData.KOCH, null));
+    }
+
+    @Test
+    public void rejectsTruncatedFiles() throws IOException {
+        byte[] bytes = write(network(ToyData.KOCH, ToyData.KOCH_FVA));
+        for (int length = 0; length < bytes.length; length++) {
+            try {
+                BinaryNetwork.read(new ByteArrayInputStream(bytes, 0, length), length);
+                fail("Read a network truncated to " + length + " of " + bytes.length + " bytes");
+            } catch (IOException expected) {
+                // The file ends early or a count does not fit in the remaining bytes
+            }
+        }
+    }
+
+    @Test
+    public void rejectsDamagedFilesWithIOException() throws IOException {
+        byte[] bytes = write(network(ToyData.KOCH, ToyData.KOCH_FVA));
+        for (int position = 0; position < bytes.length; position++) {
+            for (int value : new int[]{0x00, 0x7F, 0xFF}) {
+                byte[] damaged = Arrays.copyOf(bytes, bytes.length);
+                damaged[position] = (byte) value;
+                try {
+                    BinaryNetwork.read(new ByteArrayInputStream(damaged), damaged.length);
+                } catch (IOException expected) {
+                    // Damage that changes a count, index or flag is detected
+                }
+            }
+        }
+    }
+
+    private static BinaryNetwork network(String model, String fluxFile) throws IOException {
+        SimplifiedCommunity community = ToyData.simplify(model, fluxFile);
+        ExchangeGraph graph = community.getGraph();
+        String[] nodeNames = new String[graph.getNodeCount()];
+        double[] x = new double[graph.getNodeCount()];
+        double[] y = new double[graph.getNodeCount()];
+        LayoutResult layout = RingLayout.compute(LayoutSnapshot.of(graph, null));
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            nodeNames[node] = community.getNodeSharedName(node);
+            int ordinal = layout.getSnapshot().getOrdinal(graph.getNodeId(node));
+            // Leave some nodes without coordinates
+            x[node] = node % 5 == 0 ? Double.NaN : layout.getX(ordinal);
+            y[node] = node % 5 == 0 ? Double.NaN : layout.getY(ordinal);
+        }
+        String[] edgeSharedNames = new String[graph.getEdgeCount()];
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            edgeSharedNames[edge] = graph.getNodeName(graph.getMetaboliteOfEdge(edge));
+        }
+        return new BinaryNetwork(model, graph, nodeNames, edgeSharedNames, x, y);
+    }
+
+    private static byte[] write(BinaryNetwork network) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        network.write(out);
+        return out.toByteArray();
+    }
+
+    private static void assertRoundTrip(BinaryNetwork network) throws IOException {
+        byte[] bytes = write(network);
+        BinaryNetwork read = BinaryNetwork.read(new ByteArrayInputStream(bytes), bytes.length);
+        ExchangeGraph expected = network.getGraph();
+        ExchangeGraph graph = read.getGraph();
+
+        assertEquals(network.getName(), read.getName());
+        assertEquals(network.hasFluxRanges(), read.hasFluxRanges());
+        assertEquals(expected.getNodeCount(), graph.getNodeCount());
+        assertEquals(expected.getEdgeCount(), graph.getEdgeCount());
+        for (int node = 0; node < expected.getNodeCount(); node++) {
+            assertEquals(expected.getNodeName(node), graph.getNodeName(node));
+            assertEquals(expected.isMember(node), graph.isMember(node));
+            assertEquals(expected.isCrossFed(node), graph.isCrossFed(node));
+            assertEquals(network.getNodeName(node), read.getNodeName(node));
+            assertEquals(network.getX(node), read.getX(node), 0.0d);
+            assertEquals(network.getY(node), read.getY(node), 0.0d);
+        }
+        for (int edge = 0; edge < expected.getEdgeCount(); edge++) {
+            assertEquals(expected.getEdgeSource(edge), graph.getEdgeSource(edge));
+            assertEquals(expected.getEdgeTarget(edge), graph.getEdgeTarget(edge));
+            assertEquals(expected.getEdgeName(edge), graph.getEdgeName(edge));
+            assertEquals(network.getEdgeSharedName(edge), read.getEdgeSharedName(edge));
+            assertEquals(expected.getFlux(edge), graph.getFlux(edge), 0.0d);
+            assertEquals(expected.getMinFlux(edge), graph.getMinFlux(edge), 0.0d);
+            assertEquals(expected.getMaxFlux(edge), graph.getMaxFlux(edge), 0.0d);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.scynet.core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class CommunitySimplifierTest {
+
+    @Test
+    public void simplifiesToMembersAndExchangeMetabolites() throws IOException {
+        SimplifiedCommunity community = ToyData.simplify(ToyData.KOCH, ToyData.KOCH_FBA);
+        ExchangeGraph graph = community.getGraph();
+
+        assertEquals(4, graph.getMemberCount());
+        assertEquals(17, graph.getNodeCount());
+        assertEquals(23, graph.getEdgeCount());
+        Set<String> members = new HashSet<>();
+        Set<String> metabolites = new HashSet<>();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            assertNotNull(graph.getNodeName(node));
+            assertTrue("Duplicate node " + graph.getNodeName(node),
+                    (graph.isMember(node) ? members : metabolites).add(graph.getNodeName(node)));
+        }
+        assertEquals(community.getOrganisms(), members);
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            int member = graph.getMemberOfEdge(edge);
+            assertTrue("Edge " + graph.getEdgeName(edge) + " does not connect a member", member >= 0);
+            assertFalse(graph.isMember(graph.getMetaboliteOfEdge(edge)));
+            assertEquals(member, graph.getOpposite(edge, graph.getMetaboliteOfEdge(edge)));
+        }
+    }
+
+    @Test
+    public void setsSingleFluxValuesFromFbaFile() throws IOException {
+        FluxFile fluxFile = FluxFile.read(ToyData.file(ToyData.KOCH_FBA));
+        ExchangeGraph graph = CommunitySimplifier.simplify(SbmlReader.read(ToyData.file(ToyData.KOCH)), fluxFile).getGraph();
+
+        assertFalse(graph.hasFluxRanges());
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            Double flux = fluxFile.getFlux(graph.getEdgeName(edge), false);
+            assertNotNull("No flux for " + graph.getEdgeName(edge), flux);
+            assertEquals(flux, graph.getFlux(edge), 0.0d);
+        }
+    }
+
+    @Test
+    public void setsFluxRangesFromFvaFile() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FVA);
+
+        assertTrue(graph.hasFluxRanges());
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            assertTrue(graph.hasFluxRange(edge));
+            assertTrue(graph.getMinFlux(edge) <= graph.getMaxFlux(edge));
+            assertEquals(Math.max(Math.abs(graph.getMinFlux(edge)), Math.abs(graph.getMaxFlux(edge))), Math.abs(graph.getSignedFlux(edge, true)), 0.0d);
+        }
+    }
+
+    @Test
+    public void leavesFluxUnsetWithoutFluxFile() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH, null);
+
+        assertEquals(23, graph.getEdgeCount());
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            assertTrue(Double.isNaN(graph.getFlux(edge)));
+            assertFalse(graph.hasFluxRange(edge));
+        }
+    }
+
+    @Test
+    public void doesNotDependOnTheNameOfTheSharedCompartment() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH, null);
+        ExchangeGraph renamed = ToyData.graph(ToyData.RENAMED, null);
+
+        assertEquals(graph.getNodeCount(), renamed.getNodeCount());
+        assertEquals(graph.getEdgeCount(), renamed.getEdgeCount());
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (!graph.isMember(node)) {
+                assertEquals(graph.getNodeName(node), renamed.getNodeName(node));
+            }
+        }
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            assertEquals(graph.getEdgeName(edge), renamed.getEdgeName(edge));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.scynet.core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the classification against the rules of the cross-fed column as it was computed in Cytoscape before the
+ * CrossFeedingEngine, on the toy models.
+ */
+public class CrossFeedingEngineTest {
+
+    @Test
+    public void fbaMatchesBaseline() throws IOException {
+        assertMatchesBaseline(ToyData.graph(ToyData.KOCH, ToyData.KOCH_FBA), 4);
+        assertMatchesBaseline(ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FBA), 8);
+    }
+
+    @Test
+    public void fvaMatchesBaseline() throws IOException {
+        assertMatchesBaseline(ToyData.graph(ToyData.KOCH, ToyData.KOCH_FVA), 4);
+        assertMatchesBaseline(ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FVA), 8);
+    }
+
+    @Test
+    public void singleFluxValuesAreAlwaysOrNeverCrossFed() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FBA);
+        CrossFeedingEngine engine = CrossFeedingEngine.compute(graph);
+
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (graph.isMember(node)) {
+                assertNull(engine.getClassification(node));
+                assertFalse(engine.isCrossFed(node));
+            } else {
+                assertEquals(engine.isCrossFed(node) ? CrossFeedingEngine.ALWAYS : CrossFeedingEngine.NEVER, engine.getClassification(node));
+            }
+        }
+    }
+
+    @Test
+    public void fluxRangesDistinguishAlwaysAndPossibly() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FVA);
+        CrossFeedingEngine engine = CrossFeedingEngine.compute(graph);
+
+        int always = 0;
+        int possibly = 0;
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (engine.isCrossFed(node)) {
+                assertTrue(engine.getProducers(node) > 0);
+                assertTrue(engine.getConsumers(node) > 0);
+            }
+            if (CrossFeedingEngine.ALWAYS.equals(engine.getClassification(node))) {
+                always++;
+            } else if (CrossFeedingEngine.POSSIBLY.equals(engine.getClassification(node))) {
+                possibly++;
+            }
+        }
+        assertEquals(2, always);
+        assertEquals(6, possibly);
+    }
+
+    @Test
+    public void singleFluxValuesIgnoreRanges() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FVA);
+        CrossFeedingEngine engine = CrossFeedingEngine.compute(graph, false);
+
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            assertFalse(CrossFeedingEngine.POSSIBLY.equals(engine.getClassification(node)));
+        }
+    }
+
+    @Test
+    public void classifiesOnlyTheGivenMetabolites() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FVA);
+        int edgeCount = graph.getEdgeCount();
+        double[] flux = new double[edgeCount];
+        double[] minFlux = new double[edgeCount];
+        double[] maxFlux = new double[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            flux[edge] = graph.getSignedFlux(edge, true);
+            minFlux[edge] = graph.getMinFlux(edge);
+            maxFlux[edge] = graph.getMaxFlux(edge);
+        }
+        BitSet metabolites = new BitSet();
+        for (int node = 0; node < graph.getNodeCount(); node += 2) {
+            if (!graph.isMember(node)) {
+                metabolites.set(node);
+            }
+        }
+        CrossFeedingEngine all = CrossFeedingEngine.compute(graph, flux, minFlux, maxFlux);
+        CrossFeedingEngine some = CrossFeedingEngine.compute(graph, flux, minFlux, maxFlux, metabolites);
+
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (metabolites.get(node)) {
+                assertEquals(all.getClassification(node), some.getClassification(node));
+                assertEquals(all.getCrossFedFlux(node), some.getCrossFedFlux(node), 0.0d);
+            } else {
+                assertNull(some.getClassification(node));
+            }
+        }
+    }
+
+    private static void assertMatchesBaseline(ExchangeGraph graph, int expectedCrossFed) {
+        CrossFeedingEngine engine = CrossFeedingEngine.compute(graph);
+        int crossFed = 0;
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (graph.isMember(node)) {
+                continue;
+            }
+            boolean baseline = graph.hasFluxRanges() ? baselineFva(graph, node) : baselineFba(graph, node);
+            assertEquals("Cross-fed status of " + graph.getNodeName(node), baseline, engine.isCrossFed(node));
+            if (baseline) {
+                crossFed++;
+            }
+        }
+        assertEquals(expectedCrossFed, crossFed);
+    }
+
+    /**
+     * A metabolite is cross-fed if one of its edges has a positive and another one a negative flux.
+     */
+    private static boolean baselineFba(ExchangeGraph graph, int node) {
+        boolean positive = false;
+        boolean negative = false;
+        for (int index = 0; index < graph.getDegree(node); index++) {
+            double flux = graph.getFlux(graph.getAdjacentEdge(node, index));
+            if (flux < 0) {
+                negative = true;
+            }
+            if (flux > 0) {
+                positive = true;
+            }
+        }
+        return positive && negative;
+    }
+
+    /**
+     * A metabolite is cross-fed if a member with a positive maximal flux and a different member with a negative
+     * minimal flux exist.
+     */
+    private static boolean baselineFva(ExchangeGraph graph, int node) {
+        Set<Integer> negative = new HashSet<>();
+        Set<Integer> positive = new HashSet<>();
+        for (int index = 0; index < graph.getDegree(node); index++) {
+            int edge = graph.getAdjacentEdge(node, index);
+            if (!graph.hasFluxRange(edge) || graph.getMemberOfEdge(edge) < 0) {
+                continue;
+            }
+            if (graph.getMinFlux(edge) < 0) {
+                negative.add(graph.getMemberOfEdge(edge));
+            }
+            if (graph.getMaxFlux(edge) > 0) {
+                positive.add(graph.getMemberOfEdge(edge));
+            }
+        }
+        for (int member : positive) {
+            if (negative.size() > 1 || (negative.size() == 1 && !negative.contains(member))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
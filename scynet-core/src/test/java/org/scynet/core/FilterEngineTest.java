@@ -0,0 +1,123 @@
+package org.scynet.core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FilterEngineTest {
+
+    @Test
+    public void showsEverythingByDefault() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FBA);
+        FilterEngine filter = new FilterEngine(graph);
+
+        assertFalse(filter.usesFluxRanges());
+        assertEquals(graph.getEdgeCount(), filter.getEdgeMask().cardinality());
+        assertEquals(graph.getNodeCount(), filter.getNodeMask().cardinality());
+    }
+
+    @Test
+    public void fluxThresholdMatchesScan() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FVA);
+        FilterEngine filter = new FilterEngine(graph);
+        assertTrue(filter.usesFluxRanges());
+
+        double max = filter.getMaxAbsoluteFlux();
+        for (double threshold : new double[]{max / 2, max / 1000, max, 0.0d, max / 10}) {
+            filter.setFluxThreshold(threshold);
+            BitSet expected = new BitSet();
+            for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+                if (!(Math.abs(graph.getSignedFlux(edge, true)) < threshold)) {
+                    expected.set(edge);
+                }
+            }
+            assertEquals("Threshold " + threshold, expected, filter.getEdgeMask());
+        }
+    }
+
+    @Test
+    public void directionClassesFilterEdges() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FVA);
+        FilterEngine filter = new FilterEngine(graph);
+
+        for (byte direction = FilterEngine.EFFLUX; direction <= FilterEngine.NO_FLUX; direction++) {
+            filter.setDirectionClasses(FilterEngine.ALL_DIRECTIONS & ~(1 << direction));
+            BitSet mask = filter.getEdgeMask();
+            for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+                assertEquals(FilterEngine.directionClass(graph, edge, true) != direction, mask.get(edge));
+            }
+        }
+        filter.setDirectionClasses(FilterEngine.ALL_DIRECTIONS);
+        assertEquals(graph.getEdgeCount(), filter.getEdgeMask().cardinality());
+    }
+
+    @Test
+    public void singleFluxValuesHaveNoBidirectionalEdges() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FVA);
+        FilterEngine ranges = new FilterEngine(graph, true);
+        FilterEngine single = new FilterEngine(graph, false);
+
+        int bidirectional = 0;
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            if (ranges.getDirectionClass(edge) == FilterEngine.BIDIRECTIONAL) {
+                bidirectional++;
+            }
+            assertFalse(single.getDirectionClass(edge) == FilterEngine.BIDIRECTIONAL);
+        }
+        assertTrue(bidirectional > 0);
+    }
+
+    @Test
+    public void organismsHideOtherMembersAndTheirEdges() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH, ToyData.KOCH_FBA);
+        FilterEngine filter = new FilterEngine(graph);
+        filter.setOrganisms(Collections.singleton("dv"));
+
+        BitSet nodes = filter.getNodeMask();
+        BitSet edges = filter.getEdgeMask();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            assertEquals(!graph.isMember(node) || graph.getNodeName(node).equals("dv"), nodes.get(node));
+        }
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            assertEquals(nodes.get(graph.getMemberOfEdge(edge)), edges.get(edge));
+        }
+
+        filter.setOrganisms(null);
+        assertEquals(graph.getNodeCount(), filter.getNodeMask().cardinality());
+        assertEquals(graph.getEdgeCount(), filter.getEdgeMask().cardinality());
+    }
+
+    @Test
+    public void metabolitePatternAndCrossFedOnlyHideMetabolites() throws IOException {
+        ExchangeGraph contextualized = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FBA);
+        ExchangeGraph graph = ToyData.withCrossFed(contextualized, CrossFeedingEngine.compute(contextualized));
+        FilterEngine filter = new FilterEngine(graph);
+
+        filter.setCrossFedOnly(true);
+        BitSet nodes = filter.getNodeMask();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            assertEquals(graph.isMember(node) || graph.isCrossFed(node), nodes.get(node));
+        }
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            assertEquals(graph.isCrossFed(graph.getMetaboliteOfEdge(edge)), filter.getEdgeMask().get(edge));
+        }
+
+        filter.setCrossFedOnly(false);
+        String name = graph.getNodeName(graph.getMetaboliteOfEdge(0));
+        filter.setMetabolitePattern(Pattern.compile(Pattern.quote(name)));
+        nodes = filter.getNodeMask();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            assertEquals(graph.isMember(node) || graph.getNodeName(node).contains(name), nodes.get(node));
+        }
+
+        filter.setMetabolitePattern(null);
+        assertEquals(graph.getNodeCount(), filter.getNodeMask().cardinality());
+    }
+}
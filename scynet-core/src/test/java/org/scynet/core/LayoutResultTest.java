@@ -0,0 +1,123 @@
+package org.scynet.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LayoutResultTest {
+
+    /**
+     * Identifier, ring class, both neighbors, ring position and coordinates of a written node
+     */
+    private static final int NODE_BYTES = Long.BYTES + 1 + 3 * Integer.BYTES + 2 * Double.BYTES;
+
+    @Test
+    public void roundTripKeepsLayout() throws IOException {
+        LayoutResult layout = layout();
+        LayoutResult read = LayoutResult.read(input(write(layout)), id -> id);
+
+        assertNotNull(read);
+        assertSameLayout(layout, read, 0);
+        assertEquals(read.getSnapshot().size(), read.getMovedCount());
+        assertTrue(RingLayout.isUnchanged(read, layout.getSnapshot()));
+    }
+
+    @Test
+    public void readMapsNodeIds() throws IOException {
+        LayoutResult layout = layout();
+        LayoutResult read = LayoutResult.read(input(write(layout)), id -> id + 1000);
+
+        assertNotNull(read);
+        assertSameLayout(layout, read, 1000);
+    }
+
+    @Test
+    public void readReturnsNullForMissingNodes() throws IOException {
+        LayoutResult layout = layout();
+        long missing = layout.getSnapshot().getId(layout.getSnapshot().size() - 1);
+
+        assertNull(LayoutResult.read(input(write(layout)), id -> id == missing ? -1 : id));
+    }
+
+    @Test
+    public void readIdsReturnsSnapshotIds() throws IOException {
+        LayoutResult layout = layout();
+        long[] expected = new long[layout.getSnapshot().size()];
+        for (int node = 0; node < expected.length; node++) {
+            expected[node] = layout.getSnapshot().getId(node);
+        }
+
+        assertArrayEquals(expected, LayoutResult.readIds(input(write(layout))));
+    }
+
+    @Test(expected = IOException.class)
+    public void readRejectsTruncatedLayout() throws IOException {
+        byte[] bytes = write(layout());
+        byte[] truncated = new byte[bytes.length / 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        LayoutResult.read(input(truncated), id -> id);
+    }
+
+    @Test(expected = IOException.class)
+    public void readRejectsNodeCountBeyondStream() throws IOException {
+        byte[] bytes = write(layout());
+        ByteBuffer.wrap(bytes).putInt(0, Integer.MAX_VALUE - 8);
+        LayoutResult.read(input(bytes), id -> id);
+    }
+
+    @Test(expected = IOException.class)
+    public void readRejectsMemberOrderThatIsNoPermutation() throws IOException {
+        LayoutResult layout = layout();
+        byte[] bytes = write(layout);
+        // Node count, nodes and member count, then pairs of member ordinal and member order
+        int members = Integer.BYTES + layout.getSnapshot().size() * NODE_BYTES + Integer.BYTES;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putInt(members + 3 * Integer.BYTES, buffer.getInt(members + Integer.BYTES));
+        LayoutResult.read(input(bytes), id -> id);
+    }
+
+    private static LayoutResult layout() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FVA);
+        return RingLayout.compute(LayoutSnapshot.of(graph, null));
+    }
+
+    private static byte[] write(LayoutResult layout) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        layout.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream input(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+    private static void assertSameLayout(LayoutResult expected, LayoutResult actual, long idOffset) {
+        LayoutSnapshot snapshot = expected.getSnapshot();
+        assertEquals(snapshot.size(), actual.getSnapshot().size());
+        assertEquals(expected.getMemberCount(), actual.getMemberCount());
+        for (int node = 0; node < snapshot.size(); node++) {
+            assertEquals(snapshot.getId(node) + idOffset, actual.getSnapshot().getId(node));
+            assertEquals(snapshot.getRingClass(node), actual.getSnapshot().getRingClass(node));
+            assertEquals(snapshot.getFirstNeighbor(node), actual.getSnapshot().getFirstNeighbor(node));
+            assertEquals(snapshot.getSecondNeighbor(node), actual.getSnapshot().getSecondNeighbor(node));
+            assertEquals(expected.getX(node), actual.getX(node), 0.0d);
+            assertEquals(expected.getY(node), actual.getY(node), 0.0d);
+        }
+        for (int position = 0; position < expected.getMemberCount(); position++) {
+            assertEquals(expected.getMemberAtPosition(position), actual.getMemberAtPosition(position));
+        }
+        assertEquals(expected.getRadii().members, actual.getRadii().members, 0.0d);
+        assertEquals(expected.getRadii().single, actual.getRadii().single, 0.0d);
+    }
+}
@@ -0,0 +1,87 @@
+package org.scynet.core;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RingLayoutTest {
+
+    @Test
+    public void computePlacesEveryNode() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FBA);
+        LayoutSnapshot snapshot = LayoutSnapshot.of(graph, null);
+        LayoutResult layout = RingLayout.compute(snapshot);
+
+        assertEquals(graph.getNodeCount(), snapshot.size());
+        assertEquals(graph.getMemberCount(), layout.getMemberCount());
+        assertEquals(snapshot.size(), layout.getMovedCount());
+        for (int node = 0; node < snapshot.size(); node++) {
+            assertFalse(Double.isNaN(layout.getX(node)) || Double.isInfinite(layout.getX(node)));
+            assertFalse(Double.isNaN(layout.getY(node)) || Double.isInfinite(layout.getY(node)));
+        }
+        // Every member has its own ring position
+        BitSet positions = new BitSet();
+        for (int position = 0; position < layout.getMemberCount(); position++) {
+            int member = layout.getMemberAtPosition(position);
+            assertEquals(LayoutSnapshot.MEMBER, snapshot.getRingClass(member));
+            assertEquals(position, layout.getRingPosition(member));
+            positions.set(position);
+        }
+        assertEquals(layout.getMemberCount(), positions.cardinality());
+    }
+
+    @Test
+    public void computeIsDeterministic() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH, ToyData.KOCH_FVA);
+        LayoutResult first = RingLayout.compute(LayoutSnapshot.of(graph, null));
+        LayoutResult second = RingLayout.compute(LayoutSnapshot.of(graph, null));
+
+        for (int node = 0; node < first.getSnapshot().size(); node++) {
+            assertEquals(first.getX(node), second.getX(node), 0.0d);
+            assertEquals(first.getY(node), second.getY(node), 0.0d);
+        }
+    }
+
+    @Test
+    public void sameSnapshotIsUnchanged() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FBA);
+        LayoutResult layout = RingLayout.compute(LayoutSnapshot.of(graph, null));
+        LayoutSnapshot snapshot = LayoutSnapshot.of(graph, null);
+
+        assertTrue(RingLayout.isUnchanged(layout, snapshot));
+        LayoutResult updated = RingLayout.update(layout, snapshot);
+        assertEquals(0, updated.getMovedCount());
+        for (int node = 0; node < snapshot.size(); node++) {
+            assertEquals(layout.getX(node), updated.getX(node), 0.0d);
+            assertEquals(layout.getY(node), updated.getY(node), 0.0d);
+        }
+    }
+
+    @Test
+    public void updateOnlyMovesChangedSegments() throws IOException {
+        ExchangeGraph graph = ToyData.graph(ToyData.KOCH_9SP, ToyData.KOCH_9SP_FBA);
+        LayoutResult layout = RingLayout.compute(LayoutSnapshot.of(graph, null));
+        FilterEngine filter = new FilterEngine(graph);
+        filter.setFluxThreshold(filter.getMaxAbsoluteFlux() / 100);
+        LayoutSnapshot filtered = LayoutSnapshot.of(graph, filter.getEdgeMask());
+
+        assertFalse(RingLayout.isUnchanged(layout, filtered));
+        LayoutResult updated = RingLayout.update(layout, filtered);
+        assertTrue(updated.getMovedCount() > 0);
+        assertTrue(updated.getMovedCount() < filtered.size());
+        for (int node = 0; node < filtered.size(); node++) {
+            int previous = layout.getSnapshot().getOrdinal(filtered.getId(node));
+            if (!updated.isMoved(node)) {
+                assertTrue(previous >= 0);
+                assertEquals(layout.getX(previous), updated.getX(node), 0.0d);
+                assertEquals(layout.getY(previous), updated.getY(node), 0.0d);
+            }
+        }
+        assertTrue(RingLayout.isUnchanged(updated, LayoutSnapshot.of(graph, filter.getEdgeMask())));
+    }
+}
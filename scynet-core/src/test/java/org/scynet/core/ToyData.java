@@ -0,0 +1,64 @@
+package org.scynet.core;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Locates and simplifies the toy community models in data/toy for the tests. The directory is taken from the system
+ * property scynet.data and defaults to data/toy of the repository, relative to the scynet-core module.
+ */
+class ToyData {
+
+    static final String KOCH = "koch_com_model.xml";
+    static final String KOCH_FBA = "koch_com_model_fba.csv";
+    static final String KOCH_FVA = "koch_com_model_fva.csv";
+    static final String KOCH_9SP = "koch_com_model_9sp.xml";
+    static final String KOCH_9SP_FBA = "koch_com_model_fba_9sp.csv";
+    static final String KOCH_9SP_FVA = "koch_com_model_fva_9sp.csv";
+    static final String RENAMED = "koch_com_model_renamed_medium_comp.xml";
+
+    private ToyData() {
+    }
+
+    static File file(String name) {
+        File file = new File(System.getProperty("scynet.data", "../data/toy"), name);
+        if (!file.isFile()) {
+            throw new IllegalStateException("Test data " + file.getAbsolutePath() + " not found, set -Dscynet.data.");
+        }
+        return file;
+    }
+
+    /**
+     * @param fluxFile the flux file to contextualize the model with, null for none
+     */
+    static SimplifiedCommunity simplify(String model, String fluxFile) throws IOException {
+        return CommunitySimplifier.simplify(SbmlReader.read(file(model)), fluxFile == null ? null : FluxFile.read(file(fluxFile)));
+    }
+
+    static ExchangeGraph graph(String model, String fluxFile) throws IOException {
+        return simplify(model, fluxFile).getGraph();
+    }
+
+    /**
+     * Copies a graph with the cross-fed attribute of its metabolites set from a classification, as the Cytoscape app
+     * reads it back from the node table.
+     */
+    static ExchangeGraph withCrossFed(ExchangeGraph graph, CrossFeedingEngine engine) {
+        ExchangeGraph.Builder builder = new ExchangeGraph.Builder();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            builder.addNode(graph.getNodeName(node), graph.isMember(node) ? ExchangeGraph.MEMBER : ExchangeGraph.METABOLITE, graph.getNodeId(node));
+            if (!graph.isMember(node)) {
+                builder.setCrossFed(node, engine.isCrossFed(node));
+            }
+        }
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            builder.addEdge(graph.getEdgeSource(edge), graph.getEdgeTarget(edge), graph.getEdgeName(edge),
+                    boxed(graph.getFlux(edge)), boxed(graph.getMinFlux(edge)), boxed(graph.getMaxFlux(edge)), graph.getEdgeId(edge));
+        }
+        return builder.build();
+    }
+
+    static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,167 @@
+package org.scynet;
+
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyTableUtil;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.AbstractTask;
+import org.cytoscape.work.ObservableTask;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.json.JSONResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A ScyNet task that can be run as a command of the "scynet" namespace, e.g. through CyREST or the automation
+ * scripting interface. Its input are typed Tunables, and its results are returned as one JSON object with the wall
+ * time of the whole command in "wallTimeMs", next to what the command put into it.
+ * <p>
+ * Commands check their input before they start and report invalid input by throwing an exception, which fails the
+ * command with its message, rather than by opening a dialog nobody may be there to close.
+ */
+public abstract class AbstractScynetCommandTask extends AbstractTask implements ObservableTask {
+
+	/**
+	 * The results in the order they were put, values are Strings, Numbers, Booleans, Lists or Maps of those or null
+	 */
+	private final Map<String, Object> results = new LinkedHashMap<>();
+
+	@Override
+	public final void run(TaskMonitor monitor) throws Exception {
+		results.clear();
+		long start = System.nanoTime();
+		execute(monitor);
+		results.put("wallTimeMs", (System.nanoTime() - start) / 1e6);
+	}
+
+	/**
+	 * Runs the command and puts its results.
+	 */
+	protected abstract void execute(TaskMonitor monitor) throws Exception;
+
+	/**
+	 * Adds a result, replacing the one of the same key.
+	 */
+	protected void putResult(String key, Object value) {
+		results.put(key, value);
+	}
+
+	/**
+	 * Adds the phases of a pipeline run as "phases", each with its wall time, table and view accesses and size.
+	 */
+	protected void putMetrics(PipelineMetrics metrics) {
+		List<Object> phases = new ArrayList<>();
+		for (PipelineMetrics.Phase phase : metrics.getPhases()) {
+			Map<String, Object> values = new LinkedHashMap<>();
+			values.put("phase", phase.getName());
+			values.put("wallTimeMs", phase.getNanos() / 1e6);
+			values.put("tableReads", phase.getTableReads());
+			values.put("tableWrites", phase.getTableWrites());
+			values.put("viewWrites", phase.getViewWrites());
+			values.put("nodes", phase.getNodes());
+			values.put("edges", phase.getEdges());
+			phases.add(values);
+		}
+		results.put("phases", phases);
+	}
+
+	/**
+	 * Adds the SUIDs of a network view and its network as "network" and "view".
+	 */
+	protected void putView(CyNetworkView view) {
+		results.put("network", view.getModel().getSUID());
+		results.put("view", view.getSUID());
+	}
+
+	/**
+	 * Throws an IllegalArgumentException unless the view shows a network created by ScyNet.
+	 */
+	protected static void requireScynetView(CyNetworkView view) {
+		if (view == null) {
+			throw new IllegalArgumentException("No network view given.");
+		}
+		CyNetwork network = view.getModel();
+		Set<String> columnNames = CyTableUtil.getColumnNames(network.getDefaultEdgeTable());
+		if (!(columnNames.contains("sbml id") && columnNames.contains("flux"))) {
+			throw new IllegalArgumentException("The network " + network.getRow(network).get(CyNetwork.NAME, String.class)
+					+ " was not created by ScyNet.");
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <R> R getResults(Class<? extends R> type) {
+		if (type == String.class) {
+			return (R) toJson(results);
+		}
+		if (type == JSONResult.class) {
+			JSONResult json = () -> toJson(results);
+			return (R) json;
+		}
+		return null;
+	}
+
+	@Override
+	public List<Class<?>> getResultClasses() {
+		return Arrays.asList(String.class, JSONResult.class);
+	}
+
+	static String toJson(Object value) {
+		StringBuilder json = new StringBuilder();
+		appendJson(json, value);
+		return json.toString();
+	}
+
+	private static void appendJson(StringBuilder json, Object value) {
+		if (value == null) {
+			json.append("null");
+		} else if (value instanceof Map) {
+			json.append('{');
+			String separator = "";
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				json.append(separator);
+				appendString(json, String.valueOf(entry.getKey()));
+				json.append(':');
+				appendJson(json, entry.getValue());
+				separator = ",";
+			}
+			json.append('}');
+		} else if (value instanceof List) {
+			json.append('[');
+			String separator = "";
+			for (Object element : (List<?>) value) {
+				json.append(separator);
+				appendJson(json, element);
+				separator = ",";
+			}
+			json.append(']');
+		} else if (value instanceof Double || value instanceof Float) {
+			double number = ((Number) value).doubleValue();
+			// JSON has no NaN or infinity
+			json.append(Double.isNaN(number) || Double.isInfinite(number) ? "null" : Double.toString(number));
+		} else if (value instanceof Number || value instanceof Boolean) {
+			json.append(value);
+		} else {
+			appendString(json, value.toString());
+		}
+	}
+
+	private static void appendString(StringBuilder json, String value) {
+		json.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				json.append('\\').append(c);
+			} else if (c < 0x20) {
+				json.append(String.format("\\u%04x", (int) c));
+			} else {
+				json.append(c);
+			}
+		}
+		json.append('"');
+	}
+}
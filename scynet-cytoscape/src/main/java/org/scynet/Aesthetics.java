@@ -0,0 +1,313 @@
+package org.scynet;
+
+import org.scynet.core.CrossFeedingEngine;
+import org.scynet.core.ExchangeGraph;
+
+import org.apache.log4j.Logger;
+import org.cytoscape.application.CyUserLog;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.model.VisualProperty;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+import org.cytoscape.view.presentation.property.NodeShapeVisualProperty;
+import org.cytoscape.view.presentation.property.ArrowShapeVisualProperty;
+import org.cytoscape.view.presentation.property.values.Justification;
+import org.cytoscape.view.presentation.property.values.ObjectPosition;
+import org.cytoscape.view.presentation.property.values.Position;
+
+import javax.swing.plaf.ColorUIResource;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+import static java.lang.Math.abs;
+/**
+* Defines methods to modify the visual appearance of a Cytoscape network based on certain criteria.
+* Takes the network and network view to be modified, a boolean flag indicating whether only "crossfeeding" nodes should
+* be displayed, and a HashMap of flux values for each node. Community members and exchange metabolites are told apart by
+* the "type" column, so any ScyNet network can be styled, however it was created.
+*/
+public class Aesthetics {
+
+    /**
+     * The new network
+     */
+    private final CyNetwork newNetwork;
+    /**
+     * The new network view
+     */
+    private final CyNetworkView newView;
+    /**
+    * A color palette for the network visualisations. Colors are used in the following order:
+     * 1. Node member
+     * 2. Node metabolite
+     * 3. Arrow influx
+     * 4. Arrow efflux
+     * 5. Arrow bidirectional
+     * 6. Arrow 0 flux
+     */
+    private final ArrayList<Color> palette;
+    /**
+     * The boolean defining if the submitted flux map is fva or fba
+     */
+    private final boolean isFva;
+    /**
+     * The metrics of the pipeline run styling the network
+     */
+    private final PipelineMetrics metrics;
+    private final Logger logger;
+    /**
+     * Constructs an Aesthetics object using the specified parameters.
+     *
+     * @param newNetwork        the CyNetwork object to be modified
+     * @param newView           the CyNetworkView object to be modified
+     * @param showOnlyCrossfeeding  a boolean flag indicating whether only crossfeeding nodes should be displayed
+     * @param tsvMap            a HashMap of TSV values for each node in the network
+     * @param metrics           records the phase "styling"
+     */
+
+    public Aesthetics(CyNetwork newNetwork, CyNetworkView newView, boolean showOnlyCrossfeeding, HashMap<String, Double> tsvMap, Boolean isFva, PipelineMetrics metrics) {
+        this.logger = Logger.getLogger(CyUserLog.NAME);
+        this.palette = new ArrayList<>();
+        Color compNodeColor = new Color(145,191,219, 175);
+        Color exchgNodeColor = new Color(223,194,125, 175);
+        Color influxArrowColor = new Color(128,205,193, 175);
+        Color effluxArrowColor = new Color(253,174,97, 175);
+        Color bidirectionalArrowColor = new Color(194,165,207, 175);
+        Color zeroFluxArrowColor = new Color(100,100,100,175);
+        Color defaultArrowColor = new Color(50,50,50,175);
+        this.palette.add(compNodeColor);
+        this.palette.add(exchgNodeColor);
+        this.palette.add(influxArrowColor);
+        this.palette.add(effluxArrowColor);
+        this.palette.add(bidirectionalArrowColor);
+        this.palette.add(zeroFluxArrowColor);
+        this.palette.add(defaultArrowColor);
+
+        this.newNetwork = newNetwork;
+        this.newView = newView;
+        this.isFva = isFva;
+        this.metrics = metrics;
+        metrics.begin("styling");
+        compNodes();
+        exchgNodes();
+        edges();
+        if (!tsvMap.isEmpty()) {
+            writeCrossFeedingColumns();  // cross-feeding status depends on flux data
+        }
+        newView.updateView();
+        if (showOnlyCrossfeeding) {
+            removeNonCFNodes();
+        }
+        removeSingletons();
+        metrics.end(newNetwork.getNodeCount(), newNetwork.getEdgeCount());
+    }
+    /**
+     * Modifies the appearance of the compartment nodes in the network view.
+     */
+    private void compNodes() {
+        // Here we change the appearance of the Compartment Nodes
+        for (CyNode compNode : getNodesOfType("community member")) {
+            View<CyNode> compNodeView = newView.getNodeView(compNode);
+            if (compNodeView == null) {
+                continue;
+            }
+
+            String compNodeName = metrics.get(newNetwork.getDefaultNodeTable().getRow(compNode.getSUID()), "shared name", String.class);
+            Color compNodeColor = this.palette.get(0);
+            Paint compNodePaint = new ColorUIResource(compNodeColor);
+            Color compNodeBorderColor = new Color(255, 255, 255, 255);
+            Paint compNodeBorderPaint = new ColorUIResource(compNodeBorderColor);
+            Integer size = 25;
+            double compNodeHeight = 100.0d;
+            double compNodeWidth = 150.0d;
+            double compNodeBorderWidth = 10.0d;
+            ObjectPosition compNodeLabelPosition = new ObjectPosition(Position.CENTER, Position.CENTER, Justification.JUSTIFY_CENTER, 0.0d, 0.0d);
+
+            setLocked(compNodeView, BasicVisualLexicon.NODE_LABEL_POSITION, compNodeLabelPosition);
+            setLocked(compNodeView, BasicVisualLexicon.NODE_BORDER_WIDTH, compNodeBorderWidth);
+            setLocked(compNodeView, BasicVisualLexicon.NODE_BORDER_PAINT, compNodeBorderPaint);
+            setLocked(compNodeView, BasicVisualLexicon.NODE_FILL_COLOR, compNodePaint);
+            setLocked(compNodeView, BasicVisualLexicon.NODE_HEIGHT, compNodeHeight);
+            setLocked(compNodeView, BasicVisualLexicon.NODE_WIDTH, compNodeWidth);
+            setLocked(compNodeView, BasicVisualLexicon.NODE_LABEL, compNodeName);
+            setLocked(compNodeView, BasicVisualLexicon.NODE_LABEL_FONT_SIZE, size);
+            setLocked(compNodeView, BasicVisualLexicon.NODE_SHAPE, NodeShapeVisualProperty.ROUND_RECTANGLE);
+        }
+    }
+    /**
+     * Modifies the appearance of the external nodes in the network view and removes nodes with no flux.
+     */
+    private void exchgNodes() {
+        // Here we change the appearance of the external Nodes
+        for (CyNode exchgNode : getNodesOfType("exchange metabolite")) {
+            View<CyNode> exchgNodeView = newView.getNodeView(exchgNode);
+            if (exchgNodeView == null) {
+                continue;
+            }
+            String exchgNodeName = metrics.get(newNetwork.getDefaultNodeTable().getRow(exchgNode.getSUID()), "shared name", String.class);
+            Color exchgNodeColor = this.palette.get(1);
+            Paint exchgNodePaint = new ColorUIResource(exchgNodeColor);
+            Color exchgNodeBorderColor = new Color(255,255,255, 255);
+            Paint exchgNodeBorderPaint = new ColorUIResource(exchgNodeBorderColor);
+            double exchgNodeWidth = 32.0d;
+            //double exchgNodeHeight = 55.0d;
+            int size = 22;
+            double exchgNodeBorderWidth = 10.0d;
+            ObjectPosition exchgNodeLabelPosition = new ObjectPosition(Position.NORTH_EAST, Position.NORTH_WEST, Justification.JUSTIFY_CENTER, 0.0d, 0.0d);
+
+            setLocked(exchgNodeView, BasicVisualLexicon.NODE_LABEL_POSITION, exchgNodeLabelPosition);
+            setLocked(exchgNodeView, BasicVisualLexicon.NODE_BORDER_WIDTH, exchgNodeBorderWidth);
+            setLocked(exchgNodeView, BasicVisualLexicon.NODE_BORDER_PAINT, exchgNodeBorderPaint);
+            setLocked(exchgNodeView, BasicVisualLexicon.NODE_FILL_COLOR, exchgNodePaint);
+            setLocked(exchgNodeView, BasicVisualLexicon.NODE_WIDTH, exchgNodeWidth);
+            setLocked(exchgNodeView, BasicVisualLexicon.NODE_HEIGHT, exchgNodeWidth);
+            setLocked(exchgNodeView, BasicVisualLexicon.NODE_LABEL, exchgNodeName);
+            setLocked(exchgNodeView, BasicVisualLexicon.NODE_LABEL_FONT_SIZE, size);
+            setLocked(exchgNodeView, BasicVisualLexicon.NODE_SHAPE, NodeShapeVisualProperty.ELLIPSE);
+        }
+    }
+    /**
+     * @return the nodes of the new network with the given value in the "type" column
+     */
+    private List<CyNode> getNodesOfType(String type) {
+        List<CyNode> nodesOfType = new ArrayList<>();
+        for (CyNode node : newNetwork.getNodeList()) {
+            if (Objects.equals(type, metrics.get(newNetwork.getDefaultNodeTable().getRow(node.getSUID()), "type", String.class))) {
+                nodesOfType.add(node);
+            }
+        }
+        return nodesOfType;
+    }
+    /**
+     * Modifies the appearance of the edges in the network view.
+     */
+    private void edges () {
+        // Here we change the appearance of the Edges
+        for (CyEdge newEdge : newNetwork.getEdgeList()) {
+            CyRow edgeRow = newNetwork.getDefaultEdgeTable().getRow(newEdge.getSUID());
+            Double edgeFlux = metrics.get(edgeRow, "flux", Double.class);
+            Double edgeMinFlux = metrics.get(edgeRow, "min flux", Double.class);
+            Double edgeMaxFlux = metrics.get(edgeRow, "max flux", Double.class);
+            View<CyEdge> edgeView = newView.getEdgeView(newEdge);
+            // If Fluxes were added or not
+            if (isFva) {
+                Double edgeWidth = 10.0d;
+                setLocked(edgeView, BasicVisualLexicon.EDGE_WIDTH, edgeWidth);
+                if (edgeMinFlux != null && edgeMaxFlux != null) {
+                    // Color of the Edges is selected based on Fluxes
+                    Paint edgeColor;
+                    if (edgeMinFlux < 0.0d && edgeMaxFlux > 0.0d) {
+                        edgeColor = this.palette.get(4);
+                        setLocked(edgeView, BasicVisualLexicon.EDGE_TARGET_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+                        setLocked(edgeView, BasicVisualLexicon.EDGE_SOURCE_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+                    }
+                    else if (edgeMaxFlux > 0.0d) {
+                        edgeColor = this.palette.get(3);
+                        setLocked(edgeView, BasicVisualLexicon.EDGE_TARGET_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+                    } else if (edgeMinFlux < 0.0d) {
+                        edgeColor = this.palette.get(2);
+                        setLocked(edgeView, BasicVisualLexicon.EDGE_SOURCE_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+                    }
+                    else {
+                        edgeColor = this.palette.get(5);
+                    }
+                    setLocked(edgeView, BasicVisualLexicon.EDGE_PAINT, edgeColor);
+
+                    // Width of the Edges is also based on Fluxes
+                    if (edgeMinFlux == 0.0d && edgeMaxFlux == 0.0d) {
+                        setLocked(edgeView, BasicVisualLexicon.EDGE_VISIBLE, false);
+                    }
+                } else {
+                    // Otherwise we just chose the Color with a default color
+                    Paint edgeColor = this.palette.get(6);
+                    setLocked(edgeView, BasicVisualLexicon.EDGE_PAINT, edgeColor);
+                }
+            }
+            else {
+                if (edgeFlux != null) {
+                    // Color of the Edges is selected based on Fluxes
+                    Paint edgeColor = this.palette.get(5);
+                    if (edgeFlux > 0.0d) {
+                        edgeColor = this.palette.get(3);
+                        setLocked(edgeView, BasicVisualLexicon.EDGE_TARGET_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+                    } else if (edgeFlux < 0.0d) {
+                        edgeColor = this.palette.get(2);
+                        setLocked(edgeView, BasicVisualLexicon.EDGE_SOURCE_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+                    }
+                    setLocked(edgeView, BasicVisualLexicon.EDGE_PAINT, edgeColor);
+
+                    // Width of the Edges is also based on Fluxes
+                    if (edgeFlux != 0.0d) {
+                        Double edgeWidth = abs(edgeFlux) + 1;
+                        if (edgeWidth > 50.0d) {
+                            edgeWidth = 50.0d;
+                        }
+                        edgeWidth = 10.0d;
+                        setLocked(edgeView, BasicVisualLexicon.EDGE_WIDTH, edgeWidth);
+                    } else {
+                        double edgeWidth = 10.0d;
+                        setLocked(edgeView, BasicVisualLexicon.EDGE_WIDTH, edgeWidth);
+                        setLocked(edgeView, BasicVisualLexicon.EDGE_VISIBLE, false);
+                    }
+                } else {
+                    Double edgeWidth = 10.0d;
+                    setLocked(edgeView, BasicVisualLexicon.EDGE_WIDTH, edgeWidth);
+                    // Otherwise we just chose the Color with a default color
+                    Paint edgeColor = this.palette.get(6);
+                    setLocked(edgeView, BasicVisualLexicon.EDGE_PAINT, edgeColor);
+                }
+            }
+        }
+    }
+
+    private <T, V extends T> void setLocked(View<?> view, VisualProperty<? extends T> property, V value) {
+        metrics.setLockedValue(view, property, value);
+    }
+
+    /**
+     * Classifies the exchange metabolites by the fluxes of the edge table and writes the cross-feeding columns.
+     */
+    private void writeCrossFeedingColumns() {
+        ExchangeGraph graph = ExchangeGraphReader.read(newNetwork);
+        metrics.addTableReads(ExchangeGraphReader.countCellReads(newNetwork, graph.getNodeCount(), graph.getEdgeCount()));
+        CrossFeedingColumns.write(newNetwork, graph, CrossFeedingEngine.compute(graph), null, metrics);
+    }
+
+    /**
+     * Identifies and removes all nodes that do not have crossfeeding.
+     */
+    private void removeSingletons() {
+        logger.info("Removing disconnected nodes");
+        List<CyNode> allNodes = newNetwork.getNodeList();
+        for (CyNode node : allNodes) {
+            List<CyEdge> adjacentEdgeList = newNetwork.getAdjacentEdgeList(node, CyEdge.Type.ANY);
+            if (adjacentEdgeList.isEmpty()) {
+                newNetwork.removeNodes(Collections.singletonList(node));
+                // newView.getNodeView(newNode).setVisualProperty(BasicVisualLexicon.NODE_TRANSPARENCY, 0);
+            }
+        }
+    }
+    /**
+     * Identifies and removes all nodes that do not have crossfeeding.
+     */
+    private void removeNonCFNodes() {
+        ExchangeGraph graph = ExchangeGraphReader.read(newNetwork);
+        metrics.addTableReads(ExchangeGraphReader.countCellReads(newNetwork, graph.getNodeCount(), graph.getEdgeCount()));
+        CrossFeedingEngine crossFeeding = CrossFeedingEngine.compute(graph);
+        List<CyNode> nonCrossFed = new ArrayList<>();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (!graph.isMember(node) && !crossFeeding.isCrossFed(node)) {
+                nonCrossFed.add(newNetwork.getNode(graph.getNodeId(node)));
+            }
+        }
+        newNetwork.removeNodes(nonCrossFed);
+    }
+
+}
+
+
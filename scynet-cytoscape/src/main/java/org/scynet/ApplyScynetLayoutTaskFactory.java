@@ -8,13 +8,20 @@ import org.cytoscape.work.TaskIterator;
 
 /**
  * Applies CustomLayout to the given CyNetworkView with specific Tunable
- * parameters.
+ * parameters. An incremental factory only moves the nodes whose ring changed
+ * since the previous ScyNet layout of the view.
  */
 public class ApplyScynetLayoutTaskFactory implements NetworkViewTaskFactory {
 	private CyLayoutAlgorithmManager layoutManager;
+	private final boolean incremental;
 
 	public ApplyScynetLayoutTaskFactory(CyLayoutAlgorithmManager layoutManager) {
+		this(layoutManager, false);
+	}
+
+	public ApplyScynetLayoutTaskFactory(CyLayoutAlgorithmManager layoutManager, boolean incremental) {
 		this.layoutManager = layoutManager;
+		this.incremental = incremental;
 	}
 	
 	public TaskIterator createTaskIterator(CyNetworkView view) {
@@ -25,6 +32,9 @@ public class ApplyScynetLayoutTaskFactory implements NetworkViewTaskFactory {
 		// Create a new context for the layout so we can configure the settings
 		// without changing the user's defaults.
 		Object context = layout.createLayoutContext();
+		if (context instanceof ScynetLayoutContext) {
+			((ScynetLayoutContext) context).incremental = incremental;
+		}
 
 		String layoutAttribute = null;
 		return layout.createTaskIterator(view, context, CyLayoutAlgorithm.ALL_NODE_VIEWS, layoutAttribute);
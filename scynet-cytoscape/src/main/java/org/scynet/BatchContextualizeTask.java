@@ -0,0 +1,189 @@
+package org.scynet;
+
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.FluxConditions;
+import org.scynet.core.FluxFile;
+
+import org.cytoscape.model.CyColumn;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.model.CyTableUtil;
+import org.cytoscape.task.AbstractNetworkTask;
+import org.cytoscape.work.TaskMonitor;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+/**
+ * Contextualizes a ScyNet network with several flux files at once. Every file is one condition, named after the file.
+ * The files are parsed in parallel and the results are written to per-condition columns: "flux &lt;condition&gt;"
+ * (and "min flux &lt;condition&gt;", "max flux &lt;condition&gt;" for flux ranges) in the edge table and
+ * "cross-fed &lt;condition&gt;" in the node table. The "flux" and "cross-fed" columns and the view are left
+ * unchanged.
+ */
+public class BatchContextualizeTask extends AbstractNetworkTask {
+
+	private final Logger logger;
+	private final List<File> fluxFiles;
+
+	public BatchContextualizeTask(CyNetwork network, List<File> fluxFiles) {
+		super(network);
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+		this.fluxFiles = fluxFiles;
+	}
+
+	@Override
+	public void run(TaskMonitor taskMonitor) {
+		if (network == null) {
+			logger.warn("No network selected. Nothing to do.");
+			return;
+		}
+		Set<String> columnNames = CyTableUtil.getColumnNames(network.getDefaultEdgeTable());
+		if (!(columnNames.contains("sbml id") && columnNames.contains("flux"))) {
+			logger.error("The selected network is not in ScyNet format. " +
+					"Please select a network created by ScyNet.");
+			JFrame frame = new JFrame();
+			JOptionPane pane = new JOptionPane(
+					"The selected network is not in ScyNet format. " +
+							"Please select a network created by ScyNet.",
+					JOptionPane.WARNING_MESSAGE
+			);
+			pane.setComponentOrientation(JOptionPane.getRootFrame().getComponentOrientation());
+			JDialog dialog = pane.createDialog(frame, "Error: Wrong Network Format");
+
+			dialog.setModal(false);
+			dialog.setVisible(true);
+			return;
+		}
+		if (fluxFiles.isEmpty()) {
+			logger.warn("No flux files were selected. Nothing to do.");
+			return;
+		}
+
+		taskMonitor.setTitle("Contextualize network with " + fluxFiles.size() + " flux files");
+		taskMonitor.setProgress(0.0d);
+		taskMonitor.showMessage(TaskMonitor.Level.INFO, "Reading flux files");
+		long start = System.nanoTime();
+		List<FluxFile> conditions = readFluxFiles();
+		if (conditions.isEmpty()) {
+			logger.warn("No flux values in input files. Nothing to do.");
+			return;
+		}
+
+		taskMonitor.setProgress(0.4d);
+		taskMonitor.showMessage(TaskMonitor.Level.INFO, "Calculating fluxes and cross-fed metabolites of " + conditions.size() + " conditions");
+		ExchangeGraph graph = ExchangeGraphReader.read(network);
+		FluxConditions fluxConditions = FluxConditions.compute(graph, conditions);
+
+		taskMonitor.setProgress(0.7d);
+		taskMonitor.showMessage(TaskMonitor.Level.INFO, "Writing per-condition columns");
+		writeColumns(graph, fluxConditions);
+
+		logger.info("Contextualized the network with " + conditions.size() + " conditions in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+		taskMonitor.setProgress(1.0d);
+	}
+
+	/**
+	 * Parses all flux files in parallel. Files that can not be read or parsed are logged and skipped, so that one bad
+	 * file does not cancel the other conditions. Of several conditions with the same name, only the first is used.
+	 */
+	private List<FluxFile> readFluxFiles() {
+		List<FluxFile> parsed = fluxFiles.parallelStream().map(file -> {
+			try {
+				return FluxFile.read(file);
+			} catch (IllegalArgumentException e) {
+				logger.error(e.getMessage());
+				return null;
+			} catch (IOException e) {
+				logger.error("Could not read the flux file " + file + ": " + e.getMessage());
+				return null;
+			}
+		}).collect(Collectors.toList());
+
+		List<FluxFile> conditions = new ArrayList<>();
+		Set<String> conditionNames = new HashSet<>();
+		for (FluxFile fluxFile : parsed) {
+			if (fluxFile == null || fluxFile.getFluxMap().isEmpty()) {
+				continue;
+			}
+			if (!conditionNames.add(fluxFile.getCondition())) {
+				logger.warn("Several flux files are named " + fluxFile.getCondition() + ", only the first one is used.");
+				continue;
+			}
+			conditions.add(fluxFile);
+		}
+		return conditions;
+	}
+
+	/**
+	 * Creates the columns of all conditions and fills them in one pass over the edge and node rows.
+	 */
+	private void writeColumns(ExchangeGraph graph, FluxConditions conditions) {
+		CyTable edgeTable = network.getDefaultEdgeTable();
+		CyTable nodeTable = network.getDefaultNodeTable();
+		int conditionCount = conditions.getConditionCount();
+		String[] fluxColumns = new String[conditionCount];
+		String[] minFluxColumns = new String[conditionCount];
+		String[] maxFluxColumns = new String[conditionCount];
+		String[] crossFedColumns = new String[conditionCount];
+		for (int condition = 0; condition < conditionCount; condition++) {
+			String name = conditions.getCondition(condition);
+			fluxColumns[condition] = createColumn(edgeTable, "flux " + name, Double.class);
+			if (conditions.isFva(condition)) {
+				minFluxColumns[condition] = createColumn(edgeTable, "min flux " + name, Double.class);
+				maxFluxColumns[condition] = createColumn(edgeTable, "max flux " + name, Double.class);
+			}
+			crossFedColumns[condition] = createColumn(nodeTable, "cross-fed " + name, Boolean.class);
+		}
+
+		for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+			CyRow row = edgeTable.getRow(graph.getEdgeId(edge));
+			for (int condition = 0; condition < conditionCount; condition++) {
+				row.set(fluxColumns[condition], toValue(conditions.getFlux(condition, edge)));
+				if (conditions.isFva(condition)) {
+					row.set(minFluxColumns[condition], toValue(conditions.getMinFlux(condition, edge)));
+					row.set(maxFluxColumns[condition], toValue(conditions.getMaxFlux(condition, edge)));
+				}
+			}
+		}
+		for (int node = 0; node < graph.getNodeCount(); node++) {
+			if (graph.isMember(node)) {
+				continue;
+			}
+			CyRow row = nodeTable.getRow(graph.getNodeId(node));
+			for (int condition = 0; condition < conditionCount; condition++) {
+				row.set(crossFedColumns[condition], conditions.isCrossFed(condition, node));
+			}
+		}
+	}
+
+	/**
+	 * Creates a column, replacing an existing column of another type.
+	 * @return the name of the column
+	 */
+	private static String createColumn(CyTable table, String name, Class<?> type) {
+		CyColumn column = table.getColumn(name);
+		if (column != null && column.getType() != type) {
+			table.deleteColumn(name);
+			column = null;
+		}
+		if (column == null) {
+			table.createColumn(name, type, false);
+		}
+		return name;
+	}
+
+	private static Double toValue(double value) {
+		return Double.isNaN(value) ? null : value;
+	}
+}
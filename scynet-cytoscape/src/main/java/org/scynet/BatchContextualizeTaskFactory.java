@@ -0,0 +1,19 @@
+package org.scynet;
+
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.task.AbstractNetworkTaskFactory;
+import org.cytoscape.work.TaskIterator;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * A task factory to contextualize a ScyNet network with several flux files, one per condition.
+ */
+public class BatchContextualizeTaskFactory extends AbstractNetworkTaskFactory {
+
+	public TaskIterator createTaskIterator(CyNetwork network) {
+		List<File> fluxFiles = FileChoosing.chooseFluxFiles();
+		return new TaskIterator(new BatchContextualizeTask(network, fluxFiles));
+	}
+}
@@ -0,0 +1,81 @@
+package org.scynet;
+
+import org.scynet.core.FluxFile;
+import org.scynet.core.LayoutResult;
+
+import org.cytoscape.model.CyNetworkManager;
+import org.cytoscape.session.CyNetworkNaming;
+import org.cytoscape.view.layout.CyLayoutAlgorithmManager;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The command "scynet contextualize": applies the fluxes of a flux file to a ScyNet network view like "Contextualize
+ * with Flux Data", with the file given by its path instead of a file chooser. Returns the number of updated edges and
+ * metabolites, whether the layout was updated and the time to read the file.
+ */
+public class ContextualizeCommandTask extends AbstractScynetCommandTask {
+
+	@Tunable(description = "Network view",
+			longDescription = "The view of a network created by ScyNet, by the name or SUID of its network, or current for the current view.",
+			exampleStringValue = "current", required = true)
+	public CyNetworkView view;
+
+	@Tunable(description = "Flux file",
+			longDescription = "A tab separated FBA or FVA flux file, e.g. data/toy/koch_com_model_fba.csv.",
+			exampleStringValue = "data/toy/koch_com_model_fba.csv",
+			params = "input=true;fileCategory=table", required = true)
+	public File fluxFile;
+
+	@Tunable(description = "Ignore flux changes up to",
+			longDescription = "Edges whose new flux (and flux range) differs from the current one by at most this value keep "
+					+ "their flux and styling.",
+			exampleStringValue = "1e-9")
+	public double epsilon = 1e-9;
+
+	private final CyNetworkManager networkManager;
+	private final CyNetworkNaming cyNetworkNaming;
+	private final CyLayoutAlgorithmManager cyLayoutAlgorithmManager;
+
+	public ContextualizeCommandTask(CyNetworkManager networkManager, CyNetworkNaming cyNetworkNaming, CyLayoutAlgorithmManager cyLayoutAlgorithmManager) {
+		this.networkManager = networkManager;
+		this.cyNetworkNaming = cyNetworkNaming;
+		this.cyLayoutAlgorithmManager = cyLayoutAlgorithmManager;
+	}
+
+	@Override
+	protected void execute(TaskMonitor monitor) throws Exception {
+		requireScynetView(view);
+		if (fluxFile == null || !fluxFile.isFile()) {
+			throw new IOException("The flux file " + fluxFile + " does not exist.");
+		}
+		long start = System.nanoTime();
+		FluxFile flux = FluxFile.read(fluxFile);
+		long readNanos = System.nanoTime() - start;
+		if (flux.getFluxMap().isEmpty()) {
+			throw new IllegalArgumentException("The flux file " + fluxFile + " has no flux values.");
+		}
+
+		ScynetNetworkState state = ScynetNetworkState.forNetwork(view.getModel());
+		LayoutResult previousLayout = state.getLayout(view);
+		ContextualizeWithFluxDataTask task = new ContextualizeWithFluxDataTask(view, flux.getFluxMap(), flux.isFva(),
+				networkManager, cyNetworkNaming, cyLayoutAlgorithmManager);
+		task.epsilon = epsilon;
+		task.run(monitor);
+		LayoutResult layout = state.getLayout(view);
+
+		putView(view);
+		putResult("condition", flux.getCondition());
+		putResult("fva", flux.isFva());
+		putResult("edges", task.getEdgeCount());
+		putResult("changedEdges", task.getChangedEdgeCount());
+		putResult("changedMetabolites", task.getChangedMetaboliteCount());
+		putResult("layoutUpdated", layout != previousLayout);
+		putResult("movedNodes", layout != null && layout != previousLayout ? layout.getMovedCount() : 0);
+		putResult("readMs", readNanos / 1e6);
+	}
+}
@@ -0,0 +1,432 @@
+package org.scynet;
+
+import org.scynet.core.CrossFeedingEngine;
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.LayoutCache;
+import org.scynet.core.LayoutResult;
+import org.scynet.core.LayoutSnapshot;
+import org.scynet.core.ScynetEvents;
+
+import org.cytoscape.model.*;
+import org.cytoscape.model.subnetwork.CyRootNetwork;
+import org.cytoscape.model.subnetwork.CySubNetwork;
+import org.cytoscape.session.CyNetworkNaming;
+import org.cytoscape.task.AbstractNetworkViewTask;
+import org.cytoscape.view.layout.CyLayoutAlgorithmManager;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.presentation.property.ArrowShapeVisualProperty;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+import org.cytoscape.work.Task;
+import org.cytoscape.work.TaskIterator;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+import static java.lang.Math.abs;
+
+public class ContextualizeWithFluxDataTask extends AbstractNetworkViewTask {
+
+	private final Logger logger;
+	/**
+	 * TSV-map created from the TSV-file if it was added
+	 */
+	private final HashMap<String, Double> tsvMap;
+	/**
+	 * The boolean defining if the submitted flux map is fva or fba
+	 */
+	private boolean isFva;
+	/**
+	 * The manager for networks in Cytoscape
+	 */
+	private final CyNetworkManager networkManager;
+	/**
+	 * The naming service for networks in Cytoscape
+	 */
+	private final CyNetworkNaming cyNetworkNaming;
+	/**
+	 * A color palette for the network visualisations. Colors are used in the following order:
+	 * 1. Node member
+	 * 2. Node metabolite
+	 * 3. Arrow influx
+	 * 4. Arrow efflux
+	 * 5. Arrow bidirectional
+	 * 6. Arrow 0 flux
+	 */
+	private final ArrayList<Color> palette;
+	/**
+	 * The layout algorithm manager in Cytoscape
+	 */
+	private final CyLayoutAlgorithmManager cyLayoutAlgorithmManager;
+
+	@Tunable(description = "Ignore flux changes up to",
+			longDescription = "Edges whose new flux (and flux range) differs from the current one by at most this value keep "
+					+ "their flux and styling, only the other edges and their metabolites are updated.")
+	public double epsilon = 1e-9;
+
+	/**
+	 * The number of edges and of the edges and metabolites updated by the last run, -1 before a successful run
+	 */
+	private int edgeCount = -1;
+	private int changedEdgeCount = -1;
+	private int changedMetaboliteCount = -1;
+
+	public ContextualizeWithFluxDataTask(CyNetworkView view, HashMap<String, Double> tsvMap, Boolean isFva, CyNetworkManager networkManager, CyNetworkNaming cyNetworkNaming, CyLayoutAlgorithmManager cyLayoutAlgorithmManager){
+		super(view);
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+		this.tsvMap = tsvMap;
+		this.isFva = isFva;
+		this.networkManager = networkManager;
+		this.cyNetworkNaming = cyNetworkNaming;
+		this.cyLayoutAlgorithmManager = cyLayoutAlgorithmManager;
+		this.palette = new ArrayList<>();
+		Color compNodeColor = new Color(145,191,219, 175);
+		Color exchgNodeColor = new Color(223,194,125, 175);
+		Color influxArrowColor = new Color(128,205,193, 175);
+		Color effluxArrowColor = new Color(253,174,97, 175);
+		Color bidirectionalArrowColor = new Color(194,165,207, 175);
+		Color zeroFluxArrowColor = new Color(100,100,100,175);
+		Color defaultArrowColor = new Color(50,50,50,175);
+		this.palette.add(compNodeColor);
+		this.palette.add(exchgNodeColor);
+		this.palette.add(influxArrowColor);
+		this.palette.add(effluxArrowColor);
+		this.palette.add(bidirectionalArrowColor);
+		this.palette.add(zeroFluxArrowColor);
+		this.palette.add(defaultArrowColor);
+	}
+	
+	@Override
+	public void run(final TaskMonitor taskMonitor) {
+		if(view == null){
+			logger.warn("No network view available for selected network. Nothing to do.");
+			return;
+		}
+
+		taskMonitor.setTitle("Contextualize network with flux data");
+		taskMonitor.setProgress(0.0d);
+		taskMonitor.showMessage(TaskMonitor.Level.INFO, "Checking network compatibility");
+
+		//Check if type and cross-fed columns exist
+		// The network of the view, which need not be the current one when run as a command
+		CyNetwork currentNetwork = view.getModel();
+		Set<String> columnNames = CyTableUtil.getColumnNames(currentNetwork.getDefaultEdgeTable());
+
+		if (columnNames.contains("sbml id") && columnNames.contains("flux")) {
+			if (tsvMap.isEmpty()) {
+				logger.warn("No flux values in input file. Nothing to do.");
+				return;
+			}
+
+			// Add flux to edge, only where it differs from the current flux by more than epsilon
+			taskMonitor.setProgress(0.1d);
+			taskMonitor.showMessage(TaskMonitor.Level.INFO, "Setting flux values for edges");
+
+			ScynetEvents.ContextualizationDiff event = ScynetEvents.beginContextualizationDiff();
+			ScynetNetworkState state = ScynetNetworkState.forNetwork(currentNetwork);
+			VisibilityModel visibilityModel = state.getVisibilityModel(view);
+			// Switching between single values and ranges changes the styling of every edge
+			boolean sameKind = Objects.equals(state.getFluxRanges(view), isFva);
+			CyTable edgeTable = currentNetwork.getDefaultEdgeTable();
+			boolean hasRangeColumns = edgeTable.getColumn("min flux") != null && edgeTable.getColumn("max flux") != null;
+			BitSet changedEdges = new BitSet(visibilityModel.getEdgeCount());
+			// The fluxes of every edge after the update, kept for the cross-feeding engine instead of reading the table again
+			double[] signedFlux = new double[visibilityModel.getEdgeCount()];
+			double[] minFlux = isFva ? new double[visibilityModel.getEdgeCount()] : null;
+			double[] maxFlux = isFva ? new double[visibilityModel.getEdgeCount()] : null;
+			for (int edge = 0; edge < visibilityModel.getEdgeCount(); edge++) {
+				CyRow row = edgeTable.getRow(visibilityModel.getEdge(edge).getSUID());
+				String fluxKey = row.get("name", String.class);
+				Double fluxValue;
+				boolean changed = !sameKind;
+
+				if (isFva) {
+					Double minFluxValue = getFlux(fluxKey, true);
+					Double maxFluxValue = getFlux(fluxKey, false);
+					fluxValue = Math.max(Math.abs(minFluxValue), Math.abs(maxFluxValue));
+					Double currentMinFlux = row.get("min flux", Double.class);
+					Double currentMaxFlux = row.get("max flux", Double.class);
+					changed |= differs(currentMinFlux, minFluxValue) || differs(currentMaxFlux, maxFluxValue);
+					if (changed) {
+						row.set("min flux", minFluxValue);
+						row.set("max flux", maxFluxValue);
+						currentMinFlux = minFluxValue;
+						currentMaxFlux = maxFluxValue;
+					}
+					minFlux[edge] = toDouble(currentMinFlux);
+					maxFlux[edge] = toDouble(currentMaxFlux);
+				}
+				else {
+					fluxValue = getFlux(fluxKey, false);
+					// Ranges of an earlier FVA file no longer apply, they would be read as the current flux otherwise
+					if (hasRangeColumns && (changed || row.get("min flux", Double.class) != null || row.get("max flux", Double.class) != null)) {
+						row.set("min flux", null);
+						row.set("max flux", null);
+						changed = true;
+					}
+				}
+				Double currentFlux = row.get("flux", Double.class);
+				changed |= differs(currentFlux, fluxValue);
+				if (changed) {
+					row.set("flux", fluxValue);
+					currentFlux = fluxValue;
+					changedEdges.set(edge);
+				}
+				signedFlux[edge] = isFva ? ExchangeGraph.getSignedFlux(toDouble(currentFlux), minFlux[edge], maxFlux[edge], true) : toDouble(currentFlux);
+			}
+
+			// Set cross-feeding status of the metabolites next to changed edges
+			taskMonitor.setProgress(0.4d);
+			taskMonitor.showMessage(TaskMonitor.Level.INFO, "Calculating cross-fed metabolites");
+
+			// The structure is kept by the visibility model, the fluxes come from the loop above
+			ExchangeGraph graph = visibilityModel.getStructure();
+			BitSet changedMetabolites = new BitSet(graph.getNodeCount());
+			for (int edge = changedEdges.nextSetBit(0); edge >= 0; edge = changedEdges.nextSetBit(edge + 1)) {
+				int metabolite = graph.getMetaboliteOfEdge(edge);
+				if (metabolite >= 0) {
+					changedMetabolites.set(metabolite);
+				}
+			}
+			// One pass over the edges of these metabolites sets cross-fed, producers, consumers, cross-fed flux and cross-feeding class
+			CrossFeedingEngine crossFeeding = CrossFeedingEngine.compute(graph, signedFlux, minFlux, maxFlux, changedMetabolites);
+			CrossFeedingColumns.write(currentNetwork, graph, crossFeeding, changedMetabolites);
+
+			// Add styling to edge
+			taskMonitor.setProgress(0.6d);
+			taskMonitor.showMessage(TaskMonitor.Level.INFO, "Styling edges according to flux");
+			// Whether the current layout was made for the visible set before the contextualization
+			LayoutResult previous = state.getLayout(view);
+			LayoutCache.Entry cached = state.getLayoutCache().get(visibilityModel.getFingerprint());
+			boolean layoutFits = previous != null && cached != null && cached.getLayout() == previous;
+			int[] layoutStateBefore = layoutFits ? getLayoutState(visibilityModel, graph, changedEdges, changedMetabolites) : null;
+			visibilityModel.updatePredicates(currentNetwork, changedEdges, changedMetabolites);
+			paintEdges(currentNetwork, visibilityModel, changedEdges);
+			// Zero flux edges are hidden now, which turns the zero flux toggle on
+			visibilityModel.refreshToggleStates();
+			state.setFluxRanges(view, isFva);
+			if (event != null) {
+				event.end();
+				if (event.shouldCommit()) {
+					event.network = currentNetwork.getRow(currentNetwork).get(CyNetwork.NAME, String.class);
+					event.fva = isFva;
+					event.edges = graph.getEdgeCount();
+					event.changedEdges = changedEdges.cardinality();
+					event.changedMetabolites = changedMetabolites.cardinality();
+					event.commit();
+				}
+			}
+
+			edgeCount = graph.getEdgeCount();
+			changedEdgeCount = changedEdges.cardinality();
+			changedMetaboliteCount = changedMetabolites.cardinality();
+			String touched = String.format("Contextualization updated %d of %d edges and %d metabolites (epsilon %g)",
+					changedEdges.cardinality(), graph.getEdgeCount(), changedMetabolites.cardinality(), epsilon);
+			logger.info(touched);
+			taskMonitor.showMessage(TaskMonitor.Level.INFO, touched);
+
+			// Only lay out again if the contextualization changed the visible nodes or their rings, which can only
+			// happen next to the changed edges, so no snapshot of the view is needed to tell
+			taskMonitor.setProgress(0.8d);
+			if (layoutFits && Arrays.equals(layoutStateBefore, getLayoutState(visibilityModel, graph, changedEdges, changedMetabolites))) {
+				logger.info("Visible nodes and rings unchanged by contextualization, keeping the ScyNet layout");
+				view.updateView();
+				return;
+			}
+			taskMonitor.showMessage(TaskMonitor.Level.INFO, "Updating ScyNet layout");
+
+			// Falls back to the full layout if there is no previous layout or the members changed
+			ApplyScynetLayoutTaskFactory scynetLayoutTF = new ApplyScynetLayoutTaskFactory(cyLayoutAlgorithmManager, true);
+			TaskIterator tItr = scynetLayoutTF.createTaskIterator(view);
+			Task nextTask = tItr.next();
+			try {
+				nextTask.run(taskMonitor);
+			} catch (Exception e) {
+				throw new RuntimeException("Could not finish layout", e);
+			}
+
+		} else {
+			// Display a warning message that the network is not in the correct format
+			logger.error("The selected network is not in ScyNet format. " +
+					"Please select a network created by ScyNet.");
+			JFrame frame = new JFrame();
+			JOptionPane pane = new JOptionPane(
+					"The selected network is not in ScyNet format. " +
+							"Please select a network created by ScyNet.",
+					JOptionPane.WARNING_MESSAGE
+			);
+			pane.setComponentOrientation(JOptionPane.getRootFrame().getComponentOrientation());
+			JDialog dialog = pane.createDialog(frame, "Error: Wrong Network Format");
+
+			dialog.setModal(false);
+			dialog.setVisible(true);
+		}
+	}
+
+	/**
+	 * Get-function
+	 * @return the number of edges of the network, -1 if the task did not run or failed
+	 */
+	int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Get-function
+	 * @return the number of edges whose flux changed by more than epsilon, -1 if the task did not run or failed
+	 */
+	int getChangedEdgeCount() {
+		return changedEdgeCount;
+	}
+
+	/**
+	 * Get-function
+	 * @return the number of metabolites whose cross-feeding columns were updated, -1 if the task did not run or failed
+	 */
+	int getChangedMetaboliteCount() {
+		return changedMetaboliteCount;
+	}
+
+	private Double getFlux(String key, Boolean isReverse) {
+		if (!isFva && tsvMap.get(key) == null) {
+			return 0.0d;
+		}
+		if (Objects.equals(key, "")) {
+			return null;
+		} else if (isFva) {
+			if (isReverse && tsvMap.get(key + "_min") != null) {
+				return tsvMap.get(key + "_min");
+			}
+			else if (!isReverse && tsvMap.get(key + "_max") != null) {
+				return tsvMap.get(key + "_max");
+			}
+			else {
+				return 0.0d;
+			}
+		} else {
+			return tsvMap.get(key);
+		}
+	}
+
+	/**
+	 * Get-function for the part of the visible state the ScyNet layout depends on that changing the given edges can
+	 * affect: the visibility of every changed edge and of its end nodes, and the visibility and ring class of every
+	 * changed metabolite, taken from the visible-degree counters of the visibility model.
+	 */
+	private static int[] getLayoutState(VisibilityModel visibilityModel, ExchangeGraph graph, BitSet changedEdges, BitSet changedMetabolites) {
+		int[] layoutState = new int[changedEdges.cardinality() + changedMetabolites.cardinality()];
+		int index = 0;
+		for (int edge = changedEdges.nextSetBit(0); edge >= 0; edge = changedEdges.nextSetBit(edge + 1)) {
+			layoutState[index++] = (visibilityModel.isEdgeVisible(edge) ? 4 : 0)
+					+ (visibilityModel.isNodeVisible(graph.getEdgeSource(edge)) ? 2 : 0)
+					+ (visibilityModel.isNodeVisible(graph.getEdgeTarget(edge)) ? 1 : 0);
+		}
+		for (int node = changedMetabolites.nextSetBit(0); node >= 0; node = changedMetabolites.nextSetBit(node + 1)) {
+			layoutState[index++] = visibilityModel.isNodeVisible(node)
+					? 1 + LayoutSnapshot.ringClassOfDegree(visibilityModel.getVisibleDegree(node)) : 0;
+		}
+		return layoutState;
+	}
+
+	private static double toDouble(Double value) {
+		return value == null ? Double.NaN : value;
+	}
+
+	/**
+	 * @return whether a new flux value differs from the current one by more than epsilon
+	 */
+	private boolean differs(Double current, Double value) {
+		if (current == null || value == null) {
+			return current != value;
+		}
+		return abs(current - value) > epsilon;
+	}
+
+	/**
+	 * Styles the given edges by their flux. Edge visibility goes through the visibility model, which hides and shows
+	 * the metabolites along. The predicates of the edges have to be updated before, the toggle states after.
+	 * @param changedEdges ordinals of the edges to style in the visibility model
+	 */
+	private void paintEdges (CyNetwork newNetwork, VisibilityModel visibilityModel, BitSet changedEdges) {
+		// Here we change the appearance of the Edges
+		for (int ordinal = changedEdges.nextSetBit(0); ordinal >= 0; ordinal = changedEdges.nextSetBit(ordinal + 1)) {
+			CyEdge newEdge = visibilityModel.getEdge(ordinal);
+			Double edgeFlux = newNetwork.getDefaultEdgeTable().getRow(newEdge.getSUID()).get("flux", Double.class);
+			Double edgeMinFlux = newNetwork.getDefaultEdgeTable().getRow(newEdge.getSUID()).get("min flux", Double.class);
+			Double edgeMaxFlux = newNetwork.getDefaultEdgeTable().getRow(newEdge.getSUID()).get("max flux", Double.class);
+			View<CyEdge> edgeView = view.getEdgeView(newEdge);
+			// If Fluxes were added or not
+			if (isFva) {
+				Double edgeWidth = 10.0d;
+				edgeView.setLockedValue(BasicVisualLexicon.EDGE_WIDTH, edgeWidth);
+				if (edgeMinFlux != null && edgeMaxFlux != null) {
+					// Color of the Edges is selected based on Fluxes
+					Paint edgeColor;
+					if (edgeMinFlux < 0.0d && edgeMaxFlux > 0.0d) {
+						edgeColor = this.palette.get(4);
+						edgeView.setLockedValue(BasicVisualLexicon.EDGE_TARGET_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+						edgeView.setLockedValue(BasicVisualLexicon.EDGE_SOURCE_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+					}
+					else if (edgeMaxFlux > 0.0d) {
+						edgeColor = this.palette.get(3);
+						edgeView.setLockedValue(BasicVisualLexicon.EDGE_TARGET_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+					} else if (edgeMinFlux < 0.0d) {
+						edgeColor = this.palette.get(2);
+						edgeView.setLockedValue(BasicVisualLexicon.EDGE_SOURCE_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+					}
+					else {
+						edgeColor = this.palette.get(5);
+					}
+					edgeView.setLockedValue(BasicVisualLexicon.EDGE_PAINT, edgeColor);
+
+					// Edges without flux are hidden, connected nodes of the other edges are made visible as well
+					visibilityModel.setEdgeVisible(visibilityModel.getEdgeOrdinal(newEdge), !(edgeMinFlux == 0.0d && edgeMaxFlux == 0.0d));
+				} else {
+					// Otherwise we just chose the Color with a default color
+					Paint edgeColor = this.palette.get(6);
+					edgeView.setLockedValue(BasicVisualLexicon.EDGE_PAINT, edgeColor);
+				}
+			}
+			else {
+				if (edgeFlux != null) {
+					// Color of the Edges is selected based on Fluxes
+					Paint edgeColor = this.palette.get(5);
+					if (edgeFlux > 0.0d) {
+						edgeColor = this.palette.get(3);
+						edgeView.setLockedValue(BasicVisualLexicon.EDGE_TARGET_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+					} else if (edgeFlux < 0.0d) {
+						edgeColor = this.palette.get(2);
+						edgeView.setLockedValue(BasicVisualLexicon.EDGE_SOURCE_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+					}
+					edgeView.setLockedValue(BasicVisualLexicon.EDGE_PAINT, edgeColor);
+
+					// Width of the Edges is also based on Fluxes
+					if (edgeFlux != 0.0d) {
+						Double edgeWidth = 10.0d;
+						edgeView.setLockedValue(BasicVisualLexicon.EDGE_WIDTH, edgeWidth);
+
+						// Make connected nodes visible as well
+						visibilityModel.setEdgeVisible(visibilityModel.getEdgeOrdinal(newEdge), true);
+					} else {
+						double edgeWidth = 10.0d;
+						edgeView.setLockedValue(BasicVisualLexicon.EDGE_WIDTH, edgeWidth);
+						visibilityModel.setEdgeVisible(visibilityModel.getEdgeOrdinal(newEdge), false);
+					}
+				} else {
+					Double edgeWidth = 10.0d;
+					edgeView.setLockedValue(BasicVisualLexicon.EDGE_WIDTH, edgeWidth);
+					// Otherwise we just chose the Color with a default color
+					Paint edgeColor = this.palette.get(6);
+					edgeView.setLockedValue(BasicVisualLexicon.EDGE_PAINT, edgeColor);
+				}
+			}
+		}
+	}
+}
@@ -1,6 +1,5 @@
 package org.scynet;
 
-import org.cytoscape.application.CyApplicationManager;
 import org.cytoscape.model.CyNetworkManager;
 import org.cytoscape.session.CyNetworkNaming;
 import org.cytoscape.task.AbstractNetworkViewTaskFactory;
@@ -12,7 +11,6 @@ import java.util.HashMap;
 
 public class ContextualizeWithFluxDataTaskFactory extends AbstractNetworkViewTaskFactory {
 	private CyNetworkManager cyNetworkManager;
-	private CyApplicationManager cyApplicationManager;
 	/**
 	 * The naming service for networks in Cytoscape
 	 */
@@ -21,8 +19,7 @@ public class ContextualizeWithFluxDataTaskFactory extends AbstractNetworkViewTas
 	 * The layout algorithm manager in Cytoscape
 	 */
 	private final CyLayoutAlgorithmManager cyLayoutAlgorithmManager;
-	public ContextualizeWithFluxDataTaskFactory(CyApplicationManager cyApplicationManager, CyNetworkManager cyNetworkManager, CyNetworkNaming cyNetworkNaming, CyLayoutAlgorithmManager cyLayoutAlgorithmManager) {
-		this.cyApplicationManager = cyApplicationManager;
+	public ContextualizeWithFluxDataTaskFactory(CyNetworkManager cyNetworkManager, CyNetworkNaming cyNetworkNaming, CyLayoutAlgorithmManager cyLayoutAlgorithmManager) {
 		this.cyNetworkManager = cyNetworkManager;
 		this.cyNetworkNaming = cyNetworkNaming;
 		this.cyLayoutAlgorithmManager = cyLayoutAlgorithmManager;
@@ -31,6 +28,6 @@ public class ContextualizeWithFluxDataTaskFactory extends AbstractNetworkViewTas
 	public TaskIterator createTaskIterator(CyNetworkView networkView){
 		FileChoosing newChooser = new FileChoosing();
 		HashMap<String, Double> tsvMap = newChooser.makeMap();
-		return new TaskIterator(new ContextualizeWithFluxDataTask(networkView, cyApplicationManager, tsvMap, newChooser.isFva, this.cyNetworkManager, this.cyNetworkNaming, this.cyLayoutAlgorithmManager) );
+		return new TaskIterator(new ContextualizeWithFluxDataTask(networkView, tsvMap, newChooser.isFva, this.cyNetworkManager, this.cyNetworkNaming, this.cyLayoutAlgorithmManager) );
 	}
 }
@@ -0,0 +1,228 @@
+package org.scynet;
+
+import org.scynet.core.CommunityOverview;
+import org.scynet.core.ExchangeGraph;
+
+import org.cytoscape.model.*;
+import org.cytoscape.model.subnetwork.CyRootNetwork;
+import org.cytoscape.model.subnetwork.CySubNetwork;
+import org.cytoscape.session.CyNetworkNaming;
+import org.cytoscape.task.AbstractNetworkTask;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.CyNetworkViewFactory;
+import org.cytoscape.view.model.CyNetworkViewManager;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.presentation.property.ArrowShapeVisualProperty;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+import org.cytoscape.view.presentation.property.NodeShapeVisualProperty;
+import org.cytoscape.view.presentation.property.values.Justification;
+import org.cytoscape.view.presentation.property.values.ObjectPosition;
+import org.cytoscape.view.presentation.property.values.Position;
+import org.cytoscape.work.TaskMonitor;
+
+import javax.swing.*;
+import javax.swing.plaf.ColorUIResource;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+/**
+ * Creates the community overview of a ScyNet network: a lightweight network with one node per community member and
+ * one edge per producer - consumer pair, weighted by the total cross-fed flux. The metabolites behind each edge are
+ * stored in the edge table, so that an edge can later be expanded (see ExpandOverviewEdgeTask).
+ */
+public class CreateCommunityOverviewTask extends AbstractNetworkTask {
+	/**
+	 * The factory for creating networks
+	 */
+	private final CyNetworkFactory cnf;
+	/**
+	 * The factory for creating network views
+	 */
+	private final CyNetworkViewFactory cnvf;
+	/**
+	 * The manager for network views in Cytoscape
+	 */
+	private final CyNetworkViewManager networkViewManager;
+	/**
+	 * The manager for networks in Cytoscape
+	 */
+	private final CyNetworkManager networkManager;
+	/**
+	 * The naming service for networks in Cytoscape
+	 */
+	private final CyNetworkNaming cyNetworkNaming;
+
+	private final Logger logger;
+
+	public CreateCommunityOverviewTask(CyNetwork network, CyNetworkNaming cyNetworkNaming, CyNetworkFactory cnf, CyNetworkManager networkManager,
+									   CyNetworkViewFactory cnvf, CyNetworkViewManager networkViewManager) {
+		super(network);
+		this.cnf = cnf;
+		this.cnvf = cnvf;
+		this.networkViewManager = networkViewManager;
+		this.networkManager = networkManager;
+		this.cyNetworkNaming = cyNetworkNaming;
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+	}
+
+	@Override
+	public void run(TaskMonitor monitor) {
+		if (network == null) {
+			logger.warn("No network selected. Nothing to do.");
+			return;
+		}
+		Set<String> columnNames = CyTableUtil.getColumnNames(network.getDefaultNodeTable());
+		if (!(columnNames.contains("type") && columnNames.contains("cross-fed"))) {
+			logger.error("The selected network is not in ScyNet format.");
+			JFrame frame = new JFrame();
+			JOptionPane pane = new JOptionPane(
+					"The selected network is not in ScyNet format. " +
+							"Please select a network created by ScyNet.",
+					JOptionPane.WARNING_MESSAGE
+			);
+			pane.setComponentOrientation(JOptionPane.getRootFrame().getComponentOrientation());
+			JDialog dialog = pane.createDialog(frame, "Error: Wrong Network Format");
+
+			dialog.setModal(false);
+			dialog.setVisible(true);
+			return;
+		}
+
+		monitor.setTitle("ScyNet community overview");
+		monitor.setProgress(0.0d);
+		monitor.showMessage(TaskMonitor.Level.INFO, "Projecting cross-feeding onto community members");
+		ExchangeGraph graph = ExchangeGraphReader.read(network);
+		CommunityOverview overview = CommunityOverview.project(graph);
+		if (overview.getEdgeCount() == 0) {
+			logger.warn("No cross-fed flux found. Please contextualize the network with flux data first.");
+			monitor.showMessage(TaskMonitor.Level.WARN, "No cross-fed flux found. Please contextualize the network with flux data first.");
+			return;
+		}
+
+		monitor.setProgress(0.4d);
+		monitor.showMessage(TaskMonitor.Level.INFO, "Creating overview network");
+		CyNetwork overviewNetwork = cnf.createNetwork();
+		overviewNetwork.getDefaultNodeTable().createColumn("type", String.class, true);
+		overviewNetwork.getDefaultEdgeTable().createColumn("cross-fed flux", Double.class, true);
+		overviewNetwork.getDefaultEdgeTable().createListColumn("metabolites", String.class, true);
+		overviewNetwork.getDefaultEdgeTable().createListColumn("metabolite fluxes", Double.class, true);
+		overviewNetwork.getDefaultEdgeTable().createColumn("flux", Double.class, true);
+
+		List<CyNode> memberNodes = new ArrayList<>();
+		for (int member = 0; member < overview.getMemberCount(); member++) {
+			String memberName = graph.getNodeName(overview.getMemberNode(member));
+			CyNode memberNode = overviewNetwork.addNode();
+			CyRow row = overviewNetwork.getDefaultNodeTable().getRow(memberNode.getSUID());
+			row.set("name", memberName);
+			row.set("shared name", memberName);
+			row.set("type", "community member");
+			memberNodes.add(memberNode);
+		}
+
+		List<CyEdge> overviewEdges = new ArrayList<>();
+		double maxWeight = 0.0d;
+		for (int edge = 0; edge < overview.getEdgeCount(); edge++) {
+			CyNode producer = memberNodes.get(overview.getProducer(edge));
+			CyNode consumer = memberNodes.get(overview.getConsumer(edge));
+			CyEdge overviewEdge = overviewNetwork.addEdge(producer, consumer, true);
+
+			List<String> metaboliteNames = new ArrayList<>();
+			List<Double> metaboliteFluxes = new ArrayList<>();
+			int[] metabolites = overview.getMetabolites(edge);
+			double[] fluxes = overview.getMetaboliteFluxes(edge);
+			for (int i = 0; i < metabolites.length; i++) {
+				metaboliteNames.add(graph.getNodeName(metabolites[i]));
+				metaboliteFluxes.add(fluxes[i]);
+			}
+
+			CyRow row = overviewNetwork.getDefaultEdgeTable().getRow(overviewEdge.getSUID());
+			String producerName = graph.getNodeName(overview.getMemberNode(overview.getProducer(edge)));
+			String consumerName = graph.getNodeName(overview.getMemberNode(overview.getConsumer(edge)));
+			row.set("name", producerName + " -> " + consumerName);
+			row.set("shared interaction", "CROSS-FEEDING");
+			row.set("cross-fed flux", overview.getWeight(edge));
+			// The flux column of the expanded edges, for member - member edges the total cross-fed flux
+			row.set("flux", overview.getWeight(edge));
+			row.set("metabolites", metaboliteNames);
+			row.set("metabolite fluxes", metaboliteFluxes);
+			overviewEdges.add(overviewEdge);
+			maxWeight = Math.max(maxWeight, overview.getWeight(edge));
+		}
+
+		String name = network.getRow(network).get(CyNetwork.NAME, String.class);
+		CyRootNetwork rootNetwork = ((CySubNetwork) overviewNetwork).getRootNetwork();
+		if (rootNetwork != null) {
+			rootNetwork.getRow(rootNetwork).set(CyNetwork.NAME, "ScyNet Overview: " + name);
+		}
+		overviewNetwork.getRow(overviewNetwork).set(CyNetwork.NAME, cyNetworkNaming.getSuggestedNetworkTitle("ScyNet Overview: " + name));
+		networkManager.addNetwork(overviewNetwork);
+
+		monitor.setProgress(0.7d);
+		monitor.showMessage(TaskMonitor.Level.INFO, "Styling overview network");
+		CyNetworkView overviewView = cnvf.createNetworkView(overviewNetwork);
+		networkViewManager.addNetworkView(overviewView);
+		styleMembers(overviewView, memberNodes);
+		styleEdges(overviewView, overviewNetwork, overviewEdges, maxWeight);
+		overviewView.fitContent();
+		overviewView.updateView();
+
+		monitor.setProgress(1.0d);
+		monitor.showMessage(TaskMonitor.Level.INFO, "Created overview with " + memberNodes.size() + " members and " + overviewEdges.size() + " cross-feeding edges");
+	}
+
+	/**
+	 * Styles the member nodes like the community member nodes of the ScyNet network and places them on a circle.
+	 */
+	private void styleMembers(CyNetworkView overviewView, List<CyNode> memberNodes) {
+		Paint memberPaint = new ColorUIResource(new Color(145,191,219, 175));
+		Paint memberBorderPaint = new ColorUIResource(new Color(255, 255, 255, 255));
+		ObjectPosition labelPosition = new ObjectPosition(Position.CENTER, Position.CENTER, Justification.JUSTIFY_CENTER, 0.0d, 0.0d);
+		int sizeMemberNode = 150;
+		double radiusMembers = Math.ceil(memberNodes.size() / Math.PI) * sizeMemberNode + 2 * sizeMemberNode;
+
+		for (int i = 0; i < memberNodes.size(); i++) {
+			View<CyNode> nodeView = overviewView.getNodeView(memberNodes.get(i));
+			if (nodeView == null) {
+				continue;
+			}
+			double radians = Math.PI * 2 * i / memberNodes.size();
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_LABEL_POSITION, labelPosition);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_BORDER_WIDTH, 10.0d);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_BORDER_PAINT, memberBorderPaint);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_FILL_COLOR, memberPaint);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_HEIGHT, 100.0d);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_WIDTH, 150.0d);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_LABEL, overviewView.getModel().getDefaultNodeTable().getRow(memberNodes.get(i).getSUID()).get("shared name", String.class));
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_LABEL_FONT_SIZE, 25);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_SHAPE, NodeShapeVisualProperty.ROUND_RECTANGLE);
+			nodeView.setVisualProperty(BasicVisualLexicon.NODE_X_LOCATION, (double) Math.round(radiusMembers * Math.cos(radians)));
+			nodeView.setVisualProperty(BasicVisualLexicon.NODE_Y_LOCATION, (double) Math.round(radiusMembers * Math.sin(radians)));
+		}
+	}
+
+	/**
+	 * Sets the edge widths relative to the cross-fed flux, using the same range as the flux based edge widths.
+	 */
+	private void styleEdges(CyNetworkView overviewView, CyNetwork overviewNetwork, List<CyEdge> overviewEdges, double maxWeight) {
+		double minEdgeWidth = 1.0d;
+		double maxEdgeWidth = 50.0d;
+		double scalingFactor = (maxEdgeWidth - minEdgeWidth) / maxWeight;
+		Paint edgePaint = new Color(253,174,97, 175);
+		for (CyEdge overviewEdge : overviewEdges) {
+			View<CyEdge> edgeView = overviewView.getEdgeView(overviewEdge);
+			if (edgeView == null) {
+				continue;
+			}
+			double weight = overviewNetwork.getDefaultEdgeTable().getRow(overviewEdge.getSUID()).get("cross-fed flux", Double.class);
+			edgeView.setLockedValue(BasicVisualLexicon.EDGE_WIDTH, weight * scalingFactor + minEdgeWidth);
+			edgeView.setLockedValue(BasicVisualLexicon.EDGE_PAINT, edgePaint);
+			edgeView.setLockedValue(BasicVisualLexicon.EDGE_TARGET_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+			edgeView.setLockedValue(BasicVisualLexicon.EDGE_TOOLTIP, String.format("%.4g", weight));
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package org.scynet;
+
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNetworkFactory;
+import org.cytoscape.model.CyNetworkManager;
+import org.cytoscape.session.CyNetworkNaming;
+import org.cytoscape.task.AbstractNetworkTaskFactory;
+import org.cytoscape.view.model.CyNetworkViewFactory;
+import org.cytoscape.view.model.CyNetworkViewManager;
+import org.cytoscape.work.TaskIterator;
+
+/**
+ * A task factory to create the member-level community overview of a ScyNet network.
+ */
+public class CreateCommunityOverviewTaskFactory extends AbstractNetworkTaskFactory {
+
+	private final CyNetworkFactory cnf;
+	private final CyNetworkViewFactory cnvf;
+	private final CyNetworkViewManager networkViewManager;
+	private final CyNetworkManager networkManager;
+	private final CyNetworkNaming cyNetworkNaming;
+
+	public CreateCommunityOverviewTaskFactory(CyNetworkNaming cyNetworkNaming, CyNetworkFactory cnf, CyNetworkManager networkManager,
+											  CyNetworkViewFactory cnvf, CyNetworkViewManager networkViewManager) {
+		this.cnf = cnf;
+		this.cnvf = cnvf;
+		this.networkViewManager = networkViewManager;
+		this.networkManager = networkManager;
+		this.cyNetworkNaming = cyNetworkNaming;
+	}
+
+	public TaskIterator createTaskIterator(CyNetwork network) {
+		return new TaskIterator(new CreateCommunityOverviewTask(network, cyNetworkNaming, cnf, networkManager, cnvf, networkViewManager));
+	}
+}
@@ -0,0 +1,258 @@
+package org.scynet;
+
+import org.scynet.core.CommunitySimplifier;
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.MetabolicModel;
+import org.scynet.core.SimplifiedCommunity;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyRow;
+
+import java.util.*;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+/**
+ * This class is used to add edges to the newly created network.
+ * The edges are added to the corresponding nodes and then their attributes are filled into the EdgeTable.
+ */
+public class CreateEdges {
+
+    private final Logger logger;
+    /**
+     * The old network
+     */
+    private final CyNetwork oldNetwork;
+    /**
+     * The new network
+     */
+    private final CyNetwork newNetwork;
+    /**
+     * The CreateNodes object created earlier
+     */
+    private final CreateNodes createNodes;
+    /**
+     * TSV-map created from the TSV-file with fluxes, if it was added
+     */
+    private final HashMap<String, Double> tsvMap;
+    /**
+     * boolean saying if the TSV-map was added
+     */
+    private boolean mapAdded = true;
+    /**
+     * Flux-map translated from the TSV-map
+     */
+    private final HashMap<CyNode, Double> nodeFluxes = new HashMap<>();
+    /**
+     * The boolean defining if the submitted flux map is fva or fba
+     */
+    private boolean isFva;
+    /**
+     * The ID of the shared compartment (exchg compartment)
+     */
+    private String exchgCompID;
+    /**
+     * The metrics of the pipeline run creating the new network
+     */
+    private final PipelineMetrics metrics;
+
+    /**
+     * Adds all the corresponding edges and their attributes to the new network.
+     * @param oldNetwork is the original network from which the simple network is created
+     * @param newNetwork is the new network, which at this point consists only of nodes
+     * @param createNodes is the CreateNodes object created earlier holding all the translations
+     * @param tsvMap is the map with the flux-values, if one was loaded in
+     * @param metrics records the phase "create edges"
+     */
+    public CreateEdges(CyNetwork oldNetwork, CyNetwork newNetwork, CreateNodes createNodes, HashMap<String, Double> tsvMap, Boolean isFva, PipelineMetrics metrics) {
+        this.logger = Logger.getLogger(CyUserLog.NAME);
+        if (tsvMap.isEmpty()) {this.mapAdded = false;}
+        this.tsvMap = tsvMap;
+        this.isFva = isFva;
+        this.newNetwork = newNetwork;
+        this.oldNetwork = oldNetwork;
+        this.createNodes = createNodes;
+        this.exchgCompID = createNodes.getSharedCompId();
+        this.metrics = metrics;
+        metrics.begin("create edges");
+        makeFluxMap();
+        makeAllEdges();
+        metrics.end(newNetwork.getNodeCount(), newNetwork.getEdgeCount());
+    }
+
+
+    /**
+     * The columns of the new EdgeTable are created, then all edges are created and their attributes
+     * are added into the table.
+     */
+    private void makeAllEdges() {
+        // here we add the columns needed in the edge-table and then we create all the edges
+        newNetwork.getDefaultEdgeTable().createColumn("source", String.class, true);
+        newNetwork.getDefaultEdgeTable().createColumn("target", String.class, true);
+        newNetwork.getDefaultEdgeTable().createColumn("edgeID", String.class, true);
+        newNetwork.getDefaultEdgeTable().createColumn("sbml id", String.class, true);
+        newNetwork.getDefaultEdgeTable().createColumn("flux", Double.class, true);
+        newNetwork.getDefaultEdgeTable().createColumn("min flux", Double.class, true);
+        newNetwork.getDefaultEdgeTable().createColumn("max flux", Double.class, true);
+        newNetwork.getDefaultEdgeTable().createColumn("stoichiometry", Double.class, true);
+        newNetwork.getDefaultEdgeTable().createColumn("reverse", Boolean.class, true);
+        makeEdgesOfReactions();
+        //makeEdgesToNode();
+        //makeEdgesFromNode();
+    }
+
+    /**
+     * This method creates an edge for each edge of the simplified network, i.e. for each pair of organism or exchange
+     * metabolite of the reactants and products of an exchange reaction. The edge is directed to a compartment of the
+     * metabolite, if the metabolite is not in the exchg compartment.
+     */
+    private void makeEdgesOfReactions() {
+        SimplifiedCommunity community = createNodes.getCommunity();
+        MetabolicModel model = community.getModel();
+        ExchangeGraph graph = community.getGraph();
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            CyNode source = createNodes.getNewNode(graph.getEdgeSource(edge));
+            CyNode target = createNodes.getNewNode(graph.getEdgeTarget(edge));
+            CyNode reactant = oldNetwork.getNode(model.getSpeciesId(community.getEdgeSourceSpecies(edge)));
+            CyNode product = oldNetwork.getNode(model.getSpeciesId(community.getEdgeTargetSpecies(edge)));
+            CyNode oldExchgRxnNode = oldNetwork.getNode(model.getReactionId(community.getEdgeReaction(edge)));
+
+            List<CyEdge> oldEdges = oldNetwork.getConnectingEdgeList(reactant, product, CyEdge.Type.ANY);
+            double stoichiometry = 0.0d;
+            for (CyEdge oldEdge : oldEdges) {
+                Double stoich = metrics.get(oldNetwork.getDefaultEdgeTable().getRow(oldEdge.getSUID()), "stoichiometry", Double.class);
+                if (stoich != null) {
+                    stoichiometry += stoich;
+                }
+            }
+
+            CyEdge newEdge = newNetwork.addEdge(source, target, true);
+            edgeTributesReaction(newEdge, source, target, oldExchgRxnNode, stoichiometry);
+        }
+    }
+
+    /**
+     * Adds attributes of an edge to its entry in the edge-table (external Node to comp Node).
+     *
+     * @param currentEdge The edge whose attributes are to be added.
+     * @param newSource The old source node of the edge.
+     * @param newTarget The old target node of the edge.
+     * @param reaction The old node of the reaction.
+     * @param stoich A double containing the stoichiometry of the reaction from the source to target
+     */
+    private void edgeTributesReaction (CyEdge currentEdge, CyNode newSource, CyNode newTarget, CyNode reaction, double stoich){
+        // here all the attributes of an Edge are added to its entry in the edge-table (external Node to comp Node)
+        CyRow reactionRow = oldNetwork.getDefaultNodeTable().getRow(reaction.getSUID());
+        CyRow edgeRow = newNetwork.getDefaultEdgeTable().getRow(currentEdge.getSUID());
+        String sourceName = metrics.get(newNetwork.getDefaultNodeTable().getRow(newSource.getSUID()), "shared name", String.class);
+        String targetName = metrics.get(newNetwork.getDefaultNodeTable().getRow(newTarget.getSUID()), "shared name", String.class);
+        String sharedName = metrics.get(reactionRow, "shared name", String.class);
+        String sbmlId = CommunitySimplifier.getFluxKey(metrics.get(reactionRow, "sbml id", String.class));
+        String fluxKey = sbmlId;
+        String name = fluxKey;
+
+        Double fluxValue = getFlux(fluxKey, false);
+        if(mapAdded) {
+            if (isFva) {
+                Double minFluxValue = getFlux(fluxKey, true);
+                Double maxFluxValue = getFlux(fluxKey, false);
+                metrics.set(edgeRow, "min flux", minFluxValue);
+                metrics.set(edgeRow, "max flux", maxFluxValue);
+                fluxValue = Math.max(Math.abs(minFluxValue), Math.abs(maxFluxValue));
+            }
+
+            if (fluxValue != 0.0d) {
+                setFlux(newTarget, fluxValue);
+            }
+            else {
+                fluxValue = 0.0d;
+            }
+
+        }
+
+        metrics.set(edgeRow, "source", sourceName);
+        metrics.set(edgeRow, "target", targetName);
+        metrics.set(edgeRow, "shared name", sharedName);
+        metrics.set(edgeRow, "shared interaction", "EXPORT");
+        metrics.set(edgeRow, "flux", fluxValue);
+        metrics.set(edgeRow, "name", fluxKey);
+        metrics.set(edgeRow, "sbml id", sbmlId);
+        metrics.set(edgeRow, "stoichiometry", stoich);
+
+    }
+
+    /**
+     * Creates a hashmap to determine whether the nodes in the new network have flux or not, with a default value of 0.0.
+     */
+    private void makeFluxMap(){
+        // create a hashmap to determine whether the nodes in the new network  have flux or not, set to 0 as default
+        for (CyNode exchgNode: createNodes.getExchgNodes()){
+            CyNode newExchgNode = createNodes.getNewNode(exchgNode);
+            nodeFluxes.putIfAbsent(newExchgNode, 0.0d);
+        }
+    }
+
+    /**
+     * Sets the flux value for a given node in the nodeFluxes hashmap. If the flux value is not 0.0,
+     * adds the absolute value of the flux to the current flux value for the node in the hashmap.
+     *
+     * @param newNode the new node for which to set the flux value
+     * @param fluxValue the new flux value to set for the node
+     */
+    private void setFlux(CyNode newNode, Double fluxValue){
+        if (nodeFluxes.get(newNode) == null) {
+            nodeFluxes.put(newNode,0.0d);
+        }
+        if (!fluxValue.equals(0.0)){
+            Double newFlux = nodeFluxes.get(newNode) + Math.abs(fluxValue);
+            nodeFluxes.put(newNode,newFlux);
+        }
+    }
+
+    /**
+     * Returns the flux value corresponding to the given key from the flux map if it exists. If the key
+     * is not found in the flux map and the map has been added, it returns 0.0. If the key is empty or the map
+     * has not been added, returns null.
+     *
+     * @param key the key to retrieve the flux value
+     * @return the flux value corresponding to the given key if it exists, 0.0 if the key is not found and the map is added,
+     * or null if the key is empty or the map has not been added.
+     */
+    private Double getFlux(String key, Boolean isReverse) {
+        if (!isFva && mapAdded && tsvMap.get(key) == null) {
+            return 0.0d;
+        }
+        if (!mapAdded || Objects.equals(key, "")) {
+            return null;
+        } else if (isFva) {
+            if (isReverse && tsvMap.get(key + "_min") != null) {
+                return tsvMap.get(key + "_min");
+            }
+            else if (!isReverse && tsvMap.get(key + "_max") != null) {
+                return tsvMap.get(key + "_max");
+            }
+            else {
+                return 0.0d;
+            }
+        } else {
+            return tsvMap.get(key);
+        }
+    }
+
+    /**
+     * Get-function for the Flux-Map created
+     *
+     * @return the Flux-Map
+     */
+    public HashMap<CyNode, Double> getFLuxMap(){
+        return nodeFluxes;
+    }
+}
+
+
+
+
+
@@ -0,0 +1,102 @@
+package org.scynet;
+
+import org.scynet.core.FluxFile;
+
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNetworkFactory;
+import org.cytoscape.model.CyNetworkManager;
+import org.cytoscape.model.CyTableFactory;
+import org.cytoscape.model.CyTableManager;
+import org.cytoscape.model.CyTableUtil;
+import org.cytoscape.session.CyNetworkNaming;
+import org.cytoscape.view.layout.CyLayoutAlgorithmManager;
+import org.cytoscape.view.model.CyNetworkViewFactory;
+import org.cytoscape.view.model.CyNetworkViewManager;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Set;
+
+/**
+ * The command "scynet create": simplifies a cy3sbml network like "Create Simplified Community Network", optionally
+ * contextualized with a flux file. Returns the SUIDs of the new network and view, its size and the phases of the
+ * pipeline run.
+ */
+public class CreateNetworkCommandTask extends AbstractScynetCommandTask {
+
+	@Tunable(description = "cy3sbml network to simplify",
+			longDescription = "The network of the community model imported by cy3sbml, by name or SUID, or current for the current network.",
+			exampleStringValue = "current", required = true)
+	public CyNetwork network;
+
+	@Tunable(description = "Flux file",
+			longDescription = "An optional tab separated FBA or FVA flux file to contextualize the new network with, e.g. data/toy/koch_com_model_fba.csv.",
+			exampleStringValue = "data/toy/koch_com_model_fba.csv",
+			params = "input=true;fileCategory=table")
+	public File fluxFile;
+
+	@Tunable(description = "Show only cross-fed metabolites",
+			longDescription = "Whether metabolites that are not cross-fed are hidden in the new network view.",
+			exampleStringValue = "false")
+	public boolean showOnlyCrossFed = false;
+
+	private final CyNetworkNaming cyNetworkNaming;
+	private final CyNetworkFactory cnf;
+	private final CyNetworkManager networkManager;
+	private final CyNetworkViewFactory cnvf;
+	private final CyNetworkViewManager networkViewManager;
+	private final CyLayoutAlgorithmManager cyLayoutAlgorithmManager;
+	private final CyTableFactory tableFactory;
+	private final CyTableManager tableManager;
+
+	public CreateNetworkCommandTask(CyNetworkNaming cyNetworkNaming, CyNetworkFactory cnf, CyNetworkManager networkManager,
+									CyNetworkViewFactory cnvf, CyNetworkViewManager networkViewManager, CyLayoutAlgorithmManager cyLayoutAlgorithmManager,
+									CyTableFactory tableFactory, CyTableManager tableManager) {
+		this.cyNetworkNaming = cyNetworkNaming;
+		this.cnf = cnf;
+		this.networkManager = networkManager;
+		this.cnvf = cnvf;
+		this.networkViewManager = networkViewManager;
+		this.cyLayoutAlgorithmManager = cyLayoutAlgorithmManager;
+		this.tableFactory = tableFactory;
+		this.tableManager = tableManager;
+	}
+
+	@Override
+	protected void execute(TaskMonitor monitor) throws Exception {
+		if (network == null) {
+			throw new IllegalArgumentException("No network given.");
+		}
+		Set<String> columnNames = CyTableUtil.getColumnNames(network.getDefaultNodeTable());
+		if (!(columnNames.contains("sbml type") && columnNames.contains("sbml compartment"))) {
+			throw new IllegalArgumentException("The network " + network.getRow(network).get(CyNetwork.NAME, String.class)
+					+ " was not imported by cy3sbml.");
+		}
+		HashMap<String, Double> tsvMap = new HashMap<>();
+		boolean isFva = false;
+		if (fluxFile != null) {
+			if (!fluxFile.isFile()) {
+				throw new IOException("The flux file " + fluxFile + " does not exist.");
+			}
+			FluxFile flux = FluxFile.read(fluxFile);
+			tsvMap = flux.getFluxMap();
+			isFva = flux.isFva();
+		}
+
+		CreateNetworkViewTask task = new CreateNetworkViewTask(network, cyNetworkNaming, cnf, networkManager, cnvf, networkViewManager,
+				cyLayoutAlgorithmManager, tsvMap, showOnlyCrossFed, null, isFva, tableFactory, tableManager);
+		task.run(monitor);
+		if (task.getNewView() == null) {
+			throw new IllegalStateException("The simplified network could not be created, see the log for details.");
+		}
+
+		putView(task.getNewView());
+		putResult("nodes", task.getNewNetwork().getNodeCount());
+		putResult("edges", task.getNewNetwork().getEdgeCount());
+		putResult("fva", isFva);
+		putMetrics(task.getMetrics());
+	}
+}
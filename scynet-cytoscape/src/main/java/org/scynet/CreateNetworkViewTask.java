@@ -1,5 +1,6 @@
 package org.scynet;
 
+import org.scynet.core.LayoutResult;
 
 import org.cytoscape.application.CyApplicationManager;
 import org.cytoscape.model.*;
@@ -8,6 +9,8 @@ import org.cytoscape.task.AbstractNetworkTask;
 import org.cytoscape.view.model.CyNetworkView;
 import org.cytoscape.view.model.CyNetworkViewFactory;
 import org.cytoscape.view.model.CyNetworkViewManager;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
 import org.cytoscape.view.layout.CyLayoutAlgorithmManager;
 import org.cytoscape.work.Task;
 import org.cytoscape.work.TaskIterator;
@@ -47,7 +50,7 @@ public class CreateNetworkViewTask extends AbstractNetworkTask {
 	 */
 	private final CyNetworkNaming cyNetworkNaming;
 	/**
-	 * The current network in Cytoscape
+	 * The cy3sbml network to simplify
 	 */
 	private final CyNetwork currentNetwork;
 	/**
@@ -66,6 +69,18 @@ public class CreateNetworkViewTask extends AbstractNetworkTask {
 	 * The boolean defining if the submitted flux map is fva or fba
 	 */
 	private boolean isFva;
+	/**
+	 * The factory and manager of the ScyNet Pipeline Metrics table
+	 */
+	private final CyTableFactory tableFactory;
+	private final CyTableManager tableManager;
+
+	/**
+	 * The simplified network, its view and the metrics of its creation, once the task ran
+	 */
+	private CyNetwork newNetwork;
+	private CyNetworkView newView;
+	private PipelineMetrics metrics;
 
 	private final Logger logger;
 
@@ -78,10 +93,13 @@ public class CreateNetworkViewTask extends AbstractNetworkTask {
 	 * @param networkViewManager the manager for network views in Cytoscape
 	 * @param tsvMap the loaded TSV-file for the Fluxes
 	 * @param showOnlyCrossfeeding the boolean of the toggle-button (Show 'crossfeeding')
+	 * @param tableFactory the factory for the ScyNet Pipeline Metrics table
+	 * @param tableManager the manager the ScyNet Pipeline Metrics table is registered with
 	 */
 	public CreateNetworkViewTask(CyNetwork network, CyNetworkNaming cyNetworkNaming, CyNetworkFactory cnf, CyNetworkManager networkManager,
 								 CyNetworkViewFactory cnvf, final CyNetworkViewManager networkViewManager, CyLayoutAlgorithmManager cyLayoutAlgorithmManager,
-								 HashMap<String, Double> tsvMap, boolean showOnlyCrossfeeding, CyApplicationManager cyApplicationManager, Boolean isFva) {
+								 HashMap<String, Double> tsvMap, boolean showOnlyCrossfeeding, CyApplicationManager cyApplicationManager, Boolean isFva,
+								 CyTableFactory tableFactory, CyTableManager tableManager) {
 		super(network);
 		this.cnf = cnf;
 		this.cnvf = cnvf;
@@ -89,10 +107,12 @@ public class CreateNetworkViewTask extends AbstractNetworkTask {
 		this.networkManager = networkManager;
 		this.cyLayoutAlgorithmManager = cyLayoutAlgorithmManager;
 		this.cyNetworkNaming = cyNetworkNaming;
-		this.currentNetwork = cyApplicationManager.getCurrentNetwork();
+		this.currentNetwork = network;
 		this.tsvMap = tsvMap;
 		this.isFva = isFva;
 		this.showOnlyCrossfeeding = showOnlyCrossfeeding;
+		this.tableFactory = tableFactory;
+		this.tableManager = tableManager;
 		this.logger = Logger.getLogger(CyUserLog.NAME);
 	}
 
@@ -141,7 +161,7 @@ public class CreateNetworkViewTask extends AbstractNetworkTask {
 
 
 		// HERE I CREATE THE NEW NETWORK WHICH WE FILL WITH NEW STUFF
-		CyNetwork newNetwork = this.cnf.createNetwork();
+		newNetwork = this.cnf.createNetwork();
 
 		// root network
 		CyRootNetwork oldRootNetwork = ((CySubNetwork) currentNetwork).getRootNetwork();
@@ -161,12 +181,13 @@ public class CreateNetworkViewTask extends AbstractNetworkTask {
 		}
 
 		// My Code goes here
+		metrics = new PipelineMetrics();
 		monitor.setProgress(0.1d);
 		monitor.showMessage(TaskMonitor.Level.INFO, "Creating nodes");
-		CreateNodes createNodes = new CreateNodes(currentNetwork, newNetwork);
+		CreateNodes createNodes = new CreateNodes(currentNetwork, newNetwork, metrics);
 		monitor.setProgress(0.4d);
 		monitor.showMessage(TaskMonitor.Level.INFO, "Creating edges");
-		CreateEdges createEdges = new CreateEdges(currentNetwork, newNetwork, createNodes, tsvMap, isFva);
+		CreateEdges createEdges = new CreateEdges(currentNetwork, newNetwork, createNodes, tsvMap, isFva, metrics);
 
 		// Here I add a name to my Network
 		newNetwork.getDefaultNetworkTable().getRow(newNetwork.getSUID()).set("name", cyNetworkNaming.getSuggestedNetworkTitle("ScyNet: " + name));
@@ -189,7 +210,7 @@ public class CreateNetworkViewTask extends AbstractNetworkTask {
 		monitor.showMessage(TaskMonitor.Level.INFO, "Styling nodes and edges");
 		logger.info("Styling nodes and edges");
 
-		Aesthetics aesthetics = new Aesthetics(createNodes, newNetwork, myView, showOnlyCrossfeeding, tsvMap, isFva);
+		Aesthetics aesthetics = new Aesthetics(newNetwork, myView, showOnlyCrossfeeding, tsvMap, isFva, metrics);
 
 		// Apply the scynet layout
 		monitor.setProgress(0.9d);
@@ -198,10 +219,58 @@ public class CreateNetworkViewTask extends AbstractNetworkTask {
 		ApplyScynetLayoutTaskFactory scynetLayoutTF = new ApplyScynetLayoutTaskFactory(cyLayoutAlgorithmManager);
 		TaskIterator tItr = scynetLayoutTF.createTaskIterator(myView);
 		Task nextTask = tItr.next();
+		metrics.begin("layout");
 		try {
 			nextTask.run(monitor);
 		} catch (Exception e) {
 			throw new RuntimeException("Could not finish layout", e);
 		}
+		metrics.addViewWrites(countLayoutViewWrites(myView));
+		metrics.end(newNetwork.getNodeCount(), newNetwork.getEdgeCount());
+
+		metrics.writeTable(newNetwork, tableFactory, tableManager);
+		String summary = metrics.summary();
+		logger.info(summary);
+		monitor.showMessage(TaskMonitor.Level.INFO, summary);
+		newView = myView;
+	}
+
+	/**
+	 * Get-function
+	 * @return the simplified network, null if the task did not run or failed
+	 */
+	CyNetwork getNewNetwork() {
+		return newNetwork;
+	}
+
+	/**
+	 * Get-function
+	 * @return the view of the simplified network, null if the task did not finish
+	 */
+	CyNetworkView getNewView() {
+		return newView;
+	}
+
+	/**
+	 * Get-function
+	 * @return the metrics of the pipeline run, null if the task did not run
+	 */
+	PipelineMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * The layout sets the x and y location of every node it placed and hides the metabolites it left without edges.
+	 * @return the number of view properties set by a full layout of the view
+	 */
+	static int countLayoutViewWrites(CyNetworkView view) {
+		LayoutResult layout = ScynetNetworkState.forNetwork(view.getModel()).getLayout(view);
+		int writes = layout == null ? 0 : 2 * layout.getSnapshot().size();
+		for (View<CyNode> nodeView : view.getNodeViews()) {
+			if (!nodeView.getVisualProperty(BasicVisualLexicon.NODE_VISIBLE)) {
+				writes++;
+			}
+		}
+		return writes;
 	}
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import org.cytoscape.io.datasource.DataSourceManager;
 import org.cytoscape.model.CyNetworkFactory;
 import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyNetworkManager;
+import org.cytoscape.model.CyTableFactory;
+import org.cytoscape.model.CyTableManager;
 import org.cytoscape.session.CyNetworkNaming;
 import org.cytoscape.task.AbstractNetworkTaskFactory;
 import org.cytoscape.view.layout.CyLayoutAlgorithmManager;
@@ -57,6 +59,11 @@ public class CreateNetworkViewTaskFactory extends AbstractNetworkTaskFactory {
 	 */
 	private final JToggleButton myButton;
 	private final CyApplicationManager cyApplicationManager;
+	/**
+	 * The factory and manager of the ScyNet Pipeline Metrics table
+	 */
+	private final CyTableFactory tableFactory;
+	private final CyTableManager tableManager;
 
 	/**
 	 * Constructs a new CreateNetworkViewTaskFactory with the given parameters.
@@ -68,10 +75,12 @@ public class CreateNetworkViewTaskFactory extends AbstractNetworkTaskFactory {
 	 * @param dataSourceManager the manager for data sources in Cytoscape
 	 * @param cyApplicationManager the manager for applications in Cytoscape
 	 * @param myButton the toggle button to display the network view in the app
+	 * @param tableFactory the factory for the ScyNet Pipeline Metrics table
+	 * @param tableManager the manager the ScyNet Pipeline Metrics table is registered with
 	 */
 	public CreateNetworkViewTaskFactory(CyNetworkNaming cyNetworkNaming, CyNetworkFactory cnf, CyNetworkManager networkManager,
 										CyNetworkViewFactory cnvf, CyNetworkViewManager networkViewManager, CyLayoutAlgorithmManager cyLayoutAlgorithmManager, DataSourceManager dataSourceManager,
-										CyApplicationManager cyApplicationManager, JToggleButton myButton) {
+										CyApplicationManager cyApplicationManager, JToggleButton myButton, CyTableFactory tableFactory, CyTableManager tableManager) {
 		this.cnf = cnf;
 		this.cnvf = cnvf;
 		this.networkViewManager = networkViewManager;
@@ -81,6 +90,8 @@ public class CreateNetworkViewTaskFactory extends AbstractNetworkTaskFactory {
 		this.cyApplicationManager = cyApplicationManager;
 		this.showOnlyCrossfeeding = false;
 		this.myButton = myButton;
+		this.tableFactory = tableFactory;
+		this.tableManager = tableManager;
 
 		ActionListener listener = new ActionListener() {
 			@Override
@@ -101,7 +112,7 @@ public class CreateNetworkViewTaskFactory extends AbstractNetworkTaskFactory {
 	public TaskIterator createTaskIterator(CyNetwork network) {
 		//FileChoosing newChooser = new FileChoosing();
 		HashMap<String, Double> tsvMap = new HashMap<String, Double>(); // mimics newChooser.makeMap();
-		return new TaskIterator(new CreateNetworkViewTask(network, cyNetworkNaming, cnf, networkManager, cnvf, networkViewManager, cyLayoutAlgorithmManager, tsvMap, showOnlyCrossfeeding, cyApplicationManager, false));
+		return new TaskIterator(new CreateNetworkViewTask(network, cyNetworkNaming, cnf, networkManager, cnvf, networkViewManager, cyLayoutAlgorithmManager, tsvMap, showOnlyCrossfeeding, cyApplicationManager, false, tableFactory, tableManager));
 	}
 
 	/**
@@ -0,0 +1,377 @@
+package org.scynet;
+
+import org.scynet.core.CommunitySimplifier;
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.MetabolicModel;
+import org.scynet.core.SimplifiedCommunity;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyRow;
+
+import javax.swing.*;
+import java.util.*;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+/**
+ * This class is used to fill the new simpler network with nodes from the old network. The nodes from within
+ * the exchange-compartment, the nodes for each of the internal compartments and the exchange compartment node are added.
+ */
+public class CreateNodes {
+
+    private final Logger logger;
+    /**
+     * The old original network
+     */
+    final private CyNetwork oldNetwork;
+    /**
+     * The newly created simpler network
+     */
+    private final CyNetwork newNetwork;
+    /**
+     * The community model read from the old network
+     */
+    private final MetabolicModel model;
+    /**
+     * The simplified network computed by scynet-core
+     */
+    private final SimplifiedCommunity community;
+    /**
+     * Translation from old to new nodes
+     */
+    private final HashMap<CyNode, CyNode> oldToNewNodes = new HashMap<>();
+    /**
+     * Translation from the nodes of the simplified network to new nodes
+     */
+    private CyNode[] newNodes;
+    /**
+     * Translation from compartment name to CyNode
+     */
+    private final HashMap<String, CyNode> compNameToCompNode = new HashMap<>();
+    /**
+     * Set of all organisms
+     */
+    final private Set<String> organisms;
+    /**
+     * List of all external nodes
+     */
+    private final List<CyNode> extNodes = new ArrayList<>();
+    /**
+     * List of all exchange nodes
+     */
+    private final List<CyNode> exchgNodes = new ArrayList<>();
+    /**
+     * List of all exchange reactions (reactions with metabolites in the exchange compartment)
+     */
+    private final List<CyNode> exchgReactions = new ArrayList<>();
+    /**
+     * String with ID of the shared compartment -> will be called exchg here
+     */
+    private String exchgCompID = "";
+    /**
+     * Hashset of nodes to ignore. I.e. nodes that do not belong to an organism nor the shared compartment.
+     */
+    private final HashSet<CyNode> ignoredNodes = new HashSet<>();
+    /**
+     * The metrics of the pipeline run creating the new network
+     */
+    private final PipelineMetrics metrics;
+
+    // Constructor
+
+    /**
+     * Fills the newNetwork with the exchange-Nodes from the oldNetwork, as well as the corresponding compartment-Nodes
+     * @param oldNetwork is the network to be simplified
+     * @param newNetwork is the newly created empty network, which will be filled with nodes
+     * @param metrics records the phases "read model", "simplify" and "create nodes"
+     */
+    public CreateNodes(CyNetwork oldNetwork, CyNetwork newNetwork, PipelineMetrics metrics) {
+        this.logger = Logger.getLogger(CyUserLog.NAME);
+        this.oldNetwork = oldNetwork;
+        this.newNetwork = newNetwork;
+        this.metrics = metrics;
+        metrics.begin("read model");
+        this.exchgCompID = getExchgCompID();
+        // The simplification itself runs on the compact model, independent of Cytoscape
+        this.model = MetabolicModelReader.read(oldNetwork, exchgCompID, metrics);
+        metrics.end(oldNetwork.getNodeCount(), oldNetwork.getEdgeCount());
+        metrics.begin("simplify");
+        this.community = CommunitySimplifier.simplify(model);
+        // Internal compartments are replaced by organisms
+        this.organisms = community.getOrganisms();
+        collectOldNodes();
+        metrics.end(community.getGraph().getNodeCount(), community.getGraph().getEdgeCount());
+        metrics.begin("create nodes");
+        newNetwork.getDefaultNodeTable().createColumn("type", String.class, true);
+        CrossFeedingColumns.createColumns(newNetwork.getDefaultNodeTable());
+        addNodesToNewNetwork();
+        metrics.end(newNetwork.getNodeCount(), 0);
+    }
+
+    // Private Methods
+
+    private String getExchgCompID() {
+        List<CyNode> allNodes = oldNetwork.getNodeList();
+        String compId = "";
+        for (CyNode currentNode : allNodes) {
+            CyRow row = oldNetwork.getDefaultNodeTable().getRow(currentNode.getSUID());
+            String node_type = metrics.get(row, "sbml type", String.class);
+            String cyId = metrics.get(row, "cyId", String.class);
+            // Iterate over all metabolites
+            if (node_type != null && Objects.equals(node_type, "parameter") && Objects.equals(cyId, "shared_compartment_id")) {
+                compId = metrics.get(row, "shared name", String.class);
+                break;
+            }
+            if (node_type != null && Objects.equals(node_type, "compartment") && Objects.equals(cyId, "medium")) {
+                compId = "medium";
+            }
+        }
+        if (Objects.equals(compId, "")) {
+            showNoSharedCompartmentError(logger);
+        }
+        return compId;
+    }
+
+    /**
+     * Displays the error for community models without a shared exchange compartment.
+     */
+    static void showNoSharedCompartmentError(Logger logger) {
+        // Display a warning message that no medium compartment could be found
+        logger.error("No shared exchange compartment could be identified in the network.");
+        JFrame frame = new JFrame();
+        JOptionPane pane = new JOptionPane(
+                "No shared exchange compartment could be identified in the network.\n" +
+                        "Please make sure that the network contains either\n" +
+                        "\t- A compartment named 'medium' which acts as shared exchange compartment\n" +
+                        "\t- A parameter 'shared_compartment_id' which is set to the name of\n" +
+                        "\t  the shared exchange compartment" +
+                        "\n\nPlease consult the ScyNet documentation for further information on \n"+
+                        "metabolic model format requirements.",
+                JOptionPane.ERROR_MESSAGE
+        );
+        pane.setComponentOrientation(JOptionPane.getRootFrame().getComponentOrientation());
+        JDialog dialog = pane.createDialog(frame, "Error: Wrong Network Format");
+
+        dialog.setModal(false);
+        dialog.setVisible(true);
+    }
+
+    /**
+     * Collects the exchange nodes, the exchange reactions with edges in the new network and the ignored nodes of the
+     * old network.
+     */
+    private void collectOldNodes() {
+        for (int species = 0; species < model.getSpeciesCount(); species++) {
+            CyNode oldNode = oldNetwork.getNode(model.getSpeciesId(species));
+            if (community.isIgnoredSpecies(species)) {
+                ignoredNodes.add(oldNode);
+            } else if (community.getSpeciesNode(species) >= 0) {
+                exchgNodes.add(oldNode);
+            }
+        }
+        Set<CyNode> reactions = new HashSet<>();
+        for (int edge = 0; edge < community.getGraph().getEdgeCount(); edge++) {
+            CyNode reaction = oldNetwork.getNode(model.getReactionId(community.getEdgeReaction(edge)));
+            if (reactions.add(reaction)) {
+                exchgReactions.add(reaction);
+            }
+        }
+    }
+
+    /**
+     * Returns a list of all neighbors of the given node in the given direction.
+     *
+     * @param startingNode the node to get the neighbors of
+     * @return a list of all neighbors of the given node
+     */
+    public List<CyNode> getAllNeighbors (CyNode startingNode){
+
+        List<CyNode> oldNeighbors = new ArrayList<>();
+
+        List<CyEdge> edges = oldNetwork.getAdjacentEdgeList(startingNode, CyEdge.Type.INCOMING);
+        for (CyEdge edge : edges) {
+            oldNeighbors.add(edge.getSource());
+        }
+        edges = oldNetwork.getAdjacentEdgeList(startingNode, CyEdge.Type.OUTGOING);
+        for (CyEdge edge : edges) {
+            oldNeighbors.add(edge.getTarget());
+        }
+
+        return oldNeighbors;
+    }
+
+    /**
+     * Adds the exchange metabolite and organism nodes of the simplified network to the new network and creates the
+     * translations from old to new nodes.
+     */
+    private void addNodesToNewNetwork() {
+        ExchangeGraph graph = community.getGraph();
+        newNodes = new CyNode[graph.getNodeCount()];
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            CyNode newNode = newNetwork.addNode();
+            newNodes[node] = newNode;
+            CyRow row = newNetwork.getDefaultNodeTable().getRow(newNode.getSUID());
+            metrics.set(row, "name", graph.getNodeName(node));
+            metrics.set(row, "shared name", community.getNodeSharedName(node));
+            if (graph.isMember(node)) {
+                metrics.set(row, "type", "community member");
+                compNameToCompNode.put(graph.getNodeName(node), newNode);
+            } else {
+                metrics.set(row, "type", "exchange metabolite");
+            }
+        }
+        for (int species = 0; species < model.getSpeciesCount(); species++) {
+            int node = community.getSpeciesNode(species);
+            if (node >= 0) {
+                oldToNewNodes.put(oldNetwork.getNode(model.getSpeciesId(species)), newNodes[node]);
+            }
+        }
+    }
+
+    // Public Methods [sorted by output]
+
+
+    /**
+     * Get-function
+     * @param node any node from the old network
+     * @return the name of its organism
+     */
+    public String getPutativeOrganismFromNode(CyNode node){
+        // here the internal compartment corresponding to a Node is returned, regardless where the Node is placed
+        String node_type = oldNetwork.getDefaultNodeTable().getRow(node.getSUID()).get("sbml type", String.class);
+        if (node_type != null && Objects.equals(node_type, "species")) {
+            String sbmlId = oldNetwork.getDefaultNodeTable().getRow(node.getSUID()).get("sbml id", String.class);
+            String compartment = oldNetwork.getDefaultNodeTable().getRow(node.getSUID()).get("sbml compartment", String.class);
+            return CommunitySimplifier.getPutativeOrganism(sbmlId, compartment, this.exchgCompID);
+        }
+        return "ERROR";
+    }
+
+    /**
+     * Get-function translation
+     * @param node any node in the old network
+     * @return the name of the organism the node belongs to (or exchg)
+     */
+    public String getOrganismFromNode(CyNode node){
+        // here the internal compartment corresponding to a Node is returned, regardless where the Node is placed
+        String node_type = oldNetwork.getDefaultNodeTable().getRow(node.getSUID()).get("sbml type", String.class);
+        if (node_type != null && Objects.equals(node_type, "species")) {
+            String compartment = oldNetwork.getDefaultNodeTable().getRow(node.getSUID()).get("sbml compartment", String.class);
+            return community.getOrganismOfCompartment(compartment);
+        }
+        return "ERROR";
+    }
+
+    /**
+     * Get-function translation
+     * @param node any node in the old network
+     * @return the name of the sbml type of the node
+     */
+    public String getSbmlTypeFromNode(CyNode node){
+        // here the internal compartment corresponding to a Node is returned, regardless where the Node is placed
+        return oldNetwork.getDefaultNodeTable().getRow(node.getSUID()).get("sbml type", String.class);
+    }
+
+    /**
+     * Get-function translation
+     * @param oldNode any node in the old network
+     * @return the corresponding node in the new network
+     */
+    public CyNode getNewNode(CyNode oldNode) {
+        return oldToNewNodes.get(oldNode);
+    }
+
+    /**
+     * Get-function
+     * @param compName the name of a compartment node in the new network
+     * @return its CyNode class object
+     */
+    public CyNode getCompNodeFromName(String compName) {
+        return compNameToCompNode.get(compName);
+    }
+
+    /**
+     * Get-function
+     * @return all external nodes
+     */
+    public List<CyNode> getExtNodes() {
+        return extNodes;
+    }
+
+    /**
+     * Get-function
+     * @return all exchange nodes
+     */
+    public List<CyNode> getExchgNodes() {
+        return exchgNodes;
+    }
+
+
+    /**
+     * Get-function
+     * @param oldNode any node from the old network
+     * @return the shared name listed in the NodeTable
+     */
+    public String getNodeSharedName(CyNode oldNode) {
+        return oldNetwork.getDefaultNodeTable().getRow(oldNode.getSUID()).get("shared name", String.class);
+    }
+
+    /**
+     * Get-function
+     * @return all internal compartments
+     */
+    public Set<String> getOrganisms(){
+        return organisms;
+    }
+
+    /**
+     * Get-function
+     * @return all internal compartments
+     */
+    public List<CyNode> getExchgReactions(){
+        return exchgReactions;
+    }
+
+    /**
+     * Get-function
+     * @return the ID of the shared compartment (exchg compartment)
+     */
+    public String getSharedCompId(){
+        return exchgCompID;
+    }
+
+    /**
+     * Get-function
+     * @return the simplified network computed by scynet-core
+     */
+    public SimplifiedCommunity getCommunity() {
+        return community;
+    }
+
+    /**
+     * Get-function translation
+     * @param node a node ordinal of the simplified network
+     * @return the corresponding node in the new network
+     */
+    public CyNode getNewNode(int node) {
+        return newNodes[node];
+    }
+
+    /**
+     * Get function
+     * @return the set of nodes to ignore
+     */
+    public HashSet<CyNode> getIgnoredNodes(){
+        return ignoredNodes;
+    }
+
+    /**
+     * @return Whether the node is in the set of nodes to ignore
+     */
+    public Boolean isIgnoredNode(CyNode node){
+        return ignoredNodes.contains(node);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package org.scynet;
+
+import org.scynet.core.CrossFeedingEngine;
+import org.scynet.core.ExchangeGraph;
+
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+
+import java.util.BitSet;
+
+/**
+ * Writes the result of the CrossFeedingEngine to the node table of a ScyNet network.
+ */
+public class CrossFeedingColumns {
+
+    public static final String CROSS_FED = "cross-fed";
+    public static final String PRODUCERS = "producers";
+    public static final String CONSUMERS = "consumers";
+    public static final String CROSS_FED_FLUX = "cross-fed flux";
+    public static final String CROSS_FEEDING_CLASS = "cross-feeding class";
+
+    private CrossFeedingColumns() {
+    }
+
+    /**
+     * Creates the cross-feeding columns of the node table, unless they exist already.
+     */
+    public static void createColumns(CyTable nodeTable) {
+        if (nodeTable.getColumn(CROSS_FED) == null) {
+            nodeTable.createColumn(CROSS_FED, Boolean.class, true);
+        }
+        if (nodeTable.getColumn(PRODUCERS) == null) {
+            nodeTable.createColumn(PRODUCERS, Integer.class, true);
+        }
+        if (nodeTable.getColumn(CONSUMERS) == null) {
+            nodeTable.createColumn(CONSUMERS, Integer.class, true);
+        }
+        if (nodeTable.getColumn(CROSS_FED_FLUX) == null) {
+            nodeTable.createColumn(CROSS_FED_FLUX, Double.class, true);
+        }
+        if (nodeTable.getColumn(CROSS_FEEDING_CLASS) == null) {
+            nodeTable.createColumn(CROSS_FEEDING_CLASS, String.class, true);
+        }
+    }
+
+    /**
+     * Classifies the exchange metabolites of the network by the fluxes in its edge table and writes the result to
+     * the cross-feeding columns, in one pass over the edges and one over the metabolite rows.
+     */
+    public static void write(CyNetwork network) {
+        ExchangeGraph graph = ExchangeGraphReader.read(network);
+        write(network, graph, CrossFeedingEngine.compute(graph));
+    }
+
+    /**
+     * Like write(network), counting the cells read and written as part of the current phase of a pipeline run.
+     */
+    public static void write(CyNetwork network, PipelineMetrics metrics) {
+        ExchangeGraph graph = ExchangeGraphReader.read(network);
+        metrics.addTableReads(ExchangeGraphReader.countCellReads(network, graph.getNodeCount(), graph.getEdgeCount()));
+        write(network, graph, CrossFeedingEngine.compute(graph), null, metrics);
+    }
+
+    /**
+     * Writes the classification of the metabolites of the graph to the cross-feeding columns.
+     */
+    public static void write(CyNetwork network, ExchangeGraph graph, CrossFeedingEngine crossFeeding) {
+        write(network, graph, crossFeeding, null);
+    }
+
+    /**
+     * Writes the classification of some metabolites of the graph, leaving the rows of all other nodes untouched.
+     *
+     * @param metabolites the node ordinals of the metabolites to write, null for all
+     */
+    public static void write(CyNetwork network, ExchangeGraph graph, CrossFeedingEngine crossFeeding, BitSet metabolites) {
+        // Outside of a phase the metrics ignore the counts
+        write(network, graph, crossFeeding, metabolites, new PipelineMetrics());
+    }
+
+    /**
+     * Writes the classification of some metabolites of the graph, counting the written cells as part of the current
+     * phase of a pipeline run.
+     *
+     * @param metabolites the node ordinals of the metabolites to write, null for all
+     */
+    public static void write(CyNetwork network, ExchangeGraph graph, CrossFeedingEngine crossFeeding, BitSet metabolites, PipelineMetrics metrics) {
+        CyTable nodeTable = network.getDefaultNodeTable();
+        createColumns(nodeTable);
+        if (metabolites != null) {
+            for (int node = metabolites.nextSetBit(0); node >= 0; node = metabolites.nextSetBit(node + 1)) {
+                if (!graph.isMember(node)) {
+                    writeRow(nodeTable, graph, crossFeeding, node, metrics);
+                }
+            }
+            return;
+        }
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (!graph.isMember(node)) {
+                writeRow(nodeTable, graph, crossFeeding, node, metrics);
+            }
+        }
+    }
+
+    private static void writeRow(CyTable nodeTable, ExchangeGraph graph, CrossFeedingEngine crossFeeding, int node, PipelineMetrics metrics) {
+        CyRow row = nodeTable.getRow(graph.getNodeId(node));
+        metrics.set(row, CROSS_FED, crossFeeding.isCrossFed(node));
+        metrics.set(row, PRODUCERS, crossFeeding.getProducers(node));
+        metrics.set(row, CONSUMERS, crossFeeding.getConsumers(node));
+        metrics.set(row, CROSS_FED_FLUX, crossFeeding.getCrossFedFlux(node));
+        metrics.set(row, CROSS_FEEDING_CLASS, crossFeeding.getClassification(node));
+    }
+}
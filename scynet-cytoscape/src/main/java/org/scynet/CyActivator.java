@@ -0,0 +1,272 @@
+package org.scynet;
+
+import org.cytoscape.application.CyApplicationManager;
+import org.cytoscape.application.swing.CytoPanelComponent;
+import org.cytoscape.event.CyEventHelper;
+import org.cytoscape.io.datasource.DataSourceManager;
+import org.cytoscape.model.CyNetworkFactory;
+import org.cytoscape.model.CyNetworkManager;
+import org.cytoscape.model.CyTableFactory;
+import org.cytoscape.model.CyTableManager;
+import org.cytoscape.model.events.AddedEdgesListener;
+import org.cytoscape.model.events.AddedNodesListener;
+import org.cytoscape.model.events.RemovedEdgesListener;
+import org.cytoscape.model.events.RemovedNodesListener;
+import org.cytoscape.service.util.AbstractCyActivator;
+import org.cytoscape.session.CyNetworkNaming;
+import org.cytoscape.session.events.SessionAboutToBeSavedListener;
+import org.cytoscape.session.events.SessionLoadedListener;
+import org.cytoscape.task.EdgeViewTaskFactory;
+import org.cytoscape.task.NetworkViewTaskFactory;
+import org.cytoscape.task.NetworkTaskFactory;
+import org.cytoscape.view.layout.CyLayoutAlgorithm;
+import org.cytoscape.view.layout.CyLayoutAlgorithmManager;
+import org.cytoscape.view.model.CyNetworkViewFactory;
+import org.cytoscape.view.model.CyNetworkViewManager;
+import org.cytoscape.view.model.events.ViewChangedListener;
+import org.cytoscape.work.TaskFactory;
+import org.cytoscape.work.undo.UndoSupport;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+
+import javax.swing.*;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+
+/**
+ The CyActivator class is responsible for activating the SCyNet application in Cytoscape.
+ This class extends the AbstractCyActivator class and overrides the start() method to register the necessary
+ services, tasks, and factories for the application to work properly.
+ */
+public class CyActivator extends AbstractCyActivator {
+
+	/**
+	 * Default constructor for the CyActivator class.
+	 */
+	public CyActivator() {
+		super();
+	}
+
+	/**
+	 * Overrides the start() method in the AbstractCyActivator class to register the necessary services, tasks,
+	 * and factories for the application to work properly.
+	 @param bc The bundle context used to register the services.
+	 */
+	public void start(BundleContext bc) {
+		// Initialize the log file
+		Bundle bundle = bc.getBundle();
+		String name = bundle.getSymbolicName();
+		String version = bundle.getVersion().toString();
+
+		final Logger logger = Logger.getLogger(CyUserLog.NAME);
+		logger.info("Starting " + name + " version " + version);
+
+		// Get the necessary services
+		DataSourceManager dataSourceManager = getService(bc, DataSourceManager.class);
+		CyNetworkNaming cyNetworkNamingServiceRef = getService(bc,CyNetworkNaming.class);
+		CyNetworkFactory cyNetworkFactoryServiceRef = getService(bc,CyNetworkFactory.class);
+		CyNetworkManager cyNetworkManagerServiceRef = getService(bc,CyNetworkManager.class);
+		CyApplicationManager cyApplicationManager = getService(bc, CyApplicationManager.class);
+		CyNetworkViewFactory cyNetworkViewFactoryServiceRef = getService(bc,CyNetworkViewFactory.class);
+		CyNetworkViewManager cyNetworkViewManagerServiceRef = getService(bc,CyNetworkViewManager.class);
+		UndoSupport undo = getService(bc, UndoSupport.class);
+		CyLayoutAlgorithmManager layoutManager = getService(bc, CyLayoutAlgorithmManager.class);
+		CyEventHelper cyEventHelper = getService(bc, CyEventHelper.class);
+		CyTableFactory cyTableFactory = getService(bc, CyTableFactory.class);
+		CyTableManager cyTableManager = getService(bc, CyTableManager.class);
+
+		// Set properties for creating a network view task factory
+		Properties createNetworkViewTaskFactoryProps = new Properties();
+		createNetworkViewTaskFactoryProps.setProperty("preferredMenu","Apps.ScyNet");
+
+		// Create a JFrame and JToggleButton for the new menu item
+		JToggleButton myButton = new JToggleButton("Toggle only 'crossfeeding' Nodes");
+
+		// Get all the networks and create a network view task factory for each network
+
+		CreateNetworkViewTaskFactory createNetworkViewTaskFactory = new CreateNetworkViewTaskFactory(cyNetworkNamingServiceRef, cyNetworkFactoryServiceRef, cyNetworkManagerServiceRef, cyNetworkViewFactoryServiceRef, cyNetworkViewManagerServiceRef, layoutManager, dataSourceManager, cyApplicationManager, myButton, cyTableFactory, cyTableManager);
+		createNetworkViewTaskFactoryProps.setProperty("title", "Create Simplified Community Network");
+		registerService(bc, createNetworkViewTaskFactory, NetworkTaskFactory.class, createNetworkViewTaskFactoryProps);
+
+		ImportExchangeLayerTaskFactory importExchangeLayer = new ImportExchangeLayerTaskFactory(cyNetworkNamingServiceRef, cyNetworkFactoryServiceRef, cyNetworkManagerServiceRef, cyNetworkViewFactoryServiceRef, cyNetworkViewManagerServiceRef, layoutManager, cyTableFactory, cyTableManager);
+		Properties importExchangeLayerProperties = new Properties();
+		importExchangeLayerProperties.setProperty("preferredMenu","Apps.ScyNet");
+		importExchangeLayerProperties.setProperty("title", "Import Simplified Community Network from SBML");
+		setCommandProperties(importExchangeLayerProperties, "import", "Import a simplified community network from SBML",
+				"Streams the exchange layer of an SBML community model into a new simplified community network with a view, "
+						+ "without importing the model with cy3sbml first.",
+				"{\"network\":101,\"view\":102,\"nodes\":12,\"edges\":27,\"phases\":[{\"phase\":\"read model\",\"wallTimeMs\":8.2,"
+						+ "\"tableReads\":0,\"tableWrites\":0,\"viewWrites\":0,\"nodes\":60,\"edges\":45}],\"wallTimeMs\":95.3}");
+		registerService(bc, importExchangeLayer, TaskFactory.class, importExchangeLayerProperties);
+
+		ScynetCommandTaskFactory openScynetNetwork = new ScynetCommandTaskFactory(() -> new OpenScynetNetworkTask(cyNetworkNamingServiceRef, cyNetworkFactoryServiceRef,
+				cyNetworkManagerServiceRef, cyNetworkViewFactoryServiceRef, cyNetworkViewManagerServiceRef, layoutManager, cyTableFactory, cyTableManager));
+		Properties openScynetNetworkProperties = new Properties();
+		openScynetNetworkProperties.setProperty("preferredMenu","Apps.ScyNet");
+		openScynetNetworkProperties.setProperty("title", "Open ScyNet Network File");
+		setCommandProperties(openScynetNetworkProperties, "open", "Open a network saved in the binary ScyNet format",
+				"Creates a simplified community network with its fluxes, cross-feeding columns and node positions from a .scynet file "
+						+ "written by scynet export, without simplifying the model or laying it out again.",
+				"{\"network\":101,\"view\":102,\"nodes\":12,\"edges\":27,\"layoutApplied\":false,\"phases\":[{\"phase\":\"read file\",\"wallTimeMs\":0.4,"
+						+ "\"tableReads\":0,\"tableWrites\":0,\"viewWrites\":0,\"nodes\":12,\"edges\":27}],\"wallTimeMs\":35.2}");
+		registerService(bc, openScynetNetwork, TaskFactory.class, openScynetNetworkProperties);
+
+		ExportScynetNetworkTaskFactory exportScynetNetwork = new ExportScynetNetworkTaskFactory();
+		Properties exportScynetNetworkProperties = new Properties();
+		exportScynetNetworkProperties.setProperty("preferredMenu","Apps.ScyNet");
+		exportScynetNetworkProperties.setProperty("title", "Export ScyNet Network");
+		registerService(bc, exportScynetNetwork, NetworkViewTaskFactory.class, exportScynetNetworkProperties);
+
+		ContextualizeWithFluxDataTaskFactory contextualizeFlux = new ContextualizeWithFluxDataTaskFactory(cyNetworkManagerServiceRef, cyNetworkNamingServiceRef, layoutManager);
+		Properties contextualizeFluxProperties = new Properties();
+		contextualizeFluxProperties.setProperty("preferredMenu","Apps.ScyNet");
+		contextualizeFluxProperties.setProperty("title", "Contextualize with Flux Data");
+		registerService(bc,contextualizeFlux, NetworkViewTaskFactory.class,contextualizeFluxProperties);
+
+		BatchContextualizeTaskFactory batchContextualize = new BatchContextualizeTaskFactory();
+		Properties batchContextualizeProperties = new Properties();
+		batchContextualizeProperties.setProperty("preferredMenu","Apps.ScyNet");
+		batchContextualizeProperties.setProperty("title", "Contextualize with Multiple Flux Files");
+		registerService(bc, batchContextualize, NetworkTaskFactory.class, batchContextualizeProperties);
+
+		PlayFluxTimeSeriesTaskFactory playFluxTimeSeries = new PlayFluxTimeSeriesTaskFactory();
+		Properties playFluxTimeSeriesProperties = new Properties();
+		playFluxTimeSeriesProperties.setProperty("preferredMenu","Apps.ScyNet");
+		playFluxTimeSeriesProperties.setProperty("title", "Play Flux Time Series");
+		registerService(bc, playFluxTimeSeries, NetworkViewTaskFactory.class, playFluxTimeSeriesProperties);
+
+		ToggleShowOnlyCfNodesTaskFactory toggleShowOnlyCfNodes = new ToggleShowOnlyCfNodesTaskFactory(undo);
+		Properties toggleShowOnlyCfNodesProperties = new Properties();
+		toggleShowOnlyCfNodesProperties.setProperty("preferredMenu","Apps.ScyNet");
+		toggleShowOnlyCfNodesProperties.setProperty("title", "Toggle Non-Cross-Fed Metabolite Visibility");
+		registerService(bc,toggleShowOnlyCfNodes, NetworkViewTaskFactory.class,toggleShowOnlyCfNodesProperties);
+
+		ToggleEdgeSizeBasedOnFluxTaskFactory toggleEdgeWidth = new ToggleEdgeSizeBasedOnFluxTaskFactory(undo);
+		Properties toggleEdgeWidthProperties = new Properties();
+		toggleEdgeWidthProperties.setProperty("preferredMenu","Apps.ScyNet");
+		toggleEdgeWidthProperties.setProperty("title", "Toggle Edge Width Relative to Flux");
+		registerService(bc,toggleEdgeWidth, NetworkViewTaskFactory.class,toggleEdgeWidthProperties);
+
+		ToggleZeroFluxEdgesTaskFactory toggleZeroFlux = new ToggleZeroFluxEdgesTaskFactory(undo);
+		Properties toggleZeroFluxProperties = new Properties();
+		toggleZeroFluxProperties.setProperty("preferredMenu","Apps.ScyNet");
+		toggleZeroFluxProperties.setProperty("title", "Toggle Zero Flux Edge Visibility");
+		registerService(bc,toggleZeroFlux, NetworkViewTaskFactory.class,toggleZeroFluxProperties);
+
+		ScynetLayout scynetLayout = new ScynetLayout(undo, cyApplicationManager);
+
+		Properties customLayoutProps = new Properties();
+		customLayoutProps.setProperty("preferredMenu","Custom Layouts");
+		registerService(bc, scynetLayout, CyLayoutAlgorithm.class, customLayoutProps);
+
+		// ApplyCustomLayoutTaskFactory service
+		ApplyScynetLayoutTaskFactory applyLayoutTaskFactory = new ApplyScynetLayoutTaskFactory(layoutManager);
+
+		Properties applyCustomLayoutProperties = new Properties();
+		applyCustomLayoutProperties.setProperty("preferredMenu","Apps.ScyNet");
+		applyCustomLayoutProperties.setProperty("title", "Apply ScyNet Layout");
+		registerService(bc, applyLayoutTaskFactory, NetworkViewTaskFactory.class, applyCustomLayoutProperties);
+
+		ApplyScynetLayoutTaskFactory updateLayoutTaskFactory = new ApplyScynetLayoutTaskFactory(layoutManager, true);
+		Properties updateLayoutProperties = new Properties();
+		updateLayoutProperties.setProperty("preferredMenu","Apps.ScyNet");
+		updateLayoutProperties.setProperty("title", "Update ScyNet Layout (Incremental)");
+		registerService(bc, updateLayoutTaskFactory, NetworkViewTaskFactory.class, updateLayoutProperties);
+
+		CreateCommunityOverviewTaskFactory overviewTaskFactory = new CreateCommunityOverviewTaskFactory(cyNetworkNamingServiceRef, cyNetworkFactoryServiceRef, cyNetworkManagerServiceRef, cyNetworkViewFactoryServiceRef, cyNetworkViewManagerServiceRef);
+		Properties overviewProperties = new Properties();
+		overviewProperties.setProperty("preferredMenu","Apps.ScyNet");
+		overviewProperties.setProperty("title", "Create Community Overview Network");
+		registerService(bc, overviewTaskFactory, NetworkTaskFactory.class, overviewProperties);
+
+		// Expanding an overview edge is offered in the edge context menu and on double click ("OPEN")
+		ExpandOverviewEdgeTaskFactory expandOverviewEdge = new ExpandOverviewEdgeTaskFactory(cyEventHelper);
+		Properties expandOverviewEdgeProperties = new Properties();
+		expandOverviewEdgeProperties.setProperty("preferredMenu","Apps.ScyNet");
+		expandOverviewEdgeProperties.setProperty("title", "Expand to Exchange Metabolites");
+		expandOverviewEdgeProperties.setProperty("preferredAction", "OPEN");
+		registerService(bc, expandOverviewEdge, EdgeViewTaskFactory.class, expandOverviewEdgeProperties);
+
+		// Filter panel in the control panel
+		ScynetFilterPanel filterPanel = new ScynetFilterPanel(cyApplicationManager, undo);
+		registerService(bc, filterPanel, CytoPanelComponent.class, new Properties());
+
+		// Drop visibility models that no longer describe their view, e.g. after Cytoscape's Hide and Show commands
+		VisibilityModelInvalidator visibilityModelInvalidator = new VisibilityModelInvalidator();
+		registerService(bc, visibilityModelInvalidator, AddedNodesListener.class, new Properties());
+		registerService(bc, visibilityModelInvalidator, AddedEdgesListener.class, new Properties());
+		registerService(bc, visibilityModelInvalidator, RemovedNodesListener.class, new Properties());
+		registerService(bc, visibilityModelInvalidator, RemovedEdgesListener.class, new Properties());
+		registerService(bc, visibilityModelInvalidator, ViewChangedListener.class, new Properties());
+
+		// Layouts and flux kinds of the views, saved in and restored from Cytoscape sessions
+		ScynetSessionFiles sessionFiles = new ScynetSessionFiles(cyNetworkViewManagerServiceRef);
+		registerService(bc, sessionFiles, SessionAboutToBeSavedListener.class, new Properties());
+		registerService(bc, sessionFiles, SessionLoadedListener.class, new Properties());
+
+		// Commands of the "scynet" namespace for CyREST and automation scripts, which return their results as JSON
+		registerCommand(bc, () -> new CreateNetworkCommandTask(cyNetworkNamingServiceRef, cyNetworkFactoryServiceRef, cyNetworkManagerServiceRef,
+						cyNetworkViewFactoryServiceRef, cyNetworkViewManagerServiceRef, layoutManager, cyTableFactory, cyTableManager),
+				"create", "Create a simplified community network",
+				"Simplifies a community model imported by cy3sbml into a new network with a view, optionally contextualized with a flux file.",
+				"{\"network\":101,\"view\":102,\"nodes\":12,\"edges\":27,\"fva\":false,\"phases\":[{\"phase\":\"simplify\",\"wallTimeMs\":3.1,"
+						+ "\"tableReads\":0,\"tableWrites\":0,\"viewWrites\":0,\"nodes\":12,\"edges\":27}],\"wallTimeMs\":120.4}");
+		registerCommand(bc, () -> new ContextualizeCommandTask(cyNetworkManagerServiceRef, cyNetworkNamingServiceRef, layoutManager),
+				"contextualize", "Contextualize a ScyNet network with a flux file",
+				"Applies the fluxes of an FBA or FVA flux file to the edges of a ScyNet network view, updates the cross-feeding columns "
+						+ "and lays out the network again if its visible nodes changed.",
+				"{\"network\":101,\"view\":102,\"condition\":\"koch_com_model_fba\",\"fva\":false,\"edges\":27,\"changedEdges\":27,"
+						+ "\"changedMetabolites\":8,\"layoutUpdated\":true,\"movedNodes\":5,\"readMs\":1.2,\"wallTimeMs\":40.7}");
+		registerCommand(bc, () -> new ToggleCommandTask(ToggleCommandTask.Toggle.ZERO_FLUX_EDGES, undo),
+				"toggle zero flux edges", "Toggle zero flux edge visibility",
+				"Hides the edges without flux of a ScyNet network view, or shows them again if they are hidden.",
+				"{\"network\":101,\"view\":102,\"elements\":9,\"zeroFluxEdgesHidden\":true,\"nonCrossFedMetabolitesHidden\":false,\"wallTimeMs\":2.5}");
+		registerCommand(bc, () -> new ToggleCommandTask(ToggleCommandTask.Toggle.NON_CROSS_FED_METABOLITES, undo),
+				"toggle non-cross-fed metabolites", "Toggle non-cross-fed metabolite visibility",
+				"Hides the metabolites of a ScyNet network view that are not cross-fed, or shows them again if they are hidden.",
+				"{\"network\":101,\"view\":102,\"elements\":6,\"zeroFluxEdgesHidden\":true,\"nonCrossFedMetabolitesHidden\":true,\"wallTimeMs\":1.9}");
+		registerCommand(bc, () -> new ToggleCommandTask(ToggleCommandTask.Toggle.EDGE_WIDTH, undo),
+				"toggle edge width", "Toggle edge width relative to flux",
+				"Sets the edge widths of a ScyNet network view relative to the flux, or back to the default width.",
+				"{\"network\":101,\"view\":102,\"elements\":27,\"relativeWidths\":true,\"wallTimeMs\":3.0}");
+		registerCommand(bc, () -> new FilterCommandTask(undo),
+				"filter", "Filter a ScyNet network",
+				"Shows only the edges of a ScyNet network view that pass the filters of the ScyNet filter panel, or removes the filter.",
+				"{\"network\":101,\"view\":102,\"passingNodes\":10,\"passingEdges\":14,\"elements\":15,\"wallTimeMs\":1.4}");
+		registerCommand(bc, ExportScynetNetworkTask::new,
+				"export", "Export a ScyNet network as CX2 or in the binary ScyNet format",
+				"Writes a ScyNet network view with its fluxes, cross-feeding columns and node positions to a .cx2 file, "
+						+ "or to a .scynet file that scynet open reloads.",
+				"{\"network\":101,\"view\":102,\"file\":\"/data/koch_com_model.cx2\",\"format\":\"cx2\",\"nodes\":12,\"edges\":27,"
+						+ "\"bytes\":6120,\"wallTimeMs\":4.6}");
+		registerCommand(bc, () -> new LayoutCommandTask(layoutManager),
+				"layout", "Apply the ScyNet layout",
+				"Applies the ScyNet ring layout to a ScyNet network view, in full or only to the nodes whose ring changed.",
+				"{\"network\":101,\"view\":102,\"nodes\":12,\"members\":3,\"movedNodes\":12,\"wallTimeMs\":6.8}");
+	}
+
+	/**
+	 * Registers a command of the "scynet" namespace that is not in the menu.
+	 * @param task creates the task of one run of the command
+	 * @param command the name of the command, e.g. "contextualize" for "scynet contextualize"
+	 */
+	private void registerCommand(BundleContext bc, Supplier<AbstractScynetCommandTask> task, String command, String description,
+								 String longDescription, String exampleJson) {
+		Properties properties = new Properties();
+		setCommandProperties(properties, command, description, longDescription, exampleJson);
+		registerService(bc, new ScynetCommandTaskFactory(task), TaskFactory.class, properties);
+	}
+
+	private static void setCommandProperties(Properties properties, String command, String description, String longDescription, String exampleJson) {
+		properties.setProperty("commandNamespace", "scynet");
+		properties.setProperty("command", command);
+		properties.setProperty("commandDescription", description);
+		properties.setProperty("commandLongDescription", longDescription);
+		properties.setProperty("commandSupportsJSON", "true");
+		properties.setProperty("commandExampleJSON", exampleJson);
+	}
+}
\ No newline at end of file
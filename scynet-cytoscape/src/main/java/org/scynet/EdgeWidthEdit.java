@@ -0,0 +1,79 @@
+package org.scynet;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+import org.cytoscape.work.undo.AbstractCyEdit;
+import org.cytoscape.work.undo.UndoSupport;
+
+import java.util.Arrays;
+
+/**
+ * An undoable change of edge widths. Only the edges whose width changed are recorded, with their old and new width.
+ */
+public class EdgeWidthEdit extends AbstractCyEdit {
+
+	private View<CyEdge>[] edgeViews;
+	private double[] oldWidths;
+	private double[] newWidths;
+	private int size = 0;
+
+	@SuppressWarnings("unchecked")
+	public EdgeWidthEdit(String presentationName) {
+		super(presentationName);
+		this.edgeViews = new View[16];
+		this.oldWidths = new double[16];
+		this.newWidths = new double[16];
+	}
+
+	/**
+	 * Sets the locked width of an edge and records the change, if the width differs from the current one.
+	 */
+	public void setWidth(View<CyEdge> edgeView, double width) {
+		Double oldWidth = edgeView.getVisualProperty(BasicVisualLexicon.EDGE_WIDTH);
+		if (oldWidth != null && oldWidth == width) {
+			return;
+		}
+		if (size == edgeViews.length) {
+			edgeViews = Arrays.copyOf(edgeViews, size * 2);
+			oldWidths = Arrays.copyOf(oldWidths, size * 2);
+			newWidths = Arrays.copyOf(newWidths, size * 2);
+		}
+		edgeViews[size] = edgeView;
+		oldWidths[size] = oldWidth == null ? width : oldWidth;
+		newWidths[size] = width;
+		size++;
+		edgeView.setLockedValue(BasicVisualLexicon.EDGE_WIDTH, width);
+	}
+
+	/**
+	 * @return the number of edges whose width changed
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Posts the recorded changes as an undoable edit, unless nothing changed.
+	 * @param undoSupport the undo support, may be null if undo is not available
+	 */
+	public void post(UndoSupport undoSupport) {
+		if (undoSupport != null && size > 0) {
+			undoSupport.postEdit(this);
+		}
+	}
+
+	@Override
+	public void undo() {
+		for (int i = 0; i < size; i++) {
+			edgeViews[i].setLockedValue(BasicVisualLexicon.EDGE_WIDTH, oldWidths[i]);
+		}
+	}
+
+	@Override
+	public void redo() {
+		for (int i = 0; i < size; i++) {
+			edgeViews[i].setLockedValue(BasicVisualLexicon.EDGE_WIDTH, newWidths[i]);
+		}
+	}
+}
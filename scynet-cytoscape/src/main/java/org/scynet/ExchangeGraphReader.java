@@ -0,0 +1,89 @@
+package org.scynet;
+
+import org.scynet.core.ExchangeGraph;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads a network created by ScyNet into an ExchangeGraph. Every node and edge row is read exactly once.
+ */
+public class ExchangeGraphReader {
+
+    private ExchangeGraphReader() {
+    }
+
+    /**
+     * Copies the nodes and edges of a ScyNet network into an ExchangeGraph. Nodes of type "community member" become
+     * members, all other nodes become metabolites. The SUIDs are kept as node and edge identifiers.
+     *
+     * @param network a network created by ScyNet
+     * @return the compact copy of the network
+     */
+    public static ExchangeGraph read(CyNetwork network) {
+        return read(network, network.getNodeList(), network.getEdgeList());
+    }
+
+    /**
+     * Copies the given nodes and edges of a ScyNet network into an ExchangeGraph, keeping their order as ordinals.
+     * This allows to share ordinals with other per-network arrays, such as the VisibilityModel.
+     *
+     * @param network a network created by ScyNet
+     * @param nodes the nodes of the network
+     * @param edges the edges of the network, all of them between the given nodes
+     * @return the compact copy of the network
+     */
+    public static ExchangeGraph read(CyNetwork network, List<CyNode> nodes, List<CyEdge> edges) {
+        ExchangeGraph.Builder builder = new ExchangeGraph.Builder();
+        CyTable nodeTable = network.getDefaultNodeTable();
+        CyTable edgeTable = network.getDefaultEdgeTable();
+        boolean hasFlux = edgeTable.getColumn("flux") != null;
+        boolean hasFluxRange = edgeTable.getColumn("min flux") != null && edgeTable.getColumn("max flux") != null;
+        boolean hasCrossFed = nodeTable.getColumn("cross-fed") != null;
+
+        HashMap<CyNode, Integer> nodeOrdinals = new HashMap<>();
+        for (CyNode node : nodes) {
+            CyRow row = nodeTable.getRow(node.getSUID());
+            byte type = Objects.equals("community member", row.get("type", String.class)) ? ExchangeGraph.MEMBER : ExchangeGraph.METABOLITE;
+            int ordinal = builder.addNode(row.get("shared name", String.class), type, node.getSUID());
+            nodeOrdinals.put(node, ordinal);
+            Boolean crossFed = hasCrossFed ? row.get("cross-fed", Boolean.class) : null;
+            if (crossFed != null) {
+                builder.setCrossFed(ordinal, crossFed);
+            }
+        }
+        for (CyEdge edge : edges) {
+            CyRow row = edgeTable.getRow(edge.getSUID());
+            Double flux = hasFlux ? row.get("flux", Double.class) : null;
+            Double minFlux = hasFluxRange ? row.get("min flux", Double.class) : null;
+            Double maxFlux = hasFluxRange ? row.get("max flux", Double.class) : null;
+            builder.addEdge(nodeOrdinals.get(edge.getSource()), nodeOrdinals.get(edge.getTarget()),
+                    row.get("name", String.class), flux, minFlux, maxFlux, edge.getSUID());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the number of table cells read() reads for the given number of nodes and edges of the network
+     */
+    static int countCellReads(CyNetwork network, int nodes, int edges) {
+        CyTable nodeTable = network.getDefaultNodeTable();
+        CyTable edgeTable = network.getDefaultEdgeTable();
+        int nodeReads = nodeTable.getColumn("cross-fed") != null ? 3 : 2;
+        int edgeReads = 1;
+        if (edgeTable.getColumn("flux") != null) {
+            edgeReads++;
+        }
+        if (edgeTable.getColumn("min flux") != null && edgeTable.getColumn("max flux") != null) {
+            edgeReads += 2;
+        }
+        return nodes * nodeReads + edges * edgeReads;
+    }
+}
@@ -0,0 +1,164 @@
+package org.scynet;
+
+import org.cytoscape.event.CyEventHelper;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.presentation.property.ArrowShapeVisualProperty;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+import org.cytoscape.view.presentation.property.NodeShapeVisualProperty;
+import org.cytoscape.view.presentation.property.values.Justification;
+import org.cytoscape.view.presentation.property.values.ObjectPosition;
+import org.cytoscape.view.presentation.property.values.Position;
+import org.cytoscape.work.AbstractTask;
+import org.cytoscape.work.TaskMonitor;
+
+import javax.swing.plaf.ColorUIResource;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+/**
+ * Expands an edge of a community overview network into the exchange metabolites it consists of. The producing
+ * member is connected to each metabolite and each metabolite to the consuming member, and the aggregated edge is
+ * hidden. Metabolites that were already expanded from another edge are reused.
+ */
+public class ExpandOverviewEdgeTask extends AbstractTask {
+
+	private final Logger logger;
+	private final View<CyEdge> edgeView;
+	private final CyNetworkView view;
+	private final CyEventHelper eventHelper;
+
+	public ExpandOverviewEdgeTask(View<CyEdge> edgeView, CyNetworkView view, CyEventHelper eventHelper) {
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+		this.edgeView = edgeView;
+		this.view = view;
+		this.eventHelper = eventHelper;
+	}
+
+	@Override
+	public void run(TaskMonitor taskMonitor) {
+		CyNetwork overviewNetwork = view.getModel();
+		CyEdge overviewEdge = edgeView.getModel();
+		CyRow edgeRow = overviewNetwork.getDefaultEdgeTable().getRow(overviewEdge.getSUID());
+		List<String> metaboliteNames = edgeRow.getList("metabolites", String.class);
+		List<Double> metaboliteFluxes = edgeRow.getList("metabolite fluxes", Double.class);
+		if (metaboliteNames == null || metaboliteNames.isEmpty()) {
+			logger.warn("The selected edge is not a community overview edge. Nothing to do.");
+			return;
+		}
+
+		// Metabolites already present from earlier expansions
+		HashMap<String, CyNode> metaboliteNodes = new HashMap<>();
+		for (CyNode node : overviewNetwork.getNodeList()) {
+			CyRow row = overviewNetwork.getDefaultNodeTable().getRow(node.getSUID());
+			if (Objects.equals("exchange metabolite", row.get("type", String.class))) {
+				metaboliteNodes.put(row.get("shared name", String.class), node);
+			}
+		}
+
+		CyNode producer = overviewEdge.getSource();
+		CyNode consumer = overviewEdge.getTarget();
+		List<CyNode> addedNodes = new ArrayList<>();
+		List<CyEdge> addedEdges = new ArrayList<>();
+		for (int i = 0; i < metaboliteNames.size(); i++) {
+			String metaboliteName = metaboliteNames.get(i);
+			Double flux = metaboliteFluxes == null ? null : metaboliteFluxes.get(i);
+			CyNode metaboliteNode = metaboliteNodes.get(metaboliteName);
+			if (metaboliteNode == null) {
+				metaboliteNode = overviewNetwork.addNode();
+				CyRow row = overviewNetwork.getDefaultNodeTable().getRow(metaboliteNode.getSUID());
+				row.set("name", metaboliteName);
+				row.set("shared name", metaboliteName);
+				row.set("type", "exchange metabolite");
+				metaboliteNodes.put(metaboliteName, metaboliteNode);
+				addedNodes.add(metaboliteNode);
+			}
+			addedEdges.addAll(connect(overviewNetwork, producer, metaboliteNode, flux));
+			addedEdges.addAll(connect(overviewNetwork, metaboliteNode, consumer, flux));
+		}
+
+		// Make sure the views of the new nodes and edges exist before styling them
+		eventHelper.flushPayloadEvents();
+		edgeView.setLockedValue(BasicVisualLexicon.EDGE_VISIBLE, false);
+
+		View<CyNode> producerView = view.getNodeView(producer);
+		View<CyNode> consumerView = view.getNodeView(consumer);
+		double x1 = producerView.getVisualProperty(BasicVisualLexicon.NODE_X_LOCATION);
+		double y1 = producerView.getVisualProperty(BasicVisualLexicon.NODE_Y_LOCATION);
+		double x2 = consumerView.getVisualProperty(BasicVisualLexicon.NODE_X_LOCATION);
+		double y2 = consumerView.getVisualProperty(BasicVisualLexicon.NODE_Y_LOCATION);
+		double length = Math.max(1.0d, Math.hypot(x2 - x1, y2 - y1));
+		// Unit vector perpendicular to the member - member line
+		double normalX = -(y2 - y1) / length;
+		double normalY = (x2 - x1) / length;
+		int sizeMetaboliteNode = 32;
+
+		Paint metabolitePaint = new ColorUIResource(new Color(223,194,125, 175));
+		Paint metaboliteBorderPaint = new ColorUIResource(new Color(255,255,255, 255));
+		ObjectPosition labelPosition = new ObjectPosition(Position.NORTH_EAST, Position.NORTH_WEST, Justification.JUSTIFY_CENTER, 0.0d, 0.0d);
+		for (int i = 0; i < addedNodes.size(); i++) {
+			View<CyNode> nodeView = view.getNodeView(addedNodes.get(i));
+			if (nodeView == null) {
+				continue;
+			}
+			double offset = (i - (addedNodes.size() - 1) / 2.0d) * 1.5d * sizeMetaboliteNode;
+			nodeView.setVisualProperty(BasicVisualLexicon.NODE_X_LOCATION, (x1 + x2) / 2.0d + normalX * offset);
+			nodeView.setVisualProperty(BasicVisualLexicon.NODE_Y_LOCATION, (y1 + y2) / 2.0d + normalY * offset);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_LABEL_POSITION, labelPosition);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_BORDER_WIDTH, 10.0d);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_BORDER_PAINT, metaboliteBorderPaint);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_FILL_COLOR, metabolitePaint);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_WIDTH, (double) sizeMetaboliteNode);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_HEIGHT, (double) sizeMetaboliteNode);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_LABEL, overviewNetwork.getDefaultNodeTable().getRow(addedNodes.get(i).getSUID()).get("shared name", String.class));
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_LABEL_FONT_SIZE, 22);
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_SHAPE, NodeShapeVisualProperty.ELLIPSE);
+		}
+
+		Paint edgePaint = new Color(253,174,97, 175);
+		for (CyEdge addedEdge : addedEdges) {
+			View<CyEdge> addedEdgeView = view.getEdgeView(addedEdge);
+			if (addedEdgeView == null) {
+				continue;
+			}
+			addedEdgeView.setLockedValue(BasicVisualLexicon.EDGE_WIDTH, 10.0d);
+			addedEdgeView.setLockedValue(BasicVisualLexicon.EDGE_PAINT, edgePaint);
+			addedEdgeView.setLockedValue(BasicVisualLexicon.EDGE_TARGET_ARROW_SHAPE, ArrowShapeVisualProperty.DELTA);
+		}
+		view.updateView();
+		logger.info("Expanded overview edge into " + metaboliteNames.size() + " metabolites.");
+	}
+
+	/**
+	 * Connects two nodes unless they are already connected in this direction and sets the flux of the edge. The flux
+	 * of an existing edge is overwritten, so that expanding an edge again shows its current metabolite fluxes.
+	 * @return the new edge, or an empty list if the nodes were already connected
+	 */
+	private List<CyEdge> connect(CyNetwork overviewNetwork, CyNode source, CyNode target, Double flux) {
+		List<CyEdge> created = new ArrayList<>();
+		for (CyEdge edge : overviewNetwork.getConnectingEdgeList(source, target, CyEdge.Type.DIRECTED)) {
+			if (Objects.equals(edge.getSource(), source)) {
+				overviewNetwork.getDefaultEdgeTable().getRow(edge.getSUID()).set("flux", flux);
+				return created;
+			}
+		}
+		CyEdge edge = overviewNetwork.addEdge(source, target, true);
+		CyRow row = overviewNetwork.getDefaultEdgeTable().getRow(edge.getSUID());
+		String sourceName = overviewNetwork.getDefaultNodeTable().getRow(source.getSUID()).get("shared name", String.class);
+		String targetName = overviewNetwork.getDefaultNodeTable().getRow(target.getSUID()).get("shared name", String.class);
+		row.set("name", sourceName + " -> " + targetName);
+		row.set("flux", flux);
+		created.add(edge);
+		return created;
+	}
+}
@@ -0,0 +1,32 @@
+package org.scynet;
+
+import org.cytoscape.event.CyEventHelper;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.task.AbstractEdgeViewTaskFactory;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+import org.cytoscape.work.TaskIterator;
+
+/**
+ * A task factory to expand an edge of a community overview network into its exchange metabolites.
+ */
+public class ExpandOverviewEdgeTaskFactory extends AbstractEdgeViewTaskFactory {
+	private final CyEventHelper eventHelper;
+
+	public ExpandOverviewEdgeTaskFactory(CyEventHelper eventHelper) {
+		this.eventHelper = eventHelper;
+	}
+
+	public TaskIterator createTaskIterator(View<CyEdge> edgeView, CyNetworkView networkView) {
+		return new TaskIterator(new ExpandOverviewEdgeTask(edgeView, networkView, eventHelper));
+	}
+
+	/**
+	 * Only edges of community overview networks can be expanded.
+	 */
+	@Override
+	public boolean isReady(View<CyEdge> edgeView, CyNetworkView networkView) {
+		return super.isReady(edgeView, networkView)
+				&& networkView.getModel().getDefaultEdgeTable().getColumn("metabolites") != null;
+	}
+}
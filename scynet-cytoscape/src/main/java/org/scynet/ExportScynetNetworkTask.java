@@ -0,0 +1,116 @@
+package org.scynet;
+
+import org.scynet.core.BinaryNetwork;
+import org.scynet.core.CrossFeedingEngine;
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.NetworkExport;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+/**
+ * Saves a ScyNet network with its fluxes, cross-feeding columns and node positions, so it can be shared without a
+ * Cytoscape session. Files ending in .scynet are written in the compact binary ScyNet format, which "Open ScyNet
+ * Network File" reloads without simplifying the model again; all other files are written as CX2 for NDEx and other
+ * tools. Both formats are streamed from a compact copy of the network, without building a document first.
+ * <p>
+ * As the command "scynet export", it returns the format, the size of the network and the size of the file.
+ */
+public class ExportScynetNetworkTask extends AbstractScynetCommandTask {
+
+	@Tunable(description = "Network view",
+			longDescription = "The view of a network created by ScyNet, by the name or SUID of its network, or current for the current view.",
+			exampleStringValue = "current", context = "nogui", required = true)
+	public CyNetworkView view;
+
+	@Tunable(description = "File (.cx2 or .scynet)",
+			longDescription = "The file to write; files ending in .scynet are written in the binary ScyNet format, all others as CX2.",
+			exampleStringValue = "koch_com_model.cx2",
+			params = "input=false;fileCategory=network", required = true)
+	public File file;
+
+	private final Logger logger;
+
+	public ExportScynetNetworkTask() {
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+	}
+
+	@Override
+	protected void execute(TaskMonitor monitor) throws IOException {
+		requireScynetView(view);
+		if (file == null) {
+			throw new IllegalArgumentException("No file given.");
+		}
+		monitor.setTitle("ScyNet export to " + file.getName());
+		CyNetwork network = view.getModel();
+		String name = network.getRow(network).get(CyNetwork.NAME, String.class);
+		List<CyNode> nodes = network.getNodeList();
+		List<CyEdge> edges = network.getEdgeList();
+		ExchangeGraph graph = ExchangeGraphReader.read(network, nodes, edges);
+
+		double[] x = new double[nodes.size()];
+		double[] y = new double[nodes.size()];
+		for (int node = 0; node < nodes.size(); node++) {
+			View<CyNode> nodeView = view.getNodeView(nodes.get(node));
+			x[node] = nodeView == null ? Double.NaN : nodeView.getVisualProperty(BasicVisualLexicon.NODE_X_LOCATION);
+			y[node] = nodeView == null ? Double.NaN : nodeView.getVisualProperty(BasicVisualLexicon.NODE_Y_LOCATION);
+		}
+
+		boolean binary = file.getName().toLowerCase(Locale.ROOT).endsWith(BinaryNetwork.EXTENSION);
+		if (binary) {
+			CyTable nodeTable = network.getDefaultNodeTable();
+			CyTable edgeTable = network.getDefaultEdgeTable();
+			String[] nodeNames = new String[nodes.size()];
+			for (int node = 0; node < nodes.size(); node++) {
+				nodeNames[node] = nodeTable.getRow(nodes.get(node).getSUID()).get(CyNetwork.NAME, String.class);
+			}
+			String[] edgeSharedNames = new String[edges.size()];
+			for (int edge = 0; edge < edges.size(); edge++) {
+				edgeSharedNames[edge] = edgeTable.getRow(edges.get(edge).getSUID()).get("shared name", String.class);
+			}
+			new BinaryNetwork(name, graph, nodeNames, edgeSharedNames, x, y).write(file);
+		} else {
+			CrossFeedingEngine crossFeeding = hasFlux(graph) ? CrossFeedingEngine.compute(graph) : null;
+			try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+				new NetworkExport(name, graph, crossFeeding, x, y).writeCx2(writer);
+			}
+		}
+		logger.info("Exported " + name + " to " + file);
+
+		putView(view);
+		putResult("file", file.getAbsolutePath());
+		putResult("format", binary ? "scynet" : "cx2");
+		putResult("nodes", graph.getNodeCount());
+		putResult("edges", graph.getEdgeCount());
+		putResult("bytes", file.length());
+	}
+
+	private static boolean hasFlux(ExchangeGraph graph) {
+		for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+			if (!Double.isNaN(graph.getFlux(edge))) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,17 @@
+package org.scynet;
+
+import org.cytoscape.task.AbstractNetworkViewTaskFactory;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.TaskIterator;
+
+/**
+ * Creates the export task for the menu, for the view it was invoked on.
+ */
+public class ExportScynetNetworkTaskFactory extends AbstractNetworkViewTaskFactory {
+
+	public TaskIterator createTaskIterator(CyNetworkView networkView) {
+		ExportScynetNetworkTask task = new ExportScynetNetworkTask();
+		task.view = networkView;
+		return new TaskIterator(task);
+	}
+}
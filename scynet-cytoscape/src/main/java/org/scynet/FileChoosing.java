@@ -1,12 +1,14 @@
 package org.scynet;
 
+import org.scynet.core.FluxFile;
+
 import javax.swing.*;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Objects;
+import java.util.List;
 
 import org.cytoscape.application.CyUserLog;
 import org.apache.log4j.Logger;
@@ -55,42 +57,48 @@ public class FileChoosing {
             logger.warn("No file was selected or file was not read.");
             return tsvMap;
         }
-        String line = "";
         try {
-            // parsing a TSV file into BufferedReader class constructor
-            BufferedReader br = new BufferedReader(new FileReader(chosenFile));
-            boolean headerFound = false;
-            this.isFva = false;
-            while ((line = br.readLine()) != null)
-            {
-                String[] values = line.split("\t", 0);
-                if (!Objects.equals(values[0], "reaction_id")  && headerFound && !isFva) {
-                    String key = values[0];
-                    tsvMap.put(key, Double.parseDouble(values[1]));
-                } else if (!Objects.equals(values[0], "reaction_id")  && headerFound && isFva) {
-                    String key = values[0];
-                    tsvMap.put(key + "_min", Double.parseDouble(values[1]));
-                    tsvMap.put(key + "_max", Double.parseDouble(values[2]));
-                } else if (!headerFound && Objects.equals(values[0], "reaction_id")) {
-                    headerFound = true;
-                    if (Objects.equals(values[1], "flux")){
-                        isFva = false;
-                        logger.info("File contains single flux values.");
-                    } else if (values.length > 2 && Objects.equals(values[1], "min_flux") && Objects.equals(values[2], "max_flux")) {
-                        isFva = true;
-                        logger.info("File contains flux ranges.");
-                    }
-                    else {
-                        logger.error("File could not be parsed due to incompatible formatting.");
-                        return tsvMap;  // Wrong formatting
-                    }
-                }
-
-            }
+            FluxFile fluxFile = FluxFile.read(chosenFile);
+            this.isFva = fluxFile.isFva();
+            logger.info(isFva ? "File contains flux ranges." : "File contains single flux values.");
+            tsvMap = fluxFile.getFluxMap();
+        }
+        catch (IllegalArgumentException e) {
+            logger.error(e.getMessage());  // Wrong formatting
         }
         catch (IOException e) {
             e.printStackTrace();
         }
         return tsvMap;
     }
+
+    /**
+     * Opens a JFileChooser where several flux files and directories can be selected. Directories are replaced by the
+     * TSV-files (ending in .tsv or .txt) they contain.
+     *
+     * @return the selected flux files, sorted by path within each directory. Empty if the dialog was cancelled.
+     */
+    public static List<File> chooseFluxFiles() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Choose the tab-delimited TSV-files or directories or press CANCEL");
+        chooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        chooser.setMultiSelectionEnabled(true);
+
+        List<File> files = new ArrayList<>();
+        if (chooser.showDialog(null, "Choose") != JFileChooser.APPROVE_OPTION) {
+            return files;
+        }
+        for (File selected : chooser.getSelectedFiles()) {
+            if (selected.isDirectory()) {
+                File[] contained = selected.listFiles((directory, name) -> name.endsWith(".tsv") || name.endsWith(".txt"));
+                if (contained != null) {
+                    Arrays.sort(contained);
+                    files.addAll(Arrays.asList(contained));
+                }
+            } else {
+                files.add(selected);
+            }
+        }
+        return files;
+    }
 }
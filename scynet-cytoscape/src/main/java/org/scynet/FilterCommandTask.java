@@ -0,0 +1,142 @@
+package org.scynet;
+
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.FilterEngine;
+
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+import org.cytoscape.work.undo.UndoSupport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The command "scynet filter": applies the filters of the ScyNet filter panel to the given view. Every filter left at
+ * its default does not filter, and a reset removes the filter of the view. Returns the number of passing nodes and
+ * edges and the number of nodes and edges whose visibility changed.
+ */
+public class FilterCommandTask extends AbstractScynetCommandTask {
+
+	/**
+	 * The names of the direction classes in the order of the FilterEngine constants
+	 */
+	private static final String[] DIRECTION_NAMES = {"efflux", "influx", "bidirectional", "zero", "none"};
+
+	@Tunable(description = "Network view",
+			longDescription = "The view of a network created by ScyNet, by the name or SUID of its network, or current for the current view.",
+			exampleStringValue = "current", required = true)
+	public CyNetworkView view;
+
+	@Tunable(description = "Minimal absolute flux",
+			longDescription = "Only edges with an absolute flux of at least this value pass. 0 does not filter.",
+			exampleStringValue = "0.5")
+	public double minFlux = 0.0d;
+
+	@Tunable(description = "Flux directions",
+			longDescription = "Comma separated direction classes of the edges that pass: efflux, influx, bidirectional, zero and none "
+					+ "(no flux data). Empty for all directions.",
+			exampleStringValue = "efflux,influx")
+	public String directions = "";
+
+	@Tunable(description = "Community members",
+			longDescription = "Comma separated names of the members whose edges pass. Empty for all members.",
+			exampleStringValue = "")
+	public String organisms = "";
+
+	@Tunable(description = "Metabolite name pattern",
+			longDescription = "A case insensitive regular expression found anywhere in the names of the metabolites that pass. Empty for all metabolites.",
+			exampleStringValue = "glc|ac")
+	public String metabolitePattern = "";
+
+	@Tunable(description = "Only cross-fed metabolites",
+			longDescription = "Whether only cross-fed metabolites pass.",
+			exampleStringValue = "false")
+	public boolean crossFedOnly = false;
+
+	@Tunable(description = "Reset",
+			longDescription = "Whether to remove the filter of the view instead; all other filters are ignored.",
+			exampleStringValue = "false")
+	public boolean reset = false;
+
+	private final UndoSupport undoSupport;
+
+	public FilterCommandTask(UndoSupport undoSupport) {
+		this.undoSupport = undoSupport;
+	}
+
+	@Override
+	protected void execute(TaskMonitor monitor) {
+		requireScynetView(view);
+		VisibilityModel model = ScynetNetworkState.forNetwork(view.getModel()).getVisibilityModel(view);
+		putView(view);
+		VisibilityModel.Checkpoint checkpoint = model.checkpoint();
+		if (reset) {
+			int changed = model.clearFilter();
+			view.updateView();
+			VisibilityEdit.post(undoSupport, "Reset ScyNet Filter", model, checkpoint);
+			putResult("passingEdges", model.getEdgeCount());
+			putResult("elements", changed);
+			return;
+		}
+
+		// Parse everything before the filter is changed, so invalid input leaves the view as it is
+		int directionMask = parseDirections(directions);
+		Pattern pattern = metabolitePattern == null || metabolitePattern.isEmpty() ? null : Pattern.compile(metabolitePattern, Pattern.CASE_INSENSITIVE);
+		List<String> memberNames = splitList(organisms);
+
+		ExchangeGraph graph = ExchangeGraphReader.read(view.getModel(), model.getNodes(), model.getEdges());
+		Boolean fluxRanges = ScynetNetworkState.forNetwork(view.getModel()).getFluxRanges(view);
+		FilterEngine engine = fluxRanges == null ? new FilterEngine(graph) : new FilterEngine(graph, fluxRanges);
+		engine.setFluxThreshold(minFlux);
+		engine.setDirectionClasses(directionMask);
+		engine.setOrganisms(memberNames);
+		engine.setMetabolitePattern(pattern);
+		engine.setCrossFedOnly(crossFedOnly);
+		BitSet nodeMask = engine.getNodeMask();
+		BitSet edgeMask = engine.getEdgeMask();
+		int changed = model.setFilter(nodeMask, edgeMask);
+		view.updateView();
+		VisibilityEdit.post(undoSupport, "Filter ScyNet Network", model, checkpoint);
+
+		putResult("passingNodes", nodeMask.cardinality());
+		putResult("passingEdges", edgeMask.cardinality());
+		putResult("elements", changed);
+	}
+
+	/**
+	 * @return the FilterEngine direction mask of a comma separated list of direction names, all directions if it is empty
+	 */
+	private static int parseDirections(String directions) {
+		List<String> names = splitList(directions);
+		if (names.isEmpty()) {
+			return FilterEngine.ALL_DIRECTIONS;
+		}
+		int mask = 0;
+		for (String name : names) {
+			int direction = Arrays.asList(DIRECTION_NAMES).indexOf(name.toLowerCase(Locale.ROOT));
+			if (direction < 0) {
+				throw new IllegalArgumentException("Unknown flux direction " + name + ", expected one of " + String.join(", ", DIRECTION_NAMES) + ".");
+			}
+			mask |= 1 << direction;
+		}
+		return mask;
+	}
+
+	private static List<String> splitList(String list) {
+		List<String> elements = new ArrayList<>();
+		if (list == null) {
+			return elements;
+		}
+		for (String element : list.split(",")) {
+			if (!element.trim().isEmpty()) {
+				elements.add(element.trim());
+			}
+		}
+		return elements;
+	}
+}
@@ -0,0 +1,258 @@
+package org.scynet;
+
+import org.scynet.core.FluxPlayback;
+import org.scynet.core.FluxTimeSeries;
+import org.scynet.core.FrameTimeMetric;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.model.VisualProperty;
+import org.cytoscape.view.presentation.property.ArrowShapeVisualProperty;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+import org.cytoscape.view.presentation.property.values.ArrowShape;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.BitSet;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+/**
+ * A player for a flux time series on a ScyNet network view. Every frame only the edges whose style class, width or
+ * visibility differ from the previous frame are pushed to the view, the time per frame is reported by a
+ * FrameTimeMetric. Closing the player restores the edge styles from before the playback and the visibility of the
+ * edges it hid or showed. Only these edges are touched, so toggles and filters applied during the playback are kept.
+ */
+public class FluxPlaybackWindow extends JFrame {
+
+	private static final int DEFAULT_FRAME_RATE = 25;
+	/**
+	 * Edge colours per style class of FluxPlayback, taken from the ScyNet palette: influx, efflux, zero flux, default
+	 */
+	private static final Paint[] STYLE_PAINTS = {
+			new Color(128,205,193, 175),
+			new Color(253,174,97, 175),
+			new Color(100,100,100,175),
+			new Color(50,50,50,175)
+	};
+
+	private final Logger logger;
+	private final CyNetworkView view;
+	private final VisibilityModel model;
+	private final FluxPlayback playback;
+	private final FluxTimeSeries series;
+	private final View<CyEdge>[] edgeViews;
+	/**
+	 * Edges whose visibility was set by the playback, to be shown again on close unless hidden otherwise
+	 */
+	private final BitSet playedEdges;
+	private final SavedProperty<Paint> savedPaints;
+	private final SavedProperty<Double> savedWidths;
+	private final SavedProperty<ArrowShape> savedSourceArrows;
+	private final SavedProperty<ArrowShape> savedTargetArrows;
+	private final int[] changedEdges;
+
+	private final Timer timer;
+	private final JSlider frameSlider;
+	private final JSpinner frameRateSpinner;
+	private final JCheckBox loopBox;
+	private final JButton playButton;
+	private final JLabel frameLabel;
+	private final JLabel metricLabel;
+	private FrameTimeMetric metric;
+	private int currentFrame = -1;
+	/**
+	 * Set while the slider is moved by the timer, to not render the frame twice
+	 */
+	private boolean advancing = false;
+
+	@SuppressWarnings("unchecked")
+	public FluxPlaybackWindow(CyNetworkView view, VisibilityModel model, FluxPlayback playback, FluxTimeSeries series) {
+		super("ScyNet Flux Playback");
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+		this.view = view;
+		this.model = model;
+		this.playback = playback;
+		this.series = series;
+		this.changedEdges = new int[playback.getEdgeCount()];
+		this.edgeViews = new View[playback.getEdgeCount()];
+		this.playedEdges = new BitSet(playback.getEdgeCount());
+		for (int edge = 0; edge < edgeViews.length; edge++) {
+			edgeViews[edge] = view.getEdgeView(model.getEdge(edge));
+		}
+		this.savedPaints = new SavedProperty<>(BasicVisualLexicon.EDGE_PAINT);
+		this.savedWidths = new SavedProperty<>(BasicVisualLexicon.EDGE_WIDTH);
+		this.savedSourceArrows = new SavedProperty<>(BasicVisualLexicon.EDGE_SOURCE_ARROW_SHAPE);
+		this.savedTargetArrows = new SavedProperty<>(BasicVisualLexicon.EDGE_TARGET_ARROW_SHAPE);
+		this.metric = new FrameTimeMetric(1_000_000_000L / DEFAULT_FRAME_RATE, 120);
+
+		timer = new Timer(1000 / DEFAULT_FRAME_RATE, e -> advance());
+		frameSlider = new JSlider(0, Math.max(0, playback.getFrameCount() - 1), 0);
+		frameSlider.addChangeListener(e -> {
+			if (!advancing) {
+				renderFrame(frameSlider.getValue());
+			}
+		});
+		frameRateSpinner = new JSpinner(new SpinnerNumberModel(DEFAULT_FRAME_RATE, 1, 60, 1));
+		frameRateSpinner.addChangeListener(e -> {
+			int frameRate = (Integer) frameRateSpinner.getValue();
+			timer.setDelay(1000 / frameRate);
+			metric = new FrameTimeMetric(1_000_000_000L / frameRate, 120);
+		});
+		loopBox = new JCheckBox("Loop", true);
+		playButton = new JButton("Play");
+		playButton.addActionListener(e -> {
+			if (timer.isRunning()) {
+				pause();
+			} else {
+				metric.reset();
+				timer.start();
+				playButton.setText("Pause");
+			}
+		});
+		frameLabel = new JLabel(" ");
+		metricLabel = new JLabel(" ");
+
+		JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		controls.add(playButton);
+		controls.add(new JLabel("Frames per second:"));
+		controls.add(frameRateSpinner);
+		controls.add(loopBox);
+		JPanel labels = new JPanel(new GridLayout(0, 1));
+		labels.add(frameLabel);
+		labels.add(metricLabel);
+		getContentPane().setLayout(new BorderLayout());
+		getContentPane().add(frameSlider, BorderLayout.NORTH);
+		getContentPane().add(controls, BorderLayout.CENTER);
+		getContentPane().add(labels, BorderLayout.SOUTH);
+		setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+		addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent e) {
+				stopPlayback();
+			}
+		});
+		pack();
+
+		renderFrame(0);
+	}
+
+	private void advance() {
+		int next = currentFrame + 1;
+		if (next >= playback.getFrameCount()) {
+			if (!loopBox.isSelected()) {
+				pause();
+				return;
+			}
+			next = 0;
+		}
+		advancing = true;
+		frameSlider.setValue(next);
+		advancing = false;
+		renderFrame(next);
+	}
+
+	private void pause() {
+		timer.stop();
+		playButton.setText("Play");
+		if (metric.getFrameCount() > 0) {
+			logger.info("Flux playback frame times: " + metric.summary());
+		}
+	}
+
+	/**
+	 * Shows a frame, pushing only the edges that changed since the frame shown before.
+	 */
+	private void renderFrame(int frame) {
+		if (frame == currentFrame || playback.getFrameCount() == 0) {
+			return;
+		}
+		long start = System.nanoTime();
+		int count = playback.getChangedEdges(currentFrame, frame, changedEdges);
+		for (int i = 0; i < count; i++) {
+			int edge = changedEdges[i];
+			if (edgeViews[edge] == null) {
+				continue;
+			}
+			byte style = playback.getStyle(frame, edge);
+			if (currentFrame < 0 || style != playback.getStyle(currentFrame, edge)) {
+				View<CyEdge> edgeView = edgeViews[edge];
+				edgeView.setLockedValue(BasicVisualLexicon.EDGE_PAINT, STYLE_PAINTS[style]);
+				edgeView.setLockedValue(BasicVisualLexicon.EDGE_SOURCE_ARROW_SHAPE, style == FluxPlayback.INFLUX ? ArrowShapeVisualProperty.DELTA : ArrowShapeVisualProperty.NONE);
+				edgeView.setLockedValue(BasicVisualLexicon.EDGE_TARGET_ARROW_SHAPE, style == FluxPlayback.EFFLUX ? ArrowShapeVisualProperty.DELTA : ArrowShapeVisualProperty.NONE);
+				// Edges hidden by the user, a toggle or the filter stay hidden in all frames
+				if (model.mayShowEdge(edge)) {
+					model.setEdgeVisible(edge, playback.isVisible(frame, edge));
+					playedEdges.set(edge);
+				}
+			}
+			if (currentFrame < 0 || playback.getWidth(frame, edge) != playback.getWidth(currentFrame, edge)) {
+				edgeViews[edge].setLockedValue(BasicVisualLexicon.EDGE_WIDTH, playback.getWidth(frame, edge));
+			}
+		}
+		view.updateView();
+		currentFrame = frame;
+		long elapsed = System.nanoTime() - start;
+		metric.record(elapsed);
+
+		frameLabel.setText("Time point " + series.getTimePoint(frame) + " (" + (frame + 1) + " of " + playback.getFrameCount() + "), " + count + " edges changed");
+		metricLabel.setText((metric.isWithinBudget() ? "Within budget: " : "Over budget: ") + metric.summary());
+	}
+
+	/**
+	 * Stops the timer and restores the edge styles from before the playback. The edges the playback hid or showed
+	 * are shown again unless the user, a toggle or the filter hides them by now.
+	 */
+	private void stopPlayback() {
+		pause();
+		savedPaints.restore();
+		savedWidths.restore();
+		savedSourceArrows.restore();
+		savedTargetArrows.restore();
+		if (ScynetNetworkState.forNetwork(view.getModel()).getExistingVisibilityModel(view) == model) {
+			for (int edge = playedEdges.nextSetBit(0); edge >= 0; edge = playedEdges.nextSetBit(edge + 1)) {
+				model.setEdgeVisible(edge, model.mayShowEdge(edge));
+			}
+		}
+		view.updateView();
+	}
+
+	/**
+	 * The values of a visual property of all edges before the playback, and whether they were locked.
+	 */
+	private class SavedProperty<T> {
+		private final VisualProperty<T> property;
+		private final Object[] values;
+		private final BitSet locked;
+
+		SavedProperty(VisualProperty<T> property) {
+			this.property = property;
+			this.values = new Object[edgeViews.length];
+			this.locked = new BitSet(edgeViews.length);
+			for (int edge = 0; edge < edgeViews.length; edge++) {
+				if (edgeViews[edge] != null && edgeViews[edge].isValueLocked(property)) {
+					locked.set(edge);
+					values[edge] = edgeViews[edge].getVisualProperty(property);
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		void restore() {
+			for (int edge = 0; edge < edgeViews.length; edge++) {
+				if (edgeViews[edge] == null) {
+					continue;
+				}
+				if (locked.get(edge)) {
+					edgeViews[edge].setLockedValue(property, (T) values[edge]);
+				} else {
+					edgeViews[edge].clearValueLock(property);
+				}
+			}
+		}
+	}
+}
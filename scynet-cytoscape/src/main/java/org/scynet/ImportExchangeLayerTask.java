@@ -0,0 +1,203 @@
+package org.scynet;
+
+import org.scynet.core.CommunitySimplifier;
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.FluxFile;
+import org.scynet.core.MetabolicModel;
+import org.scynet.core.SbmlReader;
+import org.scynet.core.SimplifiedCommunity;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNetworkFactory;
+import org.cytoscape.model.CyNetworkManager;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.model.CyTableFactory;
+import org.cytoscape.model.CyTableManager;
+import org.cytoscape.model.subnetwork.CyRootNetwork;
+import org.cytoscape.model.subnetwork.CySubNetwork;
+import org.cytoscape.session.CyNetworkNaming;
+import org.cytoscape.view.layout.CyLayoutAlgorithmManager;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.CyNetworkViewFactory;
+import org.cytoscape.view.model.CyNetworkViewManager;
+import org.cytoscape.work.Task;
+import org.cytoscape.work.TaskIterator;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+/**
+ * Creates a simplified community network straight from an SBML file, without importing the community model with
+ * cy3sbml first. The file is streamed and only its exchange layer is kept: the species of the shared compartment and
+ * the reactions with any of them. The new network has the same node and edge columns as one created by "Create
+ * Simplified Community Network" and can be contextualized the same way.
+ * <p>
+ * As the command "scynet import", it returns the SUIDs of the new network and view, its size and the phases of the
+ * import.
+ */
+public class ImportExchangeLayerTask extends AbstractScynetCommandTask {
+
+	@Tunable(description = "SBML file of the community model",
+			longDescription = "An SBML level 3 community model with a shared exchange compartment, e.g. data/toy/koch_com_model.xml.",
+			exampleStringValue = "data/toy/koch_com_model.xml",
+			params = "input=true;fileCategory=network", required = true)
+	public File sbmlFile;
+
+	private final CyNetworkNaming cyNetworkNaming;
+	private final CyNetworkFactory cnf;
+	private final CyNetworkManager networkManager;
+	private final CyNetworkViewFactory cnvf;
+	private final CyNetworkViewManager networkViewManager;
+	private final CyLayoutAlgorithmManager cyLayoutAlgorithmManager;
+	private final CyTableFactory tableFactory;
+	private final CyTableManager tableManager;
+	private final Logger logger;
+
+	public ImportExchangeLayerTask(CyNetworkNaming cyNetworkNaming, CyNetworkFactory cnf, CyNetworkManager networkManager,
+								   CyNetworkViewFactory cnvf, CyNetworkViewManager networkViewManager, CyLayoutAlgorithmManager cyLayoutAlgorithmManager,
+			CyTableFactory tableFactory, CyTableManager tableManager) {
+		this.cyNetworkNaming = cyNetworkNaming;
+		this.cnf = cnf;
+		this.networkManager = networkManager;
+		this.cnvf = cnvf;
+		this.networkViewManager = networkViewManager;
+		this.cyLayoutAlgorithmManager = cyLayoutAlgorithmManager;
+		this.tableFactory = tableFactory;
+		this.tableManager = tableManager;
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+	}
+
+	@Override
+	protected void execute(TaskMonitor monitor) throws IOException {
+		if (sbmlFile == null) {
+			logger.warn("No SBML file was selected. Nothing to do.");
+			return;
+		}
+		if (!sbmlFile.isFile()) {
+			throw new IOException("The SBML file " + sbmlFile + " does not exist.");
+		}
+		monitor.setTitle("ScyNet import of " + sbmlFile.getName());
+		monitor.setProgress(0.0d);
+		monitor.showMessage(TaskMonitor.Level.INFO, "Reading the exchange layer");
+		PipelineMetrics metrics = new PipelineMetrics();
+		metrics.begin("read model");
+		MetabolicModel model = SbmlReader.readExchangeLayer(sbmlFile);
+		if (model.getSharedCompartment().isEmpty()) {
+			CreateNodes.showNoSharedCompartmentError(logger);
+			return;
+		}
+		metrics.end(model.getSpeciesCount(), model.getReactionCount());
+
+		monitor.setProgress(0.3d);
+		monitor.showMessage(TaskMonitor.Level.INFO, "Simplifying the network");
+		metrics.begin("simplify");
+		SimplifiedCommunity community = CommunitySimplifier.simplify(model);
+		metrics.end(community.getGraph().getNodeCount(), community.getGraph().getEdgeCount());
+
+		monitor.setProgress(0.5d);
+		monitor.showMessage(TaskMonitor.Level.INFO, "Creating nodes and edges");
+		metrics.begin("create network");
+		CyNetwork newNetwork = cnf.createNetwork();
+		String name = FluxFile.conditionName(sbmlFile);
+		CyRootNetwork rootNetwork = ((CySubNetwork) newNetwork).getRootNetwork();
+		if (rootNetwork != null) {
+			rootNetwork.getRow(rootNetwork).set(CyNetwork.NAME, "ScyNet: " + name);
+		}
+		newNetwork.getDefaultNetworkTable().getRow(newNetwork.getSUID()).set("name", cyNetworkNaming.getSuggestedNetworkTitle("ScyNet: " + name));
+		writeNetwork(community, newNetwork, metrics);
+		networkManager.addNetwork(newNetwork);
+
+		CyNetworkView view = cnvf.createNetworkView(newNetwork);
+		networkViewManager.addNetworkView(view);
+		metrics.end(newNetwork.getNodeCount(), newNetwork.getEdgeCount());
+
+		monitor.setProgress(0.7d);
+		monitor.showMessage(TaskMonitor.Level.INFO, "Styling nodes and edges");
+		new Aesthetics(newNetwork, view, false, new HashMap<String, Double>(), false, metrics);
+
+		monitor.setProgress(0.9d);
+		monitor.showMessage(TaskMonitor.Level.INFO, "Applying ScyNet layout");
+		TaskIterator layoutTasks = new ApplyScynetLayoutTaskFactory(cyLayoutAlgorithmManager).createTaskIterator(view);
+		Task layoutTask = layoutTasks.next();
+		metrics.begin("layout");
+		try {
+			layoutTask.run(monitor);
+		} catch (Exception e) {
+			throw new RuntimeException("Could not finish layout", e);
+		}
+		metrics.addViewWrites(CreateNetworkViewTask.countLayoutViewWrites(view));
+		metrics.end(newNetwork.getNodeCount(), newNetwork.getEdgeCount());
+
+		metrics.writeTable(newNetwork, tableFactory, tableManager);
+		String summary = String.format("Imported %d species and %d reactions of the exchange layer into %d nodes and %d edges%n%s",
+				model.getSpeciesCount(), model.getReactionCount(), community.getGraph().getNodeCount(), community.getGraph().getEdgeCount(),
+				metrics.summary());
+		logger.info(summary);
+		monitor.showMessage(TaskMonitor.Level.INFO, summary);
+
+		putView(view);
+		putResult("nodes", newNetwork.getNodeCount());
+		putResult("edges", newNetwork.getEdgeCount());
+		putMetrics(metrics);
+	}
+
+	/**
+	 * Adds the nodes and edges of the simplified network with the columns of CreateNodes and CreateEdges.
+	 */
+	private static void writeNetwork(SimplifiedCommunity community, CyNetwork newNetwork, PipelineMetrics metrics) {
+		ExchangeGraph graph = community.getGraph();
+		MetabolicModel model = community.getModel();
+		createColumns(newNetwork);
+		CyTable nodeTable = newNetwork.getDefaultNodeTable();
+		CyNode[] newNodes = new CyNode[graph.getNodeCount()];
+		for (int node = 0; node < graph.getNodeCount(); node++) {
+			newNodes[node] = newNetwork.addNode();
+			CyRow row = nodeTable.getRow(newNodes[node].getSUID());
+			metrics.set(row, "name", graph.getNodeName(node));
+			metrics.set(row, "shared name", community.getNodeSharedName(node));
+			metrics.set(row, "type", graph.isMember(node) ? "community member" : "exchange metabolite");
+		}
+
+		CyTable edgeTable = newNetwork.getDefaultEdgeTable();
+		for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+			int source = graph.getEdgeSource(edge);
+			int target = graph.getEdgeTarget(edge);
+			CyEdge newEdge = newNetwork.addEdge(newNodes[source], newNodes[target], true);
+			CyRow row = edgeTable.getRow(newEdge.getSUID());
+			metrics.set(row, "source", community.getNodeSharedName(source));
+			metrics.set(row, "target", community.getNodeSharedName(target));
+			metrics.set(row, "shared name", model.getReactionSharedName(community.getEdgeReaction(edge)));
+			metrics.set(row, "shared interaction", "EXPORT");
+			metrics.set(row, "name", graph.getEdgeName(edge));
+			metrics.set(row, "sbml id", graph.getEdgeName(edge));
+		}
+	}
+
+	/**
+	 * Creates the node and edge columns of CreateNodes and CreateEdges in a new network.
+	 */
+	static void createColumns(CyNetwork newNetwork) {
+		CyTable nodeTable = newNetwork.getDefaultNodeTable();
+		nodeTable.createColumn("type", String.class, true);
+		CrossFeedingColumns.createColumns(nodeTable);
+		CyTable edgeTable = newNetwork.getDefaultEdgeTable();
+		edgeTable.createColumn("source", String.class, true);
+		edgeTable.createColumn("target", String.class, true);
+		edgeTable.createColumn("edgeID", String.class, true);
+		edgeTable.createColumn("sbml id", String.class, true);
+		edgeTable.createColumn("flux", Double.class, true);
+		edgeTable.createColumn("min flux", Double.class, true);
+		edgeTable.createColumn("max flux", Double.class, true);
+		edgeTable.createColumn("stoichiometry", Double.class, true);
+		edgeTable.createColumn("reverse", Boolean.class, true);
+	}
+}
@@ -0,0 +1,44 @@
+package org.scynet;
+
+import org.cytoscape.model.CyNetworkFactory;
+import org.cytoscape.model.CyNetworkManager;
+import org.cytoscape.model.CyTableFactory;
+import org.cytoscape.model.CyTableManager;
+import org.cytoscape.session.CyNetworkNaming;
+import org.cytoscape.view.layout.CyLayoutAlgorithmManager;
+import org.cytoscape.view.model.CyNetworkViewFactory;
+import org.cytoscape.view.model.CyNetworkViewManager;
+import org.cytoscape.work.AbstractTaskFactory;
+import org.cytoscape.work.TaskIterator;
+
+/**
+ * A task factory to create a simplified community network straight from an SBML file.
+ */
+public class ImportExchangeLayerTaskFactory extends AbstractTaskFactory {
+
+	private final CyNetworkNaming cyNetworkNaming;
+	private final CyNetworkFactory cnf;
+	private final CyNetworkManager networkManager;
+	private final CyNetworkViewFactory cnvf;
+	private final CyNetworkViewManager networkViewManager;
+	private final CyLayoutAlgorithmManager cyLayoutAlgorithmManager;
+	private final CyTableFactory tableFactory;
+	private final CyTableManager tableManager;
+
+	public ImportExchangeLayerTaskFactory(CyNetworkNaming cyNetworkNaming, CyNetworkFactory cnf, CyNetworkManager networkManager,
+										  CyNetworkViewFactory cnvf, CyNetworkViewManager networkViewManager, CyLayoutAlgorithmManager cyLayoutAlgorithmManager,
+			CyTableFactory tableFactory, CyTableManager tableManager) {
+		this.cyNetworkNaming = cyNetworkNaming;
+		this.cnf = cnf;
+		this.networkManager = networkManager;
+		this.cnvf = cnvf;
+		this.networkViewManager = networkViewManager;
+		this.cyLayoutAlgorithmManager = cyLayoutAlgorithmManager;
+		this.tableFactory = tableFactory;
+		this.tableManager = tableManager;
+	}
+
+	public TaskIterator createTaskIterator() {
+		return new TaskIterator(new ImportExchangeLayerTask(cyNetworkNaming, cnf, networkManager, cnvf, networkViewManager, cyLayoutAlgorithmManager, tableFactory, tableManager));
+	}
+}
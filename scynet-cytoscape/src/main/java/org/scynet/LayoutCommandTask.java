@@ -0,0 +1,49 @@
+package org.scynet;
+
+import org.scynet.core.LayoutResult;
+
+import org.cytoscape.view.layout.CyLayoutAlgorithmManager;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.TaskIterator;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+
+/**
+ * The command "scynet layout": applies the ScyNet layout to the given view, in full or incrementally. Returns the
+ * number of laid out nodes and members and the number of nodes that were moved.
+ */
+public class LayoutCommandTask extends AbstractScynetCommandTask {
+
+	@Tunable(description = "Network view",
+			longDescription = "The view of a network created by ScyNet, by the name or SUID of its network, or current for the current view.",
+			exampleStringValue = "current", required = true)
+	public CyNetworkView view;
+
+	@Tunable(description = "Incremental",
+			longDescription = "Whether to only move the nodes whose ring changed since the previous ScyNet layout of the view. "
+					+ "Falls back to the full layout if there is none or the members changed.",
+			exampleStringValue = "true")
+	public boolean incremental = false;
+
+	private final CyLayoutAlgorithmManager cyLayoutAlgorithmManager;
+
+	public LayoutCommandTask(CyLayoutAlgorithmManager cyLayoutAlgorithmManager) {
+		this.cyLayoutAlgorithmManager = cyLayoutAlgorithmManager;
+	}
+
+	@Override
+	protected void execute(TaskMonitor monitor) throws Exception {
+		requireScynetView(view);
+		TaskIterator layoutTasks = new ApplyScynetLayoutTaskFactory(cyLayoutAlgorithmManager, incremental).createTaskIterator(view);
+		while (layoutTasks.hasNext()) {
+			layoutTasks.next().run(monitor);
+		}
+		view.updateView();
+
+		putView(view);
+		LayoutResult layout = ScynetNetworkState.forNetwork(view.getModel()).getLayout(view);
+		putResult("nodes", layout == null ? 0 : layout.getSnapshot().size());
+		putResult("members", layout == null ? 0 : layout.getMemberCount());
+		putResult("movedNodes", layout == null ? 0 : layout.getMovedCount());
+	}
+}
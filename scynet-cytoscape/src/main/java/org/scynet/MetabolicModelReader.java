@@ -0,0 +1,91 @@
+package org.scynet;
+
+import org.scynet.core.MetabolicModel;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads a community metabolic network imported by cy3sbml into a MetabolicModel. Every node row is read once and
+ * every edge row of the reactions once.
+ */
+public class MetabolicModelReader {
+
+    private MetabolicModelReader() {
+    }
+
+    /**
+     * Copies the species and reactions of a cy3sbml network into a MetabolicModel. The SUIDs are kept as species and
+     * reaction identifiers.
+     *
+     * @param network a network imported by cy3sbml
+     * @param sharedCompartment the id of the shared exchange compartment
+     * @param metrics counts the table cells read
+     * @return the compact copy of the model
+     */
+    public static MetabolicModel read(CyNetwork network, String sharedCompartment, PipelineMetrics metrics) {
+        MetabolicModel.Builder builder = new MetabolicModel.Builder().setSharedCompartment(sharedCompartment);
+        CyTable nodeTable = network.getDefaultNodeTable();
+        CyTable edgeTable = network.getDefaultEdgeTable();
+
+        HashMap<CyNode, Integer> speciesOrdinals = new HashMap<>();
+        List<CyNode> reactions = new ArrayList<>();
+        int reads = 0;
+        for (CyNode node : network.getNodeList()) {
+            CyRow row = nodeTable.getRow(node.getSUID());
+            String sbmlType = row.get("sbml type", String.class);
+            reads++;
+            if (Objects.equals(sbmlType, "species")) {
+                speciesOrdinals.put(node, builder.addSpecies(node.getSUID(), row.get("sbml id", String.class),
+                        row.get("shared name", String.class), row.get("sbml compartment", String.class)));
+                reads += 3;
+            } else if (Objects.equals(sbmlType, "reaction")) {
+                reactions.add(node);
+            }
+        }
+
+        for (CyNode reaction : reactions) {
+            List<Integer> reactants = new ArrayList<>();
+            List<Integer> products = new ArrayList<>();
+            List<Integer> others = new ArrayList<>();
+            for (CyEdge edge : network.getAdjacentEdgeList(reaction, CyEdge.Type.ANY)) {
+                CyNode neighbor = Objects.equals(edge.getSource(), reaction) ? edge.getTarget() : edge.getSource();
+                Integer species = speciesOrdinals.get(neighbor);
+                if (species == null) {
+                    continue;
+                }
+                String interactionType = edgeTable.getRow(edge.getSUID()).get("interaction type", String.class);
+                reads++;
+                if (Objects.equals(interactionType, "reaction-reactant")) {
+                    reactants.add(species);
+                } else if (Objects.equals(interactionType, "reaction-product")) {
+                    products.add(species);
+                } else {
+                    others.add(species);
+                }
+            }
+            CyRow row = nodeTable.getRow(reaction.getSUID());
+            builder.addReaction(reaction.getSUID(), row.get("sbml id", String.class), row.get("shared name", String.class),
+                    toArray(reactants), toArray(products), toArray(others));
+            reads += 2;
+        }
+        metrics.addTableReads(reads);
+        return builder.build();
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+}
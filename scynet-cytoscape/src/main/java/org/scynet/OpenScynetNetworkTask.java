@@ -0,0 +1,196 @@
+package org.scynet;
+
+import org.scynet.core.BinaryNetwork;
+import org.scynet.core.ExchangeGraph;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNetworkFactory;
+import org.cytoscape.model.CyNetworkManager;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.model.CyTableFactory;
+import org.cytoscape.model.CyTableManager;
+import org.cytoscape.model.subnetwork.CyRootNetwork;
+import org.cytoscape.model.subnetwork.CySubNetwork;
+import org.cytoscape.session.CyNetworkNaming;
+import org.cytoscape.view.layout.CyLayoutAlgorithmManager;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.CyNetworkViewFactory;
+import org.cytoscape.view.model.CyNetworkViewManager;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+import org.cytoscape.work.Task;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+/**
+ * Opens a network saved by "Export ScyNet Network" in the binary ScyNet format (.scynet). The network gets the columns
+ * and styling of a simplified network, its fluxes and the cross-feeding columns computed from them, and the saved
+ * node positions, so neither the simplification nor the layout run again. Only if some node has no saved position,
+ * the ScyNet layout is applied.
+ * <p>
+ * As the command "scynet open", it returns the SUIDs of the new network and view, its size and the phases of the
+ * import.
+ */
+public class OpenScynetNetworkTask extends AbstractScynetCommandTask {
+
+	@Tunable(description = "ScyNet network file",
+			longDescription = "A network saved in the binary ScyNet format, e.g. koch_com_model.scynet.",
+			exampleStringValue = "koch_com_model.scynet",
+			params = "input=true;fileCategory=network", required = true)
+	public File file;
+
+	private final CyNetworkNaming cyNetworkNaming;
+	private final CyNetworkFactory cnf;
+	private final CyNetworkManager networkManager;
+	private final CyNetworkViewFactory cnvf;
+	private final CyNetworkViewManager networkViewManager;
+	private final CyLayoutAlgorithmManager cyLayoutAlgorithmManager;
+	private final CyTableFactory tableFactory;
+	private final CyTableManager tableManager;
+	private final Logger logger;
+
+	public OpenScynetNetworkTask(CyNetworkNaming cyNetworkNaming, CyNetworkFactory cnf, CyNetworkManager networkManager,
+								 CyNetworkViewFactory cnvf, CyNetworkViewManager networkViewManager, CyLayoutAlgorithmManager cyLayoutAlgorithmManager,
+								 CyTableFactory tableFactory, CyTableManager tableManager) {
+		this.cyNetworkNaming = cyNetworkNaming;
+		this.cnf = cnf;
+		this.networkManager = networkManager;
+		this.cnvf = cnvf;
+		this.networkViewManager = networkViewManager;
+		this.cyLayoutAlgorithmManager = cyLayoutAlgorithmManager;
+		this.tableFactory = tableFactory;
+		this.tableManager = tableManager;
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+	}
+
+	@Override
+	protected void execute(TaskMonitor monitor) throws Exception {
+		if (file == null) {
+			logger.warn("No ScyNet network file was selected. Nothing to do.");
+			return;
+		}
+		if (!file.isFile()) {
+			throw new IOException("The ScyNet network file " + file + " does not exist.");
+		}
+		monitor.setTitle("Opening ScyNet network " + file.getName());
+		monitor.setProgress(0.0d);
+		PipelineMetrics metrics = new PipelineMetrics();
+		metrics.begin("read file");
+		BinaryNetwork saved = BinaryNetwork.read(file);
+		ExchangeGraph graph = saved.getGraph();
+		metrics.end(graph.getNodeCount(), graph.getEdgeCount());
+
+		monitor.setProgress(0.3d);
+		monitor.showMessage(TaskMonitor.Level.INFO, "Creating nodes and edges");
+		metrics.begin("create network");
+		CyNetwork newNetwork = cnf.createNetwork();
+		CyRootNetwork rootNetwork = ((CySubNetwork) newNetwork).getRootNetwork();
+		if (rootNetwork != null) {
+			rootNetwork.getRow(rootNetwork).set(CyNetwork.NAME, saved.getName());
+		}
+		newNetwork.getDefaultNetworkTable().getRow(newNetwork.getSUID()).set("name", cyNetworkNaming.getSuggestedNetworkTitle(saved.getName()));
+		CyNode[] newNodes = writeNetwork(saved, newNetwork, metrics);
+		boolean hasFlux = false;
+		for (int edge = 0; edge < graph.getEdgeCount() && !hasFlux; edge++) {
+			hasFlux = !Double.isNaN(graph.getFlux(edge));
+		}
+		if (hasFlux) {
+			CrossFeedingColumns.write(newNetwork, metrics);
+		}
+		networkManager.addNetwork(newNetwork);
+		CyNetworkView view = cnvf.createNetworkView(newNetwork);
+		networkViewManager.addNetworkView(view);
+		metrics.end(newNetwork.getNodeCount(), newNetwork.getEdgeCount());
+
+		monitor.setProgress(0.6d);
+		monitor.showMessage(TaskMonitor.Level.INFO, "Styling nodes and edges");
+		boolean isFva = saved.hasFluxRanges();
+		new Aesthetics(newNetwork, view, false, new HashMap<String, Double>(), isFva, metrics);
+		if (hasFlux) {
+			ScynetNetworkState.forNetwork(newNetwork).setFluxRanges(view, isFva);
+		}
+
+		monitor.setProgress(0.9d);
+		monitor.showMessage(TaskMonitor.Level.INFO, "Placing nodes");
+		metrics.begin("positions");
+		boolean allPlaced = true;
+		for (int node = 0; node < graph.getNodeCount(); node++) {
+			View<CyNode> nodeView = view.getNodeView(newNodes[node]);
+			if (Double.isNaN(saved.getX(node))) {
+				allPlaced = false;
+			} else if (nodeView != null) {
+				metrics.setVisualProperty(nodeView, BasicVisualLexicon.NODE_X_LOCATION, saved.getX(node));
+				metrics.setVisualProperty(nodeView, BasicVisualLexicon.NODE_Y_LOCATION, saved.getY(node));
+			}
+		}
+		if (!allPlaced) {
+			Task layoutTask = new ApplyScynetLayoutTaskFactory(cyLayoutAlgorithmManager).createTaskIterator(view).next();
+			layoutTask.run(monitor);
+			metrics.addViewWrites(CreateNetworkViewTask.countLayoutViewWrites(view));
+		}
+		view.fitContent();
+		view.updateView();
+		metrics.end(newNetwork.getNodeCount(), newNetwork.getEdgeCount());
+
+		metrics.writeTable(newNetwork, tableFactory, tableManager);
+		String summary = String.format("Opened %s with %d nodes and %d edges%n%s", file.getName(), graph.getNodeCount(), graph.getEdgeCount(), metrics.summary());
+		logger.info(summary);
+		monitor.showMessage(TaskMonitor.Level.INFO, summary);
+
+		putView(view);
+		putResult("nodes", newNetwork.getNodeCount());
+		putResult("edges", newNetwork.getEdgeCount());
+		putResult("layoutApplied", !allPlaced);
+		putMetrics(metrics);
+	}
+
+	/**
+	 * Adds the nodes and edges of the saved network with the columns of CreateNodes and CreateEdges and their fluxes.
+	 * @return the new nodes by ordinal of the saved network
+	 */
+	private static CyNode[] writeNetwork(BinaryNetwork saved, CyNetwork newNetwork, PipelineMetrics metrics) {
+		ExchangeGraph graph = saved.getGraph();
+		ImportExchangeLayerTask.createColumns(newNetwork);
+		CyTable nodeTable = newNetwork.getDefaultNodeTable();
+		CyNode[] newNodes = new CyNode[graph.getNodeCount()];
+		for (int node = 0; node < graph.getNodeCount(); node++) {
+			newNodes[node] = newNetwork.addNode();
+			CyRow row = nodeTable.getRow(newNodes[node].getSUID());
+			metrics.set(row, "name", saved.getNodeName(node));
+			metrics.set(row, "shared name", graph.getNodeName(node));
+			metrics.set(row, "type", graph.isMember(node) ? "community member" : "exchange metabolite");
+		}
+
+		CyTable edgeTable = newNetwork.getDefaultEdgeTable();
+		for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+			int source = graph.getEdgeSource(edge);
+			int target = graph.getEdgeTarget(edge);
+			CyEdge newEdge = newNetwork.addEdge(newNodes[source], newNodes[target], true);
+			CyRow row = edgeTable.getRow(newEdge.getSUID());
+			metrics.set(row, "source", graph.getNodeName(source));
+			metrics.set(row, "target", graph.getNodeName(target));
+			metrics.set(row, "shared name", saved.getEdgeSharedName(edge));
+			metrics.set(row, "shared interaction", "EXPORT");
+			metrics.set(row, "name", graph.getEdgeName(edge));
+			metrics.set(row, "sbml id", graph.getEdgeName(edge));
+			if (!Double.isNaN(graph.getFlux(edge))) {
+				metrics.set(row, "flux", graph.getFlux(edge));
+			}
+			if (graph.hasFluxRange(edge)) {
+				metrics.set(row, "min flux", graph.getMinFlux(edge));
+				metrics.set(row, "max flux", graph.getMaxFlux(edge));
+			}
+		}
+		return newNodes;
+	}
+}
@@ -0,0 +1,251 @@
+package org.scynet;
+
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.model.CyTableFactory;
+import org.cytoscape.model.CyTableManager;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.model.VisualProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records the wall time, the table cell reads and writes, the view property writes and the number of nodes and edges
+ * of every phase of a ScyNet pipeline run, e.g. creating a simplified network. The counters are incremented by the
+ * code of the phase itself, so they count exactly what ScyNet does, not what Cytoscape does in response. Cells and
+ * view properties are best read and written through get(), set(), setVisualProperty() and setLockedValue(), which
+ * count every access where it happens.
+ * <p>
+ * A run is confined to the thread of its task. Its phases can be written to the global "ScyNet Pipeline Metrics"
+ * table, which collects the phases of all runs, so runs on different models can be compared in the table panel.
+ */
+public class PipelineMetrics {
+
+    public static final String TABLE_NAME = "ScyNet Pipeline Metrics";
+
+    public static final String NETWORK = "network";
+    public static final String NETWORK_SUID = "network SUID";
+    public static final String PHASE = "phase";
+    public static final String WALL_TIME = "wall time ms";
+    public static final String TABLE_READS = "table reads";
+    public static final String TABLE_WRITES = "table writes";
+    public static final String VIEW_WRITES = "view writes";
+    public static final String NODES = "nodes";
+    public static final String EDGES = "edges";
+
+    private final List<Phase> phases = new ArrayList<>();
+    /**
+     * The phase currently running, null between phases
+     */
+    private Phase current;
+
+    /**
+     * Starts a phase, ending the current one if it was not ended.
+     */
+    public void begin(String name) {
+        if (current != null) {
+            end(0, 0);
+        }
+        current = new Phase(name, System.nanoTime());
+    }
+
+    /**
+     * Ends the current phase.
+     * @param nodes the number of nodes the phase worked on
+     * @param edges the number of edges the phase worked on
+     */
+    public void end(int nodes, int edges) {
+        if (current == null) {
+            return;
+        }
+        current.nanos = System.nanoTime() - current.nanos;
+        current.nodes = nodes;
+        current.edges = edges;
+        phases.add(current);
+        current = null;
+    }
+
+    /**
+     * Counts table cells read by the current phase. Calls outside of a phase are ignored.
+     */
+    public void addTableReads(int count) {
+        if (current != null) {
+            current.tableReads += count;
+        }
+    }
+
+    /**
+     * Counts table cells written by the current phase.
+     */
+    public void addTableWrites(int count) {
+        if (current != null) {
+            current.tableWrites += count;
+        }
+    }
+
+    /**
+     * Counts visual properties set on node or edge views by the current phase.
+     */
+    public void addViewWrites(int count) {
+        if (current != null) {
+            current.viewWrites += count;
+        }
+    }
+
+    /**
+     * Reads a table cell and counts it as a read of the current phase.
+     */
+    public <T> T get(CyRow row, String column, Class<T> type) {
+        addTableReads(1);
+        return row.get(column, type);
+    }
+
+    /**
+     * Sets a table cell and counts it as a write of the current phase.
+     */
+    public <T> void set(CyRow row, String column, T value) {
+        row.set(column, value);
+        addTableWrites(1);
+    }
+
+    /**
+     * Sets a visual property of a node or edge view and counts it as a view write of the current phase.
+     */
+    public <T, V extends T> void setVisualProperty(View<?> view, VisualProperty<? extends T> property, V value) {
+        view.setVisualProperty(property, value);
+        addViewWrites(1);
+    }
+
+    /**
+     * Locks a visual property of a node or edge view to a value and counts it as a view write of the current phase.
+     */
+    public <T, V extends T> void setLockedValue(View<?> view, VisualProperty<? extends T> property, V value) {
+        view.setLockedValue(property, value);
+        addViewWrites(1);
+    }
+
+    /**
+     * Get-function
+     * @return the ended phases in the order they ran
+     */
+    public List<Phase> getPhases() {
+        return phases;
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (Phase phase : phases) {
+            total += phase.nanos;
+        }
+        return total;
+    }
+
+    /**
+     * @return one line per phase and one for the total, for the task monitor and the log
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT, "ScyNet pipeline: %.1f ms in total", getTotalNanos() / 1e6));
+        for (Phase phase : phases) {
+            summary.append(String.format(Locale.ROOT, "%n  %s: %.1f ms, %d table reads, %d table writes, %d view writes, %d nodes, %d edges",
+                    phase.name, phase.nanos / 1e6, phase.tableReads, phase.tableWrites, phase.viewWrites, phase.nodes, phase.edges));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Appends one row per phase to the ScyNet Pipeline Metrics table, creating and registering the table on first use.
+     * @param network the network the run created or worked on
+     */
+    public void writeTable(CyNetwork network, CyTableFactory tableFactory, CyTableManager tableManager) {
+        CyTable table = getTable(tableFactory, tableManager);
+        String networkName = network.getRow(network).get(CyNetwork.NAME, String.class);
+        long key = table.getRowCount();
+        for (Phase phase : phases) {
+            while (table.rowExists(key)) {
+                key++;
+            }
+            CyRow row = table.getRow(key);
+            row.set(NETWORK, networkName);
+            row.set(NETWORK_SUID, network.getSUID());
+            row.set(PHASE, phase.name);
+            row.set(WALL_TIME, phase.nanos / 1e6);
+            row.set(TABLE_READS, phase.tableReads);
+            row.set(TABLE_WRITES, phase.tableWrites);
+            row.set(VIEW_WRITES, phase.viewWrites);
+            row.set(NODES, phase.nodes);
+            row.set(EDGES, phase.edges);
+        }
+    }
+
+    private static CyTable getTable(CyTableFactory tableFactory, CyTableManager tableManager) {
+        for (CyTable table : tableManager.getGlobalTables()) {
+            if (TABLE_NAME.equals(table.getTitle())) {
+                return table;
+            }
+        }
+        CyTable table = tableFactory.createTable(TABLE_NAME, "key", Long.class, true, true);
+        table.createColumn(NETWORK, String.class, true);
+        table.createColumn(NETWORK_SUID, Long.class, true);
+        table.createColumn(PHASE, String.class, true);
+        table.createColumn(WALL_TIME, Double.class, true);
+        table.createColumn(TABLE_READS, Integer.class, true);
+        table.createColumn(TABLE_WRITES, Integer.class, true);
+        table.createColumn(VIEW_WRITES, Integer.class, true);
+        table.createColumn(NODES, Integer.class, true);
+        table.createColumn(EDGES, Integer.class, true);
+        tableManager.addTable(table);
+        return table;
+    }
+
+    /**
+     * The measurements of one phase.
+     */
+    public static class Phase {
+        private final String name;
+        /**
+         * The start time while the phase runs, its duration once it ended
+         */
+        private long nanos;
+        private int tableReads;
+        private int tableWrites;
+        private int viewWrites;
+        private int nodes;
+        private int edges;
+
+        Phase(String name, long start) {
+            this.name = name;
+            this.nanos = start;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public int getTableReads() {
+            return tableReads;
+        }
+
+        public int getTableWrites() {
+            return tableWrites;
+        }
+
+        public int getViewWrites() {
+            return viewWrites;
+        }
+
+        public int getNodes() {
+            return nodes;
+        }
+
+        public int getEdges() {
+            return edges;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.scynet;
+
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.FluxPlayback;
+import org.scynet.core.FluxTimeSeries;
+
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyTableUtil;
+import org.cytoscape.task.AbstractNetworkViewTask;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.TaskMonitor;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+/**
+ * Reads a flux time series, precomputes the frames for the edges of a ScyNet network view and opens the player.
+ */
+public class PlayFluxTimeSeriesTask extends AbstractNetworkViewTask {
+
+	private final Logger logger;
+	/**
+	 * The time series file, null if none was chosen
+	 */
+	private final File timeSeriesFile;
+
+	public PlayFluxTimeSeriesTask(CyNetworkView view, File timeSeriesFile) {
+		super(view);
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+		this.timeSeriesFile = timeSeriesFile;
+	}
+
+	@Override
+	public void run(TaskMonitor taskMonitor) throws Exception {
+		if (view == null) {
+			logger.warn("No network view available for selected network. Nothing to do.");
+			return;
+		}
+		if (timeSeriesFile == null) {
+			logger.warn("No file was selected or file was not read.");
+			return;
+		}
+		CyNetwork network = view.getModel();
+		Set<String> columnNames = CyTableUtil.getColumnNames(network.getDefaultEdgeTable());
+		if (!columnNames.contains("sbml id")) {
+			logger.error("The selected network is not in ScyNet format.");
+			return;
+		}
+
+		taskMonitor.setTitle("Prepare flux playback");
+		taskMonitor.showMessage(TaskMonitor.Level.INFO, "Reading flux time series");
+		FluxTimeSeries series;
+		try {
+			series = FluxTimeSeries.read(timeSeriesFile);
+		} catch (IllegalArgumentException e) {
+			logger.error(e.getMessage());
+			return;
+		} catch (IOException e) {
+			throw new RuntimeException("Could not read the flux time series", e);
+		}
+		if (series.getFrameCount() == 0 || series.getReactionCount() == 0) {
+			logger.warn("No flux values in input file. Nothing to do.");
+			return;
+		}
+
+		taskMonitor.setProgress(0.5d);
+		taskMonitor.showMessage(TaskMonitor.Level.INFO, "Precomputing " + series.getFrameCount() + " frames");
+		VisibilityModel model = ScynetNetworkState.forNetwork(network).getVisibilityModel(view);
+		ExchangeGraph graph = ExchangeGraphReader.read(network, model.getNodes(), model.getEdges());
+		FluxPlayback playback;
+		try {
+			playback = new FluxPlayback(graph, series);
+		} catch (IllegalArgumentException e) {
+			logger.error(e.getMessage());
+			return;
+		}
+		logger.info("Loaded " + series.getFrameCount() + " time points of " + series.getReactionCount() + " reactions for " + graph.getEdgeCount() + " edges.");
+
+		SwingUtilities.invokeLater(() -> new FluxPlaybackWindow(view, model, playback, series).setVisible(true));
+	}
+}
@@ -0,0 +1,24 @@
+package org.scynet;
+
+import org.cytoscape.task.AbstractNetworkViewTaskFactory;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.TaskIterator;
+
+import javax.swing.*;
+import java.io.File;
+
+/**
+ * A task factory to play back a flux time series on a ScyNet network view.
+ */
+public class PlayFluxTimeSeriesTaskFactory extends AbstractNetworkViewTaskFactory {
+
+	public TaskIterator createTaskIterator(CyNetworkView networkView) {
+		JFileChooser chooser = new JFileChooser();
+		chooser.setDialogTitle("Choose the tab-delimited time series file or press CANCEL");
+		File timeSeriesFile = null;
+		if (chooser.showDialog(null, "Choose") == JFileChooser.APPROVE_OPTION) {
+			timeSeriesFile = chooser.getSelectedFile();
+		}
+		return new TaskIterator(new PlayFluxTimeSeriesTask(networkView, timeSeriesFile));
+	}
+}
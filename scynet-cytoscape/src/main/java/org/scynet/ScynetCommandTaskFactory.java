@@ -0,0 +1,25 @@
+package org.scynet;
+
+import org.cytoscape.work.AbstractTaskFactory;
+import org.cytoscape.work.TaskIterator;
+
+import java.util.function.Supplier;
+
+/**
+ * A task factory for a command of the "scynet" namespace. The command and its documentation are given by the
+ * properties it is registered with in CyActivator; every run gets a new task from the supplier, so the Tunables of one
+ * run do not leak into the next.
+ */
+public class ScynetCommandTaskFactory extends AbstractTaskFactory {
+
+	private final Supplier<AbstractScynetCommandTask> taskSupplier;
+
+	public ScynetCommandTaskFactory(Supplier<AbstractScynetCommandTask> taskSupplier) {
+		this.taskSupplier = taskSupplier;
+	}
+
+	@Override
+	public TaskIterator createTaskIterator() {
+		return new TaskIterator(taskSupplier.get());
+	}
+}
@@ -0,0 +1,448 @@
+package org.scynet;
+
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.FilterEngine;
+import org.scynet.core.ScynetEvents;
+
+import org.apache.log4j.Logger;
+import org.cytoscape.application.CyApplicationManager;
+import org.cytoscape.application.CyUserLog;
+import org.cytoscape.application.swing.CytoPanelComponent;
+import org.cytoscape.application.swing.CytoPanelName;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.undo.UndoSupport;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The ScyNet filter panel in the control panel. It filters the current ScyNet network view by flux threshold, flux
+ * direction class, community member, metabolite name and cross-feeding with a FilterEngine and pushes the result
+ * through the VisibilityModel of the view. The flux threshold slider re-filters on every drag event; filtering steps
+ * that take longer than a frame are logged. Every filter change is posted as an undoable edit, a slider drag as one
+ * edit once the slider is released and typing in the metabolite name field as one edit once Enter is pressed or the
+ * field loses the focus. The edits store the state of the controls before and after the change, so that
+ * undo and redo restore the controls and the filter engine together with the visibility.
+ */
+public class ScynetFilterPanel extends JPanel implements CytoPanelComponent {
+
+	/**
+	 * Time budget of one filtering step, the duration of a frame at 60 frames per second
+	 */
+	static final long FRAME_BUDGET_NANOS = 16_000_000L;
+	private static final int SLIDER_STEPS = 1000;
+	private static final String[] DIRECTION_LABELS = {"Efflux", "Influx", "Bidirectional (FVA)", "Zero flux", "No flux data"};
+
+	private final CyApplicationManager cyApplicationManager;
+	private final UndoSupport undoSupport;
+	private final Logger logger;
+
+	private final JSlider thresholdSlider;
+	private final JLabel thresholdLabel;
+	private final JCheckBox[] directionBoxes;
+	private final DefaultListModel<String> organismListModel;
+	private final JList<String> organismList;
+	private final JTextField metaboliteField;
+	private final JCheckBox crossFedBox;
+	private final JLabel statusLabel;
+
+	private CyNetworkView view;
+	private VisibilityModel model;
+	private int predicateVersion;
+	private FilterEngine engine;
+	/**
+	 * The state before the current slider drag or metabolite name input, or before the current change
+	 */
+	private VisibilityModel.Checkpoint checkpoint;
+	/**
+	 * The state of the controls at the checkpoint
+	 */
+	private Controls checkpointControls;
+	/**
+	 * The state of the controls last applied to the filter engine
+	 */
+	private Controls appliedControls;
+	/**
+	 * Set while the controls are filled from a newly bound network, to ignore their change events
+	 */
+	private boolean updatingControls = false;
+
+	public ScynetFilterPanel(CyApplicationManager cyApplicationManager, UndoSupport undoSupport) {
+		super(new BorderLayout());
+		this.cyApplicationManager = cyApplicationManager;
+		this.undoSupport = undoSupport;
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+
+		JPanel controls = new JPanel();
+		controls.setLayout(new BoxLayout(controls, BoxLayout.Y_AXIS));
+
+		thresholdSlider = new JSlider(0, SLIDER_STEPS, 0);
+		thresholdLabel = new JLabel("Minimal |flux|: 0");
+		thresholdSlider.addChangeListener(e -> refilter(() -> {
+			double threshold = sliderToThreshold(thresholdSlider.getValue());
+			thresholdLabel.setText("Minimal |flux|: " + String.format("%.4g", threshold));
+			engine.setFluxThreshold(threshold);
+		}, thresholdSlider.getValueIsAdjusting()));
+		controls.add(section("Flux threshold", thresholdLabel, thresholdSlider));
+
+		JPanel directionPanel = new JPanel(new GridLayout(0, 1));
+		directionBoxes = new JCheckBox[DIRECTION_LABELS.length];
+		for (int direction = 0; direction < DIRECTION_LABELS.length; direction++) {
+			directionBoxes[direction] = new JCheckBox(DIRECTION_LABELS[direction], true);
+			directionBoxes[direction].addActionListener(e -> refilter(() -> engine.setDirectionClasses(getDirectionMask()), false));
+			directionPanel.add(directionBoxes[direction]);
+		}
+		controls.add(section("Flux direction", directionPanel));
+
+		organismListModel = new DefaultListModel<>();
+		organismList = new JList<>(organismListModel);
+		organismList.setVisibleRowCount(6);
+		organismList.addListSelectionListener(e -> {
+			// A selection made by dragging or with modifier keys is reported again once it is complete
+			if (!e.getValueIsAdjusting()) {
+				refilter(() -> engine.setOrganisms(organismList.getSelectedValuesList()), false);
+			}
+		});
+		JButton allOrganismsButton = new JButton("Show All Members");
+		allOrganismsButton.addActionListener(e -> organismList.clearSelection());
+		controls.add(section("Community members (none selected: all)", new JScrollPane(organismList), allOrganismsButton));
+
+		metaboliteField = new JTextField();
+		metaboliteField.getDocument().addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				refilter(() -> engine.setMetabolitePattern(getMetabolitePattern()), true);
+			}
+
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				refilter(() -> engine.setMetabolitePattern(getMetabolitePattern()), true);
+			}
+
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+			}
+		});
+		metaboliteField.addActionListener(e -> postPendingEdit());
+		metaboliteField.addFocusListener(new FocusAdapter() {
+			@Override
+			public void focusLost(FocusEvent e) {
+				postPendingEdit();
+			}
+		});
+		crossFedBox = new JCheckBox("Only cross-fed metabolites");
+		crossFedBox.addActionListener(e -> refilter(() -> engine.setCrossFedOnly(crossFedBox.isSelected()), false));
+		controls.add(section("Metabolite name (regular expression)", metaboliteField, crossFedBox));
+
+		JButton reloadButton = new JButton("Reload Network");
+		reloadButton.addActionListener(e -> {
+			view = null;
+			refilter(() -> { }, false);
+		});
+		JButton resetButton = new JButton("Reset Filter");
+		resetButton.addActionListener(e -> resetFilter());
+		JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		buttons.add(reloadButton);
+		buttons.add(resetButton);
+		controls.add(buttons);
+
+		statusLabel = new JLabel(" ");
+		controls.add(statusLabel);
+
+		add(new JScrollPane(controls), BorderLayout.NORTH);
+	}
+
+	@Override
+	public Component getComponent() {
+		return this;
+	}
+
+	@Override
+	public CytoPanelName getCytoPanelName() {
+		return CytoPanelName.WEST;
+	}
+
+	@Override
+	public String getTitle() {
+		return "ScyNet Filter";
+	}
+
+	@Override
+	public Icon getIcon() {
+		return null;
+	}
+
+	/**
+	 * Applies a change of a filter control to the filter engine and pushes the changed visibility to the view.
+	 * @param continued whether the change is part of a slider drag or metabolite name input, which is posted as one
+	 *                  edit once it ends
+	 */
+	private void refilter(Runnable change, boolean continued) {
+		if (updatingControls || !bindCurrentView()) {
+			return;
+		}
+		if (checkpoint == null) {
+			checkpoint = model.checkpoint();
+			checkpointControls = appliedControls;
+		}
+		ScynetEvents.Toggle event = ScynetEvents.beginToggle();
+		long start = System.nanoTime();
+		change.run();
+		BitSet edgeMask = engine.getEdgeMask();
+		int changed = model.setFilter(engine.getNodeMask(), edgeMask);
+		view.updateView();
+		long elapsed = System.nanoTime() - start;
+		if (event != null) {
+			event.end();
+			if (event.shouldCommit()) {
+				event.operation = "Filter ScyNet Network";
+				event.elements = changed;
+				event.commit();
+			}
+		}
+		if (elapsed > FRAME_BUDGET_NANOS) {
+			logger.warn("Filtering " + model.getEdgeCount() + " edges took " + elapsed / 1_000_000 + " ms (" + changed + " changed elements), more than the frame budget of " + FRAME_BUDGET_NANOS / 1_000_000 + " ms.");
+		}
+		statusLabel.setText(edgeMask.cardinality() + " of " + model.getEdgeCount() + " edges pass the filter");
+		appliedControls = new Controls(this);
+		if (!continued) {
+			postPendingEdit();
+		}
+	}
+
+	/**
+	 * Posts the filter changes since the checkpoint as one edit, if there are any.
+	 */
+	private void postPendingEdit() {
+		if (checkpoint != null) {
+			postEdit("Filter ScyNet Network", checkpoint, checkpointControls, appliedControls);
+			checkpoint = null;
+		}
+	}
+
+	/**
+	 * Posts the changes of the model since the checkpoint as an undoable edit that restores the given states of the
+	 * controls on undo and redo.
+	 */
+	private void postEdit(String presentationName, VisibilityModel.Checkpoint before, Controls controlsBefore, Controls controlsAfter) {
+		VisibilityModel editModel = model;
+		VisibilityEdit.post(undoSupport, presentationName, editModel, before,
+				() -> restoreControls(editModel, controlsBefore), () -> restoreControls(editModel, controlsAfter));
+	}
+
+	/**
+	 * Sets the controls to a state stored with an edit after it was undone or redone, and the filter engine with them
+	 * if the panel is still bound to the model of the edit. Otherwise the controls are applied when the panel binds
+	 * to the view again.
+	 */
+	private void restoreControls(VisibilityModel editModel, Controls controls) {
+		if (controls == null) {
+			return;
+		}
+		updatingControls = true;
+		thresholdSlider.setValue(controls.threshold);
+		for (int direction = 0; direction < directionBoxes.length; direction++) {
+			directionBoxes[direction].setSelected((controls.directionMask & (1 << direction)) != 0);
+		}
+		ArrayList<Integer> selectedIndices = new ArrayList<>();
+		for (int index = 0; index < organismListModel.size(); index++) {
+			if (controls.organisms.contains(organismListModel.get(index))) {
+				selectedIndices.add(index);
+			}
+		}
+		organismList.setSelectedIndices(selectedIndices.stream().mapToInt(Integer::intValue).toArray());
+		metaboliteField.setText(controls.metabolitePattern);
+		crossFedBox.setSelected(controls.crossFedOnly);
+		updatingControls = false;
+		checkpoint = null;
+		if (editModel == model && engine != null) {
+			applyControls();
+			thresholdLabel.setText("Minimal |flux|: " + String.format("%.4g", engine.getFluxThreshold()));
+			statusLabel.setText(engine.getEdgeMask().cardinality() + " of " + model.getEdgeCount() + " edges pass the filter");
+			appliedControls = controls;
+		}
+	}
+
+	private void resetFilter() {
+		if (!bindCurrentView()) {
+			return;
+		}
+		postPendingEdit();
+		Controls controlsBefore = appliedControls;
+		updatingControls = true;
+		thresholdSlider.setValue(0);
+		thresholdLabel.setText("Minimal |flux|: 0");
+		for (JCheckBox directionBox : directionBoxes) {
+			directionBox.setSelected(true);
+		}
+		organismList.clearSelection();
+		metaboliteField.setText("");
+		crossFedBox.setSelected(false);
+		updatingControls = false;
+		engine = new FilterEngine(engine.getGraph(), engine.usesFluxRanges());
+		ScynetEvents.Toggle event = ScynetEvents.beginToggle();
+		VisibilityModel.Checkpoint resetCheckpoint = model.checkpoint();
+		model.clearFilter();
+		view.updateView();
+		appliedControls = new Controls(this);
+		postEdit("Reset ScyNet Filter", resetCheckpoint, controlsBefore, appliedControls);
+		VisibilityEdit.commitEvent(event, "Reset ScyNet Filter", model, resetCheckpoint);
+		statusLabel.setText(model.getEdgeCount() + " of " + model.getEdgeCount() + " edges pass the filter");
+	}
+
+	/**
+	 * Binds the panel to the current network view. The network is read again if the view changed or its flux data
+	 * was updated, and the current state of the controls is applied to the new filter engine.
+	 * @return whether there is a ScyNet network view to filter
+	 */
+	private boolean bindCurrentView() {
+		CyNetworkView currentView = cyApplicationManager.getCurrentNetworkView();
+		if (currentView == null) {
+			statusLabel.setText("No network view selected.");
+			return false;
+		}
+		CyNetwork network = currentView.getModel();
+		VisibilityModel currentModel = ScynetNetworkState.forNetwork(network).getVisibilityModel(currentView);
+		if (currentView == view && currentModel == model && currentModel.getPredicateVersion() == predicateVersion && engine != null) {
+			return true;
+		}
+		ExchangeGraph graph = ExchangeGraphReader.read(network, currentModel.getNodes(), currentModel.getEdges());
+		if (graph.getMemberCount() == 0) {
+			logger.warn("The current network was not created by ScyNet. Nothing to filter.");
+			statusLabel.setText("The current network was not created by ScyNet.");
+			view = null;
+			engine = null;
+			return false;
+		}
+		view = currentView;
+		model = currentModel;
+		checkpoint = null;
+		predicateVersion = currentModel.getPredicateVersion();
+		// The kind of flux the view was contextualized with, the range columns may be outdated after an FBA file
+		Boolean fluxRanges = ScynetNetworkState.forNetwork(network).getFluxRanges(currentView);
+		engine = fluxRanges == null ? new FilterEngine(graph) : new FilterEngine(graph, fluxRanges);
+		fillControls(graph);
+		applyControls();
+		appliedControls = new Controls(this);
+		return true;
+	}
+
+	/**
+	 * Sets the filters of the engine to the current state of the controls.
+	 */
+	private void applyControls() {
+		engine.setFluxThreshold(sliderToThreshold(thresholdSlider.getValue()));
+		engine.setDirectionClasses(getDirectionMask());
+		engine.setOrganisms(organismList.getSelectedValuesList());
+		engine.setMetabolitePattern(getMetabolitePattern());
+		engine.setCrossFedOnly(crossFedBox.isSelected());
+	}
+
+	/**
+	 * Fills the member list and enables the controls the network has data for, keeping the current selection.
+	 */
+	private void fillControls(ExchangeGraph graph) {
+		updatingControls = true;
+		java.util.List<String> selected = organismList.getSelectedValuesList();
+		organismListModel.clear();
+		ArrayList<Integer> selectedIndices = new ArrayList<>();
+		for (int node = 0; node < graph.getNodeCount(); node++) {
+			if (graph.isMember(node)) {
+				if (selected.contains(graph.getNodeName(node))) {
+					selectedIndices.add(organismListModel.size());
+				}
+				organismListModel.addElement(graph.getNodeName(node));
+			}
+		}
+		organismList.setSelectedIndices(selectedIndices.stream().mapToInt(Integer::intValue).toArray());
+		thresholdSlider.setEnabled(engine.getMaxAbsoluteFlux() > 0);
+		crossFedBox.setEnabled(graph.hasCrossFed());
+		if (!graph.hasCrossFed()) {
+			crossFedBox.setSelected(false);
+		}
+		updatingControls = false;
+	}
+
+	/**
+	 * Maps the slider position to a flux threshold on a logarithmic scale between the smallest and the largest
+	 * absolute flux, as fluxes usually span several orders of magnitude. Position 0 does not filter.
+	 */
+	private double sliderToThreshold(int position) {
+		if (position == 0 || engine == null) {
+			return 0.0d;
+		}
+		double min = engine.getMinPositiveAbsoluteFlux();
+		double max = engine.getMaxAbsoluteFlux();
+		if (min <= 0 || max <= min) {
+			return max;
+		}
+		return min * Math.pow(max / min, (position - 1) / (double) (SLIDER_STEPS - 1));
+	}
+
+	private int getDirectionMask() {
+		int mask = 0;
+		for (int direction = 0; direction < directionBoxes.length; direction++) {
+			if (directionBoxes[direction].isSelected()) {
+				mask |= 1 << direction;
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * @return the pattern of the metabolite name field, null if the field is empty or holds an invalid expression
+	 */
+	private Pattern getMetabolitePattern() {
+		String text = metaboliteField.getText();
+		if (text == null || text.isEmpty()) {
+			metaboliteField.setForeground(Color.BLACK);
+			return null;
+		}
+		try {
+			Pattern pattern = Pattern.compile(text, Pattern.CASE_INSENSITIVE);
+			metaboliteField.setForeground(Color.BLACK);
+			return pattern;
+		} catch (PatternSyntaxException e) {
+			metaboliteField.setForeground(Color.RED);
+			return null;
+		}
+	}
+
+	private static JPanel section(String title, Component... components) {
+		JPanel section = new JPanel();
+		section.setLayout(new BoxLayout(section, BoxLayout.Y_AXIS));
+		section.setBorder(BorderFactory.createTitledBorder(title));
+		for (Component component : components) {
+			section.add(component);
+		}
+		return section;
+	}
+
+	/**
+	 * The state of the filter controls at one point in time.
+	 */
+	private static class Controls {
+		private final int threshold;
+		private final int directionMask;
+		private final java.util.List<String> organisms;
+		private final String metabolitePattern;
+		private final boolean crossFedOnly;
+
+		private Controls(ScynetFilterPanel panel) {
+			this.threshold = panel.thresholdSlider.getValue();
+			this.directionMask = panel.getDirectionMask();
+			this.organisms = panel.organismList.getSelectedValuesList();
+			this.metabolitePattern = panel.metaboliteField.getText();
+			this.crossFedOnly = panel.crossFedBox.isSelected();
+		}
+	}
+}
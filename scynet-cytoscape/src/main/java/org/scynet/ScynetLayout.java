@@ -0,0 +1,254 @@
+package org.scynet;
+
+import org.scynet.core.LayoutCache;
+import org.scynet.core.LayoutResult;
+import org.scynet.core.LayoutSnapshot;
+import org.scynet.core.RingLayout;
+
+import org.cytoscape.application.CyApplicationManager;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyTableUtil;
+import org.cytoscape.view.layout.AbstractLayoutAlgorithm;
+import org.cytoscape.view.layout.AbstractLayoutTask;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.model.VisualProperty;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+import org.cytoscape.work.Task;
+import org.cytoscape.work.TaskIterator;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.undo.UndoSupport;
+
+import javax.swing.JDialog;
+
+import javax.swing.*;
+import java.util.*;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+public class ScynetLayout extends AbstractLayoutAlgorithm {
+	private final Logger logger;
+	/**
+	 * Creates a new MyLayout object.
+	 */
+
+	CyApplicationManager cyApplicationManager;
+	public ScynetLayout(UndoSupport undo, CyApplicationManager cyApplicationManager) {
+		super("scynetLayout","ScyNet Layout", undo);
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+		this.cyApplicationManager = cyApplicationManager;
+	}
+	
+	public TaskIterator createTaskIterator(CyNetworkView networkView, Object context, Set<View<CyNode>> nodesToLayOut, String attrName) {
+		final boolean incremental = context instanceof ScynetLayoutContext && ((ScynetLayoutContext) context).incremental;
+		Task task = new AbstractLayoutTask(toString(), networkView, nodesToLayOut, attrName, undoSupport) {
+			@Override
+			protected void doLayout(TaskMonitor taskMonitor) {
+				/*
+				Steps for the layout algorithm
+				1. Check if network is a scynet generated network
+				*/
+				CyNetwork network = networkView.getModel();
+				Set<String> columnNames = CyTableUtil.getColumnNames(network.getDefaultNodeTable());
+
+				if (!(columnNames.contains("type") && columnNames.contains("cross-fed"))) {
+					// Display a warning message that the network is not in the correct format
+					logger.error("The selected network is not in ScyNet format.");
+					JFrame frame = new JFrame();
+					JOptionPane pane = new JOptionPane(
+							"The selected network is not in ScyNet format. " +
+							"Please select a network created by ScyNet.",
+							JOptionPane.WARNING_MESSAGE
+					);
+					pane.setComponentOrientation(JOptionPane.getRootFrame().getComponentOrientation());
+					JDialog dialog = pane.createDialog(frame, "Error: Wrong Network Format");
+
+					dialog.setModal(false);
+					dialog.setVisible(true);
+				} else {
+					/*
+					2. Take a snapshot of the visible members and metabolites, partitioned into disconnected, single
+					connection, double connection and multi connection metabolites
+					3. Compute all coordinates on the snapshot, without touching the view
+					4. Apply the coordinates to the view in one pass. In incremental mode, only the segments that
+					changed since the previous layout of this view are recomputed and only moved nodes are written.
+					*/
+					long startTime = System.nanoTime();
+					ScynetNetworkState state = ScynetNetworkState.forNetwork(network);
+					// The visibility model keeps the fingerprint of the visible set up to date, the view is not scanned
+					VisibilityModel visibilityModel = state.getVisibilityModel(networkView);
+					long fingerprint = visibilityModel.getFingerprint();
+					LayoutCache.Entry cached = state.getLayoutCache().get(fingerprint);
+					// A full layout only restores layouts that were computed from scratch as well
+					if (cached != null && (incremental || !cached.isIncremental())) {
+						// The same nodes and edges were visible before, restore the positions computed back then
+						List<View<CyNode>> hiddenNodes = restoreLayout(network, networkView, cached, incremental ? Collections.<View<CyNode>>emptySet() : nodesToLayOut);
+						hideInVisibilityModel(visibilityModel, hiddenNodes);
+						state.setLayout(networkView, cached.getLayout());
+						logger.info(String.format("ScyNet layout of %d nodes restored from cache in %.1f ms",
+								cached.getLayout().getSnapshot().size(), (System.nanoTime() - startTime) / 1e6));
+						return;
+					}
+
+					List<View<CyNode>> disconnectedNodes = new ArrayList<>();
+					List<View<CyNode>> snapshotNodes = new ArrayList<>();
+					LayoutSnapshot snapshot = buildSnapshot(network, networkView, snapshotNodes, disconnectedNodes);
+					long snapshotTime = System.nanoTime();
+
+					LayoutResult previous = state.getLayout(networkView);
+					LayoutResult result;
+					boolean updated = incremental && previous != null;
+					if (updated) {
+						result = RingLayout.update(previous, snapshot);
+					} else {
+						result = RingLayout.compute(snapshot);
+					}
+					long computeTime = System.nanoTime();
+
+					applyLayout(result, snapshotNodes, disconnectedNodes, incremental ? Collections.<View<CyNode>>emptySet() : nodesToLayOut, true);
+					hideInVisibilityModel(visibilityModel, disconnectedNodes);
+					state.setLayout(networkView, result);
+					long applyTime = System.nanoTime();
+					logger.info(String.format("ScyNet layout of %d nodes (%d moved): snapshot %.1f ms, compute %.1f ms, apply %.1f ms",
+							snapshot.size(), result.getMovedCount(), (snapshotTime - startTime) / 1e6, (computeTime - snapshotTime) / 1e6, (applyTime - computeTime) / 1e6));
+
+					// Cache the layout for the visible set before and after hiding the disconnected metabolites
+					long[] hiddenNodes = new long[disconnectedNodes.size()];
+					for (int i = 0; i < hiddenNodes.length; i++) {
+						hiddenNodes[i] = disconnectedNodes.get(i).getModel().getSUID();
+					}
+					LayoutCache.Entry entry = new LayoutCache.Entry(result, hiddenNodes, updated);
+					state.getLayoutCache().put(fingerprint, entry);
+					state.getLayoutCache().put(visibilityModel.getFingerprint(), entry);
+				}
+			}
+		};
+		return new TaskIterator(task);
+	}
+
+	/**
+	 * Collects the visible nodes of the view into a LayoutSnapshot. Metabolites are classified by their number of
+	 * visible edges and keep their visible member neighbours.
+	 * @param snapshotNodes receives the node views in snapshot order
+	 * @param disconnectedNodes receives the visible metabolites without any visible edge
+	 */
+	static LayoutSnapshot buildSnapshot(CyNetwork network, CyNetworkView networkView, List<View<CyNode>> snapshotNodes, List<View<CyNode>> disconnectedNodes) {
+		LayoutSnapshot.Builder builder = new LayoutSnapshot.Builder();
+		HashMap<CyNode, Integer> memberOrdinals = new HashMap<>();
+		List<CyNode> metaboliteNodes = new ArrayList<>();
+		for (CyNode node : network.getNodeList()) {
+			View<CyNode> nodeView = networkView.getNodeView(node);
+			if (nodeView == null || !nodeView.getVisualProperty(BasicVisualLexicon.NODE_VISIBLE)) {
+				continue;
+			} else if (Objects.equals("community member", network.getDefaultNodeTable().getRow(node.getSUID()).get("type", String.class))) {
+				memberOrdinals.put(node, builder.addMember(node.getSUID()));
+				snapshotNodes.add(nodeView);
+			} else {
+				metaboliteNodes.add(node);
+			}
+		}
+
+		for (CyNode node : metaboliteNodes) {
+			int numVisibleEdges = 0;
+			int[] neighbors = {-1, -1};
+			int numNeighbors = 0;
+			for (CyEdge edge : network.getAdjacentEdgeList(node, CyEdge.Type.ANY)) {
+				View<CyEdge> edgeView = networkView.getEdgeView(edge);
+				if (edgeView == null || !edgeView.getVisualProperty(BasicVisualLexicon.EDGE_VISIBLE)) {
+					continue;
+				}
+				numVisibleEdges++;
+				CyNode neighbor = edge.getSource();
+				if (Objects.equals(neighbor, node)) {
+					neighbor = edge.getTarget();
+				}
+				Integer neighborOrdinal = memberOrdinals.get(neighbor);
+				if (neighborOrdinal != null && numNeighbors < 2) {
+					neighbors[numNeighbors++] = neighborOrdinal;
+				}
+			}
+			View<CyNode> nodeView = networkView.getNodeView(node);
+			if (numVisibleEdges == 0) {
+				disconnectedNodes.add(nodeView);
+			} else {
+				builder.addMetabolite(node.getSUID(), LayoutSnapshot.ringClassOfDegree(numVisibleEdges), neighbors[0], neighbors[1]);
+				snapshotNodes.add(nodeView);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Applies a cached layout, looking up the node views by SUID.
+	 * @return the views of the nodes hidden by the layout
+	 */
+	static List<View<CyNode>> restoreLayout(CyNetwork network, CyNetworkView networkView, LayoutCache.Entry cached, Set<View<CyNode>> nodesToLayOut) {
+		LayoutSnapshot snapshot = cached.getLayout().getSnapshot();
+		List<View<CyNode>> snapshotNodes = new ArrayList<>(snapshot.size());
+		for (int node = 0; node < snapshot.size(); node++) {
+			snapshotNodes.add(getNodeView(network, networkView, snapshot.getId(node)));
+		}
+		List<View<CyNode>> hiddenNodes = new ArrayList<>();
+		for (long suid : cached.getHiddenNodes()) {
+			View<CyNode> nodeView = getNodeView(network, networkView, suid);
+			if (nodeView != null) {
+				hiddenNodes.add(nodeView);
+			}
+		}
+		applyLayout(cached.getLayout(), snapshotNodes, hiddenNodes, nodesToLayOut, false);
+		return hiddenNodes;
+	}
+
+	/**
+	 * Keeps the visibility model of the view, and with it the fingerprint of the visible set, in line with the nodes
+	 * hidden by the layout.
+	 */
+	private static void hideInVisibilityModel(VisibilityModel visibilityModel, List<View<CyNode>> hiddenNodes) {
+		for (View<CyNode> nodeView : hiddenNodes) {
+			int ordinal = visibilityModel.getNodeOrdinal(nodeView.getModel());
+			if (ordinal >= 0) {
+				visibilityModel.setNodeVisible(ordinal, false);
+			}
+		}
+	}
+
+	private static View<CyNode> getNodeView(CyNetwork network, CyNetworkView networkView, long suid) {
+		CyNode node = network.getNode(suid);
+		return node == null ? null : networkView.getNodeView(node);
+	}
+
+	/**
+	 * Writes the computed positions to the node views, only those of the moved nodes if requested. Nodes to lay out
+	 * which are not part of the layout get a default position, metabolites without visible edges are hidden.
+	 */
+	static void applyLayout(LayoutResult result, List<View<CyNode>> snapshotNodes, List<View<CyNode>> disconnectedNodes, Set<View<CyNode>> nodesToLayOut, boolean onlyMoved) {
+		final VisualProperty<Double> xLoc = BasicVisualLexicon.NODE_X_LOCATION;
+		final VisualProperty<Double> yLoc = BasicVisualLexicon.NODE_Y_LOCATION;
+		Set<View<CyNode>> placed = new HashSet<>(snapshotNodes);
+		for (View<CyNode> nodeView : nodesToLayOut) {
+			if (!placed.contains(nodeView)) {
+				nodeView.setVisualProperty(xLoc, 10.0d);
+				nodeView.setVisualProperty(yLoc, 100.0d);
+			}
+		}
+		for (View<CyNode> nodeView : disconnectedNodes) {
+			nodeView.setLockedValue(BasicVisualLexicon.NODE_VISIBLE, false);
+		}
+		for (int node = 0; node < snapshotNodes.size(); node++) {
+			View<CyNode> nodeView = snapshotNodes.get(node);
+			if (nodeView == null || (onlyMoved && !result.isMoved(node))) {
+				continue;
+			}
+			nodeView.setVisualProperty(xLoc, result.getX(node));
+			nodeView.setVisualProperty(yLoc, result.getY(node));
+		}
+	}
+
+	@Override
+	public Object createLayoutContext() {
+		return new ScynetLayoutContext();
+	}
+}
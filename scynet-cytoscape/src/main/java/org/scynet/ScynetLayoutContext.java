@@ -0,0 +1,15 @@
+package org.scynet;
+
+import org.cytoscape.work.Tunable;
+
+/**
+ * Settings of the ScyNet layout.
+ */
+public class ScynetLayoutContext {
+
+	@Tunable(description = "Only move nodes whose ring changed since the last ScyNet layout",
+			longDescription = "If true, the member ring of the previous ScyNet layout of this view is kept and only the metabolites "
+					+ "whose number of visible edges changed are moved, together with the nodes of the same ring segment. "
+					+ "Falls back to a full layout if the visible members changed.")
+	public boolean incremental = false;
+}
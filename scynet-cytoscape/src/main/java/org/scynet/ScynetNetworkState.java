@@ -0,0 +1,149 @@
+package org.scynet;
+
+import org.scynet.core.LayoutCache;
+import org.scynet.core.LayoutResult;
+
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.view.model.CyNetworkView;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Derived data ScyNet keeps for a network between tasks, such as the layouts last applied to its views. The state is
+ * only weakly referenced by the network, it disappears together with the network or view it belongs to.
+ * <p>
+ * The layouts and flux kinds are saved in Cytoscape sessions by ScynetSessionFiles. Restored layouts are only decoded
+ * when they are first needed.
+ */
+public class ScynetNetworkState {
+
+    private static final Map<CyNetwork, ScynetNetworkState> states = new WeakHashMap<>();
+
+    /**
+     * The layout last applied to each view of the network
+     */
+    private final Map<CyNetworkView, LayoutResult> layouts = new WeakHashMap<>();
+    /**
+     * Layouts restored from a session that were not decoded yet, by view
+     */
+    private final Map<CyNetworkView, Supplier<LayoutResult>> pendingLayouts = new WeakHashMap<>();
+    /**
+     * Layouts of recently seen visible sets of the network
+     */
+    private final LayoutCache layoutCache = new LayoutCache(LayoutCache.DEFAULT_CAPACITY);
+    /**
+     * The visibility model of each view of the network
+     */
+    private final Map<CyNetworkView, VisibilityModel> visibilityModels = new WeakHashMap<>();
+    /**
+     * Whether each view was last styled with flux ranges (true) or single flux values (false)
+     */
+    private final Map<CyNetworkView, Boolean> fluxRanges = new WeakHashMap<>();
+
+    private ScynetNetworkState() {
+    }
+
+    /**
+     * Get-function for the state of a network, which is created on first use.
+     */
+    public static synchronized ScynetNetworkState forNetwork(CyNetwork network) {
+        return states.computeIfAbsent(network, key -> new ScynetNetworkState());
+    }
+
+    /**
+     * Get-function for the state of a network, without creating one.
+     * @return the state, or null if ScyNet did not keep any data for the network
+     */
+    public static synchronized ScynetNetworkState getExisting(CyNetwork network) {
+        return states.get(network);
+    }
+
+    /**
+     * Get-function for the layout last applied to a view. A layout restored from a session is decoded on first use.
+     * @return the layout, or null if the view was not laid out by ScyNet yet
+     */
+    public synchronized LayoutResult getLayout(CyNetworkView view) {
+        Supplier<LayoutResult> pending = pendingLayouts.remove(view);
+        if (pending != null) {
+            LayoutResult restored = pending.get();
+            if (restored != null) {
+                layouts.put(view, restored);
+            }
+        }
+        return layouts.get(view);
+    }
+
+    public synchronized void setLayout(CyNetworkView view, LayoutResult layout) {
+        pendingLayouts.remove(view);
+        layouts.put(view, layout);
+    }
+
+    /**
+     * Sets the layout of a view restored from a session, which is decoded when the layout is first asked for. The
+     * supplier returns null if the layout no longer matches the network.
+     */
+    public synchronized void setPendingLayout(CyNetworkView view, Supplier<LayoutResult> layout) {
+        layouts.remove(view);
+        pendingLayouts.put(view, layout);
+    }
+
+    /**
+     * Get-function for the visibility model of a view. The model is created from the view on first use and after it
+     * was invalidated, because nodes or edges were added or removed or their visibility was changed without it;
+     * exchange metabolites without visible edges are hidden at that point.
+     */
+    public synchronized VisibilityModel getVisibilityModel(CyNetworkView view) {
+        CyNetwork network = view.getModel();
+        VisibilityModel model = visibilityModels.get(view);
+        if (model == null || !model.matches(network)) {
+            model = new VisibilityModel(network, view);
+            model.hideDisconnectedMetabolites();
+            visibilityModels.put(view, model);
+        }
+        return model;
+    }
+
+    /**
+     * Get-function for the visibility model of a view, without creating one.
+     * @return the model, or null if the view has none yet or it is outdated
+     */
+    public synchronized VisibilityModel getExistingVisibilityModel(CyNetworkView view) {
+        VisibilityModel model = visibilityModels.get(view);
+        return model != null && model.matches(view.getModel()) ? model : null;
+    }
+
+    /**
+     * Drops the visibility models of all views of the network, e.g. after nodes or edges were added or removed.
+     */
+    public synchronized void invalidateVisibilityModels() {
+        visibilityModels.clear();
+    }
+
+    /**
+     * Drops the visibility model of a view, e.g. after the visibility of its elements was changed without it.
+     */
+    public synchronized void invalidateVisibilityModel(CyNetworkView view) {
+        visibilityModels.remove(view);
+    }
+
+    /**
+     * Get-function for the kind of flux data a view was last contextualized with.
+     * @return true for flux ranges, false for single flux values, null if the view was not contextualized yet
+     */
+    public synchronized Boolean getFluxRanges(CyNetworkView view) {
+        return fluxRanges.get(view);
+    }
+
+    public synchronized void setFluxRanges(CyNetworkView view, boolean fva) {
+        fluxRanges.put(view, fva);
+    }
+
+    /**
+     * Get-function for the layouts of recently seen visible sets.
+     */
+    public LayoutCache getLayoutCache() {
+        return layoutCache;
+    }
+}
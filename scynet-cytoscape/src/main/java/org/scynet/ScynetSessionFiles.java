@@ -0,0 +1,226 @@
+package org.scynet;
+
+import org.scynet.core.LayoutResult;
+
+import org.cytoscape.model.CyNode;
+import org.cytoscape.session.CySession;
+import org.cytoscape.session.events.SessionAboutToBeSavedEvent;
+import org.cytoscape.session.events.SessionAboutToBeSavedListener;
+import org.cytoscape.session.events.SessionLoadedEvent;
+import org.cytoscape.session.events.SessionLoadedListener;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.CyNetworkViewManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+/**
+ * Saves the data ScyNet keeps for the network views (ScynetNetworkState) as an app file of the Cytoscape session and
+ * restores it when the session is loaded, so that the first incremental layout or contextualization after opening a
+ * session does not have to start from scratch.
+ * <p>
+ * The file holds, for every view, the kind of flux data it was last styled with and the layout last applied to it,
+ * with its ring partition, member order and coordinates. When the session is loaded, only the index of the file and
+ * the node SUIDs of the layouts are read, and the SUIDs are mapped to the ones of the loaded session; the layouts are
+ * kept as bytes together with that mapping and decoded when they are first used, without holding on to the session.
+ */
+public class ScynetSessionFiles implements SessionAboutToBeSavedListener, SessionLoadedListener {
+
+	public static final String APP_NAME = "ScyNet";
+	public static final String FILE_NAME = "scynet-state.bin";
+
+	private static final int MAGIC = 0x53435953;
+	private static final int VERSION = 1;
+
+	private static final int FLUX_KIND = 1;
+	private static final int FLUX_RANGES = 2;
+	private static final int LAYOUT = 4;
+
+	private final CyNetworkViewManager networkViewManager;
+	private final Logger logger;
+
+	public ScynetSessionFiles(CyNetworkViewManager networkViewManager) {
+		this.networkViewManager = networkViewManager;
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+	}
+
+	@Override
+	public void handleEvent(SessionAboutToBeSavedEvent e) {
+		try {
+			File file = write();
+			if (file != null) {
+				e.addAppFiles(APP_NAME, Collections.singletonList(file));
+			}
+		} catch (Exception ex) {
+			// The session is still saved, ScyNet only has to recompute its data after loading it
+			logger.error("Could not save the ScyNet layouts in the session: " + ex.getMessage(), ex);
+		}
+	}
+
+	@Override
+	public void handleEvent(SessionLoadedEvent e) {
+		CySession session = e.getLoadedSession();
+		List<File> files = session.getAppFileListMap() == null ? null : session.getAppFileListMap().get(APP_NAME);
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			if (FILE_NAME.equals(file.getName())) {
+				try {
+					read(file, session);
+				} catch (IOException ex) {
+					logger.warn("Could not restore the ScyNet layouts of the session: " + ex.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the flux kinds and layouts of all views with ScyNet data to a temporary file.
+	 * @return the file, or null if no view has ScyNet data
+	 */
+	private File write() throws IOException {
+		List<CyNetworkView> views = new ArrayList<>();
+		for (CyNetworkView view : networkViewManager.getNetworkViewSet()) {
+			ScynetNetworkState state = ScynetNetworkState.getExisting(view.getModel());
+			if (state != null && (state.getLayout(view) != null || state.getFluxRanges(view) != null)) {
+				views.add(view);
+			}
+		}
+		if (views.isEmpty()) {
+			return null;
+		}
+
+		File directory = Files.createTempDirectory("scynet").toFile();
+		directory.deleteOnExit();
+		File file = new File(directory, FILE_NAME);
+		file.deleteOnExit();
+		long startTime = System.nanoTime();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeInt(views.size());
+			for (CyNetworkView view : views) {
+				ScynetNetworkState state = ScynetNetworkState.forNetwork(view.getModel());
+				LayoutResult layout = state.getLayout(view);
+				Boolean fluxRanges = state.getFluxRanges(view);
+				out.writeLong(view.getSUID());
+				out.writeByte((fluxRanges != null ? FLUX_KIND : 0) | (Boolean.TRUE.equals(fluxRanges) ? FLUX_RANGES : 0) | (layout != null ? LAYOUT : 0));
+				if (layout != null) {
+					ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+					layout.write(new DataOutputStream(bytes));
+					out.writeInt(bytes.size());
+					bytes.writeTo(out);
+				}
+			}
+		}
+		logger.info(String.format("Saved the ScyNet data of %d views (%d bytes) in %.1f ms",
+				views.size(), file.length(), (System.nanoTime() - startTime) / 1e6));
+		return file;
+	}
+
+	/**
+	 * Reads the index of a file written by write and hands the layouts to the states of the restored views, with their
+	 * node SUIDs already mapped to the loaded session, to be decoded on first use.
+	 */
+	private void read(File file, CySession session) throws IOException {
+		int restored = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a ScyNet session file.");
+			}
+			int version = in.readShort();
+			if (version != VERSION) {
+				throw new IOException("Unsupported ScyNet session file version " + version + ".");
+			}
+			int count = in.readInt();
+			// Bytes of the file not read yet, a layout length is only trusted as far as the file holds that many bytes
+			long remaining = file.length() - (Integer.BYTES + Short.BYTES + Integer.BYTES);
+			for (int entry = 0; entry < count; entry++) {
+				long oldViewSuid = in.readLong();
+				int flags = in.readByte();
+				remaining -= Long.BYTES + Byte.BYTES;
+				byte[] layout = null;
+				if ((flags & LAYOUT) != 0) {
+					int length = in.readInt();
+					remaining -= Integer.BYTES;
+					if (length < 0 || length > remaining) {
+						throw new IOException("Invalid layout length in the ScyNet session file.");
+					}
+					layout = new byte[length];
+					in.readFully(layout);
+					remaining -= length;
+				}
+
+				CyNetworkView view = session.getObject(oldViewSuid, CyNetworkView.class);
+				if (view == null) {
+					continue;
+				}
+				ScynetNetworkState state = ScynetNetworkState.forNetwork(view.getModel());
+				if ((flags & FLUX_KIND) != 0) {
+					state.setFluxRanges(view, (flags & FLUX_RANGES) != 0);
+				}
+				if (layout != null) {
+					byte[] bytes = layout;
+					try {
+						Map<Long, Long> suids = mapNodeSuids(bytes, session);
+						state.setPendingLayout(view, () -> decodeLayout(bytes, suids));
+					} catch (IOException ex) {
+						logger.warn("Could not restore the saved ScyNet layout: " + ex.getMessage());
+					}
+				}
+				restored++;
+			}
+		}
+		logger.info("Restored the ScyNet data of " + restored + " views from the session");
+	}
+
+	/**
+	 * Maps the node SUIDs of a saved layout to the ones of the loaded session, leaving out nodes that no longer exist.
+	 */
+	private static Map<Long, Long> mapNodeSuids(byte[] layout, CySession session) throws IOException {
+		Map<Long, Long> suids = new HashMap<>();
+		for (long oldSuid : LayoutResult.readIds(new DataInputStream(new ByteArrayInputStream(layout)))) {
+			CyNode node = session.getObject(oldSuid, CyNode.class);
+			if (node != null) {
+				suids.put(oldSuid, node.getSUID());
+			}
+		}
+		return suids;
+	}
+
+	/**
+	 * Decodes a saved layout with its node SUIDs mapped to the ones of the loaded session.
+	 * @return the layout, or null if it could not be decoded or one of its nodes is missing
+	 */
+	private LayoutResult decodeLayout(byte[] bytes, Map<Long, Long> suids) {
+		try {
+			LayoutResult layout = LayoutResult.read(new DataInputStream(new ByteArrayInputStream(bytes)),
+					oldSuid -> suids.getOrDefault(oldSuid, -1L));
+			if (layout == null) {
+				logger.info("The saved ScyNet layout no longer matches the network, it is computed again");
+			}
+			return layout;
+		} catch (IOException ex) {
+			logger.warn("Could not restore the saved ScyNet layout: " + ex.getMessage());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package org.scynet;
+
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+import org.cytoscape.work.undo.UndoSupport;
+
+/**
+ * The commands "scynet toggle zero flux edges", "scynet toggle non-cross-fed metabolites" and "scynet toggle edge
+ * width": run one of the toggles of the ScyNet menu on the given view. Returns the number of nodes and edges the
+ * toggle changed and the state it switched to.
+ */
+public class ToggleCommandTask extends AbstractScynetCommandTask {
+
+	/**
+	 * The toggles of the ScyNet menu
+	 */
+	public enum Toggle {
+		ZERO_FLUX_EDGES, NON_CROSS_FED_METABOLITES, EDGE_WIDTH
+	}
+
+	@Tunable(description = "Network view",
+			longDescription = "The view of a network created by ScyNet, by the name or SUID of its network, or current for the current view.",
+			exampleStringValue = "current", required = true)
+	public CyNetworkView view;
+
+	private final Toggle toggle;
+	private final UndoSupport undoSupport;
+
+	public ToggleCommandTask(Toggle toggle, UndoSupport undoSupport) {
+		this.toggle = toggle;
+		this.undoSupport = undoSupport;
+	}
+
+	@Override
+	protected void execute(TaskMonitor monitor) {
+		requireScynetView(view);
+		putView(view);
+		if (toggle == Toggle.EDGE_WIDTH) {
+			ToggleEdgeSizeBasedOnFluxTask task = new ToggleEdgeSizeBasedOnFluxTask(view, undoSupport);
+			task.run(monitor);
+			putResult("elements", Math.max(task.getChangedEdgeCount(), 0));
+			putResult("relativeWidths", task.isRelativeWidths());
+			view.updateView();
+			return;
+		}
+
+		VisibilityModel model = ScynetNetworkState.forNetwork(view.getModel()).getVisibilityModel(view);
+		VisibilityModel.Checkpoint checkpoint = model.checkpoint();
+		if (toggle == Toggle.ZERO_FLUX_EDGES) {
+			new ToggleZeroFluxEdgesTask(view, undoSupport).run(monitor);
+		} else {
+			new ToggleShowOnlyCfNodesTask(view, undoSupport).run(monitor);
+		}
+		putResult("elements", model.diffSince(checkpoint).size());
+		putResult("zeroFluxEdgesHidden", model.areZeroFluxEdgesHidden());
+		putResult("nonCrossFedMetabolitesHidden", model.areNonCrossFedNodesHidden());
+		view.updateView();
+	}
+}
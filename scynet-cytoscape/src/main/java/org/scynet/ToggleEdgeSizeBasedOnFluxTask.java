@@ -1,6 +1,7 @@
 package org.scynet;
 
-import org.cytoscape.application.CyApplicationManager;
+import org.scynet.core.ScynetEvents;
+
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyTableUtil;
@@ -9,6 +10,7 @@ import org.cytoscape.view.model.CyNetworkView;
 import org.cytoscape.view.model.View;
 import org.cytoscape.view.presentation.property.BasicVisualLexicon;
 import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.undo.UndoSupport;
 
 import java.util.Objects;
 import java.util.Set;
@@ -21,28 +23,30 @@ import org.apache.log4j.Logger;
 public class ToggleEdgeSizeBasedOnFluxTask extends AbstractNetworkViewTask {
 
 	private final Logger logger;
-	private CyApplicationManager cyApplicationManager;
+	private final UndoSupport undoSupport;
+	/**
+	 * The outcome of the last run: the number of edges whose width changed, -1 if nothing was done, and whether the
+	 * widths are now relative to the flux
+	 */
+	private int changedEdgeCount = -1;
+	private boolean relativeWidths;
 
-	public ToggleEdgeSizeBasedOnFluxTask(CyNetworkView view, CyApplicationManager cyApplicationManager){
+	public ToggleEdgeSizeBasedOnFluxTask(CyNetworkView view, UndoSupport undoSupport){
 		super(view);
 		this.logger = Logger.getLogger(CyUserLog.NAME);
-		this.cyApplicationManager = cyApplicationManager;
+		this.undoSupport = undoSupport;
 	}
 	
 	@Override
 	public void run(final TaskMonitor taskMonitor) {
-		if (cyApplicationManager.getCurrentNetwork() == null){
-			logger.warn("No network selected. Nothing to do.");
-			return;
-		}
-
 		if(view == null){
 			logger.warn("No network view available for selected network. Nothing to do.");
 			return;
 		}
 
 		//Check if type and cross-fed columns exist
-		CyNetwork currentNetwork = cyApplicationManager.getCurrentNetwork();
+		// The network of the view, which need not be the current one when run as a command
+		CyNetwork currentNetwork = view.getModel();
 		Set<String> columnNames = CyTableUtil.getColumnNames(currentNetwork.getDefaultEdgeTable());
 
 		Double defaultEdgeWidth = 10.0d;
@@ -77,6 +81,9 @@ public class ToggleEdgeSizeBasedOnFluxTask extends AbstractNetworkViewTask {
 				return;
 			}
 
+			// Only the edges whose width changes are recorded for undo
+			ScynetEvents.Toggle event = ScynetEvents.beginToggle();
+			EdgeWidthEdit edgeWidthEdit = new EdgeWidthEdit("Toggle Edge Width Relative to Flux");
 			if (allWidthDefault) {
 				// Task: set edge width relative to flux
 				logger.info("Setting edge widths relative to flux.");
@@ -92,10 +99,10 @@ public class ToggleEdgeSizeBasedOnFluxTask extends AbstractNetworkViewTask {
 						if (edgeWidth > maxEdgeWidth) {
 							edgeWidth = maxEdgeWidth;
 						}
-						edgeView.setLockedValue(BasicVisualLexicon.EDGE_WIDTH, edgeWidth);
+						edgeWidthEdit.setWidth(edgeView, edgeWidth);
 					} else if (edgeFlux == 0.0d) {
 						Double edgeWidth = 0.0d;
-						edgeView.setLockedValue(BasicVisualLexicon.EDGE_WIDTH, edgeWidth);
+						edgeWidthEdit.setWidth(edgeView, edgeWidth);
 					}
 				}
 			}
@@ -107,14 +114,39 @@ public class ToggleEdgeSizeBasedOnFluxTask extends AbstractNetworkViewTask {
 					if (edgeView == null) {
 						continue;
 					}
-					edgeView.setLockedValue(BasicVisualLexicon.EDGE_WIDTH, defaultEdgeWidth);
+					edgeWidthEdit.setWidth(edgeView, defaultEdgeWidth);
+				}
+			}
+			edgeWidthEdit.post(undoSupport);
+			changedEdgeCount = edgeWidthEdit.size();
+			relativeWidths = allWidthDefault;
+			if (event != null) {
+				event.end();
+				if (event.shouldCommit()) {
+					event.operation = "Toggle Edge Width Relative to Flux";
+					event.elements = edgeWidthEdit.size();
+					event.commit();
 				}
 			}
 		}
 		else {
 			logger.error("The selected network is not in ScyNet format.");
 		}
+	}
+
+	/**
+	 * Get-function
+	 * @return the number of edges whose width the last run changed, -1 if it did nothing
+	 */
+	int getChangedEdgeCount() {
+		return changedEdgeCount;
+	}
 
-//
+	/**
+	 * Get-function
+	 * @return whether the last run set the edge widths relative to the flux rather than back to the default
+	 */
+	boolean isRelativeWidths() {
+		return relativeWidths;
 	}
 }
@@ -1,17 +1,17 @@
 package org.scynet;
 
-import org.cytoscape.application.CyApplicationManager;
 import org.cytoscape.task.AbstractNetworkViewTaskFactory;
 import org.cytoscape.view.model.CyNetworkView;
 import org.cytoscape.work.TaskIterator;
+import org.cytoscape.work.undo.UndoSupport;
 
 public class ToggleEdgeSizeBasedOnFluxTaskFactory extends AbstractNetworkViewTaskFactory {
-	private CyApplicationManager cyApplicationManager;
-	public ToggleEdgeSizeBasedOnFluxTaskFactory(CyApplicationManager cyApplicationManager) {
-		this.cyApplicationManager = cyApplicationManager;
+	private final UndoSupport undoSupport;
+	public ToggleEdgeSizeBasedOnFluxTaskFactory(UndoSupport undoSupport) {
+		this.undoSupport = undoSupport;
 	}
 
 	public TaskIterator createTaskIterator(CyNetworkView networkView){
-		return new TaskIterator(new ToggleEdgeSizeBasedOnFluxTask(networkView, cyApplicationManager) );
+		return new TaskIterator(new ToggleEdgeSizeBasedOnFluxTask(networkView, undoSupport) );
 	}
 }
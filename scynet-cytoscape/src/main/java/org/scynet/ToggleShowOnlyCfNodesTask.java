@@ -0,0 +1,63 @@
+package org.scynet;
+
+import org.scynet.core.ScynetEvents;
+
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyTableUtil;
+import org.cytoscape.task.AbstractNetworkViewTask;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.undo.UndoSupport;
+
+import java.util.*;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+public class ToggleShowOnlyCfNodesTask extends AbstractNetworkViewTask {
+
+	private final Logger logger;
+	private final UndoSupport undoSupport;
+
+	public ToggleShowOnlyCfNodesTask(CyNetworkView view, UndoSupport undoSupport){
+		super(view);
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+		this.undoSupport = undoSupport;
+	}
+	
+	@Override
+	public void run(final TaskMonitor taskMonitor) {
+		if(view == null){
+			logger.warn("No network view available for selected network. Nothing to do.");
+			return;
+		}
+
+		//Get the selected nodes
+
+		//Check if type and cross-fed columns exist
+		// The network of the view, which need not be the current one when run as a command
+		CyNetwork currentNetwork = view.getModel();
+		Set<String> columnNames = CyTableUtil.getColumnNames(currentNetwork.getDefaultNodeTable());
+
+		if (columnNames.contains("type") && columnNames.contains("cross-fed")) {
+			// The toggle state is kept as bitsets, changing it only touches the nodes whose visibility changes.
+			// Metabolites without visible edges stay hidden, the visibility model takes care of that
+			VisibilityModel visibilityModel = ScynetNetworkState.forNetwork(currentNetwork).getVisibilityModel(view);
+			ScynetEvents.Toggle event = ScynetEvents.beginToggle();
+			VisibilityModel.Checkpoint checkpoint = visibilityModel.checkpoint();
+			if (visibilityModel.areNonCrossFedNodesHidden()) {
+				logger.info("Making all non-cross-feeding nodes visible.");
+				visibilityModel.setNonCrossFedNodesHidden(false);
+			}
+			else {
+				logger.info("Hiding all non-cross-feeding nodes.");
+				visibilityModel.setNonCrossFedNodesHidden(true);
+			}
+			VisibilityEdit.post(undoSupport, "Toggle Non-Cross-Fed Metabolite Visibility", visibilityModel, checkpoint);
+			VisibilityEdit.commitEvent(event, "Toggle Non-Cross-Fed Metabolite Visibility", visibilityModel, checkpoint);
+		}
+		else {
+			logger.error("The selected network is not in ScyNet format.");
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package org.scynet;
+
+import org.scynet.core.ScynetEvents;
+
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyTableUtil;
+import org.cytoscape.task.AbstractNetworkViewTask;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.undo.UndoSupport;
+
+import java.util.Set;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+public class ToggleZeroFluxEdgesTask extends AbstractNetworkViewTask {
+
+	private final Logger logger;
+	private final UndoSupport undoSupport;
+
+	public ToggleZeroFluxEdgesTask(CyNetworkView view, UndoSupport undoSupport){
+		super(view);
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+		this.undoSupport = undoSupport;
+	}
+	
+	@Override
+	public void run(final TaskMonitor taskMonitor) {
+		if (view == null) {
+			logger.warn("No network view available for selected network. Nothing to do.");
+			return;
+		}
+
+		//Check if sbml id and flux columns exist
+		// The network of the view, which need not be the current one when run as a command
+		CyNetwork currentNetwork = view.getModel();
+		Set<String> columnNames = CyTableUtil.getColumnNames(currentNetwork.getDefaultEdgeTable());
+
+		if (columnNames.contains("sbml id") && columnNames.contains("flux")) {
+			// The toggle state is kept as bitsets, changing it only touches the edges whose visibility changes
+			VisibilityModel visibilityModel = ScynetNetworkState.forNetwork(currentNetwork).getVisibilityModel(view);
+			ScynetEvents.Toggle event = ScynetEvents.beginToggle();
+			VisibilityModel.Checkpoint checkpoint = visibilityModel.checkpoint();
+			if (visibilityModel.areZeroFluxEdgesHidden()) {
+				// Task: make 0 flux edges visible (toggle off)
+				logger.info("Making all edges with flux 0 visible.");
+				visibilityModel.setZeroFluxEdgesHidden(false);
+			} else {
+				// Task: hide 0 flux edges
+				logger.info("Hiding all edges with flux 0.");
+				visibilityModel.setZeroFluxEdgesHidden(true);
+			}
+			VisibilityEdit.post(undoSupport, "Toggle Zero Flux Edge Visibility", visibilityModel, checkpoint);
+			VisibilityEdit.commitEvent(event, "Toggle Zero Flux Edge Visibility", visibilityModel, checkpoint);
+		}
+		else {
+			logger.error("The selected network is not in ScyNet format.");
+		}
+	}
+}
@@ -1,17 +1,17 @@
 package org.scynet;
 
-import org.cytoscape.application.CyApplicationManager;
 import org.cytoscape.task.AbstractNetworkViewTaskFactory;
 import org.cytoscape.view.model.CyNetworkView;
 import org.cytoscape.work.TaskIterator;
+import org.cytoscape.work.undo.UndoSupport;
 
 public class ToggleZeroFluxEdgesTaskFactory extends AbstractNetworkViewTaskFactory {
-	private CyApplicationManager cyApplicationManager;
-	public ToggleZeroFluxEdgesTaskFactory(CyApplicationManager cyApplicationManager) {
-		this.cyApplicationManager = cyApplicationManager;
+	private final UndoSupport undoSupport;
+	public ToggleZeroFluxEdgesTaskFactory(UndoSupport undoSupport) {
+		this.undoSupport = undoSupport;
 	}
 
 	public TaskIterator createTaskIterator(CyNetworkView networkView){
-		return new TaskIterator(new ToggleZeroFluxEdgesTask(networkView, cyApplicationManager) );
+		return new TaskIterator(new ToggleZeroFluxEdgesTask(networkView, undoSupport) );
 	}
 }
@@ -0,0 +1,122 @@
+package org.scynet;
+
+import org.scynet.core.ScynetEvents;
+
+import org.apache.log4j.Logger;
+import org.cytoscape.application.CyUserLog;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.undo.AbstractCyEdit;
+import org.cytoscape.work.undo.UndoSupport;
+
+/**
+ * An undoable change of the visibility of a ScyNet network view, e.g. by a toggle or the filter. Only the diff of
+ * the VisibilityModel is stored, undo and redo touch only the nodes and edges in it. Controls showing the state of
+ * the model, like those of the filter panel, can be restored with callbacks run after undo and redo.
+ */
+public class VisibilityEdit extends AbstractCyEdit {
+
+	private final Logger logger;
+	private final VisibilityModel model;
+	private final VisibilityModel.Diff diff;
+	private final Runnable afterUndo;
+	private final Runnable afterRedo;
+
+	private VisibilityEdit(String presentationName, VisibilityModel model, VisibilityModel.Diff diff, Runnable afterUndo, Runnable afterRedo) {
+		super(presentationName);
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+		this.model = model;
+		this.diff = diff;
+		this.afterUndo = afterUndo;
+		this.afterRedo = afterRedo;
+	}
+
+	/**
+	 * Posts the changes of the model since the checkpoint as an undoable edit, unless nothing changed.
+	 * @param undoSupport the undo support, may be null if undo is not available
+	 * @param presentationName the name of the edit shown in the undo menu
+	 * @param model the visibility model that was changed
+	 * @param checkpoint the state of the model before the change
+	 */
+	public static void post(UndoSupport undoSupport, String presentationName, VisibilityModel model, VisibilityModel.Checkpoint checkpoint) {
+		post(undoSupport, presentationName, model, checkpoint, null, null);
+	}
+
+	/**
+	 * Posts the changes of the model since the checkpoint as an undoable edit, unless nothing changed.
+	 * @param afterUndo run after the edit was undone, e.g. to restore the controls that led to the change, may be null
+	 * @param afterRedo run after the edit was redone, may be null
+	 */
+	public static void post(UndoSupport undoSupport, String presentationName, VisibilityModel model, VisibilityModel.Checkpoint checkpoint,
+							Runnable afterUndo, Runnable afterRedo) {
+		if (undoSupport == null) {
+			return;
+		}
+		VisibilityModel.Diff diff = model.diffSince(checkpoint);
+		if (!diff.isEmpty()) {
+			undoSupport.postEdit(new VisibilityEdit(presentationName, model, diff, afterUndo, afterRedo));
+		}
+	}
+
+	/**
+	 * Ends a toggle event and commits it with the number of elements changed since the checkpoint, if a recording
+	 * enabled it.
+	 */
+	public static void commitEvent(ScynetEvents.Toggle event, String operation, VisibilityModel model, VisibilityModel.Checkpoint checkpoint) {
+		if (event != null) {
+			commitEvent(event, operation, model.diffSince(checkpoint));
+		}
+	}
+
+	/**
+	 * Ends a toggle event and commits it with the number of elements in the diff, if a recording enabled it.
+	 */
+	private static void commitEvent(ScynetEvents.Toggle event, String operation, VisibilityModel.Diff diff) {
+		if (event == null) {
+			return;
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.operation = operation;
+			event.elements = diff.size();
+			event.commit();
+		}
+	}
+
+	@Override
+	public void undo() {
+		if (isCurrent()) {
+			ScynetEvents.Toggle event = ScynetEvents.beginToggle();
+			model.revert(diff);
+			model.getView().updateView();
+			if (afterUndo != null) {
+				afterUndo.run();
+			}
+			commitEvent(event, "Undo " + getPresentationName(), diff);
+		}
+	}
+
+	@Override
+	public void redo() {
+		if (isCurrent()) {
+			ScynetEvents.Toggle event = ScynetEvents.beginToggle();
+			model.reapply(diff);
+			model.getView().updateView();
+			if (afterRedo != null) {
+				afterRedo.run();
+			}
+			commitEvent(event, "Redo " + getPresentationName(), diff);
+		}
+	}
+
+	/**
+	 * @return whether the model of the edit is still the model of its view, the ordinals of the diff refer to it
+	 */
+	private boolean isCurrent() {
+		CyNetworkView view = model.getView();
+		if (ScynetNetworkState.forNetwork(view.getModel()).getExistingVisibilityModel(view) != model) {
+			logger.warn("The network was changed since '" + getPresentationName() + "'. Nothing to do.");
+			return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,685 @@
+package org.scynet;
+
+import org.scynet.core.ExchangeGraph;
+import org.scynet.core.VisibleSetFingerprint;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The visibility of the nodes and edges of a ScyNet network view, indexed by ordinal. For every node the number of
+ * visible incident edges is counted and updated whenever the visibility of an edge changes, so that exchange
+ * metabolites without any visible edge are hidden (and shown again) in constant time per changed edge, instead of
+ * checking all nodes and their edges after every change.
+ * <p>
+ * The attributes the ScyNet toggles depend on are kept as predicate bitsets over the ordinals (zero flux edges,
+ * non-cross-fed nodes, elements hidden for other reasons), so that a toggle is a few bitset operations followed by
+ * pushing only the changed elements to the view. A node is visible if it is not hidden by the user, not hidden as a
+ * non-cross-fed node or by the filter and, for exchange metabolites, has a visible edge. An edge is visible if it is
+ * not hidden by the user, as a zero flux edge or by the filter.
+ * <p>
+ * Changes can be recorded as a Diff between a Checkpoint and the current state, which holds only the elements whose
+ * visibility or filter state changed, and reverted or re-applied in time proportional to the size of the diff.
+ * <p>
+ * The model assumes that the visibility is only changed through it once it was created. VisibilityModelInvalidator
+ * drops it when nodes or edges are added to or removed from the network, or when the visibility of an element is
+ * changed by anything else, e.g. the Hide and Show commands of Cytoscape; ScynetNetworkState then rebuilds it from the
+ * view on next use.
+ */
+public class VisibilityModel {
+
+	private final CyNetworkView view;
+	private final CyNode[] nodes;
+	private final CyEdge[] edges;
+	private final View<CyNode>[] nodeViews;
+	private final View<CyEdge>[] edgeViews;
+	private final HashMap<CyNode, Integer> nodeOrdinals;
+	private final HashMap<CyEdge, Integer> edgeOrdinals;
+	private final int[] edgeSources;
+	private final int[] edgeTargets;
+	/**
+	 * Exchange metabolites are hidden when they have no visible edge
+	 */
+	private final BitSet metabolites;
+	/**
+	 * Nodes of type "community member", the members of the ExchangeGraph of the structure
+	 */
+	private final BitSet members;
+	private final BitSet visibleNodes;
+	private final BitSet visibleEdges;
+	/**
+	 * Number of visible incident edges of every node
+	 */
+	private final int[] visibleDegrees;
+	/**
+	 * Edges with a flux of exactly 0
+	 */
+	private final BitSet zeroFluxEdges;
+	/**
+	 * Nodes with the cross-fed attribute set to false
+	 */
+	private final BitSet nonCrossFedNodes;
+	/**
+	 * Nodes and edges hidden for another reason than the ScyNet toggles, they stay hidden
+	 */
+	private final BitSet userHiddenNodes;
+	private final BitSet userHiddenEdges;
+	/**
+	 * Nodes and edges hidden by the filter of the ScyNet filter panel
+	 */
+	private final BitSet filteredNodes;
+	private final BitSet filteredEdges;
+	private boolean zeroFluxEdgesHidden = false;
+	private boolean nonCrossFedNodesHidden = false;
+	/**
+	 * Incremented whenever the predicates are re-read, so that data derived from the tables can be refreshed
+	 */
+	private int predicateVersion = 0;
+	/**
+	 * Fingerprint of the visible nodes and edges, updated with every change of their visibility
+	 */
+	private final VisibleSetFingerprint fingerprint = new VisibleSetFingerprint();
+	/**
+	 * The structure of the network, built on first use
+	 */
+	private ExchangeGraph structure;
+
+	/**
+	 * Reads the current visibility from the view.
+	 */
+	@SuppressWarnings("unchecked")
+	public VisibilityModel(CyNetwork network, CyNetworkView view) {
+		this.view = view;
+		List<CyNode> nodeList = network.getNodeList();
+		List<CyEdge> edgeList = network.getEdgeList();
+		this.nodes = nodeList.toArray(new CyNode[0]);
+		this.edges = edgeList.toArray(new CyEdge[0]);
+		this.nodeViews = new View[nodes.length];
+		this.edgeViews = new View[edges.length];
+		this.nodeOrdinals = new HashMap<>(nodes.length * 2);
+		this.edgeOrdinals = new HashMap<>(edges.length * 2);
+		this.edgeSources = new int[edges.length];
+		this.edgeTargets = new int[edges.length];
+		this.metabolites = new BitSet(nodes.length);
+		this.members = new BitSet(nodes.length);
+		this.visibleNodes = new BitSet(nodes.length);
+		this.visibleEdges = new BitSet(edges.length);
+		this.visibleDegrees = new int[nodes.length];
+		this.zeroFluxEdges = new BitSet(edges.length);
+		this.nonCrossFedNodes = new BitSet(nodes.length);
+		this.userHiddenNodes = new BitSet(nodes.length);
+		this.userHiddenEdges = new BitSet(edges.length);
+		this.filteredNodes = new BitSet(nodes.length);
+		this.filteredEdges = new BitSet(edges.length);
+
+		for (int node = 0; node < nodes.length; node++) {
+			nodeOrdinals.put(nodes[node], node);
+			nodeViews[node] = view.getNodeView(nodes[node]);
+			String type = network.getDefaultNodeTable().getRow(nodes[node].getSUID()).get("type", String.class);
+			if (Objects.equals("exchange metabolite", type)) {
+				metabolites.set(node);
+			} else if (Objects.equals("community member", type)) {
+				members.set(node);
+			}
+			if (nodeViews[node] != null && nodeViews[node].getVisualProperty(BasicVisualLexicon.NODE_VISIBLE)) {
+				visibleNodes.set(node);
+				fingerprint.toggleNode(nodes[node].getSUID());
+			}
+		}
+		for (int edge = 0; edge < edges.length; edge++) {
+			edgeOrdinals.put(edges[edge], edge);
+			edgeViews[edge] = view.getEdgeView(edges[edge]);
+			edgeSources[edge] = nodeOrdinals.get(edges[edge].getSource());
+			edgeTargets[edge] = nodeOrdinals.get(edges[edge].getTarget());
+			if (edgeViews[edge] != null && edgeViews[edge].getVisualProperty(BasicVisualLexicon.EDGE_VISIBLE)) {
+				visibleEdges.set(edge);
+				fingerprint.toggleEdge(edges[edge].getSUID());
+				visibleDegrees[edgeSources[edge]]++;
+				visibleDegrees[edgeTargets[edge]]++;
+			}
+		}
+		refreshPredicates(network);
+	}
+
+	/**
+	 * Re-reads the predicates from the node and edge tables, to be called after the flux or cross-feeding data
+	 * changed, and derives the toggle states from the view with refreshToggleStates().
+	 */
+	public void refreshPredicates(CyNetwork network) {
+		zeroFluxEdges.clear();
+		nonCrossFedNodes.clear();
+		for (int edge = 0; edge < edges.length; edge++) {
+			Double flux = network.getDefaultEdgeTable().getRow(edges[edge].getSUID()).get("flux", Double.class);
+			if (flux != null && flux == 0.0d) {
+				zeroFluxEdges.set(edge);
+			}
+		}
+		for (int node = 0; node < nodes.length; node++) {
+			Boolean crossFed = network.getDefaultNodeTable().getRow(nodes[node].getSUID()).get("cross-fed", Boolean.class);
+			if (Boolean.FALSE.equals(crossFed)) {
+				nonCrossFedNodes.set(node);
+			}
+		}
+		refreshToggleStates();
+		predicateVersion++;
+	}
+
+	/**
+	 * Re-reads the predicates of some edges and nodes after their flux or cross-feeding data changed, instead of
+	 * all of them as refreshPredicates() does. The toggle states are not derived again, which allows to change the
+	 * visibility of the elements first; call refreshToggleStates() afterwards.
+	 * @param changedEdges ordinals of the edges whose flux changed
+	 * @param changedNodes ordinals of the nodes whose cross-fed attribute may have changed
+	 */
+	public void updatePredicates(CyNetwork network, BitSet changedEdges, BitSet changedNodes) {
+		for (int edge = changedEdges.nextSetBit(0); edge >= 0; edge = changedEdges.nextSetBit(edge + 1)) {
+			Double flux = network.getDefaultEdgeTable().getRow(edges[edge].getSUID()).get("flux", Double.class);
+			zeroFluxEdges.set(edge, flux != null && flux == 0.0d);
+		}
+		for (int node = changedNodes.nextSetBit(0); node >= 0; node = changedNodes.nextSetBit(node + 1)) {
+			Boolean crossFed = network.getDefaultNodeTable().getRow(nodes[node].getSUID()).get("cross-fed", Boolean.class);
+			nonCrossFedNodes.set(node, Boolean.FALSE.equals(crossFed));
+		}
+		predicateVersion++;
+	}
+
+	/**
+	 * Derives the toggle states from the current visibility and the predicates: a toggle is on if there are matching
+	 * elements and all of them are hidden. Hidden elements not explained by the toggles, the filter or a missing
+	 * visible edge are taken as hidden by the user. Only bitset operations are needed, the tables are not read.
+	 */
+	public void refreshToggleStates() {
+		zeroFluxEdgesHidden = !zeroFluxEdges.isEmpty() && !zeroFluxEdges.intersects(visibleEdges);
+		nonCrossFedNodesHidden = !nonCrossFedNodes.isEmpty() && !nonCrossFedNodes.intersects(visibleNodes);
+
+		userHiddenEdges.clear();
+		userHiddenEdges.set(0, edges.length);
+		userHiddenEdges.andNot(visibleEdges);
+		userHiddenEdges.andNot(filteredEdges);
+		if (zeroFluxEdgesHidden) {
+			userHiddenEdges.andNot(zeroFluxEdges);
+		}
+		userHiddenNodes.clear();
+		userHiddenNodes.set(0, nodes.length);
+		userHiddenNodes.andNot(visibleNodes);
+		userHiddenNodes.andNot(filteredNodes);
+		if (nonCrossFedNodesHidden) {
+			userHiddenNodes.andNot(nonCrossFedNodes);
+		}
+		for (int node = userHiddenNodes.nextSetBit(0); node >= 0; node = userHiddenNodes.nextSetBit(node + 1)) {
+			if (metabolites.get(node) && visibleDegrees[node] == 0) {
+				userHiddenNodes.clear(node);
+			}
+		}
+	}
+
+	/**
+	 * Get-function for a counter that changes whenever the predicates were re-read from the tables.
+	 */
+	public int getPredicateVersion() {
+		return predicateVersion;
+	}
+
+	/**
+	 * A cheap check until VisibilityModelInvalidator learns about added or removed elements, which Cytoscape only
+	 * reports when its payload events are flushed.
+	 * @return whether the model still has as many nodes and edges as the network
+	 */
+	public boolean matches(CyNetwork network) {
+		return network.getNodeCount() == nodes.length && network.getEdgeCount() == edges.length;
+	}
+
+	public CyNetworkView getView() {
+		return view;
+	}
+
+	public int getNodeCount() {
+		return nodes.length;
+	}
+
+	public int getEdgeCount() {
+		return edges.length;
+	}
+
+	/**
+	 * @return the ordinal of the node, -1 if it is not part of the model
+	 */
+	public int getNodeOrdinal(CyNode node) {
+		Integer ordinal = nodeOrdinals.get(node);
+		return ordinal == null ? -1 : ordinal;
+	}
+
+	/**
+	 * @return the ordinal of the edge, -1 if it is not part of the model
+	 */
+	public int getEdgeOrdinal(CyEdge edge) {
+		Integer ordinal = edgeOrdinals.get(edge);
+		return ordinal == null ? -1 : ordinal;
+	}
+
+	/**
+	 * Get-function for the nodes of the model in ordinal order.
+	 */
+	public List<CyNode> getNodes() {
+		return Collections.unmodifiableList(Arrays.asList(nodes));
+	}
+
+	/**
+	 * Get-function for the edges of the model in ordinal order.
+	 */
+	public List<CyEdge> getEdges() {
+		return Collections.unmodifiableList(Arrays.asList(edges));
+	}
+
+	public CyNode getNode(int node) {
+		return nodes[node];
+	}
+
+	public CyEdge getEdge(int edge) {
+		return edges[edge];
+	}
+
+	public boolean isNodeVisible(int node) {
+		return visibleNodes.get(node);
+	}
+
+	public boolean isEdgeVisible(int edge) {
+		return visibleEdges.get(edge);
+	}
+
+	/**
+	 * @param element a node or edge of the network
+	 * @return whether the model has the given visibility for the element, false if it is not part of the model
+	 */
+	public boolean hasVisibility(Object element, boolean visible) {
+		if (element instanceof CyNode) {
+			int node = getNodeOrdinal((CyNode) element);
+			return node >= 0 && visibleNodes.get(node) == visible;
+		} else if (element instanceof CyEdge) {
+			int edge = getEdgeOrdinal((CyEdge) element);
+			return edge >= 0 && visibleEdges.get(edge) == visible;
+		}
+		return false;
+	}
+
+	public int getVisibleDegree(int node) {
+		return visibleDegrees[node];
+	}
+
+	/**
+	 * Get-function for the structure of the network as an ExchangeGraph sharing the ordinals of the model. It is built
+	 * from the arrays of the model without reading the tables, so it holds no names, flux or cross-fed data; the
+	 * fluxes have to be passed along, e.g. to the CrossFeedingEngine.
+	 */
+	public synchronized ExchangeGraph getStructure() {
+		if (structure == null) {
+			ExchangeGraph.Builder builder = new ExchangeGraph.Builder();
+			for (int node = 0; node < nodes.length; node++) {
+				builder.addNode(null, members.get(node) ? ExchangeGraph.MEMBER : ExchangeGraph.METABOLITE, nodes[node].getSUID());
+			}
+			for (int edge = 0; edge < edges.length; edge++) {
+				builder.addEdge(edgeSources[edge], edgeTargets[edge], null, null, null, null, edges[edge].getSUID());
+			}
+			structure = builder.build();
+		}
+		return structure;
+	}
+
+	/**
+	 * Get-function for the fingerprint of the visible nodes and edges (see VisibleSetFingerprint), which is kept up
+	 * to date as their visibility changes instead of scanning the view.
+	 */
+	public long getFingerprint() {
+		return fingerprint.getValue();
+	}
+
+	/**
+	 * @return whether all zero flux edges are hidden by the toggle
+	 */
+	public boolean areZeroFluxEdgesHidden() {
+		return zeroFluxEdgesHidden;
+	}
+
+	/**
+	 * @return whether all non-cross-fed nodes are hidden by the toggle
+	 */
+	public boolean areNonCrossFedNodesHidden() {
+		return nonCrossFedNodesHidden;
+	}
+
+	/**
+	 * Hides or shows the zero flux edges, pushing only the edges whose visibility changes.
+	 * @return the number of changed edges
+	 */
+	public int setZeroFluxEdgesHidden(boolean hidden) {
+		zeroFluxEdgesHidden = hidden;
+		BitSet changed = (BitSet) zeroFluxEdges.clone();
+		if (hidden) {
+			changed.and(visibleEdges);
+		} else {
+			changed.andNot(visibleEdges);
+			changed.andNot(userHiddenEdges);
+			changed.andNot(filteredEdges);
+		}
+		for (int edge = changed.nextSetBit(0); edge >= 0; edge = changed.nextSetBit(edge + 1)) {
+			setEdgeVisible(edge, !hidden);
+		}
+		return changed.cardinality();
+	}
+
+	/**
+	 * Hides or shows the non-cross-fed nodes, pushing only the nodes whose visibility changes.
+	 * @return the number of changed nodes
+	 */
+	public int setNonCrossFedNodesHidden(boolean hidden) {
+		nonCrossFedNodesHidden = hidden;
+		BitSet changed = (BitSet) nonCrossFedNodes.clone();
+		if (hidden) {
+			changed.and(visibleNodes);
+		} else {
+			changed.andNot(visibleNodes);
+			changed.andNot(userHiddenNodes);
+			changed.andNot(filteredNodes);
+		}
+		for (int node = changed.nextSetBit(0); node >= 0; node = changed.nextSetBit(node + 1)) {
+			setNodeVisible(node, !hidden);
+		}
+		return changed.cardinality();
+	}
+
+	/**
+	 * Hides all nodes and edges not passing the filter and shows the ones passing it again, unless they are hidden
+	 * otherwise. Only the nodes and edges whose filter state changed are pushed to the view.
+	 * @param passingNodes the nodes passing the filter, indexed by ordinal
+	 * @param passingEdges the edges passing the filter, indexed by ordinal
+	 * @return the number of nodes and edges whose filter state changed
+	 */
+	public int setFilter(BitSet passingNodes, BitSet passingEdges) {
+		BitSet changedNodes = complement(passingNodes, nodes.length);
+		changedNodes.xor(filteredNodes);
+		BitSet changedEdges = complement(passingEdges, edges.length);
+		changedEdges.xor(filteredEdges);
+		filteredNodes.xor(changedNodes);
+		filteredEdges.xor(changedEdges);
+
+		// Hide nodes first, so that showing their edges does not show them again
+		for (int node = changedNodes.nextSetBit(0); node >= 0; node = changedNodes.nextSetBit(node + 1)) {
+			if (filteredNodes.get(node)) {
+				setNodeVisible(node, false);
+			}
+		}
+		for (int edge = changedEdges.nextSetBit(0); edge >= 0; edge = changedEdges.nextSetBit(edge + 1)) {
+			setEdgeVisible(edge, mayShowEdge(edge));
+		}
+		for (int node = changedNodes.nextSetBit(0); node >= 0; node = changedNodes.nextSetBit(node + 1)) {
+			if (!filteredNodes.get(node)) {
+				setNodeVisible(node, true);
+			}
+		}
+		return changedNodes.cardinality() + changedEdges.cardinality();
+	}
+
+	/**
+	 * Shows all nodes and edges hidden by the filter again, unless they are hidden otherwise.
+	 * @return the number of nodes and edges whose filter state changed
+	 */
+	public int clearFilter() {
+		return setFilter(complement(new BitSet(), nodes.length), complement(new BitSet(), edges.length));
+	}
+
+	/**
+	 * @return whether any node or edge is hidden by the filter
+	 */
+	public boolean isFiltered() {
+		return !filteredNodes.isEmpty() || !filteredEdges.isEmpty();
+	}
+
+	/**
+	 * @return whether the edge is neither hidden by the user, by the zero flux toggle nor by the filter
+	 */
+	public boolean mayShowEdge(int edge) {
+		return !filteredEdges.get(edge) && !userHiddenEdges.get(edge) && !(zeroFluxEdgesHidden && zeroFluxEdges.get(edge));
+	}
+
+	/**
+	 * Shows or hides a node. A node hidden by the user, by the non-cross-fed toggle or by the filter and an exchange
+	 * metabolite without visible edges stay hidden.
+	 */
+	public void setNodeVisible(int node, boolean visible) {
+		if (visible && (userHiddenNodes.get(node) || (nonCrossFedNodesHidden && nonCrossFedNodes.get(node)) || filteredNodes.get(node)
+				|| (metabolites.get(node) && visibleDegrees[node] == 0))) {
+			visible = false;
+		}
+		if (visibleNodes.get(node) == visible) {
+			return;
+		}
+		visibleNodes.set(node, visible);
+		fingerprint.toggleNode(nodes[node].getSUID());
+		if (nodeViews[node] != null) {
+			nodeViews[node].setLockedValue(BasicVisualLexicon.NODE_VISIBLE, visible);
+		}
+	}
+
+	/**
+	 * Shows or hides an edge and updates the visible degrees of its nodes. Showing an edge shows its nodes as well,
+	 * unless they are hidden otherwise, hiding the last visible edge of an exchange metabolite hides the metabolite.
+	 */
+	public void setEdgeVisible(int edge, boolean visible) {
+		if (visibleEdges.get(edge) == visible) {
+			return;
+		}
+		visibleEdges.set(edge, visible);
+		fingerprint.toggleEdge(edges[edge].getSUID());
+		if (edgeViews[edge] != null) {
+			edgeViews[edge].setLockedValue(BasicVisualLexicon.EDGE_VISIBLE, visible);
+		}
+		int delta = visible ? 1 : -1;
+		visibleDegrees[edgeSources[edge]] += delta;
+		visibleDegrees[edgeTargets[edge]] += delta;
+		if (visible) {
+			setNodeVisible(edgeSources[edge], true);
+			setNodeVisible(edgeTargets[edge], true);
+		} else {
+			hideIfDisconnected(edgeSources[edge]);
+			hideIfDisconnected(edgeTargets[edge]);
+		}
+	}
+
+	/**
+	 * Hides all visible exchange metabolites without a visible edge.
+	 */
+	public void hideDisconnectedMetabolites() {
+		for (int node = metabolites.nextSetBit(0); node >= 0; node = metabolites.nextSetBit(node + 1)) {
+			hideIfDisconnected(node);
+		}
+	}
+
+	/**
+	 * Get-function for a copy of the current state, to compute a Diff of the following changes with diffSince().
+	 */
+	public Checkpoint checkpoint() {
+		return new Checkpoint(this);
+	}
+
+	/**
+	 * @return the changes made since the checkpoint was taken
+	 */
+	public Diff diffSince(Checkpoint checkpoint) {
+		return new Diff(checkpoint, this);
+	}
+
+	/**
+	 * Restores the state before the changes of the diff. Only the elements in the diff are touched.
+	 */
+	public void revert(Diff diff) {
+		restore(diff, false);
+		zeroFluxEdgesHidden = diff.zeroFluxEdgesHiddenBefore;
+		nonCrossFedNodesHidden = diff.nonCrossFedNodesHiddenBefore;
+	}
+
+	/**
+	 * Restores the state after the changes of the diff, once it was reverted. Only the elements in the diff are
+	 * touched.
+	 */
+	public void reapply(Diff diff) {
+		restore(diff, true);
+		zeroFluxEdgesHidden = diff.zeroFluxEdgesHiddenAfter;
+		nonCrossFedNodesHidden = diff.nonCrossFedNodesHiddenAfter;
+	}
+
+	/**
+	 * Sets the visibility and filter state of all elements in the diff to the state recorded before or after the
+	 * changes. The states are set rather than inverted, so that elements changed by something else in between, e.g.
+	 * a contextualization or the flux playback, end up in the recorded state instead of the opposite of their current
+	 * one. The diff already contains the nodes hidden or shown as a consequence of edge changes, so the rules of
+	 * setNodeVisible() and setEdgeVisible() are not applied again.
+	 */
+	private void restore(Diff diff, boolean after) {
+		for (int node = diff.filteredNodes.nextSetBit(0); node >= 0; node = diff.filteredNodes.nextSetBit(node + 1)) {
+			filteredNodes.set(node, diff.filteredNodesAfter.get(node) == after);
+		}
+		for (int edge = diff.filteredEdges.nextSetBit(0); edge >= 0; edge = diff.filteredEdges.nextSetBit(edge + 1)) {
+			filteredEdges.set(edge, diff.filteredEdgesAfter.get(edge) == after);
+		}
+		for (int edge = diff.edges.nextSetBit(0); edge >= 0; edge = diff.edges.nextSetBit(edge + 1)) {
+			boolean visible = diff.visibleEdgesAfter.get(edge) == after;
+			if (visibleEdges.get(edge) == visible) {
+				continue;
+			}
+			visibleEdges.set(edge, visible);
+			fingerprint.toggleEdge(edges[edge].getSUID());
+			if (edgeViews[edge] != null) {
+				edgeViews[edge].setLockedValue(BasicVisualLexicon.EDGE_VISIBLE, visible);
+			}
+			int delta = visible ? 1 : -1;
+			visibleDegrees[edgeSources[edge]] += delta;
+			visibleDegrees[edgeTargets[edge]] += delta;
+		}
+		for (int node = diff.nodes.nextSetBit(0); node >= 0; node = diff.nodes.nextSetBit(node + 1)) {
+			boolean visible = diff.visibleNodesAfter.get(node) == after;
+			if (visibleNodes.get(node) == visible) {
+				continue;
+			}
+			visibleNodes.set(node, visible);
+			fingerprint.toggleNode(nodes[node].getSUID());
+			if (nodeViews[node] != null) {
+				nodeViews[node].setLockedValue(BasicVisualLexicon.NODE_VISIBLE, visible);
+			}
+		}
+	}
+
+	/**
+	 * A copy of the visibility state of a model at one point in time.
+	 */
+	public static class Checkpoint {
+		private final BitSet visibleNodes;
+		private final BitSet visibleEdges;
+		private final BitSet filteredNodes;
+		private final BitSet filteredEdges;
+		private final boolean zeroFluxEdgesHidden;
+		private final boolean nonCrossFedNodesHidden;
+
+		private Checkpoint(VisibilityModel model) {
+			this.visibleNodes = (BitSet) model.visibleNodes.clone();
+			this.visibleEdges = (BitSet) model.visibleEdges.clone();
+			this.filteredNodes = (BitSet) model.filteredNodes.clone();
+			this.filteredEdges = (BitSet) model.filteredEdges.clone();
+			this.zeroFluxEdgesHidden = model.zeroFluxEdgesHidden;
+			this.nonCrossFedNodesHidden = model.nonCrossFedNodesHidden;
+		}
+	}
+
+	/**
+	 * The elements whose visibility or filter state changed between a checkpoint and a later state of the same model,
+	 * together with their state after the changes (the state before is its opposite) and the toggle states before and
+	 * after.
+	 */
+	public static class Diff {
+		private final BitSet nodes;
+		private final BitSet edges;
+		private final BitSet filteredNodes;
+		private final BitSet filteredEdges;
+		private final BitSet visibleNodesAfter;
+		private final BitSet visibleEdgesAfter;
+		private final BitSet filteredNodesAfter;
+		private final BitSet filteredEdgesAfter;
+		private final boolean zeroFluxEdgesHiddenBefore;
+		private final boolean zeroFluxEdgesHiddenAfter;
+		private final boolean nonCrossFedNodesHiddenBefore;
+		private final boolean nonCrossFedNodesHiddenAfter;
+
+		private Diff(Checkpoint before, VisibilityModel after) {
+			this.nodes = xor(before.visibleNodes, after.visibleNodes);
+			this.edges = xor(before.visibleEdges, after.visibleEdges);
+			this.filteredNodes = xor(before.filteredNodes, after.filteredNodes);
+			this.filteredEdges = xor(before.filteredEdges, after.filteredEdges);
+			this.visibleNodesAfter = restrict(after.visibleNodes, nodes);
+			this.visibleEdgesAfter = restrict(after.visibleEdges, edges);
+			this.filteredNodesAfter = restrict(after.filteredNodes, filteredNodes);
+			this.filteredEdgesAfter = restrict(after.filteredEdges, filteredEdges);
+			this.zeroFluxEdgesHiddenBefore = before.zeroFluxEdgesHidden;
+			this.zeroFluxEdgesHiddenAfter = after.zeroFluxEdgesHidden;
+			this.nonCrossFedNodesHiddenBefore = before.nonCrossFedNodesHidden;
+			this.nonCrossFedNodesHiddenAfter = after.nonCrossFedNodesHidden;
+		}
+
+		/**
+		 * @return the number of nodes and edges whose visibility changed
+		 */
+		public int size() {
+			return nodes.cardinality() + edges.cardinality();
+		}
+
+		/**
+		 * @return whether neither the visibility, the filter nor a toggle state changed
+		 */
+		public boolean isEmpty() {
+			return nodes.isEmpty() && edges.isEmpty() && filteredNodes.isEmpty() && filteredEdges.isEmpty()
+					&& zeroFluxEdgesHiddenBefore == zeroFluxEdgesHiddenAfter
+					&& nonCrossFedNodesHiddenBefore == nonCrossFedNodesHiddenAfter;
+		}
+
+		private static BitSet xor(BitSet before, BitSet after) {
+			BitSet diff = (BitSet) before.clone();
+			diff.xor(after);
+			// Only keep the words up to the last change
+			BitSet compact = new BitSet(diff.length());
+			compact.or(diff);
+			return compact;
+		}
+
+		/**
+		 * @return the bits of the state that belong to the changed elements
+		 */
+		private static BitSet restrict(BitSet state, BitSet changed) {
+			BitSet restricted = new BitSet(changed.length());
+			restricted.or(changed);
+			restricted.and(state);
+			return restricted;
+		}
+	}
+
+	private static BitSet complement(BitSet bits, int size) {
+		BitSet complement = new BitSet(size);
+		complement.set(0, size);
+		complement.andNot(bits);
+		return complement;
+	}
+
+	private void hideIfDisconnected(int node) {
+		if (metabolites.get(node) && visibleDegrees[node] == 0) {
+			setNodeVisible(node, false);
+		}
+	}
+}
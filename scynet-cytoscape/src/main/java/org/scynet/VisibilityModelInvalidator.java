@@ -0,0 +1,96 @@
+package org.scynet;
+
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.events.AddedEdgesEvent;
+import org.cytoscape.model.events.AddedEdgesListener;
+import org.cytoscape.model.events.AddedNodesEvent;
+import org.cytoscape.model.events.AddedNodesListener;
+import org.cytoscape.model.events.RemovedEdgesEvent;
+import org.cytoscape.model.events.RemovedEdgesListener;
+import org.cytoscape.model.events.RemovedNodesEvent;
+import org.cytoscape.model.events.RemovedNodesListener;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.VisualProperty;
+import org.cytoscape.view.model.events.ViewChangeRecord;
+import org.cytoscape.view.model.events.ViewChangedEvent;
+import org.cytoscape.view.model.events.ViewChangedListener;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.cytoscape.application.CyUserLog;
+import org.apache.log4j.Logger;
+
+/**
+ * Drops the VisibilityModel of a view when it no longer describes the view, so that ScynetNetworkState rebuilds it on
+ * next use: when nodes or edges were added to or removed from the network, whose ordinals the model refers to, and
+ * when the visibility of a node or edge was changed without the model, e.g. by the Hide and Show commands of
+ * Cytoscape or by restyling.
+ * <p>
+ * The model pushes its own changes to the view as well, so a visibility change only invalidates the model if the
+ * visibility reported last for an element differs from the one the model holds. Changes that are reverted before the
+ * events are flushed can therefore go unnoticed, which is harmless as the view ends up as the model describes it.
+ */
+public class VisibilityModelInvalidator implements AddedNodesListener, AddedEdgesListener, RemovedNodesListener,
+		RemovedEdgesListener, ViewChangedListener {
+
+	private final Logger logger;
+
+	public VisibilityModelInvalidator() {
+		this.logger = Logger.getLogger(CyUserLog.NAME);
+	}
+
+	@Override
+	public void handleEvent(AddedNodesEvent e) {
+		invalidate(e.getSource());
+	}
+
+	@Override
+	public void handleEvent(AddedEdgesEvent e) {
+		invalidate(e.getSource());
+	}
+
+	@Override
+	public void handleEvent(RemovedNodesEvent e) {
+		invalidate(e.getSource());
+	}
+
+	@Override
+	public void handleEvent(RemovedEdgesEvent e) {
+		invalidate(e.getSource());
+	}
+
+	@Override
+	public void handleEvent(ViewChangedEvent<?> e) {
+		CyNetworkView view = e.getSource();
+		ScynetNetworkState state = ScynetNetworkState.getExisting(view.getModel());
+		VisibilityModel model = state == null ? null : state.getExistingVisibilityModel(view);
+		if (model == null) {
+			return;
+		}
+		// Only the last visibility reported for an element counts, the earlier ones may have been changed back since
+		Map<Object, Object> visibilities = new HashMap<>();
+		for (ViewChangeRecord<?> record : e.getPayloadCollection()) {
+			VisualProperty<?> property = record.getVisualProperty();
+			if (property == BasicVisualLexicon.NODE_VISIBLE || property == BasicVisualLexicon.EDGE_VISIBLE) {
+				visibilities.put(record.getView().getModel(), record.getValue());
+			}
+		}
+		for (Map.Entry<Object, Object> visibility : visibilities.entrySet()) {
+			// A cleared lock has no value, the visibility then depends on the style and is not known here
+			if (!(visibility.getValue() instanceof Boolean) || !model.hasVisibility(visibility.getKey(), (Boolean) visibility.getValue())) {
+				logger.debug("The visibility of the ScyNet view was changed outside of ScyNet, it is read from the view again.");
+				state.invalidateVisibilityModel(view);
+				return;
+			}
+		}
+	}
+
+	private static void invalidate(CyNetwork network) {
+		ScynetNetworkState state = ScynetNetworkState.getExisting(network);
+		if (state != null) {
+			state.invalidateVisibilityModels();
+		}
+	}
+}